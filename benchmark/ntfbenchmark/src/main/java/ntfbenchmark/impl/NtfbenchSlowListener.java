@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2016 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package ntfbenchmark.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ntfbench.payload.rev150709.Ntfbench;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Listener which takes a fixed amount of time to process each notification, simulating an application which does
+ * expensive work in its notification callback.
+ */
+public class NtfbenchSlowListener extends NtfbenchWTCListener {
+    private final long delayMicros;
+
+    public NtfbenchSlowListener(final int expectedSize, final int expectedCount, final long delayMicros) {
+        super(expectedSize, expectedCount);
+        this.delayMicros = delayMicros;
+    }
+
+    @Override
+    public void onNtfbench(final Ntfbench notification) {
+        Uninterruptibles.sleepUninterruptibly(delayMicros, TimeUnit.MICROSECONDS);
+        super.onNtfbench(notification);
+    }
+}
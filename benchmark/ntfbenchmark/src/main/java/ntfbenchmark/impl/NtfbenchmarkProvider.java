@@ -15,6 +15,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.opendaylight.controller.md.sal.binding.api.NotificationPublishService;
 import org.opendaylight.controller.md.sal.binding.api.NotificationService;
@@ -61,11 +62,13 @@ public class NtfbenchmarkProvider implements BindingAwareProvider, AutoCloseable
     public Future<RpcResult<StartTestOutput>> startTest(final StartTestInput input) {
         final int producerCount = input.getProducers().intValue();
         final int listenerCount = input.getListeners().intValue();
+        final int slowListenerCount = input.getSlowListeners().intValue();
         final int iterations = input.getIterations().intValue();
         final int payloadSize = input.getIterations().intValue();
 
         final List<AbstractNtfbenchProducer> producers = new ArrayList<>(producerCount);
         final List<ListenerRegistration<NtfbenchTestListener>> listeners = new ArrayList<>(listenerCount);
+        final List<ListenerRegistration<NtfbenchTestListener>> slowListeners = new ArrayList<>(slowListenerCount);
         for (int i = 0; i < producerCount; i++) {
             producers.add(new NtfbenchBlockingProducer(publishService, iterations, payloadSize));
         }
@@ -81,6 +84,12 @@ public class NtfbenchmarkProvider implements BindingAwareProvider, AutoCloseable
             listeners.add(listenService.registerNotificationListener(listener));
         }
 
+        for (int i = 0; i < slowListenerCount; i++) {
+            final NtfbenchTestListener listener = new NtfbenchSlowListener(payloadSize, expectedCntPerListener,
+                    input.getSlowListenerDelay());
+            slowListeners.add(listenService.registerNotificationListener(listener));
+        }
+
         try {
             final ExecutorService executor = Executors.newFixedThreadPool(input.getProducers().intValue());
 
@@ -91,16 +100,28 @@ public class NtfbenchmarkProvider implements BindingAwareProvider, AutoCloseable
                 executor.submit(producers.get(i));
             }
             executor.shutdown();
+            long fastListenerEndTime = 0;
             try {
                 executor.awaitTermination(testTimeout, TimeUnit.MINUTES);
                 for (ListenerRegistration<NtfbenchTestListener> listenerRegistration : listeners) {
                     listenerRegistration.getInstance().getAllDone().get();
                 }
-            } catch (final InterruptedException | ExecutionException e) {
+                fastListenerEndTime = System.nanoTime();
+
+                // Slow listeners only count all notifications when the producers are blocking
+                if (input.getProducerType() == ProducerType.BLOCKING) {
+                    for (ListenerRegistration<NtfbenchTestListener> listenerRegistration : slowListeners) {
+                        listenerRegistration.getInstance().getAllDone().get(testTimeout, TimeUnit.MINUTES);
+                    }
+                }
+            } catch (final InterruptedException | ExecutionException | TimeoutException e) {
                 LOG.error("Out of time: test did not finish within the {} min deadline ", testTimeout);
             }
 
             final long producerEndTime = System.nanoTime();
+            if (fastListenerEndTime == 0) {
+                fastListenerEndTime = producerEndTime;
+            }
             final long producerElapsedTime = producerEndTime - startTime;
 
             long allListeners = 0;
@@ -110,6 +131,9 @@ public class NtfbenchmarkProvider implements BindingAwareProvider, AutoCloseable
             for (final ListenerRegistration<NtfbenchTestListener> listenerRegistration : listeners) {
                 allListeners += listenerRegistration.getInstance().getReceived();
             }
+            for (final ListenerRegistration<NtfbenchTestListener> listenerRegistration : slowListeners) {
+                allListeners += listenerRegistration.getInstance().getReceived();
+            }
 
             final long listenerEndTime = System.nanoTime();
             final long listenerElapsedTime = producerEndTime - startTime;
@@ -125,6 +149,7 @@ public class NtfbenchmarkProvider implements BindingAwareProvider, AutoCloseable
                     new StartTestOutputBuilder()
                             .setProducerElapsedTime(producerElapsedTime / 1000000)
                             .setListenerElapsedTime(listenerElapsedTime / 1000000)
+                            .setFastListenerElapsedTime((fastListenerEndTime - startTime) / 1000000)
                             .setListenerOk(allListeners)
                             .setProducerOk(allProducersOk)
                             .setProducerError(allProducersError)
@@ -136,6 +161,9 @@ public class NtfbenchmarkProvider implements BindingAwareProvider, AutoCloseable
             for (final ListenerRegistration<NtfbenchTestListener> listenerRegistration : listeners) {
                 listenerRegistration.close();
             }
+            for (final ListenerRegistration<NtfbenchTestListener> listenerRegistration : slowListeners) {
+                listenerRegistration.close();
+            }
         }
     }
 
@@ -97,6 +97,9 @@ public class RpcbenchmarkProvider implements BindingAwareProvider, AutoCloseable
             client = new GlobalBindingRTCClient(consumerRegistry, input.getPayloadSize().intValue());
             break;
 
+        case ROUTEDREGISTRATION:
+            return runRoutedRegistrationTest(input.getNumServers().intValue(), input.getIterations().intValue());
+
         default:
             LOG.error("Unsupported server/client type {}", input.getOperation());
             throw new IllegalArgumentException("Unsupported server/client type" + input.getOperation());
@@ -146,6 +149,49 @@ public class RpcbenchmarkProvider implements BindingAwareProvider, AutoCloseable
         }
     }
 
+    private Future<RpcResult<StartTestOutput>> runRoutedRegistrationTest(final int numServers, final int numPaths) {
+        final List<RoutedRpcRegistration<?>> rpcRegs = new ArrayList<>(numServers);
+
+        LOG.info("Test Started");
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < numServers; i++) {
+            RoutedRpcRegistration<RpcbenchPayloadService> routedReg =
+                    providerRegistry.addRoutedRpcImplementation(RpcbenchPayloadService.class,
+                            new GlobalBindingRTCServer());
+
+            for (int j = 0; j < numPaths; j++) {
+                routedReg.registerPath(NodeContext.class, InstanceIdentifier
+                        .create(RpcbenchRpcRoutes.class)
+                        .child(RpcRoute.class, new RpcRouteKey(i + "-" + j)));
+            }
+            rpcRegs.add(routedReg);
+        }
+
+        long registeredTime = System.nanoTime();
+
+        for (RoutedRpcRegistration<?> routedRpcRegistration : rpcRegs) {
+            routedRpcRegistration.close();
+        }
+
+        long endTime = System.nanoTime();
+        LOG.info("Test Done");
+
+        long registrations = (long) numServers * numPaths;
+        long elapsedTime = endTime - startTime;
+        LOG.info("Registered {} routed RPC paths in {} ms, unregistered them in {} ms", registrations,
+                TimeUnit.NANOSECONDS.toMillis(registeredTime - startTime),
+                TimeUnit.NANOSECONDS.toMillis(endTime - registeredTime));
+
+        StartTestOutput output = new StartTestOutputBuilder()
+                                        .setGlobalRtcClientError((long)0)
+                                        .setGlobalRtcClientOk(registrations)
+                                        .setExecTime(TimeUnit.NANOSECONDS.toMillis(elapsedTime))
+                                        .setRate((registrations * 2 * 1000000000) / Math.max(elapsedTime, 1))
+                                        .build();
+        return RpcResultBuilder.success(output).buildFuture();
+    }
+
     @Override
     public Future<RpcResult<TestStatusOutput>> testStatus() {
         LOG.info("testStatus");
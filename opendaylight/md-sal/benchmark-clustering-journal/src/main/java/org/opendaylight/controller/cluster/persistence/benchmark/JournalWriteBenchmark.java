@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.persistence.benchmark;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.pattern.Patterns;
+import akka.persistence.UntypedPersistentActor;
+import akka.util.Timeout;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.cluster.raft.ReplicatedLogImplEntry;
+import org.opendaylight.controller.cluster.raft.protobuff.client.messages.Payload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * Compares the cost of persisting RAFT log entries through the LevelDB journal with the segmented file journal. Each
+ * operation persists a single {@link ReplicatedLogImplEntry} and waits for the journal to confirm the write, which
+ * corresponds to a leader persisting a replicated log entry before it can be committed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = JournalWriteBenchmark.WARMUP_ITERATIONS)
+@Measurement(iterations = JournalWriteBenchmark.MEASUREMENT_ITERATIONS)
+public class JournalWriteBenchmark {
+    static final int WARMUP_ITERATIONS = 10;
+    static final int MEASUREMENT_ITERATIONS = 10;
+
+    private static final FiniteDuration TIMEOUT = Duration.create(10, TimeUnit.SECONDS);
+
+    @Param({"leveldb", "segmented"})
+    public String journal;
+
+    // Typical sizes of a small transaction, a moderately sized modification and a bulk update
+    @Param({"256", "4096", "65536"})
+    public int payloadSize;
+
+    private File directory;
+    private ActorSystem system;
+    private ActorRef writer;
+    private BenchmarkPayload payload;
+    private long index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("journal-benchmark").toFile();
+
+        final String plugin = "segmented".equals(journal) ? "segmented-file-journal"
+                : "akka.persistence.journal.leveldb";
+        final Config config = ConfigFactory.parseString(
+                "akka.persistence.journal.plugin = \"" + plugin + "\"\n"
+                + "akka.persistence.journal.leveldb.dir = \"" + new File(directory, "leveldb") + "\"\n"
+                + "akka.persistence.snapshot-store.plugin = \"akka.persistence.snapshot-store.local\"\n"
+                + "akka.persistence.snapshot-store.local.dir = \"" + new File(directory, "snapshots") + "\"\n"
+                + "akka.actor.warn-about-java-serializer-usage = off\n"
+                + "segmented-file-journal {\n"
+                + "  class = \"org.opendaylight.controller.cluster.persistence.SegmentedFileJournal\"\n"
+                + "  plugin-dispatcher = \"akka.persistence.dispatchers.default-plugin-dispatcher\"\n"
+                + "  root-directory = \"" + new File(directory, "segmented") + "\"\n"
+                + "}\n").withFallback(ConfigFactory.load());
+
+        system = ActorSystem.create("journal-benchmark", config);
+        writer = system.actorOf(Props.create(JournalWriter.class));
+
+        final byte[] data = new byte[payloadSize];
+        new Random(payloadSize).nextBytes(data);
+        payload = new BenchmarkPayload(data);
+        index = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        system.terminate();
+        Await.ready(system.whenTerminated(), TIMEOUT);
+        deleteRecursively(directory.toPath());
+    }
+
+    @Benchmark
+    public Object persistEntry() throws Exception {
+        return Await.result(Patterns.ask(writer, new ReplicatedLogImplEntry(index++, 1, payload),
+                new Timeout(TIMEOUT)), TIMEOUT);
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    public static class JournalWriter extends UntypedPersistentActor {
+        @Override
+        public String persistenceId() {
+            return "journal-benchmark";
+        }
+
+        @Override
+        public void onReceiveRecover(Object message) {
+            // Nothing to recover - each trial starts with an empty journal
+        }
+
+        @Override
+        public void onReceiveCommand(Object message) {
+            final ActorRef sender = getSender();
+            persist(message, entry -> sender.tell(Long.valueOf(lastSequenceNr()), self()));
+        }
+    }
+
+    private static final class BenchmarkPayload extends Payload implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] data;
+
+        BenchmarkPayload(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int size() {
+            return data.length;
+        }
+    }
+}
@@ -24,25 +24,29 @@ public abstract class AbstractReplicatedLogImpl implements ReplicatedLog {
 
     private final String logContext;
 
-    // We define this as ArrayList so we can use ensureCapacity.
-    private ArrayList<ReplicatedLogEntry> journal;
+    private final LogEntryStore journal;
 
     private long snapshotIndex = -1;
     private long snapshotTerm = -1;
 
     // to be used for rollback during save snapshot failure
-    private ArrayList<ReplicatedLogEntry> snapshottedJournal;
     private long previousSnapshotIndex = -1;
     private long previousSnapshotTerm = -1;
     private int dataSize = 0;
 
     public AbstractReplicatedLogImpl(long snapshotIndex,
         long snapshotTerm, List<ReplicatedLogEntry> unAppliedEntries, String logContext) {
+        this(snapshotIndex, snapshotTerm, unAppliedEntries, logContext,
+                new HeapLogEntryStore(unAppliedEntries.size()));
+    }
+
+    AbstractReplicatedLogImpl(long snapshotIndex, long snapshotTerm, List<ReplicatedLogEntry> unAppliedEntries,
+            String logContext, LogEntryStore journal) {
         this.snapshotIndex = snapshotIndex;
         this.snapshotTerm = snapshotTerm;
         this.logContext = logContext;
 
-        this.journal = new ArrayList<>(unAppliedEntries.size());
+        this.journal = journal;
         for(ReplicatedLogEntry entry: unAppliedEntries) {
             append(entry);
         }
@@ -73,7 +77,7 @@ public abstract class AbstractReplicatedLogImpl implements ReplicatedLog {
 
     @Override
     public ReplicatedLogEntry last() {
-        if (journal.isEmpty()) {
+        if (journal.size() == 0) {
             return null;
         }
         // get the last entry directly from the physical index
@@ -82,22 +86,22 @@ public abstract class AbstractReplicatedLogImpl implements ReplicatedLog {
 
     @Override
     public long lastIndex() {
-        if (journal.isEmpty()) {
+        if (journal.size() == 0) {
             // it can happen that after snapshot, all the entries of the
             // journal are trimmed till lastApplied, so lastIndex = snapshotIndex
             return snapshotIndex;
         }
-        return last().getIndex();
+        return journal.getIndex(journal.size() - 1);
     }
 
     @Override
     public long lastTerm() {
-        if (journal.isEmpty()) {
+        if (journal.size() == 0) {
             // it can happen that after snapshot, all the entries of the
             // journal are trimmed till lastApplied, so lastTerm = snapshotTerm
             return snapshotTerm;
         }
-        return last().getTerm();
+        return journal.getTerm(journal.size() - 1);
     }
 
     @Override
@@ -109,10 +113,10 @@ public abstract class AbstractReplicatedLogImpl implements ReplicatedLog {
         }
 
         for(int i = adjustedIndex; i < journal.size(); i++) {
-            dataSize -= journal.get(i).size();
+            dataSize -= journal.getSize(i);
         }
 
-        journal.subList(adjustedIndex , journal.size()).clear();
+        journal.removeFrom(adjustedIndex);
 
         return adjustedIndex;
     }
@@ -152,20 +156,19 @@ public abstract class AbstractReplicatedLogImpl implements ReplicatedLog {
             }
 
             if(maxDataSize == NO_MAX_SIZE) {
-                return new ArrayList<>(journal.subList(adjustedIndex, maxIndex));
+                return journal.getRange(adjustedIndex, maxIndex);
             } else {
                 List<ReplicatedLogEntry> retList = new ArrayList<>(maxIndex - adjustedIndex);
                 long totalSize = 0;
                 for(int i = adjustedIndex; i < maxIndex; i++) {
-                    ReplicatedLogEntry entry = journal.get(i);
-                    totalSize += entry.size();
+                    totalSize += journal.getSize(i);
                     if(totalSize <= maxDataSize) {
-                        retList.add(entry);
+                        retList.add(journal.get(i));
                     } else {
                         if(retList.isEmpty()) {
                             // Edge case - the first entry's size exceeds the threshold. We need to return
                             // at least the first entry so add it here.
-                            retList.add(entry);
+                            retList.add(journal.get(i));
                         }
 
                         break;
@@ -226,7 +229,7 @@ public abstract class AbstractReplicatedLogImpl implements ReplicatedLog {
 
     @Override
     public void clear(int startIndex, int endIndex) {
-        journal.subList(startIndex, endIndex).clear();
+        journal.removeRange(startIndex, endIndex);
     }
 
     @Override
@@ -234,12 +237,7 @@ public abstract class AbstractReplicatedLogImpl implements ReplicatedLog {
         Preconditions.checkArgument(snapshotCapturedIndex >= snapshotIndex,
                 "snapshotCapturedIndex must be greater than or equal to snapshotIndex");
 
-        snapshottedJournal = new ArrayList<>(journal.size());
-
-        List<ReplicatedLogEntry> snapshotJournalEntries = journal.subList(0, (int) (snapshotCapturedIndex - snapshotIndex));
-
-        snapshottedJournal.addAll(snapshotJournalEntries);
-        snapshotJournalEntries.clear();
+        journal.trimHead((int) (snapshotCapturedIndex - snapshotIndex));
 
         previousSnapshotIndex = snapshotIndex;
         setSnapshotIndex(snapshotCapturedIndex);
@@ -250,22 +248,20 @@ public abstract class AbstractReplicatedLogImpl implements ReplicatedLog {
 
     @Override
     public void snapshotCommit() {
-        snapshottedJournal = null;
+        journal.commitTrim();
         previousSnapshotIndex = -1;
         previousSnapshotTerm = -1;
         dataSize = 0;
         // need to recalc the datasize based on the entries left after precommit.
-        for(ReplicatedLogEntry logEntry : journal) {
-            dataSize += logEntry.size();
+        for(int i = 0; i < journal.size(); i++) {
+            dataSize += journal.getSize(i);
         }
 
     }
 
     @Override
     public void snapshotRollback() {
-        snapshottedJournal.addAll(journal);
-        journal = snapshottedJournal;
-        snapshottedJournal = null;
+        journal.rollbackTrim();
 
         snapshotIndex = previousSnapshotIndex;
         previousSnapshotIndex = -1;
@@ -68,11 +68,30 @@ public interface ConfigParams {
      */
     int getSnapshotChunkSize();
 
+    /**
+     * The maximum number of AppendEntries messages carrying log entries that a leader may have outstanding to a
+     * single follower. A value of 1 disables pipelining, ie the leader waits for the reply to the previous
+     * AppendEntries before sending the next batch of entries.
+     */
+    int getMaxInFlightAppendEntries();
+
     /**
      * The number of journal log entries to batch on recovery before applying.
      */
     int getJournalRecoveryLogBatchSize();
 
+    /**
+     * Whether or not log entries are group-committed to the journal, ie persisted asynchronously such that entries
+     * appended while a previous journal write is in progress are written together in a single batch.
+     */
+    boolean isJournalGroupCommitEnabled();
+
+    /**
+     * Whether or not the in-memory replicated log keeps its entries in serialized form off-heap, retaining only
+     * their index, term and size on the heap.
+     */
+    boolean isOffHeapReplicatedLogEnabled();
+
     /**
      * The interval in which the leader needs to check itself if its isolated
      * @return FiniteDuration
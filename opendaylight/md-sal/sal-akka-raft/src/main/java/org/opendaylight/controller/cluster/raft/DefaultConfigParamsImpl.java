@@ -39,6 +39,8 @@ public class DefaultConfigParamsImpl implements ConfigParams {
 
     private static final int SNAPSHOT_CHUNK_SIZE = 2048 * 1000; //2MB
 
+    private static final int MAX_IN_FLIGHT_APPEND_ENTRIES = 1;
+
 
     /**
      * The interval at which a heart beat message will be sent to the remote
@@ -62,6 +64,12 @@ public class DefaultConfigParamsImpl implements ConfigParams {
 
     private int snapshotChunkSize = SNAPSHOT_CHUNK_SIZE;
 
+    private int maxInFlightAppendEntries = MAX_IN_FLIGHT_APPEND_ENTRIES;
+
+    private boolean journalGroupCommitEnabled = false;
+
+    private boolean offHeapReplicatedLogEnabled = false;
+
     private long electionTimeoutFactor = 2;
     private String customRaftPolicyImplementationClass;
 
@@ -86,10 +94,23 @@ public class DefaultConfigParamsImpl implements ConfigParams {
         this.snapshotChunkSize = snapshotChunkSize;
     }
 
+    public void setMaxInFlightAppendEntries(int maxInFlightAppendEntries) {
+        Preconditions.checkArgument(maxInFlightAppendEntries > 0, "maxInFlightAppendEntries must be positive");
+        this.maxInFlightAppendEntries = maxInFlightAppendEntries;
+    }
+
     public void setJournalRecoveryLogBatchSize(int journalRecoveryLogBatchSize) {
         this.journalRecoveryLogBatchSize = journalRecoveryLogBatchSize;
     }
 
+    public void setJournalGroupCommitEnabled(boolean journalGroupCommitEnabled) {
+        this.journalGroupCommitEnabled = journalGroupCommitEnabled;
+    }
+
+    public void setOffHeapReplicatedLogEnabled(boolean offHeapReplicatedLogEnabled) {
+        this.offHeapReplicatedLogEnabled = offHeapReplicatedLogEnabled;
+    }
+
     public void setIsolatedLeaderCheckInterval(FiniteDuration isolatedLeaderCheckInterval) {
         this.isolatedLeaderCheckInterval = isolatedLeaderCheckInterval.toMillis();
     }
@@ -143,11 +164,26 @@ public class DefaultConfigParamsImpl implements ConfigParams {
         return snapshotChunkSize;
     }
 
+    @Override
+    public int getMaxInFlightAppendEntries() {
+        return maxInFlightAppendEntries;
+    }
+
     @Override
     public int getJournalRecoveryLogBatchSize() {
         return journalRecoveryLogBatchSize;
     }
 
+    @Override
+    public boolean isJournalGroupCommitEnabled() {
+        return journalGroupCommitEnabled;
+    }
+
+    @Override
+    public boolean isOffHeapReplicatedLogEnabled() {
+        return offHeapReplicatedLogEnabled;
+    }
+
     @Override
     public long getIsolatedCheckIntervalInMillis() {
         return isolatedLeaderCheckInterval;
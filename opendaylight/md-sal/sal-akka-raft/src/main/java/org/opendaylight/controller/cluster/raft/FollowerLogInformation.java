@@ -99,6 +99,34 @@ public interface FollowerLogInformation {
      */
     boolean okToReplicate();
 
+    /**
+     * Records that an AppendEntries carrying log entries up to and including the given index was sent to the
+     * follower. If pipelining is enabled, the nextIndex is optimistically advanced past the sent entries so the
+     * next batch can be sent before this one is acknowledged.
+     *
+     * @param lastSentIndex the index of the last log entry sent
+     */
+    void markEntriesSent(long lastSentIndex);
+
+    /**
+     * Acknowledges all in-flight AppendEntries batches whose last entry is at or below the given index.
+     *
+     * @param lastLogIndex the follower's last log index as reported in a successful AppendEntriesReply
+     */
+    void acknowledgeEntriesSent(long lastLogIndex);
+
+    /**
+     * Discards all in-flight AppendEntries batches and, if pipelining is enabled, rewinds the nextIndex to the
+     * first unacknowledged entry. This should be called when the follower rejects an AppendEntries as any batches
+     * sent after it will be rejected as well.
+     */
+    void resetInFlight();
+
+    /**
+     * @return the number of AppendEntries batches sent to the follower that have not yet been acknowledged.
+     */
+    int getInFlightCount();
+
     /**
      * @return the payload data version of the follower.
      */
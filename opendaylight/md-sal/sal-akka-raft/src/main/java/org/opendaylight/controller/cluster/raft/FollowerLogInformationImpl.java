@@ -10,6 +10,8 @@ package org.opendaylight.controller.cluster.raft;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.TimeUnit;
 
 public class FollowerLogInformationImpl implements FollowerLogInformation {
@@ -25,6 +27,13 @@ public class FollowerLogInformationImpl implements FollowerLogInformation {
 
     private final Stopwatch lastReplicatedStopwatch = Stopwatch.createUnstarted();
 
+    // The last log index of each AppendEntries batch sent to the follower that has not been acknowledged yet,
+    // in the order they were sent.
+    private final Deque<Long> inFlightLastIndexes = new ArrayDeque<>();
+
+    // The nextIndex as of the first unacknowledged batch, ie where to resume if the in-flight batches are lost.
+    private long inFlightStartIndex;
+
     private short payloadVersion = -1;
 
     // Assume the HELIUM_VERSION version initially for backwards compatibility until we obtain the follower's
@@ -129,6 +138,10 @@ public class FollowerLogInformationImpl implements FollowerLogInformation {
             return false;
         }
 
+        if(isPipeliningEnabled()) {
+            return okToReplicatePipelined();
+        }
+
         // Return false if we are trying to send duplicate data before the heartbeat interval
         if(getNextIndex() == lastReplicatedIndex){
             if(lastReplicatedStopwatch.elapsed(TimeUnit.MILLISECONDS) < context.getConfigParams()
@@ -141,6 +154,73 @@ public class FollowerLogInformationImpl implements FollowerLogInformation {
         return true;
     }
 
+    private boolean okToReplicatePipelined() {
+        if(inFlightLastIndexes.size() < context.getConfigParams().getMaxInFlightAppendEntries()) {
+            resetLastReplicated();
+            return true;
+        }
+
+        // The window is full - wait for replies until the heartbeat interval elapses since the last send.
+        if(lastReplicatedStopwatch.elapsed(TimeUnit.MILLISECONDS) < context.getConfigParams()
+                .getHeartBeatInterval().toMillis()) {
+            return false;
+        }
+
+        // No reply was received in time so assume the in-flight batches were lost and resend from the first
+        // unacknowledged entry.
+        nextIndex = inFlightStartIndex;
+        inFlightLastIndexes.clear();
+
+        resetLastReplicated();
+        return true;
+    }
+
+    private boolean isPipeliningEnabled() {
+        return context.getConfigParams().getMaxInFlightAppendEntries() > 1;
+    }
+
+    @Override
+    public void markEntriesSent(long lastSentIndex) {
+        if(!isPipeliningEnabled()) {
+            // Only one batch is ever outstanding - a resend supersedes the previous one.
+            inFlightLastIndexes.clear();
+        }
+
+        if(inFlightLastIndexes.isEmpty()) {
+            inFlightStartIndex = nextIndex;
+            inFlightLastIndexes.addLast(lastSentIndex);
+        } else if(inFlightLastIndexes.peekLast() < lastSentIndex) {
+            inFlightLastIndexes.addLast(lastSentIndex);
+        }
+
+        if(isPipeliningEnabled() && nextIndex <= lastSentIndex) {
+            nextIndex = lastSentIndex + 1;
+        }
+    }
+
+    @Override
+    public void acknowledgeEntriesSent(long lastLogIndex) {
+        while(!inFlightLastIndexes.isEmpty() && inFlightLastIndexes.peekFirst() <= lastLogIndex) {
+            inFlightLastIndexes.removeFirst();
+        }
+
+        inFlightStartIndex = lastLogIndex + 1;
+    }
+
+    @Override
+    public void resetInFlight() {
+        if(isPipeliningEnabled() && !inFlightLastIndexes.isEmpty()) {
+            nextIndex = inFlightStartIndex;
+        }
+
+        inFlightLastIndexes.clear();
+    }
+
+    @Override
+    public int getInFlightCount() {
+        return inFlightLastIndexes.size();
+    }
+
     private void resetLastReplicated(){
         lastReplicatedIndex = getNextIndex();
         if(lastReplicatedStopwatch.isRunning()){
@@ -172,7 +252,8 @@ public class FollowerLogInformationImpl implements FollowerLogInformation {
     @Override
     public String toString() {
         return "FollowerLogInformationImpl [id=" + getId() + ", nextIndex=" + nextIndex + ", matchIndex=" + matchIndex
-                + ", lastReplicatedIndex=" + lastReplicatedIndex + ", votingState=" + peerInfo.getVotingState()
+                + ", lastReplicatedIndex=" + lastReplicatedIndex + ", inFlightCount=" + inFlightLastIndexes.size()
+                + ", votingState=" + peerInfo.getVotingState()
                 + ", stopwatch=" + stopwatch.elapsed(TimeUnit.MILLISECONDS) + ", followerTimeoutMillis="
                 + context.getConfigParams().getElectionTimeOutInterval().toMillis() + "]";
     }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.raft;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LogEntryStore which keeps the entries in an on-heap list.
+ */
+final class HeapLogEntryStore extends LogEntryStore {
+    // We define this as ArrayList so we can use ensureCapacity.
+    private ArrayList<ReplicatedLogEntry> journal;
+
+    // to be used for rollback during save snapshot failure
+    private ArrayList<ReplicatedLogEntry> snapshottedJournal;
+
+    HeapLogEntryStore(int initialCapacity) {
+        journal = new ArrayList<>(initialCapacity);
+    }
+
+    @Override
+    int size() {
+        return journal.size();
+    }
+
+    @Override
+    ReplicatedLogEntry get(int index) {
+        return journal.get(index);
+    }
+
+    @Override
+    List<ReplicatedLogEntry> getRange(int fromIndex, int toIndex) {
+        return new ArrayList<>(journal.subList(fromIndex, toIndex));
+    }
+
+    @Override
+    void add(ReplicatedLogEntry entry) {
+        journal.add(entry);
+    }
+
+    @Override
+    void removeFrom(int index) {
+        journal.subList(index, journal.size()).clear();
+    }
+
+    @Override
+    void removeRange(int fromIndex, int toIndex) {
+        journal.subList(fromIndex, toIndex).clear();
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+        journal.ensureCapacity(capacity);
+    }
+
+    @Override
+    void trimHead(int count) {
+        snapshottedJournal = new ArrayList<>(journal.size());
+
+        List<ReplicatedLogEntry> snapshotJournalEntries = journal.subList(0, count);
+
+        snapshottedJournal.addAll(snapshotJournalEntries);
+        snapshotJournalEntries.clear();
+    }
+
+    @Override
+    void commitTrim() {
+        snapshottedJournal = null;
+    }
+
+    @Override
+    void rollbackTrim() {
+        Preconditions.checkState(snapshottedJournal != null, "No entries were trimmed");
+
+        snapshottedJournal.addAll(journal);
+        journal = snapshottedJournal;
+        snapshottedJournal = null;
+    }
+}
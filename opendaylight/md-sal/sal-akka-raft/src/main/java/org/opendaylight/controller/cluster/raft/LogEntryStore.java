@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.raft;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Physical storage of the entries of an {@link AbstractReplicatedLogImpl}. Entries are addressed by their physical
+ * index, ie their position in the store, the mapping from the logical log entry index being done by the log.
+ */
+abstract class LogEntryStore {
+
+    abstract int size();
+
+    abstract ReplicatedLogEntry get(int index);
+
+    long getIndex(int index) {
+        return get(index).getIndex();
+    }
+
+    long getTerm(int index) {
+        return get(index).getTerm();
+    }
+
+    int getSize(int index) {
+        return get(index).size();
+    }
+
+    /**
+     * Returns the entries in the range [fromIndex, toIndex).
+     */
+    List<ReplicatedLogEntry> getRange(int fromIndex, int toIndex) {
+        List<ReplicatedLogEntry> entries = new ArrayList<>(toIndex - fromIndex);
+        for(int i = fromIndex; i < toIndex; i++) {
+            entries.add(get(i));
+        }
+
+        return entries;
+    }
+
+    abstract void add(ReplicatedLogEntry entry);
+
+    /**
+     * Removes the entry at the given index and all entries after it.
+     */
+    abstract void removeFrom(int index);
+
+    /**
+     * Removes the entries in the range [fromIndex, toIndex).
+     */
+    abstract void removeRange(int fromIndex, int toIndex);
+
+    abstract void ensureCapacity(int capacity);
+
+    /**
+     * Removes the given number of entries from the head of the store while retaining them until either
+     * {@link #commitTrim()} or {@link #rollbackTrim()} is called.
+     */
+    abstract void trimHead(int count);
+
+    /**
+     * Discards the entries removed by the last {@link #trimHead(int)}.
+     */
+    abstract void commitTrim();
+
+    /**
+     * Restores the entries removed by the last {@link #trimHead(int)}.
+     */
+    abstract void rollbackTrim();
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.raft;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.io.input.ClassLoaderObjectInputStream;
+
+/**
+ * LogEntryStore which keeps only the index, term and size of each entry on the heap, in primitive arrays. The
+ * entries themselves are serialized into direct ByteBuffer segments and are deserialized each time they're
+ * accessed, so the heap footprint of the log does not depend on the size of the payloads it holds.
+ *
+ * <p>
+ * Entries are appended sequentially to the last segment, an entry larger than the segment size being written to a
+ * segment of its own. Segments are released once all their entries have been trimmed or removed.
+ */
+final class OffHeapLogEntryStore extends LogEntryStore {
+    static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final ClassLoader classLoader;
+    private final int segmentSize;
+
+    // Per-entry metadata - the live entries occupy [head, tail) and the entries trimmed but not yet committed
+    // occupy [trimmedHead, head).
+    private long[] indexes;
+    private long[] terms;
+    private int[] sizes;
+    private long[] locations;
+    private int[] lengths;
+    private int head;
+    private int tail;
+    private int trimmedHead = -1;
+
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private long firstSegment;
+    private int writeOffset;
+
+    OffHeapLogEntryStore(ClassLoader classLoader, int segmentSize, int initialCapacity) {
+        Preconditions.checkArgument(segmentSize > 0, "segmentSize must be positive");
+        this.classLoader = Preconditions.checkNotNull(classLoader);
+        this.segmentSize = segmentSize;
+        allocate(Math.max(initialCapacity, MIN_CAPACITY), 0);
+    }
+
+    @Override
+    int size() {
+        return tail - head;
+    }
+
+    @Override
+    ReplicatedLogEntry get(int index) {
+        final int pos = position(index);
+        final long location = locations[pos];
+        final ByteBuffer segment = segments.get((int) ((location >>> 32) - firstSegment)).duplicate();
+        segment.position((int) location);
+
+        final byte[] bytes = new byte[lengths[pos]];
+        segment.get(bytes);
+
+        try(ObjectInputStream in = new ClassLoaderObjectInputStream(classLoader, new ByteArrayInputStream(bytes))) {
+            return (ReplicatedLogEntry) in.readObject();
+        } catch(IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Error reading log entry with index " + indexes[pos], e);
+        }
+    }
+
+    @Override
+    long getIndex(int index) {
+        return indexes[position(index)];
+    }
+
+    @Override
+    long getTerm(int index) {
+        return terms[position(index)];
+    }
+
+    @Override
+    int getSize(int index) {
+        return sizes[position(index)];
+    }
+
+    @Override
+    void add(ReplicatedLogEntry entry) {
+        final byte[] bytes = serialize(entry);
+
+        if(tail == indexes.length) {
+            final int base = base();
+            final int used = tail - base;
+            allocate(used < indexes.length / 2 ? indexes.length : indexes.length + (indexes.length >> 1), base);
+        }
+
+        ByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if(segment == null || segment.capacity() - writeOffset < bytes.length) {
+            segment = ByteBuffer.allocateDirect(Math.max(segmentSize, bytes.length));
+            segments.add(segment);
+            writeOffset = 0;
+        }
+
+        final ByteBuffer dup = segment.duplicate();
+        dup.position(writeOffset);
+        dup.put(bytes);
+
+        indexes[tail] = entry.getIndex();
+        terms[tail] = entry.getTerm();
+        sizes[tail] = entry.size();
+        locations[tail] = ((firstSegment + segments.size() - 1) << 32) | writeOffset;
+        lengths[tail] = bytes.length;
+        tail++;
+
+        writeOffset += bytes.length;
+    }
+
+    @Override
+    void removeFrom(int index) {
+        final int pos = position(index);
+        final long location = locations[pos];
+
+        // Subsequent entries are written where the removed entries started
+        final int lastSegment = (int) ((location >>> 32) - firstSegment);
+        segments.subList(lastSegment + 1, segments.size()).clear();
+        writeOffset = (int) location;
+        tail = pos;
+    }
+
+    @Override
+    void removeRange(int fromIndex, int toIndex) {
+        Preconditions.checkPositionIndexes(fromIndex, toIndex, size());
+
+        // The segment space used by the removed entries is reclaimed once the entries around it are trimmed
+        final int from = head + fromIndex;
+        final int to = head + toIndex;
+        final int count = tail - to;
+        System.arraycopy(indexes, to, indexes, from, count);
+        System.arraycopy(terms, to, terms, from, count);
+        System.arraycopy(sizes, to, sizes, from, count);
+        System.arraycopy(locations, to, locations, from, count);
+        System.arraycopy(lengths, to, lengths, from, count);
+        tail -= to - from;
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+        final int base = base();
+        if(capacity + head - base > indexes.length - base) {
+            allocate(capacity + head - base, base);
+        }
+    }
+
+    @Override
+    void trimHead(int count) {
+        Preconditions.checkPositionIndex(count, size());
+        trimmedHead = head;
+        head += count;
+    }
+
+    @Override
+    void commitTrim() {
+        trimmedHead = -1;
+
+        if(head == tail) {
+            firstSegment += segments.size();
+            segments.clear();
+            writeOffset = 0;
+        } else {
+            final int firstLiveSegment = (int) ((locations[head] >>> 32) - firstSegment);
+            segments.subList(0, firstLiveSegment).clear();
+            firstSegment += firstLiveSegment;
+        }
+
+        // Compact the metadata, shrinking the arrays if they have become mostly empty
+        final int size = size();
+        final int capacity = indexes.length;
+        allocate(size < capacity / 4 ? Math.max(capacity / 2, MIN_CAPACITY) : capacity, head);
+    }
+
+    @Override
+    void rollbackTrim() {
+        Preconditions.checkState(trimmedHead >= 0, "No entries were trimmed");
+        head = trimmedHead;
+        trimmedHead = -1;
+    }
+
+    @VisibleForTesting
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private int position(int index) {
+        Preconditions.checkElementIndex(index, size());
+        return head + index;
+    }
+
+    private int base() {
+        return trimmedHead >= 0 ? trimmedHead : head;
+    }
+
+    /**
+     * Moves the metadata of the entries from the given base position to the start of arrays of the given capacity.
+     */
+    private void allocate(int capacity, int base) {
+        if(indexes == null) {
+            indexes = new long[capacity];
+            terms = new long[capacity];
+            sizes = new int[capacity];
+            locations = new long[capacity];
+            lengths = new int[capacity];
+            return;
+        }
+
+        if(capacity != indexes.length) {
+            indexes = Arrays.copyOfRange(indexes, base, base + capacity);
+            terms = Arrays.copyOfRange(terms, base, base + capacity);
+            sizes = Arrays.copyOfRange(sizes, base, base + capacity);
+            locations = Arrays.copyOfRange(locations, base, base + capacity);
+            lengths = Arrays.copyOfRange(lengths, base, base + capacity);
+        } else if(base > 0) {
+            final int count = tail - base;
+            System.arraycopy(indexes, base, indexes, 0, count);
+            System.arraycopy(terms, base, terms, 0, count);
+            System.arraycopy(sizes, base, sizes, 0, count);
+            System.arraycopy(locations, base, locations, 0, count);
+            System.arraycopy(lengths, base, lengths, 0, count);
+        }
+
+        head -= base;
+        tail -= base;
+        if(trimmedHead >= 0) {
+            trimmedHead -= base;
+        }
+    }
+
+    private static byte[] serialize(ReplicatedLogEntry entry) {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(entry);
+        } catch(IOException e) {
+            throw new IllegalArgumentException("Error serializing log entry " + entry, e);
+        }
+
+        return bos.toByteArray();
+    }
+}
@@ -443,7 +443,7 @@ public abstract class RaftActor extends AbstractUntypedPersistentActor {
                 final FollowerLogInformation info = leader.getFollower(id);
                 followerInfoList.add(new FollowerInfo(id, info.getNextIndex(), info.getMatchIndex(),
                         info.isFollowerActive(), DurationFormatUtils.formatDurationHMS(info.timeSinceLastActivity()),
-                        context.getPeerInfo(info.getId()).isVoting()));
+                        context.getPeerInfo(info.getId()).isVoting(), info.getInFlightCount()));
             }
 
             builder.followerInfoList(followerInfoList);
@@ -33,17 +33,25 @@ class RaftActorDelegatingPersistentDataProvider extends DelegatingPersistentData
     public <T> void persist(T o, Procedure<T> procedure) {
         if(getDelegate().isRecoveryApplicable()) {
             super.persist(o, procedure);
+        } else if(isPersistentPayload(o)) {
+            persistentProvider.persist(o, procedure);
         } else {
-            boolean isPersistentPayload = false;
-            if(o instanceof ReplicatedLogEntry) {
-                isPersistentPayload = ((ReplicatedLogEntry)o).getData() instanceof PersistentPayload;
-            }
+            super.persist(o, procedure);
+        }
+    }
 
-            if(isPersistentPayload) {
-                persistentProvider.persist(o, procedure);
-            } else {
-                super.persist(o, procedure);
-            }
+    @Override
+    public <T> void persistAsync(T o, Procedure<T> procedure) {
+        if(getDelegate().isRecoveryApplicable()) {
+            super.persistAsync(o, procedure);
+        } else if(isPersistentPayload(o)) {
+            persistentProvider.persistAsync(o, procedure);
+        } else {
+            super.persistAsync(o, procedure);
         }
     }
+
+    private static boolean isPersistentPayload(Object o) {
+        return o instanceof ReplicatedLogEntry && ((ReplicatedLogEntry)o).getData() instanceof PersistentPayload;
+    }
 }
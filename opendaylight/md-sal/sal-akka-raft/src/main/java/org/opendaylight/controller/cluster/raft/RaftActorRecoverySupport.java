@@ -13,6 +13,7 @@ import akka.persistence.SnapshotSelectionCriteria;
 import com.google.common.base.Stopwatch;
 import java.io.ByteArrayInputStream;
 import java.io.ObjectInputStream;
+import java.util.concurrent.TimeUnit;
 import org.opendaylight.controller.cluster.DataPersistenceProvider;
 import org.opendaylight.controller.cluster.PersistentDataProvider;
 import org.opendaylight.controller.cluster.raft.base.messages.ApplyJournalEntries;
@@ -27,10 +28,17 @@ import org.slf4j.Logger;
  * @author Thomas Pantelis
  */
 class RaftActorRecoverySupport {
+    // Recovered log entries are coalesced into batches which start at the configured journal recovery batch size and
+    // double each time a batch is applied in less than TARGET_BATCH_APPLY_NANOS, up to MAX_RECOVERY_BATCH_SIZE. A
+    // batch taking longer than 10 times the target halves the size again.
+    static final int MAX_RECOVERY_BATCH_SIZE = 100000;
+    private static final long TARGET_BATCH_APPLY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
     private final RaftActorContext context;
     private final RaftActorRecoveryCohort cohort;
 
     private int currentRecoveryBatchCount;
+    private int recoveryBatchSize;
     private boolean dataRecoveredWithPersistenceDisabled;
     private boolean anyDataRecovered;
 
@@ -222,22 +230,42 @@ class RaftActorRecoverySupport {
     private void batchRecoveredLogEntry(ReplicatedLogEntry logEntry) {
         initRecoveryTimer();
 
-        int batchSize = context.getConfigParams().getJournalRecoveryLogBatchSize();
+        if(recoveryBatchSize == 0) {
+            recoveryBatchSize = Math.max(1, context.getConfigParams().getJournalRecoveryLogBatchSize());
+        }
+
         if(!isServerConfigurationPayload(logEntry)){
             if(currentRecoveryBatchCount == 0) {
-                cohort.startLogRecoveryBatch(batchSize);
+                cohort.startLogRecoveryBatch(recoveryBatchSize);
             }
 
             cohort.appendRecoveredLogEntry(logEntry.getData());
 
-            if(++currentRecoveryBatchCount >= batchSize) {
+            if(++currentRecoveryBatchCount >= recoveryBatchSize) {
                 endCurrentLogRecoveryBatch();
             }
         }
     }
 
     private void endCurrentLogRecoveryBatch() {
+        Stopwatch timer = Stopwatch.createStarted();
         cohort.applyCurrentLogRecoveryBatch();
+        long elapsed = timer.elapsed(TimeUnit.NANOSECONDS);
+
+        // Only adjust after full batches - a partial batch is applied when recovery completes.
+        if(currentRecoveryBatchCount >= recoveryBatchSize) {
+            int minBatchSize = Math.max(1, context.getConfigParams().getJournalRecoveryLogBatchSize());
+            int maxBatchSize = Math.max(minBatchSize, MAX_RECOVERY_BATCH_SIZE);
+            if(elapsed < TARGET_BATCH_APPLY_NANOS) {
+                recoveryBatchSize = (int) Math.min(maxBatchSize, recoveryBatchSize * 2L);
+            } else if(elapsed > TARGET_BATCH_APPLY_NANOS * 10) {
+                recoveryBatchSize = Math.max(minBatchSize, recoveryBatchSize / 2);
+            }
+
+            log.trace("{}: Applied recovery batch of {} entries in {} - batch size is now {}", context.getId(),
+                    currentRecoveryBatchCount, timer, recoveryBatchSize);
+        }
+
         currentRecoveryBatchCount = 0;
     }
 
@@ -14,5 +14,7 @@ public interface RaftVersions {
     short HELIUM_VERSION = 0;
     short LITHIUM_VERSION = 1;
     short BORON_VERSION = 3;
-    short CURRENT_VERSION = BORON_VERSION;
+    // InstallSnapshot carries a per-chunk checksum and its data is written inline rather than as a byte[] object
+    short CARBON_VERSION = 4;
+    short CURRENT_VERSION = CARBON_VERSION;
 }
@@ -7,6 +7,8 @@
  */
 package org.opendaylight.controller.cluster.raft;
 
+import akka.actor.ActorSystem;
+import akka.actor.ExtendedActorSystem;
 import akka.japi.Procedure;
 import com.google.common.base.Preconditions;
 import java.util.Collections;
@@ -30,10 +32,26 @@ class ReplicatedLogImpl extends AbstractReplicatedLogImpl {
 
     private ReplicatedLogImpl(final long snapshotIndex, final long snapshotTerm, final List<ReplicatedLogEntry> unAppliedEntries,
             final RaftActorContext context) {
-        super(snapshotIndex, snapshotTerm, unAppliedEntries, context.getId());
+        super(snapshotIndex, snapshotTerm, unAppliedEntries, context.getId(), newJournal(unAppliedEntries, context));
         this.context = Preconditions.checkNotNull(context);
     }
 
+    private static LogEntryStore newJournal(final List<ReplicatedLogEntry> unAppliedEntries,
+            final RaftActorContext context) {
+        if(!context.getConfigParams().isOffHeapReplicatedLogEnabled()) {
+            return new HeapLogEntryStore(unAppliedEntries.size());
+        }
+
+        // Entries are deserialized with the same class loader used for the journal so payload classes from
+        // other bundles can be resolved.
+        final ActorSystem system = context.getActorSystem();
+        final ClassLoader classLoader = system instanceof ExtendedActorSystem
+                ? ((ExtendedActorSystem) system).dynamicAccess().classLoader()
+                : ReplicatedLogImpl.class.getClassLoader();
+        return new OffHeapLogEntryStore(classLoader, OffHeapLogEntryStore.DEFAULT_SEGMENT_SIZE,
+                unAppliedEntries.size());
+    }
+
     static ReplicatedLog newInstance(final Snapshot snapshot, final RaftActorContext context) {
         return new ReplicatedLogImpl(snapshot.getLastAppliedIndex(), snapshot.getLastAppliedTerm(),
                 snapshot.getUnAppliedEntries(), context);
@@ -105,25 +123,32 @@ class ReplicatedLogImpl extends AbstractReplicatedLogImpl {
             return;
         }
 
-        // When persisting events with persist it is guaranteed that the
-        // persistent actor will not receive further commands between the
-        // persist call and the execution(s) of the associated event
-        // handler. This also holds for multiple persist calls in context
-        // of a single command.
-        context.getPersistenceProvider().persist(replicatedLogEntry,
-            new Procedure<ReplicatedLogEntry>() {
-                @Override
-                public void apply(final ReplicatedLogEntry param) throws Exception {
-                    context.getLogger().debug("{}: persist complete {}", context.getId(), param);
-
-                    int logEntrySize = param.size();
-                    dataSizeSinceLastSnapshot += logEntrySize;
-
-                    if (callback != null) {
-                        callback.apply(param);
-                    }
+        final Procedure<ReplicatedLogEntry> persistCallback = new Procedure<ReplicatedLogEntry>() {
+            @Override
+            public void apply(final ReplicatedLogEntry param) throws Exception {
+                context.getLogger().debug("{}: persist complete {}", context.getId(), param);
+
+                int logEntrySize = param.size();
+                dataSizeSinceLastSnapshot += logEntrySize;
+
+                if (callback != null) {
+                    callback.apply(param);
                 }
             }
-        );
+        };
+
+        if(context.getConfigParams().isJournalGroupCommitEnabled()) {
+            // Entries persisted asynchronously while a previous journal write is in progress are collected and
+            // written as a single batch once it completes so a burst of entries results in one journal write
+            // rather than one per entry. The callbacks are still invoked in order.
+            context.getPersistenceProvider().persistAsync(replicatedLogEntry, persistCallback);
+        } else {
+            // When persisting events with persist it is guaranteed that the
+            // persistent actor will not receive further commands between the
+            // persist call and the execution(s) of the associated event
+            // handler. This also holds for multiple persist calls in context
+            // of a single command.
+            context.getPersistenceProvider().persist(replicatedLogEntry, persistCallback);
+        }
     }
 }
\ No newline at end of file
@@ -7,14 +7,104 @@
  */
 package org.opendaylight.controller.cluster.raft;
 
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 
-
+/**
+ * The persisted snapshot of a RaftActor. The captured state may be backed by a file rather than held in memory - it is
+ * serialized via a proxy which streams the state so it is never materialized as a single array.
+ */
 public class Snapshot implements Serializable {
+    private static final class Proxy implements Externalizable {
+        private static final long serialVersionUID = 1L;
+
+        private Snapshot snapshot;
+
+        public Proxy() {
+            // For Externalizable
+        }
+
+        Proxy(final Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public void writeExternal(final ObjectOutput out) throws IOException {
+            out.writeLong(snapshot.lastIndex);
+            out.writeLong(snapshot.lastTerm);
+            out.writeLong(snapshot.lastAppliedIndex);
+            out.writeLong(snapshot.lastAppliedTerm);
+            out.writeLong(snapshot.electionTerm);
+            out.writeObject(snapshot.electionVotedFor);
+            out.writeObject(snapshot.serverConfig);
+
+            out.writeInt(snapshot.unAppliedEntries.size());
+            for(ReplicatedLogEntry entry: snapshot.unAppliedEntries) {
+                out.writeObject(entry);
+            }
+
+            out.writeLong(snapshot.stateSource.size());
+            try(InputStream in = snapshot.stateSource.openStream()) {
+                ByteStreams.copy(in, new OutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        out.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
+            final long lastIndex = in.readLong();
+            final long lastTerm = in.readLong();
+            final long lastAppliedIndex = in.readLong();
+            final long lastAppliedTerm = in.readLong();
+            final long electionTerm = in.readLong();
+            final String electionVotedFor = (String) in.readObject();
+            final ServerConfigurationPayload serverConfig = (ServerConfigurationPayload) in.readObject();
+
+            final int size = in.readInt();
+            final List<ReplicatedLogEntry> unAppliedEntries = new ArrayList<>(size);
+            for(int i = 0; i < size; i++) {
+                unAppliedEntries.add((ReplicatedLogEntry) in.readObject());
+            }
+
+            final long stateSize = in.readLong();
+            Preconditions.checkState(stateSize <= Integer.MAX_VALUE, "Snapshot state size %s is too large",
+                    stateSize);
+            final byte[] state = new byte[(int) stateSize];
+            in.readFully(state);
+
+            snapshot = new Snapshot(state, ByteSource.wrap(state), unAppliedEntries, lastIndex, lastTerm,
+                    lastAppliedIndex, lastAppliedTerm, electionTerm, electionVotedFor, serverConfig);
+        }
+
+        private Object readResolve() {
+            return snapshot;
+        }
+    }
+
     private static final long serialVersionUID = -8298574936724056236L;
 
+    // Only populated if the state was provided as an array, including when read from the legacy serialized form
     private final byte[] state;
+    private final transient ByteSource stateSource;
     private final List<ReplicatedLogEntry> unAppliedEntries;
     private final long lastIndex;
     private final long lastTerm;
@@ -24,10 +114,11 @@ public class Snapshot implements Serializable {
     private final String electionVotedFor;
     private final ServerConfigurationPayload serverConfig;
 
-    private Snapshot(byte[] state, List<ReplicatedLogEntry> unAppliedEntries, long lastIndex, long lastTerm,
-            long lastAppliedIndex, long lastAppliedTerm, long electionTerm, String electionVotedFor,
+    private Snapshot(byte[] state, ByteSource stateSource, List<ReplicatedLogEntry> unAppliedEntries, long lastIndex,
+            long lastTerm, long lastAppliedIndex, long lastAppliedTerm, long electionTerm, String electionVotedFor,
             ServerConfigurationPayload serverConfig) {
         this.state = state;
+        this.stateSource = Preconditions.checkNotNull(stateSource);
         this.unAppliedEntries = unAppliedEntries;
         this.lastIndex = lastIndex;
         this.lastTerm = lastTerm;
@@ -40,24 +131,47 @@ public class Snapshot implements Serializable {
 
     public static Snapshot create(byte[] state, List<ReplicatedLogEntry> entries, long lastIndex, long lastTerm,
             long lastAppliedIndex, long lastAppliedTerm) {
-        return new Snapshot(state, entries, lastIndex, lastTerm, lastAppliedIndex, lastAppliedTerm, -1, null, null);
+        return create(state, entries, lastIndex, lastTerm, lastAppliedIndex, lastAppliedTerm, -1, null, null);
     }
 
     public static Snapshot create(byte[] state, List<ReplicatedLogEntry> entries, long lastIndex, long lastTerm,
             long lastAppliedIndex, long lastAppliedTerm, long electionTerm, String electionVotedFor) {
-        return new Snapshot(state, entries, lastIndex, lastTerm, lastAppliedIndex, lastAppliedTerm,
+        return create(state, entries, lastIndex, lastTerm, lastAppliedIndex, lastAppliedTerm,
                 electionTerm, electionVotedFor, null);
     }
 
     public static Snapshot create(byte[] state, List<ReplicatedLogEntry> entries, long lastIndex, long lastTerm,
             long lastAppliedIndex, long lastAppliedTerm, long electionTerm, String electionVotedFor,
             ServerConfigurationPayload serverConfig) {
-        return new Snapshot(state, entries, lastIndex, lastTerm, lastAppliedIndex, lastAppliedTerm,
+        return new Snapshot(state, ByteSource.wrap(state), entries, lastIndex, lastTerm, lastAppliedIndex,
+                lastAppliedTerm, electionTerm, electionVotedFor, serverConfig);
+    }
+
+    public static Snapshot create(ByteSource state, List<ReplicatedLogEntry> entries, long lastIndex, long lastTerm,
+            long lastAppliedIndex, long lastAppliedTerm, long electionTerm, String electionVotedFor,
+            ServerConfigurationPayload serverConfig) {
+        return new Snapshot(null, state, entries, lastIndex, lastTerm, lastAppliedIndex, lastAppliedTerm,
                 electionTerm, electionVotedFor, serverConfig);
     }
 
+    /**
+     * Returns the captured state as an array. If the state is not held in memory, it is read from its source on
+     * each call - use {@link #getStateSource()} to access it without materializing it.
+     */
     public byte[] getState() {
-        return state;
+        if(state != null) {
+            return state;
+        }
+
+        try {
+            return stateSource.read();
+        } catch(IOException e) {
+            throw new IllegalStateException("Failed to read the snapshot state", e);
+        }
+    }
+
+    public ByteSource getStateSource() {
+        return stateSource;
     }
 
     public List<ReplicatedLogEntry> getUnAppliedEntries() {
@@ -97,7 +211,29 @@ public class Snapshot implements Serializable {
     public String toString() {
         return "Snapshot [lastIndex=" + lastIndex + ", lastTerm=" + lastTerm + ", lastAppliedIndex=" + lastAppliedIndex
                 + ", lastAppliedTerm=" + lastAppliedTerm + ", unAppliedEntries size=" + unAppliedEntries.size()
-                + ", state size=" + state.length + ", electionTerm=" + electionTerm + ", electionVotedFor=" + electionVotedFor
+                + ", state size=" + stateSize() + ", electionTerm=" + electionTerm + ", electionVotedFor=" + electionVotedFor
                 + ", ServerConfigPayload="  + serverConfig + "]";
     }
+
+    private long stateSize() {
+        if(state != null) {
+            return state.length;
+        }
+
+        try {
+            return stateSource.size();
+        } catch(IOException e) {
+            return -1;
+        }
+    }
+
+    private Object writeReplace() {
+        return new Proxy(this);
+    }
+
+    // Converts an instance read from the legacy serialized form, which does not populate the transient stateSource
+    private Object readResolve() {
+        return stateSource != null ? this : create(state, unAppliedEntries, lastIndex, lastTerm, lastAppliedIndex,
+                lastAppliedTerm, electionTerm, electionVotedFor, serverConfig);
+    }
 }
@@ -10,6 +10,7 @@ package org.opendaylight.controller.cluster.raft;
 
 import akka.persistence.SnapshotSelectionCriteria;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteSource;
 import java.util.List;
 import java.util.function.Consumer;
 import org.opendaylight.controller.cluster.raft.base.messages.ApplySnapshot;
@@ -72,10 +73,14 @@ public class SnapshotManager implements SnapshotState {
     }
 
     @Override
-    public void persist(final byte[] snapshotBytes, final long totalMemory) {
+    public void persist(final ByteSource snapshotBytes, final long totalMemory) {
         currentState.persist(snapshotBytes, totalMemory);
     }
 
+    public void persist(final byte[] snapshotBytes, final long totalMemory) {
+        persist(ByteSource.wrap(snapshotBytes), totalMemory);
+    }
+
     @Override
     public void commit(final long sequenceNumber, long timeStamp) {
         currentState.commit(sequenceNumber, timeStamp);
@@ -172,7 +177,7 @@ public class SnapshotManager implements SnapshotState {
         }
 
         @Override
-        public void persist(final byte[] snapshotBytes, final long totalMemory) {
+        public void persist(final ByteSource snapshotBytes, final long totalMemory) {
             LOG.debug("persist should not be called in state {}", this);
         }
 
@@ -297,9 +302,10 @@ public class SnapshotManager implements SnapshotState {
     private class Creating extends AbstractSnapshotState {
 
         @Override
-        public void persist(final byte[] snapshotBytes, final long totalMemory) {
+        public void persist(final ByteSource snapshotBytes, final long totalMemory) {
             // create a snapshot object from the state provided and save it
             // when snapshot is saved async, SaveSnapshotSuccess is raised.
+            // The state is not copied - it may be backed by a file which is streamed when persisted.
 
             Snapshot snapshot = Snapshot.create(snapshotBytes,
                     captureSnapshot.getUnAppliedEntries(),
@@ -8,6 +8,7 @@
 
 package org.opendaylight.controller.cluster.raft;
 
+import com.google.common.io.ByteSource;
 import org.opendaylight.controller.cluster.raft.base.messages.ApplySnapshot;
 
 public interface SnapshotState {
@@ -47,11 +48,10 @@ public interface SnapshotState {
     /**
      * Persist the snapshot
      *
-     * @param snapshotBytes
-     * @param currentBehavior
+     * @param snapshotBytes the captured state, which need not be held in memory
      * @param totalMemory
      */
-    void persist(byte[] snapshotBytes, long totalMemory);
+    void persist(ByteSource snapshotBytes, long totalMemory);
 
     /**
      * Commit the snapshot by trimming the log
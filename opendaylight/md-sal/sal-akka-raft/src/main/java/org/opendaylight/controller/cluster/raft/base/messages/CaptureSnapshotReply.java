@@ -7,15 +7,24 @@
  */
 package org.opendaylight.controller.cluster.raft.base.messages;
 
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteSource;
 
 public class CaptureSnapshotReply {
-    private final byte [] snapshot;
+    private final ByteSource snapshot;
 
     public CaptureSnapshotReply(byte [] snapshot) {
-        this.snapshot = snapshot;
+        this(ByteSource.wrap(snapshot));
     }
 
-    public byte [] getSnapshot() {
+    /**
+     * Constructor for a snapshot which need not be held in memory, eg one which was streamed to a file.
+     */
+    public CaptureSnapshotReply(ByteSource snapshot) {
+        this.snapshot = Preconditions.checkNotNull(snapshot);
+    }
+
+    public ByteSource getSnapshot() {
         return snapshot;
     }
 }
@@ -14,9 +14,9 @@ import akka.actor.Cancellable;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import com.google.protobuf.ByteString;
+import com.google.common.io.ByteSource;
 import java.io.IOException;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Queue;
 import javax.annotation.Nullable;
+import org.opendaylight.controller.cluster.io.MappedFileByteSource;
 import org.opendaylight.controller.cluster.raft.ClientRequestTracker;
 import org.opendaylight.controller.cluster.raft.ClientRequestTrackerImpl;
 import org.opendaylight.controller.cluster.raft.FollowerLogInformation;
@@ -34,6 +35,7 @@ import org.opendaylight.controller.cluster.raft.FollowerLogInformationImpl;
 import org.opendaylight.controller.cluster.raft.PeerInfo;
 import org.opendaylight.controller.cluster.raft.RaftActorContext;
 import org.opendaylight.controller.cluster.raft.RaftState;
+import org.opendaylight.controller.cluster.raft.RaftVersions;
 import org.opendaylight.controller.cluster.raft.ReplicatedLogEntry;
 import org.opendaylight.controller.cluster.raft.ServerConfigurationPayload;
 import org.opendaylight.controller.cluster.raft.Snapshot;
@@ -236,6 +238,7 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
                     logName(), followerLogInformation.getId(), appendEntriesReply.getLogLastIndex(),
                     context.getReplicatedLog().lastIndex());
 
+            followerLogInformation.resetInFlight();
             followerLogInformation.setMatchIndex(-1);
             followerLogInformation.setNextIndex(-1);
 
@@ -246,6 +249,9 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
         } else {
             LOG.debug("{}: handleAppendEntriesReply: received unsuccessful reply: {}", logName(), appendEntriesReply);
 
+            // Any batches sent after the rejected one will be rejected as well so rewind from here.
+            followerLogInformation.resetInFlight();
+
             long followerLastLogIndex = appendEntriesReply.getLogLastIndex();
             long followersLastLogTerm = getLogEntryTerm(followerLastLogIndex);
             if(appendEntriesReply.isForceInstallSnapshot()) {
@@ -350,8 +356,17 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
 
     private boolean updateFollowerLogInformation(FollowerLogInformation followerLogInformation,
             AppendEntriesReply appendEntriesReply) {
+        followerLogInformation.acknowledgeEntriesSent(appendEntriesReply.getLogLastIndex());
+
         boolean updated = followerLogInformation.setMatchIndex(appendEntriesReply.getLogLastIndex());
-        updated = followerLogInformation.setNextIndex(appendEntriesReply.getLogLastIndex() + 1) || updated;
+
+        // If pipelined batches beyond the acknowledged index are still in flight, retain the optimistic nextIndex.
+        long nextIndex = appendEntriesReply.getLogLastIndex() + 1;
+        if(followerLogInformation.getInFlightCount() > 0) {
+            nextIndex = Math.max(nextIndex, followerLogInformation.getNextIndex());
+        }
+
+        updated = followerLogInformation.setNextIndex(nextIndex) || updated;
 
         if(updated && LOG.isDebugEnabled()) {
             LOG.debug("{}: handleAppendEntriesReply - FollowerLogInformation for {} updated: matchIndex: {}, nextIndex: {}",
@@ -473,6 +488,7 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
                     }
 
                     long followerMatchIndex = snapshot.get().getLastIncludedIndex();
+                    followerLogInformation.resetInFlight();
                     followerLogInformation.setMatchIndex(followerMatchIndex);
                     followerLogInformation.setNextIndex(followerMatchIndex + 1);
                     mapFollowerToSnapshot.remove(followerId);
@@ -606,11 +622,18 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
                             followerNextIndex, followerId);
 
                     if(followerLogInformation.okToReplicate()) {
+                        // okToReplicate may have rewound the nextIndex if pipelined batches weren't acknowledged
+                        // in time so re-read it.
+                        followerNextIndex = followerLogInformation.getNextIndex();
+
                         // Try to send all the entries in the journal but not exceeding the max data size
                         // for a single AppendEntries message.
-                        int maxEntries = (int) context.getReplicatedLog().size();
-                        entries = context.getReplicatedLog().getFrom(followerNextIndex, maxEntries,
-                                context.getConfigParams().getSnapshotChunkSize());
+                        if(context.getReplicatedLog().isPresent(followerNextIndex)) {
+                            int maxEntries = (int) context.getReplicatedLog().size();
+                            entries = context.getReplicatedLog().getFrom(followerNextIndex, maxEntries,
+                                    context.getConfigParams().getSnapshotChunkSize());
+                        }
+
                         sendAppendEntries = true;
                     }
                 } else if (isFollowerActive && followerNextIndex >= 0 &&
@@ -643,6 +666,10 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
             if(sendAppendEntries) {
                 sendAppendEntriesToFollower(followerActor, followerNextIndex,
                         entries, followerId);
+
+                if(!entries.isEmpty()) {
+                    followerLogInformation.markEntriesSent(entries.get(entries.size() - 1).getIndex());
+                }
             }
         }
     }
@@ -724,7 +751,7 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
     private void sendSnapshotChunk(ActorSelection followerActor, String followerId) {
         try {
             if (snapshot.isPresent()) {
-                byte[] nextSnapshotChunk = getNextSnapshotChunk(followerId, snapshot.get().getSnapshotBytes());
+                ByteBuffer nextSnapshotChunk = getNextSnapshotChunk(followerId, snapshot.get().getSnapshotBytes());
 
                 // Note: the previous call to getNextSnapshotChunk has the side-effect of adding
                 // followerId to the followerToSnapshot map.
@@ -736,6 +763,16 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
                     serverConfig = Optional.fromNullable(context.getPeerServerInfo(true));
                 }
 
+                // Followers which understand per-chunk checksums get one instead of the previous chunk's hash code
+                short followerRaftVersion = followerToLog.get(followerId).getRaftVersion();
+                Optional<Integer> lastChunkHashCode = Optional.absent();
+                Optional<Long> chunkChecksum = Optional.absent();
+                if(followerRaftVersion >= RaftVersions.CARBON_VERSION) {
+                    chunkChecksum = Optional.of(InstallSnapshot.checksum(nextSnapshotChunk));
+                } else {
+                    lastChunkHashCode = Optional.of(followerToSnapshot.getLastChunkHashCode());
+                }
+
                 followerActor.tell(
                     new InstallSnapshot(currentTerm(), context.getId(),
                         snapshot.get().getLastIncludedIndex(),
@@ -743,9 +780,10 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
                         nextSnapshotChunk,
                         nextChunkIndex,
                         followerToSnapshot.getTotalChunks(),
-                        Optional.of(followerToSnapshot.getLastChunkHashCode()),
+                        lastChunkHashCode,
+                        chunkChecksum,
                         serverConfig
-                    ).toSerializable(followerToLog.get(followerId).getRaftVersion()),
+                    ).toSerializable(followerRaftVersion),
                     actor()
                 );
 
@@ -761,18 +799,18 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
     }
 
     /**
-     * Acccepts snaphot as ByteString, enters into map for future chunks
-     * creates and return a ByteString chunk
+     * Acccepts snaphot as ByteSource, enters into map for future chunks
+     * creates and return a chunk
      */
-    private byte[] getNextSnapshotChunk(String followerId, ByteString snapshotBytes) throws IOException {
+    private ByteBuffer getNextSnapshotChunk(String followerId, ByteSource snapshotBytes) throws IOException {
         FollowerToSnapshot followerToSnapshot = mapFollowerToSnapshot.get(followerId);
         if (followerToSnapshot == null) {
             followerToSnapshot = new FollowerToSnapshot(snapshotBytes);
             mapFollowerToSnapshot.put(followerId, followerToSnapshot);
         }
-        byte[] nextChunk = followerToSnapshot.getNextChunk();
+        ByteBuffer nextChunk = followerToSnapshot.getNextChunk();
 
-        LOG.debug("{}: next snapshot chunk size for follower {}: {}", logName(), followerId, nextChunk.length);
+        LOG.debug("{}: next snapshot chunk size for follower {}: {}", logName(), followerId, nextChunk.remaining());
 
         return nextChunk;
     }
@@ -839,39 +877,45 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
     }
 
     /**
-     * Encapsulates the snapshot bytestring and handles the logic of sending
-     * snapshot chunks
+     * Encapsulates the snapshot bytes and handles the logic of sending
+     * snapshot chunks. If the snapshot bytes are backed by a file, each chunk
+     * is a slice of the memory-mapped file, otherwise only the chunk being
+     * sent is copied.
      */
     protected class FollowerToSnapshot {
-        private final ByteString snapshotBytes;
-        private int offset = 0;
+        private final ByteSource snapshotBytes;
+        private final long snapshotSize;
+        private long offset = 0;
         // the next snapshot chunk is sent only if the replyReceivedForOffset matches offset
-        private int replyReceivedForOffset;
+        private long replyReceivedForOffset;
         // if replyStatus is false, the previous chunk is attempted
         private boolean replyStatus = false;
         private int chunkIndex;
         private final int totalChunks;
-        private int lastChunkHashCode = AbstractLeader.INITIAL_LAST_CHUNK_HASH_CODE;
-        private int nextChunkHashCode = AbstractLeader.INITIAL_LAST_CHUNK_HASH_CODE;
+        private ByteBuffer lastChunk;
+        private ByteBuffer nextChunk;
 
-        public FollowerToSnapshot(ByteString snapshotBytes) {
+        public FollowerToSnapshot(ByteSource snapshotBytes) throws IOException {
             this.snapshotBytes = snapshotBytes;
-            int size = snapshotBytes.size();
-            totalChunks = ( size / context.getConfigParams().getSnapshotChunkSize()) +
-                ((size % context.getConfigParams().getSnapshotChunkSize()) > 0 ? 1 : 0);
+            snapshotSize = snapshotBytes.size();
+            int chunkSize = context.getConfigParams().getSnapshotChunkSize();
+            long chunks = snapshotSize / chunkSize + (snapshotSize % chunkSize > 0 ? 1 : 0);
+            Preconditions.checkArgument(chunks <= Integer.MAX_VALUE, "Snapshot size %s is too large",
+                    snapshotSize);
+            totalChunks = (int) chunks;
             if(LOG.isDebugEnabled()) {
                 LOG.debug("{}: Snapshot {} bytes, total chunks to send:{}",
-                        logName(), size, totalChunks);
+                        logName(), snapshotSize, totalChunks);
             }
             replyReceivedForOffset = -1;
             chunkIndex = AbstractLeader.FIRST_CHUNK_INDEX;
         }
 
-        public ByteString getSnapshotBytes() {
+        public ByteSource getSnapshotBytes() {
             return snapshotBytes;
         }
 
-        public int incrementOffset() {
+        public long incrementOffset() {
             if(replyStatus) {
                 // if prev chunk failed, we would want to sent the same chunk again
                 offset = offset + context.getConfigParams().getSnapshotChunkSize();
@@ -909,7 +953,7 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
                 // if the chunk sent was successful
                 replyReceivedForOffset = offset;
                 replyStatus = true;
-                lastChunkHashCode = nextChunkHashCode;
+                lastChunk = nextChunk;
             } else {
                 // if the chunk sent was failure
                 replyReceivedForOffset = offset;
@@ -917,23 +961,19 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
             }
         }
 
-        public byte[] getNextChunk() {
-            int snapshotLength = getSnapshotBytes().size();
-            int start = incrementOffset();
-            int size = context.getConfigParams().getSnapshotChunkSize();
-            if (context.getConfigParams().getSnapshotChunkSize() > snapshotLength) {
-                size = snapshotLength;
-            } else if ((start + context.getConfigParams().getSnapshotChunkSize()) > snapshotLength) {
-                size = snapshotLength - start;
-            }
+        public ByteBuffer getNextChunk() throws IOException {
+            long start = incrementOffset();
+            int size = (int) Math.min(context.getConfigParams().getSnapshotChunkSize(), snapshotSize - start);
 
-            byte[] nextChunk = new byte[size];
-            getSnapshotBytes().copyTo(nextChunk, start, 0, size);
-            nextChunkHashCode = Arrays.hashCode(nextChunk);
+            ByteSource chunkSource = getSnapshotBytes().slice(start, size);
+            if(chunkSource instanceof MappedFileByteSource) {
+                nextChunk = ((MappedFileByteSource) chunkSource).map();
+            } else {
+                nextChunk = ByteBuffer.wrap(chunkSource.read());
+            }
 
-            LOG.debug("{}: Next chunk: total length={}, offset={}, size={}, hashCode={}", logName(),
-                    snapshotLength, start, size, nextChunkHashCode);
-            return nextChunk;
+            LOG.debug("{}: Next chunk: total length={}, offset={}, size={}", logName(), snapshotSize, start, size);
+            return nextChunk.duplicate();
         }
 
         /**
@@ -944,11 +984,24 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
             replyStatus = false;
             replyReceivedForOffset = offset;
             chunkIndex = AbstractLeader.FIRST_CHUNK_INDEX;
-            lastChunkHashCode = AbstractLeader.INITIAL_LAST_CHUNK_HASH_CODE;
+            lastChunk = null;
         }
 
+        /**
+         * Returns the hash code of the last chunk successfully sent, as expected by followers which do not
+         * support per-chunk checksums. It is equal to Arrays.hashCode() of the chunk's bytes.
+         */
         public int getLastChunkHashCode() {
-            return lastChunkHashCode;
+            if(lastChunk == null) {
+                return AbstractLeader.INITIAL_LAST_CHUNK_HASH_CODE;
+            }
+
+            int hashCode = 1;
+            for(int i = lastChunk.position(); i < lastChunk.limit(); i++) {
+                hashCode = 31 * hashCode + lastChunk.get(i);
+            }
+
+            return hashCode;
         }
     }
 
@@ -992,12 +1045,12 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
     private static class SnapshotHolder {
         private final long lastIncludedTerm;
         private final long lastIncludedIndex;
-        private final ByteString snapshotBytes;
+        private final ByteSource snapshotBytes;
 
         SnapshotHolder(Snapshot snapshot) {
             this.lastIncludedTerm = snapshot.getLastAppliedTerm();
             this.lastIncludedIndex = snapshot.getLastAppliedIndex();
-            this.snapshotBytes = ByteString.copyFrom(snapshot.getState());
+            this.snapshotBytes = snapshot.getStateSource();
         }
 
         long getLastIncludedTerm() {
@@ -1008,7 +1061,7 @@ public abstract class AbstractLeader extends AbstractRaftActorBehavior {
             return lastIncludedIndex;
         }
 
-        ByteString getSnapshotBytes() {
+        ByteSource getSnapshotBytes() {
             return snapshotBytes;
         }
     }
@@ -392,7 +392,8 @@ public class Follower extends AbstractRaftActorBehavior {
         leaderId = installSnapshot.getLeaderId();
 
         if(snapshotTracker == null){
-            snapshotTracker = new SnapshotTracker(LOG, installSnapshot.getTotalChunks());
+            snapshotTracker = new SnapshotTracker(LOG, installSnapshot.getTotalChunks(),
+                    context.getConfigParams().getSnapshotChunkSize());
         }
 
         updateInitialSyncStatus(installSnapshot.getLastIncludedIndex(), installSnapshot.getLeaderId());
@@ -401,8 +402,8 @@ public class Follower extends AbstractRaftActorBehavior {
             final InstallSnapshotReply reply = new InstallSnapshotReply(
                     currentTerm(), context.getId(), installSnapshot.getChunkIndex(), true);
 
-            if(snapshotTracker.addChunk(installSnapshot.getChunkIndex(), installSnapshot.getData(),
-                    installSnapshot.getLastChunkHashCode())){
+            if(snapshotTracker.addChunk(installSnapshot.getChunkIndex(), installSnapshot.getDataBuffer(),
+                    installSnapshot.getLastChunkHashCode(), installSnapshot.getChunkChecksum())){
                 Snapshot snapshot = Snapshot.create(snapshotTracker.getSnapshot(),
                         new ArrayList<ReplicatedLogEntry>(),
                         installSnapshot.getLastIncludedIndex(),
@@ -436,16 +437,18 @@ public class Follower extends AbstractRaftActorBehavior {
                 sender.tell(reply, actor());
             }
         } catch (SnapshotTracker.InvalidChunkException e) {
+            // The chunk was out of sequence or could not be stored - restart the whole snapshot
             LOG.debug("{}: Exception in InstallSnapshot of follower", logName(), e);
 
             sender.tell(new InstallSnapshotReply(currentTerm(), context.getId(),
                     -1, false), actor());
+            snapshotTracker.close();
             snapshotTracker = null;
 
         } catch (Exception e){
             LOG.error("{}: Exception in InstallSnapshot of follower", logName(), e);
 
-            //send reply with success as false. The chunk will be sent again on failure
+            //send reply with success as false. Nothing was stored for the chunk, so it will be sent again
             sender.tell(new InstallSnapshotReply(currentTerm(), context.getId(),
                     installSnapshot.getChunkIndex(), false), actor());
 
@@ -455,6 +458,11 @@ public class Follower extends AbstractRaftActorBehavior {
     @Override
     public void close() {
         stopElection();
+
+        if(snapshotTracker != null) {
+            snapshotTracker.close();
+            snapshotTracker = null;
+        }
     }
 
     @VisibleForTesting
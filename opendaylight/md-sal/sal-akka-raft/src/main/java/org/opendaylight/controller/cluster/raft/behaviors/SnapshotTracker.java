@@ -8,25 +8,39 @@
 
 package org.opendaylight.controller.cluster.raft.behaviors;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
-import com.google.protobuf.ByteString;
+import com.google.common.io.ByteSource;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import org.opendaylight.controller.cluster.io.FileBackedOutputStream;
+import org.opendaylight.controller.cluster.raft.messages.InstallSnapshot;
 import org.slf4j.Logger;
 
 /**
- * SnapshotTracker does house keeping for a snapshot that is being installed in chunks on the Follower
+ * SnapshotTracker does house keeping for a snapshot that is being installed in chunks on the Follower.
+ * The chunks are appended to a stream which is written to a temporary file once it exceeds the given
+ * threshold, so a large snapshot is not reassembled in memory.
  */
-public class SnapshotTracker {
+public class SnapshotTracker implements AutoCloseable {
     private final Logger LOG;
     private final int totalChunks;
-    private ByteString collectedChunks = ByteString.EMPTY;
+    private final FileBackedOutputStream collectedChunks;
     private int lastChunkIndex = AbstractLeader.FIRST_CHUNK_INDEX - 1;
     private boolean sealed = false;
+    private boolean failed = false;
     private int lastChunkHashCode = AbstractLeader.INITIAL_LAST_CHUNK_HASH_CODE;
 
-    SnapshotTracker(Logger LOG, int totalChunks){
+    SnapshotTracker(Logger LOG, int totalChunks, int fileThreshold){
+        this(LOG, totalChunks, new FileBackedOutputStream(fileThreshold, null));
+    }
+
+    @VisibleForTesting
+    SnapshotTracker(Logger LOG, int totalChunks, FileBackedOutputStream collectedChunks){
         this.LOG = LOG;
         this.totalChunks = totalChunks;
+        this.collectedChunks = collectedChunks;
     }
 
     /**
@@ -37,9 +51,30 @@ public class SnapshotTracker {
      * @return true when the lastChunk is received
      * @throws InvalidChunkException
      */
-    boolean addChunk(int chunkIndex, byte[] chunk, Optional<Integer> lastChunkHashCode) throws InvalidChunkException{
+    boolean addChunk(int chunkIndex, byte[] chunk, Optional<Integer> lastChunkHashCode)
+            throws InvalidChunkException, IOException {
+        return addChunk(chunkIndex, ByteBuffer.wrap(chunk), lastChunkHashCode, Optional.<Long>absent());
+    }
+
+    /**
+     * Adds a chunk to the tracker. If the chunk checksum is present, the chunk is verified against it, otherwise
+     * the lastChunkHashCode, if present, is verified against the previous chunk.
+     *
+     * @return true when the lastChunk is received
+     * @throws InvalidChunkException if the chunk is out of sequence or could not be stored, in which case the whole
+     *         snapshot needs to be resent
+     * @throws IOException if the chunk fails its checksum, in which case nothing has been stored and the chunk
+     *         should be resent
+     */
+    boolean addChunk(int chunkIndex, ByteBuffer chunk, Optional<Integer> lastChunkHashCode,
+            Optional<Long> chunkChecksum) throws InvalidChunkException, IOException {
         LOG.debug("addChunk: chunkIndex={}, lastChunkIndex={}, collectedChunks.size={}, lastChunkHashCode={}",
-                chunkIndex, lastChunkIndex, collectedChunks.size(), this.lastChunkHashCode);
+                chunkIndex, lastChunkIndex, collectedChunks.getCount(), this.lastChunkHashCode);
+
+        if(failed){
+            throw new InvalidChunkException("Invalid chunk received with chunkIndex " + chunkIndex +
+                    " a previous chunk could not be stored");
+        }
 
         if(sealed){
             throw new InvalidChunkException("Invalid chunk received with chunkIndex " + chunkIndex + " all chunks already received");
@@ -49,30 +84,72 @@ public class SnapshotTracker {
             throw new InvalidChunkException("Expected chunkIndex " + (lastChunkIndex + 1) + " got " + chunkIndex);
         }
 
-        if(lastChunkHashCode.isPresent()){
+        if(chunkChecksum.isPresent()) {
+            long checksum = InstallSnapshot.checksum(chunk);
+            if(checksum != chunkChecksum.get()) {
+                throw new IOException("The checksum of chunk " + chunkIndex + " does not match, expected " +
+                        chunkChecksum.get() + " was " + checksum);
+            }
+        } else if(lastChunkHashCode.isPresent()){
             if(lastChunkHashCode.get() != this.lastChunkHashCode){
                 throw new InvalidChunkException("The hash code of the recorded last chunk does not match " +
                         "the senders hash code, expected " + this.lastChunkHashCode + " was " + lastChunkHashCode.get());
             }
         }
 
+        try {
+            collectedChunks.write(chunk);
+            if(chunkIndex == totalChunks) {
+                collectedChunks.close();
+            }
+        } catch(IOException e) {
+            // Part of the chunk may have been stored, so it cannot simply be appended again
+            failed = true;
+            close();
+            throw new InvalidChunkException("Failed to store chunk " + chunkIndex, e);
+        }
+
         sealed = (chunkIndex == totalChunks);
         lastChunkIndex = chunkIndex;
-        collectedChunks = collectedChunks.concat(ByteString.copyFrom(chunk));
-        this.lastChunkHashCode = Arrays.hashCode(chunk);
+        if(!chunkChecksum.isPresent()) {
+            this.lastChunkHashCode = hashCode(chunk);
+        }
+
         return sealed;
     }
 
-    byte[] getSnapshot(){
+    /**
+     * Returns the collected snapshot, which may be backed by a temporary file.
+     */
+    ByteSource getSnapshot(){
         if(!sealed) {
             throw new IllegalStateException("lastChunk not received yet");
         }
 
-        return collectedChunks.toByteArray();
+        return collectedChunks.asByteSource();
+    }
+
+    long getCollectedSize(){
+        return collectedChunks.getCount();
+    }
+
+    /**
+     * Discards the collected chunks. This should be called if the snapshot is not going to be completed.
+     */
+    @Override
+    public void close() {
+        collectedChunks.cleanup();
     }
 
-    ByteString getCollectedChunks(){
-        return collectedChunks;
+    private static int hashCode(ByteBuffer chunk) {
+        if(chunk.hasArray() && chunk.arrayOffset() == 0 && chunk.position() == 0
+                && chunk.remaining() == chunk.array().length) {
+            return Arrays.hashCode(chunk.array());
+        }
+
+        final byte[] bytes = new byte[chunk.remaining()];
+        chunk.duplicate().get(bytes);
+        return Arrays.hashCode(bytes);
     }
 
     public static class InvalidChunkException extends Exception {
@@ -81,6 +158,10 @@ public class SnapshotTracker {
         InvalidChunkException(String message){
             super(message);
         }
+
+        InvalidChunkException(String message, Throwable cause){
+            super(message, cause);
+        }
     }
 
 }
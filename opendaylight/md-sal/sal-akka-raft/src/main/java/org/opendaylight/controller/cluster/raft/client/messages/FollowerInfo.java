@@ -21,16 +21,19 @@ public class FollowerInfo {
     private final boolean isActive;
     private final String timeSinceLastActivity;
     private final boolean isVoting;
+    private final int inFlightCount;
 
-    @ConstructorProperties({"id","nextIndex", "matchIndex", "isActive", "timeSinceLastActivity", "isVoting"})
+    @ConstructorProperties({"id","nextIndex", "matchIndex", "isActive", "timeSinceLastActivity", "isVoting",
+            "inFlightCount"})
     public FollowerInfo(String id, long nextIndex, long matchIndex, boolean isActive, String timeSinceLastActivity,
-            boolean isVoting) {
+            boolean isVoting, int inFlightCount) {
         this.id = id;
         this.nextIndex = nextIndex;
         this.matchIndex = matchIndex;
         this.isActive = isActive;
         this.timeSinceLastActivity = timeSinceLastActivity;
         this.isVoting = isVoting;
+        this.inFlightCount = inFlightCount;
     }
 
     public String getId() {
@@ -56,4 +59,8 @@ public class FollowerInfo {
     public boolean isVoting() {
         return isVoting;
     }
+
+    public int getInFlightCount() {
+        return inFlightCount;
+    }
 }
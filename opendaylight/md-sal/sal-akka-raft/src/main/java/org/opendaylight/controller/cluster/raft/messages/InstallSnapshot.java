@@ -14,42 +14,64 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
 import org.opendaylight.controller.cluster.raft.RaftVersions;
 import org.opendaylight.controller.cluster.raft.ServerConfigurationPayload;
 import org.opendaylight.controller.protobuff.messages.cluster.raft.InstallSnapshotMessages;
 
+/**
+ * Message sent by the leader to install a chunk of a snapshot on a follower. The chunk data is held as a ByteBuffer
+ * so the leader can send a slice of a memory-mapped snapshot file without copying it. From
+ * {@link RaftVersions#CARBON_VERSION} on, each chunk carries a CRC32 checksum of its data, which the follower
+ * verifies, instead of relying on the hash code of the previous chunk.
+ */
 public class InstallSnapshot extends AbstractRaftRPC implements Externalizable {
     private static final long serialVersionUID = 1L;
     public static final Class<InstallSnapshotMessages.InstallSnapshot> SERIALIZABLE_CLASS = InstallSnapshotMessages.InstallSnapshot.class;
 
+    private static final int WRITE_BUFFER_SIZE = 8192;
+
     private String leaderId;
     private long lastIncludedIndex;
     private long lastIncludedTerm;
-    private byte[] data;
+    private ByteBuffer data;
     private int chunkIndex;
     private int totalChunks;
     private Optional<Integer> lastChunkHashCode;
+    private Optional<Long> chunkChecksum;
     private Optional<ServerConfigurationPayload> serverConfig;
 
+    // The raft version with which this instance is serialized - not itself serialized
+    private transient short serializationVersion = RaftVersions.CURRENT_VERSION;
+
     /**
      * Empty constructor to satisfy Externalizable.
      */
     public InstallSnapshot() {
     }
 
-    public InstallSnapshot(long term, String leaderId, long lastIncludedIndex, long lastIncludedTerm, byte[] data,
-            int chunkIndex, int totalChunks, Optional<Integer> lastChunkHashCode, Optional<ServerConfigurationPayload> serverConfig) {
+    public InstallSnapshot(long term, String leaderId, long lastIncludedIndex, long lastIncludedTerm, ByteBuffer data,
+            int chunkIndex, int totalChunks, Optional<Integer> lastChunkHashCode, Optional<Long> chunkChecksum,
+            Optional<ServerConfigurationPayload> serverConfig) {
         super(term);
         this.leaderId = leaderId;
         this.lastIncludedIndex = lastIncludedIndex;
         this.lastIncludedTerm = lastIncludedTerm;
-        this.data = data;
+        this.data = data.slice();
         this.chunkIndex = chunkIndex;
         this.totalChunks = totalChunks;
         this.lastChunkHashCode = lastChunkHashCode;
+        this.chunkChecksum = chunkChecksum;
         this.serverConfig = serverConfig;
     }
 
+    public InstallSnapshot(long term, String leaderId, long lastIncludedIndex, long lastIncludedTerm, byte[] data,
+            int chunkIndex, int totalChunks, Optional<Integer> lastChunkHashCode, Optional<ServerConfigurationPayload> serverConfig) {
+        this(term, leaderId, lastIncludedIndex, lastIncludedTerm, ByteBuffer.wrap(data), chunkIndex, totalChunks,
+                lastChunkHashCode, Optional.<Long>absent(), serverConfig);
+    }
+
     public InstallSnapshot(long term, String leaderId, long lastIncludedIndex,
                            long lastIncludedTerm, byte[] data, int chunkIndex, int totalChunks) {
         this(term, leaderId, lastIncludedIndex, lastIncludedTerm, data, chunkIndex, totalChunks,
@@ -68,8 +90,29 @@ public class InstallSnapshot extends AbstractRaftRPC implements Externalizable {
         return lastIncludedTerm;
     }
 
+    /**
+     * Returns the chunk data as an array. This copies the data if it is not backed by an array of the exact size -
+     * use {@link #getDataBuffer()} to avoid the copy.
+     */
     public byte[] getData() {
-        return data;
+        if(data.hasArray() && data.arrayOffset() == 0 && data.array().length == data.remaining()) {
+            return data.array();
+        }
+
+        final byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Returns a view of the chunk data without copying it. The content of the returned buffer must not be modified.
+     */
+    public ByteBuffer getDataBuffer() {
+        return data.duplicate();
+    }
+
+    public int getDataSize() {
+        return data.remaining();
     }
 
     public int getChunkIndex() {
@@ -84,13 +127,17 @@ public class InstallSnapshot extends AbstractRaftRPC implements Externalizable {
         return lastChunkHashCode;
     }
 
+    public Optional<Long> getChunkChecksum() {
+        return chunkChecksum;
+    }
+
     public Optional<ServerConfigurationPayload> getServerConfig() {
         return serverConfig;
     }
 
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
-        out.writeShort(RaftVersions.CURRENT_VERSION);
+        out.writeShort(serializationVersion);
         out.writeLong(getTerm());
         out.writeUTF(leaderId);
         out.writeLong(lastIncludedIndex);
@@ -108,12 +155,34 @@ public class InstallSnapshot extends AbstractRaftRPC implements Externalizable {
             out.writeObject(serverConfig.get());
         }
 
-        out.writeObject(data);
+        if(serializationVersion < RaftVersions.CARBON_VERSION) {
+            out.writeObject(getData());
+            return;
+        }
+
+        out.writeByte(chunkChecksum.isPresent() ? 1 : 0);
+        if(chunkChecksum.isPresent()) {
+            out.writeLong(chunkChecksum.get().longValue());
+        }
+
+        // Write the data inline, without first copying a mapped buffer into an array
+        out.writeInt(data.remaining());
+        if(data.hasArray()) {
+            out.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+        } else {
+            final ByteBuffer dup = data.duplicate();
+            final byte[] buffer = new byte[Math.min(WRITE_BUFFER_SIZE, dup.remaining())];
+            while(dup.hasRemaining()) {
+                final int length = Math.min(buffer.length, dup.remaining());
+                dup.get(buffer, 0, length);
+                out.write(buffer, 0, length);
+            }
+        }
     }
 
     @Override
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-        in.readShort(); // raft version - not currently used
+        final short version = in.readShort();
         setTerm(in.readLong());
         leaderId = in.readUTF();
         lastIncludedIndex = in.readLong();
@@ -133,18 +202,37 @@ public class InstallSnapshot extends AbstractRaftRPC implements Externalizable {
             serverConfig = Optional.of((ServerConfigurationPayload)in.readObject());
         }
 
-        data = (byte[])in.readObject();
+        chunkChecksum = Optional.absent();
+        if(version < RaftVersions.CARBON_VERSION) {
+            data = ByteBuffer.wrap((byte[])in.readObject());
+            return;
+        }
+
+        boolean chunkChecksumPresent = in.readByte() == 1;
+        if(chunkChecksumPresent) {
+            chunkChecksum = Optional.of(in.readLong());
+        }
+
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        data = ByteBuffer.wrap(bytes);
     }
 
     public <T extends Object> Object toSerializable(short version) {
-        if(version >= RaftVersions.BORON_VERSION) {
+        if(version >= RaftVersions.CARBON_VERSION) {
             return this;
+        } else if(version >= RaftVersions.BORON_VERSION) {
+            // A Boron follower does not know about the chunk checksum and expects the data as a byte[] object
+            InstallSnapshot boron = new InstallSnapshot(getTerm(), leaderId, lastIncludedIndex, lastIncludedTerm, data,
+                    chunkIndex, totalChunks, lastChunkHashCode, Optional.<Long>absent(), serverConfig);
+            boron.serializationVersion = RaftVersions.BORON_VERSION;
+            return boron;
         } else {
             InstallSnapshotMessages.InstallSnapshot.Builder builder = InstallSnapshotMessages.InstallSnapshot.newBuilder()
                     .setTerm(this.getTerm())
                     .setLeaderId(this.getLeaderId())
                     .setChunkIndex(this.getChunkIndex())
-                    .setData(ByteString.copyFrom(getData()))
+                    .setData(ByteString.copyFrom(data.duplicate()))
                     .setLastIncludedIndex(this.getLastIncludedIndex())
                     .setLastIncludedTerm(this.getLastIncludedTerm())
                     .setTotalChunks(this.getTotalChunks());
@@ -159,9 +247,9 @@ public class InstallSnapshot extends AbstractRaftRPC implements Externalizable {
     @Override
     public String toString() {
         return "InstallSnapshot [term=" + getTerm() + ", leaderId=" + leaderId + ", lastIncludedIndex="
-                + lastIncludedIndex + ", lastIncludedTerm=" + lastIncludedTerm + ", datasize=" + data.length
+                + lastIncludedIndex + ", lastIncludedTerm=" + lastIncludedTerm + ", datasize=" + data.remaining()
                 + ", Chunk=" + chunkIndex + "/" + totalChunks + ", lastChunkHashCode=" + lastChunkHashCode
-                + ", serverConfig=" + serverConfig.orNull() + "]";
+                + ", chunkChecksum=" + chunkChecksum + ", serverConfig=" + serverConfig.orNull() + "]";
     }
 
     public static InstallSnapshot fromSerializable (Object o) {
@@ -186,6 +274,15 @@ public class InstallSnapshot extends AbstractRaftRPC implements Externalizable {
         }
     }
 
+    /**
+     * Computes the checksum of chunk data carried in the chunkChecksum field.
+     */
+    public static long checksum(ByteBuffer data) {
+        final CRC32 crc = new CRC32();
+        crc.update(data.duplicate());
+        return crc.getValue();
+    }
+
     public static boolean isSerializedType(Object message) {
         return message instanceof InstallSnapshot || message instanceof InstallSnapshotMessages.InstallSnapshot;
     }
@@ -13,6 +13,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import akka.japi.Procedure;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,11 +28,11 @@ import org.opendaylight.controller.cluster.raft.MockRaftActorContext.MockReplica
 */
 public class AbstractReplicatedLogImplTest {
 
-    private MockAbstractReplicatedLogImpl replicatedLogImpl;
+    MockAbstractReplicatedLogImpl replicatedLogImpl;
 
     @Before
     public void setUp() {
-        replicatedLogImpl = new MockAbstractReplicatedLogImpl();
+        replicatedLogImpl = newReplicatedLog();
         // create a set of initial entries in the in-memory log
         replicatedLogImpl.append(new MockReplicatedLogEntry(1, 0, new MockPayload("A")));
         replicatedLogImpl.append(new MockReplicatedLogEntry(1, 1, new MockPayload("B")));
@@ -42,7 +43,7 @@ public class AbstractReplicatedLogImplTest {
 
     @Test
     public void testEmptyLog() {
-        replicatedLogImpl = new MockAbstractReplicatedLogImpl();
+        replicatedLogImpl = newReplicatedLog();
 
         assertEquals("size", 0, replicatedLogImpl.size());
         assertEquals("dataSize", 0, replicatedLogImpl.dataSize());
@@ -297,6 +298,10 @@ public class AbstractReplicatedLogImplTest {
         assertEquals("removeFrom - adjusted", -1, replicatedLogImpl.removeFrom(100));
     }
 
+    MockAbstractReplicatedLogImpl newReplicatedLog() {
+        return new MockAbstractReplicatedLogImpl();
+    }
+
     // create a snapshot for test
     public Map<Long, String> takeSnapshot(final int numEntries) {
         Map<Long, String> map = new HashMap<>(numEntries);
@@ -316,7 +321,14 @@ public class AbstractReplicatedLogImplTest {
         return map;
 
     }
-    class MockAbstractReplicatedLogImpl extends AbstractReplicatedLogImpl {
+    static class MockAbstractReplicatedLogImpl extends AbstractReplicatedLogImpl {
+        MockAbstractReplicatedLogImpl() {
+        }
+
+        MockAbstractReplicatedLogImpl(LogEntryStore journal) {
+            super(-1L, -1L, Collections.<ReplicatedLogEntry>emptyList(), "", journal);
+        }
+
         @Override
         public void appendAndPersist(final ReplicatedLogEntry replicatedLogEntry) {
         }
@@ -7,6 +7,7 @@
  */
 package org.opendaylight.controller.cluster.raft;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import com.google.common.base.Stopwatch;
@@ -80,6 +81,73 @@ public class FollowerLogInformationImplTest {
         assertTrue(followerLogInformation.okToReplicate());
     }
 
+    @Test
+    public void testPipelinedReplication() {
+        MockRaftActorContext context = new MockRaftActorContext();
+        context.setCommitIndex(0);
+
+        DefaultConfigParamsImpl configParams = new DefaultConfigParamsImpl();
+        configParams.setMaxInFlightAppendEntries(2);
+        context.setConfigParams(configParams);
+
+        FollowerLogInformation followerLogInformation =
+                new FollowerLogInformationImpl(new PeerInfo("follower1", null, VotingState.VOTING), -1, context);
+        followerLogInformation.setNextIndex(5);
+
+        assertTrue(followerLogInformation.okToReplicate());
+        followerLogInformation.markEntriesSent(7);
+        assertEquals(8, followerLogInformation.getNextIndex());
+        assertEquals(1, followerLogInformation.getInFlightCount());
+
+        assertTrue(followerLogInformation.okToReplicate());
+        followerLogInformation.markEntriesSent(9);
+        assertEquals(10, followerLogInformation.getNextIndex());
+        assertEquals(2, followerLogInformation.getInFlightCount());
+
+        // The window is full
+        assertFalse(followerLogInformation.okToReplicate());
+
+        followerLogInformation.acknowledgeEntriesSent(7);
+        assertEquals(1, followerLogInformation.getInFlightCount());
+        assertEquals(10, followerLogInformation.getNextIndex());
+
+        assertTrue(followerLogInformation.okToReplicate());
+        followerLogInformation.markEntriesSent(11);
+        assertEquals(2, followerLogInformation.getInFlightCount());
+
+        // A rejected AppendEntries rewinds to the first unacknowledged entry
+        followerLogInformation.resetInFlight();
+        assertEquals(0, followerLogInformation.getInFlightCount());
+        assertEquals(8, followerLogInformation.getNextIndex());
+    }
+
+    @Test
+    public void testPipelinedReplicationWindowTimeout() {
+        MockRaftActorContext context = new MockRaftActorContext();
+        context.setCommitIndex(0);
+
+        DefaultConfigParamsImpl configParams = new DefaultConfigParamsImpl();
+        configParams.setMaxInFlightAppendEntries(2);
+        configParams.setHeartBeatInterval(new FiniteDuration(100, TimeUnit.MILLISECONDS));
+        context.setConfigParams(configParams);
+
+        FollowerLogInformation followerLogInformation =
+                new FollowerLogInformationImpl(new PeerInfo("follower1", null, VotingState.VOTING), -1, context);
+        followerLogInformation.setNextIndex(0);
+
+        assertTrue(followerLogInformation.okToReplicate());
+        followerLogInformation.markEntriesSent(1);
+        assertTrue(followerLogInformation.okToReplicate());
+        followerLogInformation.markEntriesSent(3);
+        assertFalse(followerLogInformation.okToReplicate());
+
+        // No replies within the heartbeat interval - the in-flight batches should be resent
+        Uninterruptibles.sleepUninterruptibly(150, TimeUnit.MILLISECONDS);
+        assertTrue(followerLogInformation.okToReplicate());
+        assertEquals(0, followerLogInformation.getNextIndex());
+        assertEquals(0, followerLogInformation.getInFlightCount());
+    }
+
     @Test
     public void testVotingNotInitializedState() {
         final PeerInfo peerInfo = new PeerInfo("follower1", null, VotingState.VOTING_NOT_INITIALIZED);
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.raft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import java.util.List;
+import org.junit.Test;
+import org.opendaylight.controller.cluster.raft.MockRaftActorContext.MockPayload;
+import org.opendaylight.controller.cluster.raft.MockRaftActorContext.MockReplicatedLogEntry;
+
+/**
+ * Runs the AbstractReplicatedLogImpl tests against an OffHeapLogEntryStore, plus tests specific to it.
+ */
+public class OffHeapReplicatedLogImplTest extends AbstractReplicatedLogImplTest {
+    // Small enough that each entry is written to a segment of its own
+    private static final int SEGMENT_SIZE = 16;
+
+    private OffHeapLogEntryStore journal;
+
+    @Override
+    MockAbstractReplicatedLogImpl newReplicatedLog() {
+        journal = new OffHeapLogEntryStore(getClass().getClassLoader(), SEGMENT_SIZE, 0);
+        return new MockAbstractReplicatedLogImpl(journal);
+    }
+
+    @Test
+    public void testEntriesAreCopies() {
+        MockReplicatedLogEntry entry = new MockReplicatedLogEntry(2, 4, new MockPayload("E"));
+        replicatedLogImpl.append(entry);
+
+        ReplicatedLogEntry last = replicatedLogImpl.last();
+        assertNotSame("Same instance", entry, last);
+        assertEquals("getIndex", 4, last.getIndex());
+        assertEquals("getTerm", 2, last.getTerm());
+        assertEquals("getData", "E", last.getData().toString());
+    }
+
+    @Test
+    public void testSegmentsReleased() {
+        assertEquals("segmentCount", 4, journal.segmentCount());
+
+        takeSnapshot(2);
+        assertEquals("segmentCount", 2, journal.segmentCount());
+        assertEquals("C", replicatedLogImpl.get(2).getData().toString());
+
+        // The removed entry's segment is reused for the next entry
+        replicatedLogImpl.removeFrom(3);
+        assertEquals("segmentCount", 2, journal.segmentCount());
+
+        replicatedLogImpl.append(new MockReplicatedLogEntry(3, 3, new MockPayload("X")));
+        replicatedLogImpl.append(new MockReplicatedLogEntry(3, 4, new MockPayload("Y")));
+        assertEquals("segmentCount", 3, journal.segmentCount());
+        assertEquals("lastIndex", 4, replicatedLogImpl.lastIndex());
+        assertEquals("lastTerm", 3, replicatedLogImpl.lastTerm());
+
+        List<ReplicatedLogEntry> from = replicatedLogImpl.getFrom(2);
+        assertEquals("getFrom size", 3, from.size());
+        assertEquals("C", from.get(0).getData().toString());
+        assertEquals("X", from.get(1).getData().toString());
+        assertEquals("Y", from.get(2).getData().toString());
+
+        takeSnapshot(3);
+        assertEquals("segmentCount", 0, journal.segmentCount());
+        assertEquals("size", 0, replicatedLogImpl.size());
+
+        replicatedLogImpl.append(new MockReplicatedLogEntry(3, 5, new MockPayload("Z")));
+        assertEquals("Z", replicatedLogImpl.get(5).getData().toString());
+    }
+
+    @Test
+    public void testSharedSegments() {
+        journal = new OffHeapLogEntryStore(getClass().getClassLoader(), 1024 * 1024, 0);
+        replicatedLogImpl = new MockAbstractReplicatedLogImpl(journal);
+
+        for(int i = 0; i < 100; i++) {
+            replicatedLogImpl.append(new MockReplicatedLogEntry(1, i, new MockPayload(Integer.toString(i))));
+        }
+
+        assertEquals("segmentCount", 1, journal.segmentCount());
+        assertEquals("size", 100, replicatedLogImpl.size());
+
+        replicatedLogImpl.snapshotPreCommit(49, 1);
+        replicatedLogImpl.snapshotRollback();
+        assertEquals("size", 100, replicatedLogImpl.size());
+        assertEquals("0", replicatedLogImpl.get(0).getData().toString());
+
+        replicatedLogImpl.snapshotPreCommit(89, 1);
+        replicatedLogImpl.snapshotCommit();
+        assertEquals("size", 10, replicatedLogImpl.size());
+        assertEquals("dataSize", 20, replicatedLogImpl.dataSize());
+        assertEquals("segmentCount", 1, journal.segmentCount());
+
+        for(int i = 0; i < 10; i++) {
+            assertEquals(Integer.toString(90 + i), replicatedLogImpl.get(90 + i).getData().toString());
+        }
+    }
+}
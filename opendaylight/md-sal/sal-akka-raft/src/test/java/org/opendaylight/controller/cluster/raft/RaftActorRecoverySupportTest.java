@@ -152,7 +152,9 @@ public class RaftActorRecoverySupportTest {
         }
 
         inOrder.verify(mockCohort).applyCurrentLogRecoveryBatch();
-        inOrder.verify(mockCohort).startLogRecoveryBatch(5);
+
+        // The batch was applied quickly so the batch size is doubled
+        inOrder.verify(mockCohort).startLogRecoveryBatch(10);
         inOrder.verify(mockCohort).appendRecoveredLogEntry(replicatedLog.get(replicatedLog.size() - 1).getData());
 
         inOrder.verifyNoMoreInteractions();
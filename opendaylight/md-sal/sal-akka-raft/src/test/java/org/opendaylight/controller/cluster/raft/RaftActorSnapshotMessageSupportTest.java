@@ -17,6 +17,7 @@ import akka.actor.ActorRef;
 import akka.persistence.SaveSnapshotFailure;
 import akka.persistence.SaveSnapshotSuccess;
 import akka.persistence.SnapshotMetadata;
+import com.google.common.io.ByteSource;
 import java.util.Collections;
 import org.junit.Before;
 import org.junit.Test;
@@ -106,7 +107,7 @@ public class RaftActorSnapshotMessageSupportTest {
     @Test
     public void testOnCaptureSnapshotReply() {
 
-        byte[] snapshot = {1,2,3,4,5};
+        ByteSource snapshot = ByteSource.wrap(new byte[]{1,2,3,4,5});
         sendMessageToSupport(new CaptureSnapshotReply(snapshot));
 
         verify(mockSnapshotManager).persist(same(snapshot), anyLong());
@@ -21,6 +21,7 @@ import org.hamcrest.Matcher;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -98,6 +99,35 @@ public class ReplicatedLogImplTest {
         assertEquals("size", 2, log.size());
     }
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testAppendAndPersistWithGroupCommit() throws Exception {
+        configParams.setJournalGroupCommitEnabled(true);
+
+        ReplicatedLog log = ReplicatedLogImpl.newInstance(context);
+
+        MockReplicatedLogEntry logEntry1 = new MockReplicatedLogEntry(1, 1, new MockPayload("1"));
+        MockReplicatedLogEntry logEntry2 = new MockReplicatedLogEntry(1, 2, new MockPayload("2"));
+        Procedure<ReplicatedLogEntry> mockCallback = Mockito.mock(Procedure.class);
+
+        log.appendAndPersist(logEntry1, mockCallback);
+        log.appendAndPersist(logEntry2, mockCallback);
+
+        ArgumentCaptor<Procedure> procedure = ArgumentCaptor.forClass(Procedure.class);
+        verify(mockPersistence).persistAsync(same(logEntry1), procedure.capture());
+        verify(mockPersistence).persistAsync(same(logEntry2), procedure.capture());
+        verify(mockPersistence, Mockito.never()).persist(Matchers.any(), Matchers.any(Procedure.class));
+
+        assertEquals("size", 2, log.size());
+
+        procedure.getAllValues().get(0).apply(logEntry1);
+        procedure.getAllValues().get(1).apply(logEntry2);
+
+        InOrder inOrder = Mockito.inOrder(mockCallback);
+        inOrder.verify(mockCallback).apply(same(logEntry1));
+        inOrder.verify(mockCallback).apply(same(logEntry2));
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testAppendAndPersisWithDuplicateEntry() throws Exception {
@@ -9,13 +9,16 @@ package org.opendaylight.controller.cluster.raft;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import com.google.common.io.ByteSource;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import org.apache.commons.lang.SerializationUtils;
 import org.junit.Test;
 import org.opendaylight.controller.cluster.raft.MockRaftActorContext.MockPayload;
 
@@ -46,6 +49,33 @@ public class SnapshotTest {
         }
     }
 
+    @Test
+    public void testSerialization() {
+        byte[] state = new byte[10000];
+        Arrays.fill(state, (byte) 7);
+        List<ReplicatedLogEntry> entries = Arrays.<ReplicatedLogEntry>asList(
+                new ReplicatedLogImplEntry(6, 2, new MockPayload("payload")));
+        ServerConfigurationPayload serverConfig = new ServerConfigurationPayload(Arrays.asList(
+                new ServerConfigurationPayload.ServerInfo("1", true)));
+
+        // The state source is streamed rather than copied into the serialized form as a single array
+        Snapshot expected = Snapshot.create(ByteSource.wrap(state), entries, 6, 2, 5, 1, 3, "member-1",
+                serverConfig);
+        Snapshot cloned = (Snapshot) SerializationUtils.clone(expected);
+
+        assertEquals("lastIndex", expected.getLastIndex(), cloned.getLastIndex());
+        assertEquals("lastTerm", expected.getLastTerm(), cloned.getLastTerm());
+        assertEquals("lastAppliedIndex", expected.getLastAppliedIndex(), cloned.getLastAppliedIndex());
+        assertEquals("lastAppliedTerm", expected.getLastAppliedTerm(), cloned.getLastAppliedTerm());
+        assertEquals("unAppliedEntries size", 1, cloned.getUnAppliedEntries().size());
+        assertEquals("unAppliedEntries index", 6, cloned.getUnAppliedEntries().get(0).getIndex());
+        assertArrayEquals("state", state, cloned.getState());
+        assertEquals("electionTerm", 3, cloned.getElectionTerm());
+        assertEquals("electionVotedFor", "member-1", cloned.getElectionVotedFor());
+        assertEquals("serverConfig", serverConfig.getServerConfig(),
+                cloned.getServerConfiguration().getServerConfig());
+    }
+
     private static Snapshot newLithiumSnapshot() {
         byte[] state = {1, 2, 3, 4, 5};
         List<ReplicatedLogEntry> entries = new ArrayList<>();
@@ -8,7 +8,9 @@
 
 package org.opendaylight.controller.cluster.raft.behaviors;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
@@ -22,9 +24,12 @@ import akka.actor.Props;
 import akka.actor.Terminated;
 import akka.testkit.JavaTestKit;
 import akka.testkit.TestActorRef;
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteSource;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -33,6 +38,7 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Test;
+import org.opendaylight.controller.cluster.io.FileBackedOutputStream;
 import org.opendaylight.controller.cluster.raft.DefaultConfigParamsImpl;
 import org.opendaylight.controller.cluster.raft.FollowerLogInformation;
 import org.opendaylight.controller.cluster.raft.MockRaftActorContext;
@@ -583,7 +589,7 @@ public class LeaderTest extends AbstractLeaderTest<Leader> {
         ByteString bs = toByteString(leadersSnapshot);
         leader.setSnapshot(Snapshot.create(bs.toByteArray(), Collections.<ReplicatedLogEntry>emptyList(),
                 commitIndex, snapshotTerm, commitIndex, snapshotTerm));
-        FollowerToSnapshot fts = leader.new FollowerToSnapshot(bs);
+        FollowerToSnapshot fts = leader.new FollowerToSnapshot(ByteSource.wrap(bs.toByteArray()));
         leader.setFollowerSnapshot(FOLLOWER_ID, fts);
 
         //send first chunk and no InstallSnapshotReply received yet
@@ -918,7 +924,7 @@ public class LeaderTest extends AbstractLeaderTest<Leader> {
         ByteString bs = toByteString(leadersSnapshot);
         leader.setSnapshot(Snapshot.create(bs.toByteArray(), Collections.<ReplicatedLogEntry>emptyList(),
                 commitIndex, snapshotTerm, commitIndex, snapshotTerm));
-        FollowerToSnapshot fts = leader.new FollowerToSnapshot(bs);
+        FollowerToSnapshot fts = leader.new FollowerToSnapshot(ByteSource.wrap(bs.toByteArray()));
         leader.setFollowerSnapshot(FOLLOWER_ID, fts);
         while(!fts.isLastChunk(fts.getChunkIndex())) {
             fts.getNextChunk();
@@ -1145,7 +1151,78 @@ public class LeaderTest extends AbstractLeaderTest<Leader> {
     }
 
     @Test
-    public void testFollowerToSnapshotLogic() {
+    public void testHandleSnapshotSendsChunkChecksumsFromFileBackedSnapshot() throws Exception {
+        logStart("testHandleSnapshotSendsChunkChecksumsFromFileBackedSnapshot");
+
+        MockRaftActorContext actorContext = createActorContextWithFollower();
+
+        final int commitIndex = 3;
+        final int snapshotIndex = 2;
+        final int snapshotTerm = 1;
+        final int currentTerm = 2;
+
+        actorContext.setConfigParams(new DefaultConfigParamsImpl() {
+            @Override
+            public int getSnapshotChunkSize() {
+                return 50;
+            }
+        });
+
+        actorContext.setCommitIndex(commitIndex);
+
+        leader = new Leader(actorContext);
+
+        FollowerLogInformation followerInfo = leader.getFollower(FOLLOWER_ID);
+        followerInfo.setMatchIndex(-1);
+        followerInfo.setNextIndex(0);
+        followerInfo.setRaftVersion(RaftVersions.CURRENT_VERSION);
+
+        Map<String, String> leadersSnapshot = new HashMap<>();
+        leadersSnapshot.put("1", "A");
+        leadersSnapshot.put("2", "B");
+        leadersSnapshot.put("3", "C");
+
+        actorContext.getReplicatedLog().setSnapshotIndex(snapshotIndex);
+        actorContext.getReplicatedLog().setSnapshotTerm(snapshotTerm);
+        actorContext.getTermInformation().update(currentTerm, leaderActor.path().toString());
+
+        // Write the snapshot to a file so the chunks are sent as slices of the mapped file
+        byte[] snapshotBytes = toByteString(leadersSnapshot).toByteArray();
+        FileBackedOutputStream snapshotStream = new FileBackedOutputStream(10, null);
+        snapshotStream.write(snapshotBytes);
+        snapshotStream.close();
+
+        Snapshot snapshot = Snapshot.create(snapshotStream.asByteSource(), Collections.<ReplicatedLogEntry>emptyList(),
+                commitIndex, snapshotTerm, commitIndex, snapshotTerm, currentTerm, null, null);
+        leader.setSnapshot(snapshot);
+
+        leader.handleMessage(leaderActor, new SendInstallSnapshot(snapshot));
+
+        ByteString collected = ByteString.EMPTY;
+        for(int chunkIndex = 1; chunkIndex <= 3; chunkIndex++) {
+            InstallSnapshot installSnapshot = MessageCollectorActor.expectFirstMatching(followerActor,
+                    InstallSnapshot.class);
+
+            assertEquals("getChunkIndex", chunkIndex, installSnapshot.getChunkIndex());
+            assertEquals("getTotalChunks", 3, installSnapshot.getTotalChunks());
+            assertFalse("getLastChunkHashCode present", installSnapshot.getLastChunkHashCode().isPresent());
+            assertEquals("getChunkChecksum", Optional.of(InstallSnapshot.checksum(installSnapshot.getDataBuffer())),
+                    installSnapshot.getChunkChecksum());
+
+            collected = collected.concat(ByteString.copyFrom(installSnapshot.getDataBuffer()));
+
+            followerActor.underlyingActor().clear();
+            leader.handleMessage(followerActor, new InstallSnapshotReply(installSnapshot.getTerm(),
+                    FOLLOWER_ID, chunkIndex, true));
+        }
+
+        assertArrayEquals("Snapshot data", snapshotBytes, collected.toByteArray());
+
+        snapshotStream.cleanup();
+    }
+
+    @Test
+    public void testFollowerToSnapshotLogic() throws Exception {
         logStart("testFollowerToSnapshotLogic");
 
         MockRaftActorContext actorContext = createActorContext();
@@ -1167,7 +1244,7 @@ public class LeaderTest extends AbstractLeaderTest<Leader> {
         ByteString bs = toByteString(leadersSnapshot);
         byte[] barray = bs.toByteArray();
 
-        FollowerToSnapshot fts = leader.new FollowerToSnapshot(bs);
+        FollowerToSnapshot fts = leader.new FollowerToSnapshot(ByteSource.wrap(bs.toByteArray()));
         leader.setFollowerSnapshot(FOLLOWER_ID, fts);
 
         assertEquals(bs.size(), barray.length);
@@ -1181,8 +1258,8 @@ public class LeaderTest extends AbstractLeaderTest<Leader> {
                 j = barray.length;
             }
 
-            byte[] chunk = fts.getNextChunk();
-            assertEquals("bytestring size not matching for chunk:"+ chunkIndex, j-i, chunk.length);
+            ByteBuffer chunk = fts.getNextChunk();
+            assertEquals("bytestring size not matching for chunk:"+ chunkIndex, j-i, chunk.remaining());
             assertEquals("chunkindex not matching", chunkIndex, fts.getChunkIndex());
 
             fts.markSendStatus(true);
@@ -9,17 +9,23 @@
 package org.opendaylight.controller.cluster.raft.behaviors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import com.google.common.base.Optional;
+import com.google.common.io.ByteSource;
 import com.google.protobuf.ByteString;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.opendaylight.controller.cluster.io.FileBackedOutputStream;
+import org.opendaylight.controller.cluster.io.MappedFileByteSource;
+import org.opendaylight.controller.cluster.raft.messages.InstallSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,15 +53,15 @@ public class SnapshotTrackerTest {
     }
 
     @Test
-    public void testAddChunk() throws SnapshotTracker.InvalidChunkException {
-        SnapshotTracker tracker1 = new SnapshotTracker(logger, 5);
+    public void testAddChunk() throws Exception {
+        SnapshotTracker tracker1 = new SnapshotTracker(logger, 5, 100);
 
         tracker1.addChunk(1, chunk1, Optional.<Integer>absent());
         tracker1.addChunk(2, chunk2, Optional.<Integer>absent());
         tracker1.addChunk(3, chunk3, Optional.<Integer>absent());
 
         // Verify that an InvalidChunkException is thrown when we try to add a chunk to a sealed tracker
-        SnapshotTracker tracker2 = new SnapshotTracker(logger, 2);
+        SnapshotTracker tracker2 = new SnapshotTracker(logger, 2, 100);
 
         tracker2.addChunk(1, chunk1, Optional.<Integer>absent());
         tracker2.addChunk(2, chunk2, Optional.<Integer>absent());
@@ -68,7 +74,7 @@ public class SnapshotTrackerTest {
         }
 
         // The first chunk's index must at least be FIRST_CHUNK_INDEX
-        SnapshotTracker tracker3 = new SnapshotTracker(logger, 2);
+        SnapshotTracker tracker3 = new SnapshotTracker(logger, 2, 100);
 
         try {
             tracker3.addChunk(AbstractLeader.FIRST_CHUNK_INDEX - 1, chunk1, Optional.<Integer>absent());
@@ -78,7 +84,7 @@ public class SnapshotTrackerTest {
         }
 
         // Out of sequence chunk indexes won't work
-        SnapshotTracker tracker4 = new SnapshotTracker(logger, 2);
+        SnapshotTracker tracker4 = new SnapshotTracker(logger, 2, 100);
 
         tracker4.addChunk(AbstractLeader.FIRST_CHUNK_INDEX, chunk1, Optional.<Integer>absent());
 
@@ -91,7 +97,7 @@ public class SnapshotTrackerTest {
 
         // No exceptions will be thrown when invalid chunk is added with the right sequence
         // If the lastChunkHashCode is missing
-        SnapshotTracker tracker5 = new SnapshotTracker(logger, 2);
+        SnapshotTracker tracker5 = new SnapshotTracker(logger, 2, 100);
 
         tracker5.addChunk(AbstractLeader.FIRST_CHUNK_INDEX, chunk1, Optional.<Integer>absent());
         // Look I can add the same chunk again
@@ -99,7 +105,7 @@ public class SnapshotTrackerTest {
 
         // An exception will be thrown when an invalid chunk is addedd with the right sequence
         // when the lastChunkHashCode is present
-        SnapshotTracker tracker6 = new SnapshotTracker(logger, 2);
+        SnapshotTracker tracker6 = new SnapshotTracker(logger, 2, 100);
 
         tracker6.addChunk(AbstractLeader.FIRST_CHUNK_INDEX, chunk1, Optional.of(-1));
 
@@ -114,10 +120,10 @@ public class SnapshotTrackerTest {
     }
 
     @Test
-    public void testGetSnapShot() throws SnapshotTracker.InvalidChunkException {
+    public void testGetSnapShot() throws Exception {
 
         // Trying to get a snapshot before all chunks have been received will throw an exception
-        SnapshotTracker tracker1 = new SnapshotTracker(logger, 5);
+        SnapshotTracker tracker1 = new SnapshotTracker(logger, 5, 100);
 
         tracker1.addChunk(1, chunk1, Optional.<Integer>absent());
         try {
@@ -127,27 +133,97 @@ public class SnapshotTrackerTest {
 
         }
 
-        SnapshotTracker tracker2 = new SnapshotTracker(logger, 3);
+        SnapshotTracker tracker2 = new SnapshotTracker(logger, 3, 100);
 
         tracker2.addChunk(1, chunk1, Optional.of(AbstractLeader.INITIAL_LAST_CHUNK_HASH_CODE));
         tracker2.addChunk(2, chunk2, Optional.of(Arrays.hashCode(chunk1)));
         tracker2.addChunk(3, chunk3, Optional.of(Arrays.hashCode(chunk2)));
 
-        byte[] snapshot = tracker2.getSnapshot();
+        byte[] snapshot = tracker2.getSnapshot().read();
 
         assertEquals(byteString, ByteString.copyFrom(snapshot));
     }
 
     @Test
-    public void testGetCollectedChunks() throws SnapshotTracker.InvalidChunkException {
-        SnapshotTracker tracker1 = new SnapshotTracker(logger, 5);
+    public void testGetSnapshotWrittenToFile() throws Exception {
+        SnapshotTracker tracker = new SnapshotTracker(logger, 3, 10);
 
-        ByteString chunks = ByteString.copyFrom(chunk1).concat(ByteString.copyFrom(chunk2));
+        tracker.addChunk(1, chunk1, Optional.of(AbstractLeader.INITIAL_LAST_CHUNK_HASH_CODE));
+        tracker.addChunk(2, chunk2, Optional.of(Arrays.hashCode(chunk1)));
+        assertEquals("getCollectedSize", chunk1.length + chunk2.length, tracker.getCollectedSize());
 
-        tracker1.addChunk(1, chunk1, Optional.of(AbstractLeader.INITIAL_LAST_CHUNK_HASH_CODE));
-        tracker1.addChunk(2, chunk2, Optional.of(Arrays.hashCode(chunk1)));
+        tracker.addChunk(3, chunk3, Optional.of(Arrays.hashCode(chunk2)));
 
-        assertEquals(chunks, tracker1.getCollectedChunks());
+        ByteSource snapshot = tracker.getSnapshot();
+        assertTrue("Expected file-backed snapshot", snapshot instanceof MappedFileByteSource);
+        assertEquals(byteString, ByteString.copyFrom(snapshot.read()));
+
+        tracker.close();
+    }
+
+    @Test
+    public void testAddChunkWithChecksum() throws Exception {
+        SnapshotTracker tracker = new SnapshotTracker(logger, 3, 100);
+
+        tracker.addChunk(1, ByteBuffer.wrap(chunk1), Optional.<Integer>absent(),
+                Optional.of(InstallSnapshot.checksum(ByteBuffer.wrap(chunk1))));
+
+        // A chunk which fails its checksum is rejected without affecting the tracker so it can be resent
+        try {
+            tracker.addChunk(2, ByteBuffer.wrap(chunk2), Optional.<Integer>absent(),
+                    Optional.of(InstallSnapshot.checksum(ByteBuffer.wrap(chunk1))));
+            Assert.fail("Expected IOException");
+        } catch(IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("checksum"));
+        }
+
+        tracker.addChunk(2, ByteBuffer.wrap(chunk2), Optional.<Integer>absent(),
+                Optional.of(InstallSnapshot.checksum(ByteBuffer.wrap(chunk2))));
+        tracker.addChunk(3, ByteBuffer.wrap(chunk3), Optional.<Integer>absent(),
+                Optional.of(InstallSnapshot.checksum(ByteBuffer.wrap(chunk3))));
+
+        assertEquals(byteString, ByteString.copyFrom(tracker.getSnapshot().read()));
+    }
+
+    @Test
+    public void testAddChunkFailingToStore() throws Exception {
+        // Stores the first chunk, then only half of the next one before failing
+        FileBackedOutputStream collectedChunks = new FileBackedOutputStream(100, null) {
+            @Override
+            public void write(ByteBuffer buffer) throws IOException {
+                if(getCount() == 0) {
+                    super.write(buffer);
+                    return;
+                }
+
+                ByteBuffer half = buffer.duplicate();
+                half.limit(half.position() + half.remaining() / 2);
+                super.write(half);
+                throw new IOException("Mock failure");
+            }
+        };
+
+        SnapshotTracker tracker = new SnapshotTracker(logger, 3, collectedChunks);
+
+        tracker.addChunk(1, ByteBuffer.wrap(chunk1), Optional.<Integer>absent(),
+                Optional.of(InstallSnapshot.checksum(ByteBuffer.wrap(chunk1))));
+
+        try {
+            tracker.addChunk(2, ByteBuffer.wrap(chunk2), Optional.<Integer>absent(),
+                    Optional.of(InstallSnapshot.checksum(ByteBuffer.wrap(chunk2))));
+            Assert.fail("Expected InvalidChunkException");
+        } catch(SnapshotTracker.InvalidChunkException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("store"));
+        }
+
+        // Part of the chunk was stored, so resending it must not be accepted
+        try {
+            tracker.addChunk(2, ByteBuffer.wrap(chunk2), Optional.<Integer>absent(),
+                    Optional.of(InstallSnapshot.checksum(ByteBuffer.wrap(chunk2))));
+            Assert.fail("Expected InvalidChunkException");
+        } catch(SnapshotTracker.InvalidChunkException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("could not be stored"));
+        }
     }
 
     public byte[] getNextChunk (ByteString bs, int offset, int size){
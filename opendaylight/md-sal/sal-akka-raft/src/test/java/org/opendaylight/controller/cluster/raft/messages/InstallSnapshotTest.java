@@ -11,6 +11,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import com.google.common.base.Optional;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import org.apache.commons.lang.SerializationUtils;
 import org.junit.Test;
@@ -54,6 +55,42 @@ public class InstallSnapshotTest {
         verifyInstallSnapshot(expected, actual);
     }
 
+    @Test
+    public void testSerializationWithChunkChecksum() {
+        byte[] bytes = {0,1,2,3,4,5,7,8,9};
+        ByteBuffer data = ByteBuffer.allocateDirect(bytes.length);
+        data.put(bytes);
+        data.flip();
+
+        InstallSnapshot expected = new InstallSnapshot(3L, "leaderId", 11L, 2L, data, 5, 6,
+                Optional.<Integer>absent(), Optional.of(InstallSnapshot.checksum(data)),
+                Optional.<ServerConfigurationPayload>absent());
+        assertArrayEquals("getData", bytes, expected.getData());
+
+        InstallSnapshot actual = InstallSnapshot.fromSerializable(SerializationUtils.clone(
+                (Serializable) expected.toSerializable(RaftVersions.CURRENT_VERSION)));
+        verifyInstallSnapshot(expected, actual);
+        assertEquals("getChunkChecksum", expected.getChunkChecksum(), actual.getChunkChecksum());
+        assertEquals("checksum", expected.getChunkChecksum().get().longValue(),
+                InstallSnapshot.checksum(actual.getDataBuffer()));
+    }
+
+    @Test
+    public void testSerializationWithBoronVersion() {
+        byte[] data = {0,1,2,3,4,5,7,8,9};
+        InstallSnapshot expected = new InstallSnapshot(3L, "leaderId", 11L, 2L, ByteBuffer.wrap(data), 5, 6,
+                Optional.<Integer>of(54321), Optional.of(InstallSnapshot.checksum(ByteBuffer.wrap(data))),
+                Optional.<ServerConfigurationPayload>absent());
+
+        Object serialized = expected.toSerializable(RaftVersions.BORON_VERSION);
+        assertEquals("Serialized type", InstallSnapshot.class, serialized.getClass());
+
+        // The checksum is not understood by a Boron follower so it is not sent
+        InstallSnapshot actual = InstallSnapshot.fromSerializable(SerializationUtils.clone((Serializable) serialized));
+        verifyInstallSnapshot(expected, actual);
+        assertEquals("getChunkChecksum present", false, actual.getChunkChecksum().isPresent());
+    }
+
     @Test
     public void testSerializationWithPreBoronVersion() {
         byte[] data = {0,1,2,3,4,5,7,8,9};
@@ -31,6 +31,17 @@ public interface DataPersistenceProvider {
      */
     <T> void persist(T o, Procedure<T> procedure);
 
+    /**
+     * Persist a journal entry asynchronously, ie without deferring the processing of subsequent messages until the
+     * entry is persisted. Entries persisted while a previous journal write is still in progress are batched into
+     * a single journal write. The procedure is invoked in order once the entry is persisted.
+     *
+     * @param o
+     * @param procedure
+     * @param <T>
+     */
+    <T> void persistAsync(T o, Procedure<T> procedure);
+
     /**
      * Save a snapshot
      *
@@ -40,6 +40,11 @@ public class DelegatingPersistentDataProvider implements DataPersistenceProvider
         delegate.persist(o, procedure);
     }
 
+    @Override
+    public <T> void persistAsync(T o, Procedure<T> procedure) {
+        delegate.persistAsync(o, procedure);
+    }
+
     @Override
     public void saveSnapshot(Object o) {
         delegate.saveSnapshot(o);
@@ -32,6 +32,11 @@ public class NonPersistentDataProvider implements DataPersistenceProvider {
         }
     }
 
+    @Override
+    public <T> void persistAsync(T o, Procedure<T> procedure) {
+        persist(o, procedure);
+    }
+
     @Override
     public void saveSnapshot(Object o) {
     }
@@ -33,6 +33,11 @@ public class PersistentDataProvider implements DataPersistenceProvider {
         persistentActor.persist(o, procedure);
     }
 
+    @Override
+    public <T> void persistAsync(T o, Procedure<T> procedure) {
+        persistentActor.persistAsync(o, procedure);
+    }
+
     @Override
     public void saveSnapshot(Object o) {
         persistentActor.saveSnapshot(o);
@@ -10,6 +10,7 @@ package org.opendaylight.controller.cluster.datastore.node.utils.stream;
 import com.google.common.annotations.Beta;
 import java.io.DataInput;
 import java.io.IOException;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;;
@@ -31,4 +32,6 @@ public interface NormalizedNodeDataInput extends DataInput {
     YangInstanceIdentifier readYangInstanceIdentifier() throws IOException;
 
     PathArgument readPathArgument() throws IOException;
+
+    QName readQName() throws IOException;
 }
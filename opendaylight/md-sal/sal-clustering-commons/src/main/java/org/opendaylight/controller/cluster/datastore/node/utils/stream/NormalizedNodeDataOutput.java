@@ -10,6 +10,7 @@ package org.opendaylight.controller.cluster.datastore.node.utils.stream;
 import com.google.common.annotations.Beta;
 import java.io.DataOutput;
 import java.io.IOException;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;;
@@ -22,6 +23,7 @@ public interface NormalizedNodeDataOutput extends AutoCloseable, DataOutput {
     void writeNormalizedNode(NormalizedNode<?, ?> normalizedNode) throws IOException;
     void writePathArgument(PathArgument pathArgument) throws IOException;
     void writeYangInstanceIdentifier(YangInstanceIdentifier identifier) throws IOException;
+    void writeQName(QName qname) throws IOException;
 
     @Override
     void close() throws IOException;
@@ -227,7 +227,10 @@ public class NormalizedNodeInputStreamReader implements NormalizedNodeDataInput
         }
     }
 
-    private QName readQName() throws IOException {
+    @Override
+    public QName readQName() throws IOException {
+        readSignatureMarkerAndVersionIfNeeded();
+
         // Read in the same sequence of writing
         String localName = readCodedString();
         String namespace = readCodedString();
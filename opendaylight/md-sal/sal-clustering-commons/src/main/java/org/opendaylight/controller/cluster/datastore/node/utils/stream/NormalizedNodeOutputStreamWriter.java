@@ -41,7 +41,7 @@ final class NormalizedNodeOutputStreamWriter extends AbstractNormalizedNodeDataO
     }
 
     @Override
-    protected void writeQName(final QName qname) throws IOException {
+    public void writeQName(final QName qname) throws IOException {
         writeString(qname.getLocalName());
         writeString(qname.getNamespace().toString());
         writeString(qname.getFormattedRevision());
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.io;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteSource;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An OutputStream which buffers data in memory until it exceeds a threshold, after which it is written to a temporary
+ * file. This is similar to Guava's FileBackedOutputStream but the data can only be read after the stream is closed
+ * and, if it was written to a file, it is exposed as a {@link MappedFileByteSource} so regions of it can be
+ * memory-mapped rather than copied. The temporary file is deleted by {@link #cleanup()} or, failing that, when this
+ * stream and the ByteSource obtained from it are no longer referenced.
+ *
+ * <p>
+ * This class is not thread-safe.
+ */
+public class FileBackedOutputStream extends OutputStream {
+    private static final Logger LOG = LoggerFactory.getLogger(FileBackedOutputStream.class);
+
+    private final int fileThreshold;
+    private final File fileDirectory;
+
+    private MemoryOutputStream memory = new MemoryOutputStream();
+    private OutputStream out = memory;
+    private File file;
+    private long count;
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param fileThreshold the number of bytes after which the data is written to a file
+     * @param fileDirectory the directory in which to create the file or null for the default temporary directory
+     */
+    public FileBackedOutputStream(int fileThreshold, @Nullable File fileDirectory) {
+        this.fileThreshold = fileThreshold;
+        this.fileDirectory = fileDirectory;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        update(1);
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        update(len);
+        out.write(b, off, len);
+        count += len;
+    }
+
+    /**
+     * Writes the remaining bytes of the given buffer. The buffer's position is not changed.
+     */
+    public void write(ByteBuffer buffer) throws IOException {
+        final int len = buffer.remaining();
+        if(buffer.hasArray()) {
+            write(buffer.array(), buffer.arrayOffset() + buffer.position(), len);
+            return;
+        }
+
+        update(len);
+        if(out instanceof FileOutputStream) {
+            final FileChannel channel = ((FileOutputStream) out).getChannel();
+            final ByteBuffer dup = buffer.duplicate();
+            while(dup.hasRemaining()) {
+                channel.write(dup);
+            }
+        } else {
+            final byte[] bytes = new byte[len];
+            buffer.duplicate().get(bytes);
+            out.write(bytes);
+        }
+
+        count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(!closed) {
+            closed = true;
+            out.close();
+        }
+    }
+
+    /**
+     * Returns the number of bytes written.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns a ByteSource over the written data. If the data was written to a file, the returned instance is a
+     * {@link MappedFileByteSource}.
+     *
+     * @throws IllegalStateException if the stream has not been closed
+     */
+    public ByteSource asByteSource() {
+        Preconditions.checkState(closed, "Stream is not closed");
+
+        if(file != null) {
+            return new MappedFileByteSource(file, 0, count, this);
+        }
+
+        return ByteSource.wrap(memory.getBuffer()).slice(0, memory.size());
+    }
+
+    /**
+     * Closes the stream and deletes the file, if one was created. Any ByteSource previously obtained from this stream
+     * must no longer be used.
+     */
+    public void cleanup() {
+        try {
+            close();
+        } catch(IOException e) {
+            LOG.debug("Error closing {}", this, e);
+        }
+
+        memory = null;
+        if(file != null) {
+            if(!file.delete() && file.exists()) {
+                LOG.warn("Could not delete temp file {}", file);
+            }
+
+            file = null;
+        }
+    }
+
+    @Override
+    protected void finalize() throws Throwable {
+        try {
+            cleanup();
+        } finally {
+            super.finalize();
+        }
+    }
+
+    private void update(int len) throws IOException {
+        Preconditions.checkState(!closed, "Stream is closed");
+
+        if(file == null && memory.size() + len > fileThreshold) {
+            final File temp = File.createTempFile("FileBackedOutputStream", null, fileDirectory);
+            temp.deleteOnExit();
+
+            LOG.debug("Byte count {} exceeds threshold {} - switching to file {}", memory.size() + len,
+                    fileThreshold, temp);
+
+            final FileOutputStream transfer = new FileOutputStream(temp);
+            try {
+                transfer.write(memory.getBuffer(), 0, memory.size());
+                transfer.flush();
+            } catch(IOException e) {
+                transfer.close();
+                temp.delete();
+                throw e;
+            }
+
+            // Subsequent writes go directly to the file
+            out = transfer;
+            file = temp;
+            memory = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FileBackedOutputStream [fileThreshold=" + fileThreshold + ", count=" + count + ", file=" + file + "]";
+    }
+
+    /**
+     * ByteArrayOutputStream which exposes its buffer to avoid copying.
+     */
+    private static class MemoryOutputStream extends ByteArrayOutputStream {
+        byte[] getBuffer() {
+            return buf;
+        }
+    }
+}
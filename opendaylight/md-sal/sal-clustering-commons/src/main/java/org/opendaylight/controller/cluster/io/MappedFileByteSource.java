@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.io;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A ByteSource over a region of a file which can be memory-mapped, so a slice of a large file can be accessed without
+ * copying it onto the heap.
+ */
+public final class MappedFileByteSource extends ByteSource {
+    private final File file;
+    private final long offset;
+    private final long length;
+
+    // Keeps the owner of the file, eg a FileBackedOutputStream which deletes it on finalization, reachable.
+    @SuppressWarnings("unused")
+    private final Object owner;
+
+    MappedFileByteSource(File file, long offset, long length, Object owner) {
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+        this.owner = owner;
+    }
+
+    @Override
+    public long size() {
+        return length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+        final InputStream in = new FileInputStream(file);
+        try {
+            ByteStreams.skipFully(in, offset);
+        } catch(IOException e) {
+            in.close();
+            throw e;
+        }
+
+        return ByteStreams.limit(new BufferedInputStream(in), length);
+    }
+
+    @Override
+    public ByteSource slice(long sliceOffset, long sliceLength) {
+        Preconditions.checkArgument(sliceOffset >= 0, "offset (%s) may not be negative", sliceOffset);
+        Preconditions.checkArgument(sliceLength >= 0, "length (%s) may not be negative", sliceLength);
+        final long newOffset = Math.min(sliceOffset, length);
+        return new MappedFileByteSource(file, offset + newOffset, Math.min(sliceLength, length - newOffset), owner);
+    }
+
+    /**
+     * Memory-maps the region of the file. The returned buffer is read-only and remains valid until it is garbage
+     * collected.
+     *
+     * @throws IllegalStateException if the region is larger than can be mapped into a single buffer
+     */
+    public ByteBuffer map() throws IOException {
+        Preconditions.checkState(length <= Integer.MAX_VALUE, "Region of %s bytes is too large to map", length);
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(MapMode.READ_ONLY, offset, length);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MappedFileByteSource [file=" + file + ", offset=" + offset + ", length=" + length + "]";
+    }
+}
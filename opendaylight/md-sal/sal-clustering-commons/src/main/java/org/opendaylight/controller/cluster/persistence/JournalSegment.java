@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.persistence;
+
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A fixed-size, memory-mapped journal segment file. Entries are appended sequentially, each consisting of a record
+ * header (payload length, payload CRC32 and sequence number) followed by the payload bytes. The end of the written
+ * data is marked by a zero length, which is what a freshly-created file contains. The position of each entry is kept
+ * in primitive arrays indexed by sequence number so entries can be located without scanning the file.
+ *
+ * <p>
+ * This class is not thread-safe.
+ */
+final class JournalSegment implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(JournalSegment.class);
+
+    private static final int MAGIC = 0x4F444C4A;
+    private static final int VERSION = 1;
+
+    // magic, version, first sequence number
+    static final int HEADER_SIZE = 16;
+
+    // length, crc, sequence number
+    static final int RECORD_HEADER_SIZE = 16;
+
+    private static final int INITIAL_INDEX_CAPACITY = 256;
+
+    private final File file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long firstSequenceNr;
+
+    private long[] sequenceNrs = new long[INITIAL_INDEX_CAPACITY];
+    private int[] positions = new int[INITIAL_INDEX_CAPACITY];
+    private int entryCount;
+    private int writePosition = HEADER_SIZE;
+
+    private JournalSegment(File file, FileChannel channel, MappedByteBuffer buffer, long firstSequenceNr) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.firstSequenceNr = firstSequenceNr;
+    }
+
+    /**
+     * Creates a new segment file of the given size.
+     */
+    static JournalSegment create(File file, int size, long firstSequenceNr) throws IOException {
+        Preconditions.checkArgument(size > HEADER_SIZE + RECORD_HEADER_SIZE, "Segment size %s is too small", size);
+        Preconditions.checkState(!file.exists(), "Segment file %s already exists", file);
+
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, firstSequenceNr);
+
+        return new JournalSegment(file, channel, buffer, firstSequenceNr);
+    }
+
+    /**
+     * Opens an existing segment file and rebuilds its index by scanning the written entries. Scanning stops at the
+     * first entry which is incomplete or fails its checksum, ie which was torn by a crash, and subsequent appends
+     * overwrite it.
+     */
+    static JournalSegment open(File file) throws IOException {
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        final long size = channel.size();
+        if(size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException(String.format("Segment file %s has invalid size %d", file, size));
+        }
+
+        final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+        if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException(String.format("Segment file %s has an invalid header", file));
+        }
+
+        final JournalSegment segment = new JournalSegment(file, channel, buffer, buffer.getLong(8));
+        segment.scan();
+        return segment;
+    }
+
+    private void scan() {
+        final CRC32 crc = new CRC32();
+        int position = HEADER_SIZE;
+        while(position + RECORD_HEADER_SIZE <= buffer.limit()) {
+            final int length = buffer.getInt(position);
+            if(length <= 0 || position + RECORD_HEADER_SIZE + length > buffer.limit()) {
+                break;
+            }
+
+            final byte[] payload = readPayload(position, length);
+            crc.reset();
+            crc.update(payload);
+            if((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+
+            addToIndex(buffer.getLong(position + 8), position);
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        writePosition = position;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    long getFirstSequenceNr() {
+        return firstSequenceNr;
+    }
+
+    int getEntryCount() {
+        return entryCount;
+    }
+
+    boolean isEmpty() {
+        return entryCount == 0;
+    }
+
+    /**
+     * Returns the sequence number of the last entry or, if the segment is empty, the sequence number immediately
+     * preceding the first one this segment was created for.
+     */
+    long getLastSequenceNr() {
+        return entryCount > 0 ? sequenceNrs[entryCount - 1] : firstSequenceNr - 1;
+    }
+
+    long getSequenceNr(int entryIndex) {
+        return sequenceNrs[entryIndex];
+    }
+
+    /**
+     * Checks whether an entry with a payload of the given length fits into the remaining space.
+     */
+    boolean hasCapacity(int payloadLength) {
+        return (long) writePosition + RECORD_HEADER_SIZE + payloadLength <= buffer.limit();
+    }
+
+    void append(long sequenceNr, byte[] payload) {
+        Preconditions.checkState(hasCapacity(payload.length), "Segment %s does not have capacity for %s bytes",
+                file, payload.length);
+        Preconditions.checkArgument(sequenceNr > getLastSequenceNr(), "Sequence number %s is not greater than %s",
+                sequenceNr, getLastSequenceNr());
+
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        // Write the payload and then the header so a torn write is never seen as a valid entry
+        final int position = writePosition;
+        final ByteBuffer dup = buffer.duplicate();
+        dup.position(position + RECORD_HEADER_SIZE);
+        dup.put(payload);
+        buffer.putLong(position + 8, sequenceNr);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, payload.length);
+
+        writePosition = position + RECORD_HEADER_SIZE + payload.length;
+        markEnd();
+
+        addToIndex(sequenceNr, position);
+    }
+
+    /**
+     * Discards all entries from the given entry index on.
+     */
+    void truncate(int fromEntryIndex) {
+        if(fromEntryIndex >= entryCount) {
+            return;
+        }
+
+        writePosition = positions[fromEntryIndex];
+        entryCount = fromEntryIndex;
+        markEnd();
+    }
+
+    private void markEnd() {
+        if(writePosition + 4 <= buffer.limit()) {
+            buffer.putInt(writePosition, 0);
+        }
+    }
+
+    /**
+     * Returns the index of the first entry whose sequence number is greater than or equal to the given one, or the
+     * entry count if there is no such entry.
+     */
+    int indexOf(long sequenceNr) {
+        int pos = Arrays.binarySearch(sequenceNrs, 0, entryCount, sequenceNr);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    byte[] read(int entryIndex) {
+        Preconditions.checkElementIndex(entryIndex, entryCount);
+        final int position = positions[entryIndex];
+        return readPayload(position, buffer.getInt(position));
+    }
+
+    private byte[] readPayload(int position, int length) {
+        final byte[] payload = new byte[length];
+        final ByteBuffer dup = buffer.duplicate();
+        dup.position(position + RECORD_HEADER_SIZE);
+        dup.get(payload);
+        return payload;
+    }
+
+    private void addToIndex(long sequenceNr, int position) {
+        if(entryCount == sequenceNrs.length) {
+            sequenceNrs = Arrays.copyOf(sequenceNrs, entryCount * 2);
+            positions = Arrays.copyOf(positions, entryCount * 2);
+        }
+
+        sequenceNrs[entryCount] = sequenceNr;
+        positions[entryCount] = position;
+        entryCount++;
+    }
+
+    /**
+     * Flushes written entries to the storage device.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Closes and deletes the segment file. The file is unmapped right away rather than once the buffer is garbage
+     * collected, so its space is freed promptly and it can be deleted on platforms which refuse to delete mapped files.
+     * The segment must not be used afterwards.
+     */
+    void delete() throws IOException {
+        close();
+        unmap(buffer);
+        if(!file.delete() && file.exists()) {
+            throw new IOException("Failed to delete segment file " + file);
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Object cleaner = cleanerMethod.invoke(buffer);
+            if(cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch(ReflectiveOperationException | RuntimeException e) {
+            LOG.debug("Could not unmap buffer, it will be unmapped once it is garbage collected", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JournalSegment [file=" + file + ", firstSequenceNr=" + firstSequenceNr + ", entryCount=" + entryCount
+                + ", writePosition=" + writePosition + "]";
+    }
+}
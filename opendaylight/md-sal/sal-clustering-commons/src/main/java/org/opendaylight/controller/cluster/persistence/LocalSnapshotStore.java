@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.persistence;
+
+import akka.dispatch.Futures;
+import akka.persistence.SelectedSnapshot;
+import akka.persistence.SnapshotMetadata;
+import akka.persistence.SnapshotSelectionCriteria;
+import akka.persistence.snapshot.japi.SnapshotStore;
+import akka.serialization.Serialization;
+import akka.serialization.SerializationExtension;
+import com.typesafe.config.Config;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import scala.concurrent.ExecutionContext;
+import scala.concurrent.Future;
+
+/**
+ * An akka persistence snapshot store plugin which stores each snapshot in a file, like akka's own local snapshot
+ * store. Unlike the akka store, it does not serialize a snapshot into a byte[] before writing it - snapshots are
+ * written with java serialization directly to the file so a snapshot whose state is backed by a file, or which
+ * otherwise serializes itself incrementally, never has to be fully materialized in memory.
+ *
+ * <p>
+ * Files written by akka's local snapshot store use the same naming scheme and are still read, so an existing
+ * snapshot directory can be used as is. Snapshots which are not {@link Serializable} are written in akka's format.
+ *
+ * <p>
+ * The plugin is configured as follows:
+ * <pre>
+ * akka.persistence.snapshot-store.local {
+ *   class = "org.opendaylight.controller.cluster.persistence.LocalSnapshotStore"
+ *   dir = "snapshots"
+ *   max-load-attempts = 3
+ * }
+ * </pre>
+ */
+public class LocalSnapshotStore extends SnapshotStore {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalSnapshotStore.class);
+
+    public static final String DIR = "dir";
+    public static final String MAX_LOAD_ATTEMPTS = "max-load-attempts";
+    public static final int DEFAULT_MAX_LOAD_ATTEMPTS = 3;
+
+    private static final String FILE_PREFIX = "snapshot-";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private static final Comparator<SnapshotMetadata> LATEST_FIRST = new Comparator<SnapshotMetadata>() {
+        @Override
+        public int compare(SnapshotMetadata m1, SnapshotMetadata m2) {
+            int cmp = Long.compare(m2.sequenceNr(), m1.sequenceNr());
+            return cmp != 0 ? cmp : Long.compare(m2.timestamp(), m1.timestamp());
+        }
+    };
+
+    private final ExecutionContext executionContext;
+    private final Serialization serialization;
+    private final File snapshotDir;
+    private final int maxLoadAttempts;
+
+    public LocalSnapshotStore(Config config) {
+        snapshotDir = new File(config.getString(DIR));
+        maxLoadAttempts = config.hasPath(MAX_LOAD_ATTEMPTS) ? Math.max(1, config.getInt(MAX_LOAD_ATTEMPTS)) :
+            DEFAULT_MAX_LOAD_ATTEMPTS;
+
+        executionContext = context().dispatcher();
+        serialization = SerializationExtension.get(context().system());
+
+        LOG.debug("Initialized with dir {} and max load attempts {}", snapshotDir, maxLoadAttempts);
+    }
+
+    @Override
+    public void preStart() throws Exception {
+        if(!snapshotDir.isDirectory() && !snapshotDir.mkdirs()) {
+            throw new IOException("Failed to create snapshot directory " + snapshotDir);
+        }
+
+        super.preStart();
+    }
+
+    @Override
+    public Future<Optional<SelectedSnapshot>> doLoadAsync(final String persistenceId,
+            final SnapshotSelectionCriteria criteria) {
+        LOG.debug("doLoadAsync for {}: {}", persistenceId, criteria);
+
+        final List<SnapshotMetadata> metadatas = getSnapshotMetadatas(persistenceId, criteria);
+        if(metadatas.isEmpty()) {
+            return Futures.successful(Optional.<SelectedSnapshot>empty());
+        }
+
+        return Futures.future(() -> doLoad(metadatas), executionContext);
+    }
+
+    private Optional<SelectedSnapshot> doLoad(List<SnapshotMetadata> metadatas) throws Exception {
+        // Fall back to older snapshots if the latest ones can't be read, eg if a write was torn by a crash.
+        Exception failure = null;
+        for(int i = 0; i < metadatas.size() && i < maxLoadAttempts; i++) {
+            final SnapshotMetadata metadata = metadatas.get(i);
+            final File file = toSnapshotFile(metadata);
+            try {
+                final Object snapshot = deserialize(file);
+
+                LOG.debug("Loaded snapshot from {}", file);
+                return Optional.of(new SelectedSnapshot(metadata, snapshot));
+            } catch(Exception e) {
+                LOG.error("Failed to load snapshot from {}", file, e);
+                failure = e;
+            }
+        }
+
+        throw failure;
+    }
+
+    private Object deserialize(File file) throws Exception {
+        try(InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            in.mark(2);
+            final boolean javaSerialized = (in.read() << 8 | in.read()) == ObjectStreamConstants.STREAM_MAGIC;
+            in.reset();
+
+            if(javaSerialized) {
+                try(ObjectInputStream objectIn = new ObjectInputStream(in)) {
+                    return objectIn.readObject();
+                }
+            }
+        }
+
+        // Written by akka's local snapshot store or for a snapshot which isn't Serializable
+        return serialization.deserialize(Files.readAllBytes(file.toPath()),
+                akka.persistence.serialization.Snapshot.class).get().data();
+    }
+
+    @Override
+    public Future<Void> doSaveAsync(final SnapshotMetadata metadata, final Object snapshot) {
+        LOG.debug("doSaveAsync for {}", metadata);
+
+        return Futures.future(() -> doSave(metadata, snapshot), executionContext);
+    }
+
+    private Void doSave(SnapshotMetadata metadata, Object snapshot) throws IOException {
+        final File file = toSnapshotFile(metadata);
+        final File tmpFile = new File(snapshotDir, file.getName() + TMP_SUFFIX);
+
+        try(FileOutputStream fileOut = new FileOutputStream(tmpFile)) {
+            if(snapshot instanceof Serializable) {
+                final ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(fileOut));
+                out.writeObject(snapshot);
+                out.flush();
+            } else {
+                fileOut.write(serialization.serialize(new akka.persistence.serialization.Snapshot(snapshot)).get());
+            }
+
+            fileOut.getFD().sync();
+        } catch(IOException | RuntimeException e) {
+            tmpFile.delete();
+            throw e;
+        }
+
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+        LOG.debug("Saved snapshot to {}", file);
+        return null;
+    }
+
+    @Override
+    public Future<Void> doDeleteAsync(final SnapshotMetadata metadata) {
+        LOG.debug("doDeleteAsync for {}", metadata);
+
+        // A timestamp of 0 matches any snapshot with the sequence number
+        final SnapshotSelectionCriteria criteria = metadata.timestamp() == 0 ?
+            new SnapshotSelectionCriteria(metadata.sequenceNr(), Long.MAX_VALUE, metadata.sequenceNr(), 0L) :
+            new SnapshotSelectionCriteria(metadata.sequenceNr(), metadata.timestamp(), metadata.sequenceNr(),
+                    metadata.timestamp());
+        return doDeleteAsync(metadata.persistenceId(), criteria);
+    }
+
+    @Override
+    public Future<Void> doDeleteAsync(final String persistenceId, final SnapshotSelectionCriteria criteria) {
+        LOG.debug("doDeleteAsync for {}: {}", persistenceId, criteria);
+
+        final List<SnapshotMetadata> metadatas = getSnapshotMetadatas(persistenceId, criteria);
+        return Futures.future(() -> {
+            for(SnapshotMetadata metadata: metadatas) {
+                final File file = toSnapshotFile(metadata);
+                if(!file.delete() && file.exists()) {
+                    throw new IOException("Failed to delete snapshot file " + file);
+                }
+
+                LOG.debug("Deleted snapshot {}", file);
+            }
+
+            return null;
+        }, executionContext);
+    }
+
+    /**
+     * Returns the metadata of the stored snapshots of the given persistence id which match the criteria, latest
+     * first.
+     */
+    private List<SnapshotMetadata> getSnapshotMetadatas(String persistenceId, SnapshotSelectionCriteria criteria) {
+        final File[] files = snapshotDir.listFiles();
+        if(files == null) {
+            return Collections.emptyList();
+        }
+
+        final String prefix = FILE_PREFIX + encode(persistenceId) + "-";
+        final List<SnapshotMetadata> metadatas = new ArrayList<>();
+        for(File file: files) {
+            final String name = file.getName();
+            if(!name.startsWith(prefix)) {
+                continue;
+            }
+
+            // The remainder is <sequence number>-<timestamp> - anything else is a temporary file or belongs to a
+            // persistence id which starts with this one.
+            final String remainder = name.substring(prefix.length());
+            final int dash = remainder.indexOf('-');
+            if(dash < 0 || !isNumber(remainder, 0, dash) || !isNumber(remainder, dash + 1, remainder.length())) {
+                continue;
+            }
+
+            final long sequenceNr = Long.parseLong(remainder.substring(0, dash));
+            final long timestamp = Long.parseLong(remainder.substring(dash + 1));
+            if(sequenceNr <= criteria.maxSequenceNr() && timestamp <= criteria.maxTimestamp()
+                    && sequenceNr >= criteria.minSequenceNr() && timestamp >= criteria.minTimestamp()) {
+                metadatas.add(new SnapshotMetadata(persistenceId, sequenceNr, timestamp));
+            }
+        }
+
+        Collections.sort(metadatas, LATEST_FIRST);
+        return metadatas;
+    }
+
+    private File toSnapshotFile(SnapshotMetadata metadata) {
+        return new File(snapshotDir, FILE_PREFIX + encode(metadata.persistenceId()) + "-" + metadata.sequenceNr()
+                + "-" + metadata.timestamp());
+    }
+
+    private static boolean isNumber(String str, int from, int to) {
+        if(from >= to || to - from > 18) {
+            return false;
+        }
+
+        for(int i = from; i < to; i++) {
+            if(!Character.isDigit(str.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String encode(String persistenceId) {
+        try {
+            return URLEncoder.encode(persistenceId, StandardCharsets.UTF_8.name());
+        } catch(UnsupportedEncodingException e) {
+            // Shouldn't happen - UTF-8 is always supported
+            throw new IllegalStateException(e);
+        }
+    }
+}
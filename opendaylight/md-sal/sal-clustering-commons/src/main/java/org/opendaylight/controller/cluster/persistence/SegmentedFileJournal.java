@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.persistence;
+
+import akka.dispatch.Futures;
+import akka.persistence.AtomicWrite;
+import akka.persistence.PersistentRepr;
+import akka.persistence.journal.japi.AsyncWriteJournal;
+import akka.serialization.Serialization;
+import akka.serialization.SerializationExtension;
+import com.typesafe.config.Config;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import scala.concurrent.Future;
+
+/**
+ * An akka persistence journal plugin which stores the journal of each persistence id in a directory of append-only,
+ * memory-mapped segment files. Unlike the generic LevelDB journal it does not maintain a sorted key index - entries
+ * are always appended in sequence number order and located via an in-memory index rebuilt when a journal is first
+ * accessed. All the writes of a single {@link #doAsyncWriteMessages(Iterable)} call are flushed to disk together.
+ *
+ * <p>
+ * The plugin is configured as follows:
+ * <pre>
+ * segmented-file-journal {
+ *   class = "org.opendaylight.controller.cluster.persistence.SegmentedFileJournal"
+ *   root-directory = "segmented-journal"
+ *   max-segment-size = 16M
+ * }
+ * </pre>
+ *
+ * <p>
+ * All journal operations are performed synchronously on the plugin actor so the plugin should be run on a dedicated
+ * dispatcher.
+ */
+public class SegmentedFileJournal extends AsyncWriteJournal {
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentedFileJournal.class);
+
+    public static final String ROOT_DIRECTORY = "root-directory";
+    public static final String MAX_SEGMENT_SIZE = "max-segment-size";
+    public static final int DEFAULT_MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private final Map<String, SegmentedLog> logs = new HashMap<>();
+    private final Serialization serialization;
+    private final File rootDirectory;
+    private final int maxSegmentSize;
+
+    public SegmentedFileJournal(Config config) {
+        rootDirectory = new File(config.getString(ROOT_DIRECTORY));
+        if(config.hasPath(MAX_SEGMENT_SIZE)) {
+            long size = config.getBytes(MAX_SEGMENT_SIZE);
+            SegmentedLog.checkSegmentSize(size);
+            maxSegmentSize = (int) size;
+        } else {
+            maxSegmentSize = DEFAULT_MAX_SEGMENT_SIZE;
+        }
+
+        serialization = SerializationExtension.get(context().system());
+
+        LOG.debug("Initialized with root directory {} with segment size {}", rootDirectory, maxSegmentSize);
+    }
+
+    @Override
+    public Future<Iterable<Optional<Exception>>> doAsyncWriteMessages(Iterable<AtomicWrite> messages) {
+        final List<Optional<Exception>> results = new ArrayList<>();
+        final List<SegmentedLog> written = new ArrayList<>();
+        try {
+            for(AtomicWrite write: messages) {
+                // Copy to array - workaround for eclipse "ambiguous method" errors for toIterator, toIterable etc
+                final PersistentRepr[] reprs = new PersistentRepr[write.payload().size()];
+                write.payload().copyToArray(reprs);
+
+                // Serialize the whole write up front - a serialization failure rejects the write without
+                // touching the journal.
+                final byte[][] payloads = new byte[reprs.length][];
+                try {
+                    for(int i = 0; i < reprs.length; i++) {
+                        payloads[i] = serialization.findSerializerFor(reprs[i]).toBinary(reprs[i]);
+                    }
+                } catch(Exception e) {
+                    LOG.warn("Failed to serialize write for {}", write.persistenceId(), e);
+                    results.add(Optional.of(e));
+                    continue;
+                }
+
+                final SegmentedLog log = log(write.persistenceId());
+                final SegmentedLog.Mark mark = log.mark();
+                try {
+                    for(int i = 0; i < reprs.length; i++) {
+                        log.append(reprs[i].sequenceNr(), payloads[i]);
+                    }
+                } catch(IOException | RuntimeException e) {
+                    log.rollback(mark);
+                    throw e;
+                }
+
+                if(!written.contains(log)) {
+                    written.add(log);
+                }
+
+                results.add(Optional.empty());
+            }
+
+            for(SegmentedLog log: written) {
+                log.flush();
+            }
+        } catch(Exception e) {
+            LOG.error("Failed to write journal messages", e);
+            return Futures.failed(e);
+        }
+
+        return Futures.successful(results);
+    }
+
+    @Override
+    public Future<Void> doAsyncReplayMessages(final String persistenceId, final long fromSequenceNr,
+            final long toSequenceNr, final long max, final Consumer<PersistentRepr> replayCallback) {
+        LOG.debug("doAsyncReplayMessages for {}: fromSequenceNr: {}, toSequenceNr: {}, max: {}", persistenceId,
+                fromSequenceNr, toSequenceNr, max);
+
+        try {
+            log(persistenceId).replay(fromSequenceNr, toSequenceNr, max, (sequenceNr, payload) ->
+                replayCallback.accept(serialization.deserialize(payload, PersistentRepr.class).get()));
+        } catch(Exception e) {
+            LOG.error("Failed to replay journal for {}", persistenceId, e);
+            return Futures.failed(e);
+        }
+
+        return Futures.successful(null);
+    }
+
+    @Override
+    public Future<Long> doAsyncReadHighestSequenceNr(String persistenceId, long fromSequenceNr) {
+        try {
+            return Futures.successful(log(persistenceId).highestSequenceNr());
+        } catch(IOException e) {
+            LOG.error("Failed to open journal for {}", persistenceId, e);
+            return Futures.failed(e);
+        }
+    }
+
+    @Override
+    public Future<Void> doAsyncDeleteMessagesTo(String persistenceId, long toSequenceNr) {
+        LOG.debug("doAsyncDeleteMessagesTo for {}: toSequenceNr: {}", persistenceId, toSequenceNr);
+
+        try {
+            log(persistenceId).deleteTo(toSequenceNr);
+        } catch(IOException e) {
+            LOG.error("Failed to delete journal messages for {}", persistenceId, e);
+            return Futures.failed(e);
+        }
+
+        return Futures.successful(null);
+    }
+
+    @Override
+    public void postStop() throws Exception {
+        for(SegmentedLog log: logs.values()) {
+            try {
+                log.close();
+            } catch(IOException e) {
+                LOG.warn("Failed to close {}", log, e);
+            }
+        }
+
+        logs.clear();
+        super.postStop();
+    }
+
+    private SegmentedLog log(String persistenceId) throws IOException {
+        SegmentedLog log = logs.get(persistenceId);
+        if(log == null) {
+            log = SegmentedLog.open(new File(rootDirectory, encode(persistenceId)), maxSegmentSize);
+            logs.put(persistenceId, log);
+        }
+
+        return log;
+    }
+
+    private static String encode(String persistenceId) {
+        try {
+            return URLEncoder.encode(persistenceId, StandardCharsets.UTF_8.name());
+        } catch(UnsupportedEncodingException e) {
+            // Shouldn't happen - UTF-8 is always supported
+            throw new IllegalStateException(e);
+        }
+    }
+}
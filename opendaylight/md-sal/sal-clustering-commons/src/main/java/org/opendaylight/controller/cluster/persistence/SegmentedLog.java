@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.persistence;
+
+import com.google.common.base.Preconditions;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The journal of a single persistence id, stored as a sequence of {@link JournalSegment}s in a directory. Entries
+ * are only ever appended to the last segment and a new segment is started when it is full. Deleting entries up to
+ * a sequence number removes whole segments rather than individual entries - the deleted-to sequence number is
+ * recorded in a marker file so the remaining entries of a partially deleted segment are skipped on replay.
+ *
+ * <p>
+ * This class is not thread-safe.
+ */
+final class SegmentedLog implements AutoCloseable {
+    /**
+     * Receives entries replayed from the log.
+     */
+    interface EntryConsumer {
+        void accept(long sequenceNr, byte[] payload) throws Exception;
+    }
+
+    /**
+     * Identifies the end of the log at some point in time so subsequently appended entries can be rolled back.
+     */
+    static final class Mark {
+        private final int segmentCount;
+        private final int entryCount;
+
+        private Mark(int segmentCount, int entryCount) {
+            this.segmentCount = segmentCount;
+            this.entryCount = entryCount;
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentedLog.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String DELETED_TO_FILE = "deleted-to";
+
+    private final File directory;
+    private final int maxSegmentSize;
+    private final List<JournalSegment> segments = new ArrayList<>();
+
+    // Index of the first segment written to since the last flush, or -1 if nothing needs to be flushed.
+    private int firstDirtySegment = -1;
+    private long deletedToSequenceNr;
+
+    private SegmentedLog(File directory, int maxSegmentSize) {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    static SegmentedLog open(File directory, int maxSegmentSize) throws IOException {
+        if(!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create journal directory " + directory);
+        }
+
+        final SegmentedLog log = new SegmentedLog(directory, maxSegmentSize);
+        log.load();
+        return log;
+    }
+
+    private void load() throws IOException {
+        final File deletedToFile = new File(directory, DELETED_TO_FILE);
+        if(deletedToFile.exists()) {
+            try(DataInputStream in = new DataInputStream(new FileInputStream(deletedToFile))) {
+                deletedToSequenceNr = in.readLong();
+            }
+        }
+
+        final File[] files = directory.listFiles();
+        if(files != null) {
+            for(File file: files) {
+                final String name = file.getName();
+                if(name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.add(JournalSegment.open(file));
+                }
+            }
+        }
+
+        Collections.sort(segments, new Comparator<JournalSegment>() {
+            @Override
+            public int compare(JournalSegment s1, JournalSegment s2) {
+                return Long.compare(s1.getFirstSequenceNr(), s2.getFirstSequenceNr());
+            }
+        });
+
+        LOG.debug("Loaded journal {}: segments: {}, deletedToSequenceNr: {}", directory, segments,
+                deletedToSequenceNr);
+    }
+
+    /**
+     * Appends an entry, starting a new segment if the current one is full. The entry is not guaranteed to be durable
+     * until {@link #flush()} is called.
+     */
+    void append(long sequenceNr, byte[] payload) throws IOException {
+        JournalSegment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if(segment == null || !segment.hasCapacity(payload.length)) {
+            // An entry larger than the configured size gets a segment of its own
+            final int size = (int) Math.min(Integer.MAX_VALUE, Math.max(maxSegmentSize,
+                    (long) JournalSegment.HEADER_SIZE + JournalSegment.RECORD_HEADER_SIZE + payload.length));
+            segment = JournalSegment.create(new File(directory, SEGMENT_PREFIX + sequenceNr + SEGMENT_SUFFIX),
+                    size, sequenceNr);
+            segments.add(segment);
+
+            LOG.debug("Started new journal segment {}", segment.getFile());
+        }
+
+        if(firstDirtySegment < 0) {
+            firstDirtySegment = segments.size() - 1;
+        }
+
+        segment.append(sequenceNr, payload);
+    }
+
+    Mark mark() {
+        return segments.isEmpty() ? new Mark(0, 0) :
+            new Mark(segments.size(), segments.get(segments.size() - 1).getEntryCount());
+    }
+
+    /**
+     * Discards all entries appended since the given mark.
+     */
+    void rollback(Mark mark) throws IOException {
+        while(segments.size() > mark.segmentCount) {
+            segments.remove(segments.size() - 1).delete();
+        }
+
+        if(!segments.isEmpty()) {
+            segments.get(segments.size() - 1).truncate(mark.entryCount);
+        }
+
+        if(firstDirtySegment >= segments.size()) {
+            firstDirtySegment = segments.isEmpty() ? -1 : segments.size() - 1;
+        }
+    }
+
+    /**
+     * Flushes all entries appended since the last flush to the storage device.
+     */
+    void flush() {
+        if(firstDirtySegment >= 0) {
+            for(int i = firstDirtySegment; i < segments.size(); i++) {
+                segments.get(i).force();
+            }
+
+            firstDirtySegment = -1;
+        }
+    }
+
+    /**
+     * Replays the entries in the given sequence number range, up to the given maximum number of entries.
+     */
+    void replay(long fromSequenceNr, long toSequenceNr, long max, EntryConsumer consumer) throws Exception {
+        final long from = Math.max(fromSequenceNr, deletedToSequenceNr + 1);
+        long count = 0;
+        for(JournalSegment segment: segments) {
+            if(segment.isEmpty() || segment.getLastSequenceNr() < from) {
+                continue;
+            }
+
+            for(int i = segment.indexOf(from); i < segment.getEntryCount(); i++) {
+                final long sequenceNr = segment.getSequenceNr(i);
+                if(sequenceNr > toSequenceNr || count >= max) {
+                    return;
+                }
+
+                consumer.accept(sequenceNr, segment.read(i));
+                count++;
+            }
+        }
+    }
+
+    /**
+     * Returns the highest sequence number ever stored, including deleted entries.
+     */
+    long highestSequenceNr() {
+        long highest = deletedToSequenceNr;
+        if(!segments.isEmpty()) {
+            highest = Math.max(highest, segments.get(segments.size() - 1).getLastSequenceNr());
+        }
+
+        return highest;
+    }
+
+    /**
+     * Deletes all entries up to and including the given sequence number. Segments which only contain deleted entries
+     * are removed, with the exception of the last one which is retained to continue appending.
+     */
+    void deleteTo(long toSequenceNr) throws IOException {
+        final long newDeletedTo = Math.min(toSequenceNr, highestSequenceNr());
+        if(newDeletedTo <= deletedToSequenceNr) {
+            return;
+        }
+
+        writeDeletedTo(newDeletedTo);
+        deletedToSequenceNr = newDeletedTo;
+
+        while(segments.size() > 1 && segments.get(0).getLastSequenceNr() <= deletedToSequenceNr) {
+            final JournalSegment segment = segments.remove(0);
+            segment.delete();
+            if(firstDirtySegment > 0) {
+                firstDirtySegment--;
+            }
+
+            LOG.debug("Deleted journal segment {}", segment.getFile());
+        }
+    }
+
+    private void writeDeletedTo(long sequenceNr) throws IOException {
+        final File tmpFile = new File(directory, DELETED_TO_FILE + ".tmp");
+        try(FileOutputStream fileOut = new FileOutputStream(tmpFile);
+                DataOutputStream out = new DataOutputStream(fileOut)) {
+            out.writeLong(sequenceNr);
+            out.flush();
+            fileOut.getFD().sync();
+        }
+
+        Files.move(tmpFile.toPath(), new File(directory, DELETED_TO_FILE).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+
+        IOException failure = null;
+        for(JournalSegment segment: segments) {
+            try {
+                segment.close();
+            } catch(IOException e) {
+                failure = e;
+            }
+        }
+
+        segments.clear();
+        if(failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentedLog [directory=" + directory + ", segments=" + segments.size() + ", deletedToSequenceNr="
+                + deletedToSequenceNr + "]";
+    }
+
+    static void checkSegmentSize(long size) {
+        Preconditions.checkArgument(size > JournalSegment.HEADER_SIZE + JournalSegment.RECORD_HEADER_SIZE
+                && size <= Integer.MAX_VALUE, "Invalid segment size %s", size);
+    }
+}
@@ -112,6 +112,25 @@ public class NormalizedNodeStreamReaderWriterTest {
         writer.close();
     }
 
+    @Test
+    public void testQNameStreaming() throws IOException  {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        NormalizedNodeDataOutput writer = NormalizedNodeInputOutput.newDataOutput(
+                ByteStreams.newDataOutput(byteArrayOutputStream));
+        writer.writeQName(TestModel.TEST_QNAME);
+        writer.writeQName(TestModel.OUTER_LIST_QNAME);
+        writer.writeQName(TestModel.TEST_QNAME);
+
+        NormalizedNodeDataInput reader = NormalizedNodeInputOutput.newDataInput(
+            ByteStreams.newDataInput(byteArrayOutputStream.toByteArray()));
+
+        Assert.assertEquals(TestModel.TEST_QNAME, reader.readQName());
+        Assert.assertEquals(TestModel.OUTER_LIST_QNAME, reader.readQName());
+        Assert.assertEquals(TestModel.TEST_QNAME, reader.readQName());
+
+        writer.close();
+    }
+
     @Test
     public void testNormalizedNodeAndYangInstanceIdentifierStreaming() throws IOException {
 
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import com.google.common.io.ByteSource;
+import java.io.File;
+import java.nio.ByteBuffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for FileBackedOutputStream.
+ */
+public class FileBackedOutputStreamTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testInMemory() throws Exception {
+        FileBackedOutputStream out = new FileBackedOutputStream(10, temporaryFolder.getRoot());
+        out.write(bytes(0, 5));
+        ByteBuffer direct = ByteBuffer.allocateDirect(5);
+        direct.put(bytes(5, 5));
+        direct.flip();
+        out.write(direct);
+        out.close();
+
+        assertEquals("getCount", 10, out.getCount());
+        assertEquals("Files created", 0, temporaryFolder.getRoot().list().length);
+
+        ByteSource source = out.asByteSource();
+        assertFalse("Expected in-memory source", source instanceof MappedFileByteSource);
+        assertArrayEquals("Data", bytes(0, 10), source.read());
+    }
+
+    @Test
+    public void testSpillToFile() throws Exception {
+        FileBackedOutputStream out = new FileBackedOutputStream(10, temporaryFolder.getRoot());
+        out.write(bytes(0, 6));
+        out.write(bytes(6, 6));
+        out.write(ByteBuffer.wrap(bytes(0, 20), 12, 8));
+        out.write(20);
+        out.close();
+
+        assertEquals("getCount", 21, out.getCount());
+        File[] files = temporaryFolder.getRoot().listFiles();
+        assertEquals("Files created", 1, files.length);
+
+        ByteSource source = out.asByteSource();
+        assertTrue("Expected MappedFileByteSource", source instanceof MappedFileByteSource);
+        assertEquals("size", 21, source.size());
+        assertArrayEquals("Data", bytes(0, 21), source.read());
+
+        MappedFileByteSource slice = (MappedFileByteSource) source.slice(5, 10);
+        assertArrayEquals("Slice data", bytes(5, 10), slice.read());
+
+        ByteBuffer mapped = slice.map();
+        byte[] mappedBytes = new byte[mapped.remaining()];
+        mapped.get(mappedBytes);
+        assertArrayEquals("Mapped data", bytes(5, 10), mappedBytes);
+
+        assertEquals("Slice past the end size", 1, source.slice(20, 10).size());
+
+        out.cleanup();
+        assertFalse("File not deleted", files[0].exists());
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        FileBackedOutputStream out = new FileBackedOutputStream(10, null);
+        out.close();
+        assertTrue("isEmpty", out.asByteSource().isEmpty());
+        assertArrayEquals("Data", new byte[0], out.asByteSource().read());
+    }
+
+    private static byte[] bytes(int from, int length) {
+        byte[] bytes = new byte[length];
+        for(int i = 0; i < length; i++) {
+            bytes[i] = (byte) (from + i);
+        }
+
+        return bytes;
+    }
+}
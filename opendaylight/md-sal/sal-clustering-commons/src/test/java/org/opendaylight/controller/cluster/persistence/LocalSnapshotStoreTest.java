@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.persistence.DeleteSnapshotSuccess;
+import akka.persistence.DeleteSnapshotsSuccess;
+import akka.persistence.Persistence;
+import akka.persistence.SaveSnapshotSuccess;
+import akka.persistence.SelectedSnapshot;
+import akka.persistence.SnapshotMetadata;
+import akka.persistence.SnapshotProtocol;
+import akka.persistence.SnapshotSelectionCriteria;
+import akka.serialization.SerializationExtension;
+import akka.testkit.JavaTestKit;
+import com.typesafe.config.ConfigFactory;
+import java.io.File;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import scala.Option;
+
+/**
+ * Unit tests for LocalSnapshotStore.
+ */
+public class LocalSnapshotStoreTest {
+    private static final String PERSISTENCE_ID = "member-1-shard-default-config";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File snapshotDir;
+    private ActorSystem system;
+    private ActorRef snapshotStore;
+
+    @Before
+    public void setup() throws Exception {
+        snapshotDir = temporaryFolder.newFolder("snapshots");
+        system = ActorSystem.create("test", ConfigFactory.parseString(
+                "akka.persistence.snapshot-store.plugin = \"akka.persistence.snapshot-store.local\"\n"
+                + "akka.persistence.snapshot-store.local.class = \"" + LocalSnapshotStore.class.getName() + "\"\n"
+                + "akka.persistence.snapshot-store.local.dir = \"" + snapshotDir + "\"\n"
+                + "akka.actor.warn-about-java-serializer-usage = off\n").withFallback(ConfigFactory.load()));
+        snapshotStore = system.registerExtension(Persistence.lookup()).snapshotStoreFor(null);
+    }
+
+    @After
+    public void tearDown() {
+        JavaTestKit.shutdownActorSystem(system);
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        new JavaTestKit(system) {{
+            save(new SnapshotMetadata(PERSISTENCE_ID, 1, 1000), "one", this);
+            save(new SnapshotMetadata(PERSISTENCE_ID, 2, 2000), "two", this);
+            save(new SnapshotMetadata(PERSISTENCE_ID + "-other", 3, 3000), "other", this);
+
+            assertFalse("Temporary file left behind", new File(snapshotDir,
+                    "snapshot-" + PERSISTENCE_ID + "-2-2000.tmp").exists());
+
+            SelectedSnapshot selected = load(SnapshotSelectionCriteria.latest(), this);
+            assertEquals("Snapshot", "two", selected.snapshot());
+            assertEquals("Metadata", new SnapshotMetadata(PERSISTENCE_ID, 2, 2000), selected.metadata());
+
+            selected = load(new SnapshotSelectionCriteria(1, Long.MAX_VALUE, 0L, 0L), this);
+            assertEquals("Snapshot", "one", selected.snapshot());
+
+            selected = load(new SnapshotSelectionCriteria(Long.MAX_VALUE, 1999, 0L, 0L), this);
+            assertEquals("Snapshot", "one", selected.snapshot());
+
+            assertEquals("Snapshot", null, load(SnapshotSelectionCriteria.none(), this));
+        }};
+    }
+
+    @Test
+    public void testLoadWithCorruptSnapshot() throws Exception {
+        new JavaTestKit(system) {{
+            save(new SnapshotMetadata(PERSISTENCE_ID, 1, 1000), "one", this);
+            save(new SnapshotMetadata(PERSISTENCE_ID, 2, 2000), "two", this);
+
+            Files.write(new File(snapshotDir, "snapshot-" + PERSISTENCE_ID + "-2-2000").toPath(),
+                    new byte[]{1, 2, 3});
+
+            SelectedSnapshot selected = load(SnapshotSelectionCriteria.latest(), this);
+            assertEquals("Snapshot", "one", selected.snapshot());
+        }};
+    }
+
+    @Test
+    public void testLoadAkkaSnapshot() throws Exception {
+        new JavaTestKit(system) {{
+            byte[] bytes = SerializationExtension.get(system).serialize(
+                    new akka.persistence.serialization.Snapshot("legacy")).get();
+            Files.write(new File(snapshotDir, "snapshot-" + URLEncoder.encode(PERSISTENCE_ID, "UTF-8")
+                    + "-5-5000").toPath(), bytes);
+
+            SelectedSnapshot selected = load(SnapshotSelectionCriteria.latest(), this);
+            assertEquals("Snapshot", "legacy", selected.snapshot());
+            assertEquals("Metadata", new SnapshotMetadata(PERSISTENCE_ID, 5, 5000), selected.metadata());
+        }};
+    }
+
+    @Test
+    public void testDelete() {
+        new JavaTestKit(system) {{
+            save(new SnapshotMetadata(PERSISTENCE_ID, 1, 1000), "one", this);
+            save(new SnapshotMetadata(PERSISTENCE_ID, 2, 2000), "two", this);
+            save(new SnapshotMetadata(PERSISTENCE_ID, 3, 3000), "three", this);
+
+            snapshotStore.tell(new SnapshotProtocol.DeleteSnapshot(new SnapshotMetadata(PERSISTENCE_ID, 3, 0)),
+                    getRef());
+            expectMsgClass(DeleteSnapshotSuccess.class);
+
+            assertFalse("Snapshot 3 exists", new File(snapshotDir, "snapshot-" + PERSISTENCE_ID + "-3-3000").exists());
+            assertEquals("Snapshot", "two", load(SnapshotSelectionCriteria.latest(), this).snapshot());
+
+            snapshotStore.tell(new SnapshotProtocol.DeleteSnapshots(PERSISTENCE_ID,
+                    new SnapshotSelectionCriteria(1, Long.MAX_VALUE, 0L, 0L)), getRef());
+            expectMsgClass(DeleteSnapshotsSuccess.class);
+
+            assertFalse("Snapshot 1 exists", new File(snapshotDir, "snapshot-" + PERSISTENCE_ID + "-1-1000").exists());
+            assertTrue("Snapshot 2 exists", new File(snapshotDir, "snapshot-" + PERSISTENCE_ID + "-2-2000").exists());
+        }};
+    }
+
+    private void save(SnapshotMetadata metadata, Object snapshot, JavaTestKit kit) {
+        snapshotStore.tell(new SnapshotProtocol.SaveSnapshot(metadata, snapshot), kit.getRef());
+        kit.expectMsgClass(SaveSnapshotSuccess.class);
+    }
+
+    private SelectedSnapshot load(SnapshotSelectionCriteria criteria, JavaTestKit kit) {
+        snapshotStore.tell(new SnapshotProtocol.LoadSnapshot(PERSISTENCE_ID, criteria, Long.MAX_VALUE), kit.getRef());
+        Option<SelectedSnapshot> result = kit.expectMsgClass(SnapshotProtocol.LoadSnapshotResult.class).snapshot();
+        return result.isDefined() ? result.get() : null;
+    }
+}
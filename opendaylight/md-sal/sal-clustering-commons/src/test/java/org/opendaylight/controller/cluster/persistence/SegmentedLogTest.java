@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.persistence;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for SegmentedLog.
+ */
+public class SegmentedLogTest {
+    private static final int SEGMENT_SIZE = 128;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File directory;
+
+    @Before
+    public void setup() {
+        directory = new File(temporaryFolder.getRoot(), "journal");
+    }
+
+    @Test
+    public void testAppendAndReplay() throws Exception {
+        try(SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE)) {
+            assertEquals("highestSequenceNr", 0, log.highestSequenceNr());
+
+            for(int i = 1; i <= 10; i++) {
+                log.append(i, payload(i));
+            }
+
+            log.flush();
+
+            assertEquals("highestSequenceNr", 10, log.highestSequenceNr());
+            assertEquals("Segment count", 4, log.getSegmentCount());
+
+            verifyReplay(log, 1, Long.MAX_VALUE, Long.MAX_VALUE, 1, 10);
+            verifyReplay(log, 4, 8, Long.MAX_VALUE, 4, 8);
+            verifyReplay(log, 3, Long.MAX_VALUE, 2, 3, 4);
+            verifyReplay(log, 11, Long.MAX_VALUE, Long.MAX_VALUE, 0, -1);
+        }
+
+        try(SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE)) {
+            assertEquals("highestSequenceNr", 10, log.highestSequenceNr());
+            assertEquals("Segment count", 4, log.getSegmentCount());
+            verifyReplay(log, 1, Long.MAX_VALUE, Long.MAX_VALUE, 1, 10);
+
+            log.append(11, payload(11));
+            verifyReplay(log, 10, Long.MAX_VALUE, Long.MAX_VALUE, 10, 11);
+        }
+    }
+
+    @Test
+    public void testLargeEntry() throws Exception {
+        try(SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE)) {
+            log.append(1, payload(1));
+            byte[] large = new byte[SEGMENT_SIZE * 2];
+            large[large.length - 1] = 1;
+            log.append(2, large);
+            log.append(3, payload(3));
+
+            final List<byte[]> replayed = new ArrayList<>();
+            log.replay(1, Long.MAX_VALUE, Long.MAX_VALUE, (sequenceNr, payload) -> replayed.add(payload));
+
+            assertEquals("Replayed count", 3, replayed.size());
+            assertArrayEquals("Large payload", large, replayed.get(1));
+        }
+    }
+
+    @Test
+    public void testRollback() throws Exception {
+        try(SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE)) {
+            log.append(1, payload(1));
+            log.append(2, payload(2));
+
+            SegmentedLog.Mark mark = log.mark();
+            for(int i = 3; i <= 8; i++) {
+                log.append(i, payload(i));
+            }
+
+            log.rollback(mark);
+
+            assertEquals("highestSequenceNr", 2, log.highestSequenceNr());
+            assertEquals("Segment count", 1, log.getSegmentCount());
+            verifyReplay(log, 1, Long.MAX_VALUE, Long.MAX_VALUE, 1, 2);
+
+            log.append(3, payload(3));
+            verifyReplay(log, 1, Long.MAX_VALUE, Long.MAX_VALUE, 1, 3);
+        }
+    }
+
+    @Test
+    public void testDeleteTo() throws Exception {
+        try(SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE)) {
+            for(int i = 1; i <= 10; i++) {
+                log.append(i, payload(i));
+            }
+
+            log.deleteTo(4);
+
+            assertEquals("Segment count", 3, log.getSegmentCount());
+            verifyReplay(log, 1, Long.MAX_VALUE, Long.MAX_VALUE, 5, 10);
+
+            log.deleteTo(20);
+
+            assertEquals("Segment count", 1, log.getSegmentCount());
+            assertEquals("highestSequenceNr", 10, log.highestSequenceNr());
+            verifyReplay(log, 1, Long.MAX_VALUE, Long.MAX_VALUE, 0, -1);
+        }
+
+        try(SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE)) {
+            assertEquals("highestSequenceNr", 10, log.highestSequenceNr());
+            verifyReplay(log, 1, Long.MAX_VALUE, Long.MAX_VALUE, 0, -1);
+
+            log.append(11, payload(11));
+            verifyReplay(log, 1, Long.MAX_VALUE, Long.MAX_VALUE, 11, 11);
+        }
+    }
+
+    @Test
+    public void testTornWrite() throws Exception {
+        try(SegmentedLog log = SegmentedLog.open(directory, 1024)) {
+            for(int i = 1; i <= 3; i++) {
+                log.append(i, payload(i));
+            }
+        }
+
+        // Corrupt the last byte of the third entry's payload
+        File segmentFile = new File(directory, "segment-1.log");
+        int thirdEntryEnd = JournalSegment.HEADER_SIZE + 3 * (JournalSegment.RECORD_HEADER_SIZE + payload(1).length);
+        try(RandomAccessFile file = new RandomAccessFile(segmentFile, "rw")) {
+            file.seek(thirdEntryEnd - 1);
+            file.write(0xFF);
+        }
+
+        try(SegmentedLog log = SegmentedLog.open(directory, 1024)) {
+            assertEquals("highestSequenceNr", 2, log.highestSequenceNr());
+            verifyReplay(log, 1, Long.MAX_VALUE, Long.MAX_VALUE, 1, 2);
+
+            log.append(3, payload(3));
+            verifyReplay(log, 1, Long.MAX_VALUE, Long.MAX_VALUE, 1, 3);
+        }
+    }
+
+    private static byte[] payload(int n) {
+        byte[] payload = new byte[20];
+        for(int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (n + i);
+        }
+
+        return payload;
+    }
+
+    private static void verifyReplay(SegmentedLog log, long from, long to, long max, long expFirst, long expLast)
+            throws Exception {
+        final List<Long> sequenceNrs = new ArrayList<>();
+        log.replay(from, to, max, (sequenceNr, payload) -> {
+            assertArrayEquals("Payload for " + sequenceNr, payload((int) sequenceNr), payload);
+            sequenceNrs.add(sequenceNr);
+        });
+
+        final List<Long> expected = new ArrayList<>();
+        for(long i = expFirst; i <= expLast && expFirst > 0; i++) {
+            expected.add(i);
+        }
+
+        assertEquals("Replayed sequence numbers", expected, sequenceNrs);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore;
+
+import akka.actor.ActorSelection;
+import akka.dispatch.OnComplete;
+import akka.pattern.Patterns;
+import akka.util.Timeout;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.controller.cluster.datastore.messages.DataTreeChanged;
+import org.opendaylight.controller.cluster.datastore.utils.DataTreeCandidateCoalescer;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeChangeListener;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import scala.concurrent.ExecutionContext;
+
+/**
+ * Internal implementation of a {@link DOMDataTreeChangeListener} which forwards notifications to the client's
+ * {@link DataTreeChangeListenerActor}, like {@link ForwardingDataTreeChangeListener}, but bounds how far the
+ * listener may fall behind. Each notification is acknowledged by the listener actor once the listener has processed
+ * it. While the listener has maxLag notifications outstanding, further changes are held back. They are coalesced by
+ * {@link DataTreeCandidateCoalescer} as they arrive, so at most one change per root path, spanning the state before
+ * the first held back change to the state after the latest one, is held back regardless of how far the listener
+ * lags. The held back changes are delivered once one of the outstanding notifications is acknowledged.
+ */
+final class CoalescingDataTreeChangeListener implements DOMDataTreeChangeListener {
+    private static final Logger LOG = LoggerFactory.getLogger(CoalescingDataTreeChangeListener.class);
+
+    // Bounds the time we wait for an acknowledgement, eg if the listener actor has gone away
+    private static final Timeout ACK_TIMEOUT = new Timeout(30, TimeUnit.SECONDS);
+
+    private final ActorSelection actor;
+    private final int maxLag;
+    private final DataTreeChangeFilter filter;
+    private final ExecutionContext executionContext;
+
+    @GuardedBy("this")
+    private final Map<YangInstanceIdentifier, DataTreeCandidate> pending = new LinkedHashMap<>();
+    @GuardedBy("this")
+    private int outstanding;
+    @GuardedBy("this")
+    private long coalescedCount;
+
+    CoalescingDataTreeChangeListener(final ActorSelection actor, final int maxLag,
+            final ExecutionContext executionContext) {
+        this(actor, maxLag, DataTreeChangeFilter.ACCEPT_ALL, executionContext);
+    }
+
+    CoalescingDataTreeChangeListener(final ActorSelection actor, final int maxLag, final DataTreeChangeFilter filter,
+            final ExecutionContext executionContext) {
+        this.actor = Preconditions.checkNotNull(actor, "actor should not be null");
+        Preconditions.checkArgument(maxLag > 0, "maxLag must be positive, was %s", maxLag);
+        this.maxLag = maxLag;
+        this.filter = Preconditions.checkNotNull(filter);
+        this.executionContext = Preconditions.checkNotNull(executionContext);
+    }
+
+    @Override
+    public synchronized void onDataTreeChanged(final Collection<DataTreeCandidate> changes) {
+        for (DataTreeCandidate change : changes) {
+            final DataTreeCandidate previous = pending.get(change.getRootPath());
+            if (previous != null) {
+                pending.put(change.getRootPath(), DataTreeCandidateCoalescer.coalesce(previous, change));
+                coalescedCount++;
+            } else {
+                pending.put(change.getRootPath(), change);
+            }
+        }
+
+        if (outstanding < maxLag) {
+            sendPending();
+        } else {
+            LOG.debug("Listener {} has {} notifications outstanding, holding back {} changes", actor, outstanding,
+                    pending.size());
+        }
+    }
+
+    @GuardedBy("this")
+    private void sendPending() {
+        final List<DataTreeCandidate> coalesced = new ArrayList<>(pending.values());
+        pending.clear();
+
+        // The filter is applied to the coalesced changes, as the coalescer needs the candidates' complete before-images
+        final Collection<DataTreeCandidate> changes = filter.filter(coalesced);
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        outstanding++;
+
+        Patterns.ask(actor, new DataTreeChanged(changes), ACK_TIMEOUT).onComplete(new OnComplete<Object>() {
+            @Override
+            public void onComplete(final Throwable failure, final Object reply) {
+                if (failure != null) {
+                    LOG.debug("Listener {} did not acknowledge notification", actor, failure);
+                }
+
+                onAcknowledged();
+            }
+        }, executionContext);
+    }
+
+    private synchronized void onAcknowledged() {
+        outstanding--;
+        if (!pending.isEmpty() && outstanding < maxLag) {
+            sendPending();
+        }
+    }
+
+    /**
+     * Returns the number of notifications sent to the listener which it has not yet processed.
+     */
+    synchronized int getOutstandingNotifications() {
+        return outstanding;
+    }
+
+    /**
+     * Returns the number of coalesced changes held back until the listener catches up.
+     */
+    synchronized int getPendingChanges() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the total number of changes which were not delivered individually because they were coalesced.
+     */
+    synchronized long getCoalescedChanges() {
+        return coalescedCount;
+    }
+}
@@ -17,7 +17,7 @@ import java.util.concurrent.TimeoutException;
 import org.opendaylight.controller.cluster.access.concepts.TransactionIdentifier;
 import org.opendaylight.controller.cluster.datastore.ShardCommitCoordinator.CohortDecorator;
 import org.opendaylight.controller.cluster.datastore.modification.Modification;
-import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import scala.concurrent.duration.Duration;
@@ -91,7 +91,7 @@ final class CohortEntry {
         return state;
     }
 
-    DataTreeCandidate getCandidate() {
+    DataTreeCandidateTip getCandidate() {
         return cohort.getCandidate();
     }
 
@@ -145,12 +145,38 @@ final class CohortEntry {
         userCohorts.preCommit();
     }
 
+    /**
+     * Validates and prepares the transaction's candidate again, against the current state of the shard, after it was
+     * prepared as a member of a {@link CommitBatch} which failed to commit. The user cohorts have already been
+     * prepared and are not involved again, as the transaction's modification is unchanged.
+     *
+     * @return false if the transaction can no longer be committed
+     */
+    boolean reprepare() throws InterruptedException, ExecutionException {
+        Preconditions.checkState(state == State.PRE_COMMITTED, "Transaction %s is not pre-committed", transactionID);
+        if(!cohort.canCommit().get()) {
+            return false;
+        }
+
+        cohort.preCommit().get();
+        return true;
+    }
+
     void commit() throws InterruptedException, ExecutionException, TimeoutException {
         state = State.COMMITTED;
         cohort.commit().get();
         userCohorts.commit();
     }
 
+    /**
+     * Completes the commit of a transaction whose candidate was committed to the data tree as part of a
+     * {@link CommitBatch}.
+     */
+    void commitBatched() throws InterruptedException, ExecutionException, TimeoutException {
+        state = State.COMMITTED;
+        userCohorts.commit();
+    }
+
     void abort() throws InterruptedException, ExecutionException, TimeoutException {
         state = State.ABORTED;
         cohort.abort().get();
@@ -207,6 +233,10 @@ final class CohortEntry {
         return state == State.ABORTED;
     }
 
+    boolean isPreCommitted() {
+        return state == State.PRE_COMMITTED;
+    }
+
     @Override
     public String toString() {
         final StringBuilder builder = new StringBuilder();
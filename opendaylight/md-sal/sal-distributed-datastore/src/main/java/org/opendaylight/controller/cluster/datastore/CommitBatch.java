@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import org.opendaylight.controller.cluster.access.concepts.TransactionIdentifier;
+import org.opendaylight.controller.cluster.datastore.util.AbstractDataTreeModificationCursor;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+
+/**
+ * A batch of transactions which are committed to the shard's data tree together, as a single candidate replicated in
+ * a single payload. Each transaction has been validated and prepared on its own against the current data tree. As the
+ * transactions of a batch modify disjoint subtrees, as determined by {@link #overlaps(Collection, Collection)}, their
+ * candidates can be combined without being re-validated against one another.
+ */
+final class CommitBatch {
+    private final ShardDataTree dataTree;
+    private final List<CohortEntry> cohortEntries;
+    private final DataTreeCandidateTip candidate;
+
+    private CommitBatch(final ShardDataTree dataTree, final List<CohortEntry> cohortEntries,
+            final DataTreeCandidateTip candidate) {
+        this.dataTree = dataTree;
+        this.cohortEntries = cohortEntries;
+        this.candidate = candidate;
+    }
+
+    /**
+     * Combines the candidates of the given pre-committed transactions into a candidate for the batch.
+     *
+     * @param dataTree the shard's data tree
+     * @param cohortEntries the pre-committed transactions, in commit order
+     * @return the batch
+     * @throws DataValidationFailedException if the combined candidate does not apply to the data tree
+     */
+    static CommitBatch prepare(final ShardDataTree dataTree, final List<CohortEntry> cohortEntries)
+            throws DataValidationFailedException {
+        Preconditions.checkArgument(!cohortEntries.isEmpty(), "A batch requires at least one transaction");
+
+        final DataTreeModification mod = dataTree.newModification();
+        for (CohortEntry cohortEntry : cohortEntries) {
+            DataTreeCandidates.applyToModification(mod, cohortEntry.getCandidate());
+        }
+
+        mod.ready();
+        dataTree.getDataTree().validate(mod);
+        return new CommitBatch(dataTree, ImmutableList.copyOf(cohortEntries), dataTree.getDataTree().prepare(mod));
+    }
+
+    /**
+     * Returns the identifier under which the batch is replicated, which is that of its last transaction.
+     */
+    TransactionIdentifier getIdentifier() {
+        return cohortEntries.get(cohortEntries.size() - 1).getTransactionID();
+    }
+
+    List<CohortEntry> getCohortEntries() {
+        return cohortEntries;
+    }
+
+    DataTreeCandidateTip getCandidate() {
+        return candidate;
+    }
+
+    boolean isExpired(final long expireTimeInMillis) {
+        return cohortEntries.get(0).isExpired(expireTimeInMillis);
+    }
+
+    /**
+     * Commits the combined candidate to the data tree and completes the commit of each transaction.
+     */
+    void commit() throws InterruptedException, ExecutionException, TimeoutException {
+        dataTree.getDataTree().commit(candidate);
+        dataTree.notifyListeners(candidate);
+
+        for (CohortEntry cohortEntry : cohortEntries) {
+            cohortEntry.commitBatched();
+        }
+    }
+
+    /**
+     * Returns the paths written, merged or deleted by a transaction's modification.
+     */
+    static Collection<YangInstanceIdentifier> modifiedPaths(final DataTreeModification modification) {
+        final List<YangInstanceIdentifier> paths = new ArrayList<>();
+        modification.applyToCursor(new AbstractDataTreeModificationCursor() {
+            @Override
+            public void write(final PathArgument child, final NormalizedNode<?, ?> data) {
+                paths.add(current().node(child));
+            }
+
+            @Override
+            public void merge(final PathArgument child, final NormalizedNode<?, ?> data) {
+                paths.add(current().node(child));
+            }
+
+            @Override
+            public void delete(final PathArgument child) {
+                paths.add(current().node(child));
+            }
+        });
+
+        return paths;
+    }
+
+    /**
+     * Checks whether any of the given paths is equal to, or an ancestor or a descendant of, any of the other paths,
+     * in which case the transactions which modified them may conflict.
+     */
+    static boolean overlaps(final Collection<YangInstanceIdentifier> paths,
+            final Collection<YangInstanceIdentifier> otherPaths) {
+        for (YangInstanceIdentifier path : paths) {
+            for (YangInstanceIdentifier other : otherPaths) {
+                if (path.contains(other) || other.contains(path)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "CommitBatch [identifier=" + getIdentifier() + ", size=" + cohortEntries.size() + "]";
+    }
+}
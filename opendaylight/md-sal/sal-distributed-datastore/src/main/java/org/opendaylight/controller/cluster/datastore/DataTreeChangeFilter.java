@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+
+/**
+ * Selects the parts of a data tree change a {@link FilteredDOMDataTreeChangeListener} is interested in. The filter is
+ * sent with the listener's registration and is applied by the shard before a change is published, so the nodes it
+ * rejects are never delivered to the listener.
+ *
+ * <p>
+ * A candidate node is reported if its modification type is one of the filter's modification types, it is no deeper
+ * than the filter's maximum depth and, if the filter names any nodes, it is one of the named nodes or lies beneath
+ * one of them. The ancestors of a reported node are retained with their own modification types so the listener can
+ * navigate to it. Candidates left without any reported node are dropped, as are notifications left without any
+ * candidate.
+ */
+public final class DataTreeChangeFilter implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * A filter which reports every modified node.
+     */
+    public static final DataTreeChangeFilter ACCEPT_ALL = builder().build();
+
+    private Set<ModificationType> modificationTypes;
+    private int maxDepth;
+    private Set<QName> nodeTypes;
+
+    public DataTreeChangeFilter() {
+        // For Externalizable
+    }
+
+    private DataTreeChangeFilter(final Builder builder) {
+        this.modificationTypes = Collections.unmodifiableSet(EnumSet.copyOf(builder.modificationTypes));
+        this.maxDepth = builder.maxDepth;
+        this.nodeTypes = builder.nodeTypes.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the modification types of the nodes to report.
+     */
+    public Set<ModificationType> getModificationTypes() {
+        return modificationTypes;
+    }
+
+    /**
+     * Returns the maximum depth of the nodes to report, relative to the registration path, or -1 for no limit.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the node types of the nodes, and hence the subtrees, to report, or an empty set to report nodes of any
+     * type.
+     */
+    public Set<QName> getNodeTypes() {
+        return nodeTypes;
+    }
+
+    /**
+     * Applies this filter to the given changes.
+     *
+     * @param changes the changes to filter
+     * @return the filtered changes, which may be empty
+     */
+    @Nonnull
+    public Collection<DataTreeCandidate> filter(@Nonnull final Collection<DataTreeCandidate> changes) {
+        if (this.equals(ACCEPT_ALL)) {
+            return changes;
+        }
+
+        final List<DataTreeCandidate> filtered = new ArrayList<>(changes.size());
+        for (DataTreeCandidate change : changes) {
+            final PathArgument rootId = change.getRootPath().getLastPathArgument();
+            final DataTreeCandidateNode rootNode = filter(change.getRootNode(), rootId, 0, false);
+            if (rootNode != null) {
+                filtered.add(DataTreeCandidates.newDataTreeCandidate(change.getRootPath(), rootNode));
+            }
+        }
+
+        return filtered;
+    }
+
+    @Nullable
+    private DataTreeCandidateNode filter(final DataTreeCandidateNode node, @Nullable final PathArgument id,
+            final int depth, final boolean withinSelectedNode) {
+        final boolean selected = withinSelectedNode || nodeTypes.isEmpty()
+                || id != null && nodeTypes.contains(id.getNodeType());
+
+        final List<DataTreeCandidateNode> children = new ArrayList<>();
+        if (maxDepth < 0 || depth < maxDepth) {
+            for (DataTreeCandidateNode child : node.getChildNodes()) {
+                final DataTreeCandidateNode filteredChild = filter(child, child.getIdentifier(), depth + 1, selected);
+                if (filteredChild != null) {
+                    children.add(filteredChild);
+                }
+            }
+        }
+
+        if (!children.isEmpty() || selected && modificationTypes.contains(node.getModificationType())) {
+            return new FilteredNode(node, children);
+        }
+
+        return null;
+    }
+
+    @Override
+    public void writeExternal(final ObjectOutput out) throws IOException {
+        out.writeInt(modificationTypes.size());
+        for (ModificationType type : modificationTypes) {
+            out.writeUTF(type.name());
+        }
+
+        out.writeInt(maxDepth);
+
+        out.writeInt(nodeTypes.size());
+        for (QName nodeType : nodeTypes) {
+            out.writeUTF(nodeType.toString());
+        }
+    }
+
+    @Override
+    public void readExternal(final ObjectInput in) throws IOException {
+        int size = in.readInt();
+        final Set<ModificationType> types = EnumSet.noneOf(ModificationType.class);
+        for (int i = 0; i < size; i++) {
+            types.add(ModificationType.valueOf(in.readUTF()));
+        }
+
+        modificationTypes = Collections.unmodifiableSet(types);
+        maxDepth = in.readInt();
+
+        size = in.readInt();
+        final ImmutableSet.Builder<QName> nodeTypesBuilder = ImmutableSet.builder();
+        for (int i = 0; i < size; i++) {
+            nodeTypesBuilder.add(QName.create(in.readUTF()));
+        }
+
+        nodeTypes = nodeTypesBuilder.build();
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * modificationTypes.hashCode() + maxDepth) + nodeTypes.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DataTreeChangeFilter)) {
+            return false;
+        }
+
+        final DataTreeChangeFilter other = (DataTreeChangeFilter) obj;
+        return maxDepth == other.maxDepth && modificationTypes.equals(other.modificationTypes)
+                && nodeTypes.equals(other.nodeTypes);
+    }
+
+    @Override
+    public String toString() {
+        return "DataTreeChangeFilter [modificationTypes=" + modificationTypes + ", maxDepth=" + maxDepth
+                + ", nodeTypes=" + nodeTypes + "]";
+    }
+
+    public static final class Builder {
+        private Set<ModificationType> modificationTypes = EnumSet.complementOf(EnumSet.of(ModificationType.UNMODIFIED));
+        private int maxDepth = -1;
+        private final ImmutableSet.Builder<QName> nodeTypes = ImmutableSet.builder();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the modification types of the nodes to report. By default all modified nodes are reported.
+         */
+        public Builder modificationTypes(@Nonnull final Set<ModificationType> modificationTypes) {
+            Preconditions.checkArgument(!modificationTypes.isEmpty(), "At least one modification type is required");
+            this.modificationTypes = EnumSet.copyOf(modificationTypes);
+            return this;
+        }
+
+        /**
+         * Sets the maximum depth of the nodes to report, where the node at the registration path is at depth 0.
+         * A negative value, the default, reports nodes at any depth.
+         */
+        public Builder maxDepth(final int maxDepth) {
+            this.maxDepth = maxDepth < 0 ? -1 : maxDepth;
+            return this;
+        }
+
+        /**
+         * Adds a node type to report. If any node types are added, only the nodes of these types and the nodes
+         * beneath them are reported.
+         */
+        public Builder nodeType(@Nonnull final QName nodeType) {
+            nodeTypes.add(nodeType);
+            return this;
+        }
+
+        public DataTreeChangeFilter build() {
+            return new DataTreeChangeFilter(this);
+        }
+    }
+
+    /**
+     * A view of a candidate node restricted to its reported children.
+     */
+    private static final class FilteredNode implements DataTreeCandidateNode {
+        private final DataTreeCandidateNode delegate;
+        private final Collection<DataTreeCandidateNode> children;
+
+        FilteredNode(final DataTreeCandidateNode delegate, final Collection<DataTreeCandidateNode> children) {
+            this.delegate = delegate;
+            this.children = children;
+        }
+
+        @Override
+        public PathArgument getIdentifier() {
+            return delegate.getIdentifier();
+        }
+
+        @Override
+        public Collection<DataTreeCandidateNode> getChildNodes() {
+            return children;
+        }
+
+        @Override
+        public DataTreeCandidateNode getModifiedChild(final PathArgument childIdentifier) {
+            for (DataTreeCandidateNode child : children) {
+                if (childIdentifier.equals(child.getIdentifier())) {
+                    return child;
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        public ModificationType getModificationType() {
+            return delegate.getModificationType();
+        }
+
+        @Override
+        public Optional<NormalizedNode<?, ?>> getDataAfter() {
+            return delegate.getDataAfter();
+        }
+
+        @Override
+        public Optional<NormalizedNode<?, ?>> getDataBefore() {
+            return delegate.getDataBefore();
+        }
+
+        @Override
+        public String toString() {
+            return "FilteredNode [type=" + getModificationType() + ", children=" + children.size() + "]";
+        }
+    }
+}
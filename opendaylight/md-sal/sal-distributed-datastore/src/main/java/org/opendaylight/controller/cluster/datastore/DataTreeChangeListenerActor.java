@@ -46,18 +46,18 @@ final class DataTreeChangeListenerActor extends AbstractUntypedActor {
         // Do nothing if notifications are not enabled
         if (!notificationsEnabled) {
             LOG.debug("Notifications not enabled for listener {} - dropping change notification", listener);
-            return;
-        }
-
-        LOG.debug("Sending change notification {} to listener {}", message.getChanges(), listener);
+        } else {
+            LOG.debug("Sending change notification {} to listener {}", message.getChanges(), listener);
 
-        try {
-            this.listener.onDataTreeChanged(message.getChanges());
-        } catch (Exception e) {
-            LOG.error("Error notifying listener {}", this.listener, e);
+            try {
+                this.listener.onDataTreeChanged(message.getChanges());
+            } catch (Exception e) {
+                LOG.error("Error notifying listener {}", this.listener, e);
+            }
         }
 
-        // TODO: do we really need this?
+        // The reply acknowledges that the notification has been processed, even if it was dropped, as the sender may
+        // be holding back further notifications until then, see CoalescingDataTreeChangeListener.
         // It seems the sender is never null but it doesn't hurt to check. If the caller passes in
         // a null sender (ActorRef.noSender()), akka translates that to the deadLetters actor.
         if (getSender() != null && !getContext().system().deadLetters().equals(getSender())) {
@@ -97,7 +97,7 @@ final class DataTreeChangeListenerProxy<T extends DOMDataTreeChangeListener> ext
 
         Future<Object> future = actorContext.executeOperationAsync(shard,
                 new RegisterDataTreeChangeListener(path, dataChangeListenerActor,
-                        getInstance() instanceof ClusteredDOMDataTreeChangeListener),
+                        getInstance() instanceof ClusteredDOMDataTreeChangeListener, filter()),
                 actorContext.getDatastoreContext().getShardInitializationTimeout());
 
         future.onComplete(new OnComplete<Object>(){
@@ -115,6 +115,12 @@ final class DataTreeChangeListenerProxy<T extends DOMDataTreeChangeListener> ext
         }, actorContext.getClientDispatcher());
     }
 
+    private DataTreeChangeFilter filter() {
+        final T listener = getInstance();
+        return listener instanceof FilteredDOMDataTreeChangeListener
+                ? ((FilteredDOMDataTreeChangeListener) listener).getFilter() : DataTreeChangeFilter.ACCEPT_ALL;
+    }
+
     @VisibleForTesting
     ActorSelection getListenerRegistrationActor() {
         return listenerRegistrationActor;
@@ -9,12 +9,18 @@ package org.opendaylight.controller.cluster.datastore;
 
 import akka.actor.ActorRef;
 import akka.actor.ActorSelection;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Optional;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Map.Entry;
+import org.opendaylight.controller.cluster.common.actor.MeteringBehavior;
 import org.opendaylight.controller.cluster.datastore.messages.EnableNotification;
 import org.opendaylight.controller.cluster.datastore.messages.RegisterDataTreeChangeListener;
 import org.opendaylight.controller.cluster.datastore.messages.RegisterDataTreeChangeListenerReply;
+import org.opendaylight.controller.cluster.reporting.MetricsReporter;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeChangeListener;
+import org.opendaylight.yangtools.concepts.AbstractListenerRegistration;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
 
@@ -40,12 +46,19 @@ final class DataTreeChangeListenerSupport extends AbstractDataListenerSupport<DO
             addListenerActor(dataChangeListenerPath);
         }
 
-        DOMDataTreeChangeListener listener = new ForwardingDataTreeChangeListener(dataChangeListenerPath);
+        final int maxLag = getShard().getDatastoreContext().getMaxTreeChangeListenerLag();
+        DOMDataTreeChangeListener listener = maxLag > 0 ? new CoalescingDataTreeChangeListener(dataChangeListenerPath,
+                maxLag, message.getFilter(), getShard().getContext().dispatcher()) :
+                    new ForwardingDataTreeChangeListener(dataChangeListenerPath, message.getFilter());
 
-        log().debug("{}: Registering for path {}", persistenceId(), message.getPath());
+        log().debug("{}: Registering for path {} with {}", persistenceId(), message.getPath(), message.getFilter());
 
         Entry<ListenerRegistration<DOMDataTreeChangeListener>, Optional<DataTreeCandidate>> regEntry =
                 getShard().getDataStore().registerTreeChangeListener(message.getPath(), listener);
+        if (listener instanceof CoalescingDataTreeChangeListener) {
+            regEntry = new SimpleImmutableEntry<>(registerMetrics(regEntry.getKey(),
+                (CoalescingDataTreeChangeListener) listener, dataChangeListenerPath), regEntry.getValue());
+        }
 
         getShard().getDataStore().notifyOfInitialData(message.getPath(),
                 regEntry.getKey().getInstance(), regEntry.getValue());
@@ -53,6 +66,37 @@ final class DataTreeChangeListenerSupport extends AbstractDataListenerSupport<DO
         return regEntry;
     }
 
+    /**
+     * Publishes the queue depth of a coalescing listener until its registration is closed.
+     */
+    private ListenerRegistration<DOMDataTreeChangeListener> registerMetrics(
+            final ListenerRegistration<DOMDataTreeChangeListener> registration,
+            final CoalescingDataTreeChangeListener listener, final ActorSelection listenerActor) {
+        final MetricRegistry registry = MetricsReporter.getInstance(MeteringBehavior.DOMAIN).getMetricsRegistry();
+        final String prefix = MetricRegistry.name(getShard().self().path().toStringWithoutAddress(),
+                "tree-change-listener", listenerActor.toSerializationFormat());
+        final String outstandingMetric = MetricRegistry.name(prefix, "outstanding-notifications");
+        final String pendingMetric = MetricRegistry.name(prefix, "pending-changes");
+        final String coalescedMetric = MetricRegistry.name(prefix, "coalesced-changes");
+
+        registry.remove(outstandingMetric);
+        registry.remove(pendingMetric);
+        registry.remove(coalescedMetric);
+        registry.register(outstandingMetric, (Gauge<Integer>) listener::getOutstandingNotifications);
+        registry.register(pendingMetric, (Gauge<Integer>) listener::getPendingChanges);
+        registry.register(coalescedMetric, (Gauge<Long>) listener::getCoalescedChanges);
+
+        return new AbstractListenerRegistration<DOMDataTreeChangeListener>(registration.getInstance()) {
+            @Override
+            protected void removeRegistration() {
+                registration.close();
+                registry.remove(outstandingMetric);
+                registry.remove(pendingMetric);
+                registry.remove(coalescedMetric);
+            }
+        };
+    }
+
     @Override
     protected DelayedDataTreeListenerRegistration newDelayedListenerRegistration(RegisterDataTreeChangeListener message) {
         return new DelayedDataTreeListenerRegistration(message);
@@ -52,6 +52,12 @@ public class DatastoreContext {
     public static final int DEFAULT_SHARD_BATCHED_MODIFICATION_COUNT = 1000;
     public static final long DEFAULT_SHARD_COMMIT_QUEUE_EXPIRY_TIMEOUT_IN_MS = TimeUnit.MILLISECONDS.convert(2, TimeUnit.MINUTES);
     public static final int DEFAULT_SHARD_SNAPSHOT_CHUNK_SIZE = 2048000;
+    public static final int DEFAULT_SHARD_MAX_IN_FLIGHT_APPEND_ENTRIES = 1;
+    public static final boolean DEFAULT_SHARD_JOURNAL_GROUP_COMMIT_ENABLED = false;
+    public static final boolean DEFAULT_SHARD_OFF_HEAP_REPLICATED_LOG_ENABLED = false;
+    public static final int DEFAULT_MAX_TREE_CHANGE_LISTENER_LAG = 0;
+    public static final int DEFAULT_SHARD_COMMIT_BATCH_SIZE = 1;
+    public static final int DEFAULT_SHARD_MAX_SPECULATIVE_COMMITS = 0;
 
     private static final Set<String> globalDatastoreNames = Sets.newConcurrentHashSet();
 
@@ -73,6 +79,9 @@ public class DatastoreContext {
     private boolean writeOnlyTransactionOptimizationsEnabled = true;
     private long shardCommitQueueExpiryTimeoutInMillis = DEFAULT_SHARD_COMMIT_QUEUE_EXPIRY_TIMEOUT_IN_MS;
     private boolean transactionDebugContextEnabled = false;
+    private int maxTreeChangeListenerLag = DEFAULT_MAX_TREE_CHANGE_LISTENER_LAG;
+    private int shardCommitBatchSize = DEFAULT_SHARD_COMMIT_BATCH_SIZE;
+    private int shardMaxSpeculativeCommits = DEFAULT_SHARD_MAX_SPECULATIVE_COMMITS;
     private String shardManagerPersistenceId;
 
     public static Set<String> getGlobalDatastoreNames() {
@@ -87,6 +96,9 @@ public class DatastoreContext {
         setSnapshotDataThresholdPercentage(DEFAULT_SHARD_SNAPSHOT_DATA_THRESHOLD_PERCENTAGE);
         setElectionTimeoutFactor(DEFAULT_SHARD_ELECTION_TIMEOUT_FACTOR);
         setShardSnapshotChunkSize(DEFAULT_SHARD_SNAPSHOT_CHUNK_SIZE);
+        setShardMaxInFlightAppendEntries(DEFAULT_SHARD_MAX_IN_FLIGHT_APPEND_ENTRIES);
+        setShardJournalGroupCommitEnabled(DEFAULT_SHARD_JOURNAL_GROUP_COMMIT_ENABLED);
+        setShardOffHeapReplicatedLogEnabled(DEFAULT_SHARD_OFF_HEAP_REPLICATED_LOG_ENABLED);
     }
 
     private DatastoreContext(DatastoreContext other) {
@@ -107,6 +119,9 @@ public class DatastoreContext {
         this.writeOnlyTransactionOptimizationsEnabled = other.writeOnlyTransactionOptimizationsEnabled;
         this.shardCommitQueueExpiryTimeoutInMillis = other.shardCommitQueueExpiryTimeoutInMillis;
         this.transactionDebugContextEnabled = other.transactionDebugContextEnabled;
+        this.maxTreeChangeListenerLag = other.maxTreeChangeListenerLag;
+        this.shardCommitBatchSize = other.shardCommitBatchSize;
+        this.shardMaxSpeculativeCommits = other.shardMaxSpeculativeCommits;
         this.shardManagerPersistenceId = other.shardManagerPersistenceId;
 
         setShardJournalRecoveryLogBatchSize(other.raftConfig.getJournalRecoveryLogBatchSize());
@@ -117,6 +132,9 @@ public class DatastoreContext {
         setElectionTimeoutFactor(other.raftConfig.getElectionTimeoutFactor());
         setCustomRaftPolicyImplementation(other.raftConfig.getCustomRaftPolicyImplementationClass());
         setShardSnapshotChunkSize(other.raftConfig.getSnapshotChunkSize());
+        setShardMaxInFlightAppendEntries(other.raftConfig.getMaxInFlightAppendEntries());
+        setShardJournalGroupCommitEnabled(other.raftConfig.isJournalGroupCommitEnabled());
+        setShardOffHeapReplicatedLogEnabled(other.raftConfig.isOffHeapReplicatedLogEnabled());
         setPeerAddressResolver(other.raftConfig.getPeerAddressResolver());
     }
 
@@ -233,6 +251,18 @@ public class DatastoreContext {
         raftConfig.setSnapshotChunkSize(shardSnapshotChunkSize);
     }
 
+    private void setShardMaxInFlightAppendEntries(int shardMaxInFlightAppendEntries) {
+        raftConfig.setMaxInFlightAppendEntries(shardMaxInFlightAppendEntries);
+    }
+
+    private void setShardJournalGroupCommitEnabled(boolean shardJournalGroupCommitEnabled) {
+        raftConfig.setJournalGroupCommitEnabled(shardJournalGroupCommitEnabled);
+    }
+
+    private void setShardOffHeapReplicatedLogEnabled(boolean shardOffHeapReplicatedLogEnabled) {
+        raftConfig.setOffHeapReplicatedLogEnabled(shardOffHeapReplicatedLogEnabled);
+    }
+
     public int getShardBatchedModificationCount() {
         return shardBatchedModificationCount;
     }
@@ -249,10 +279,47 @@ public class DatastoreContext {
         return transactionDebugContextEnabled;
     }
 
+    /**
+     * Returns the number of change notifications a data tree change listener may have outstanding before further
+     * changes are held back and coalesced into a single change, or 0 if changes are never coalesced.
+     */
+    public int getMaxTreeChangeListenerLag() {
+        return maxTreeChangeListenerLag;
+    }
+
+    /**
+     * Returns the maximum number of consecutive, non-conflicting ready transactions a shard leader commits together
+     * as a single replicated payload, or 1 if transactions are committed separately.
+     */
+    public int getShardCommitBatchSize() {
+        return shardCommitBatchSize;
+    }
+
+    /**
+     * Returns the maximum number of transactions a shard leader validates and replicates on top of the uncommitted
+     * state of earlier transactions which are still being replicated, or 0 if each transaction waits for the previous
+     * one to be committed.
+     */
+    public int getShardMaxSpeculativeCommits() {
+        return shardMaxSpeculativeCommits;
+    }
+
     public int getShardSnapshotChunkSize() {
         return raftConfig.getSnapshotChunkSize();
     }
 
+    public int getShardMaxInFlightAppendEntries() {
+        return raftConfig.getMaxInFlightAppendEntries();
+    }
+
+    public boolean isShardJournalGroupCommitEnabled() {
+        return raftConfig.isJournalGroupCommitEnabled();
+    }
+
+    public boolean isShardOffHeapReplicatedLogEnabled() {
+        return raftConfig.isOffHeapReplicatedLogEnabled();
+    }
+
     public static class Builder {
         private final DatastoreContext datastoreContext;
         private int maxShardDataChangeExecutorPoolSize =
@@ -437,6 +504,21 @@ public class DatastoreContext {
             return this;
         }
 
+        public Builder maxTreeChangeListenerLag(int maxTreeChangeListenerLag) {
+            datastoreContext.maxTreeChangeListenerLag = maxTreeChangeListenerLag;
+            return this;
+        }
+
+        public Builder shardCommitBatchSize(int shardCommitBatchSize) {
+            datastoreContext.shardCommitBatchSize = shardCommitBatchSize;
+            return this;
+        }
+
+        public Builder shardMaxSpeculativeCommits(int shardMaxSpeculativeCommits) {
+            datastoreContext.shardMaxSpeculativeCommits = shardMaxSpeculativeCommits;
+            return this;
+        }
+
         public Builder maxShardDataChangeExecutorPoolSize(int maxShardDataChangeExecutorPoolSize) {
             this.maxShardDataChangeExecutorPoolSize = maxShardDataChangeExecutorPoolSize;
             return this;
@@ -488,6 +570,21 @@ public class DatastoreContext {
             return this;
         }
 
+        public Builder shardMaxInFlightAppendEntries(int shardMaxInFlightAppendEntries) {
+            datastoreContext.setShardMaxInFlightAppendEntries(shardMaxInFlightAppendEntries);
+            return this;
+        }
+
+        public Builder shardJournalGroupCommitEnabled(boolean shardJournalGroupCommitEnabled) {
+            datastoreContext.setShardJournalGroupCommitEnabled(shardJournalGroupCommitEnabled);
+            return this;
+        }
+
+        public Builder shardOffHeapReplicatedLogEnabled(boolean shardOffHeapReplicatedLogEnabled) {
+            datastoreContext.setShardOffHeapReplicatedLogEnabled(shardOffHeapReplicatedLogEnabled);
+            return this;
+        }
+
         public Builder shardPeerAddressResolver(PeerAddressResolver resolver) {
             datastoreContext.setPeerAddressResolver(resolver);
             return this;
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore;
+
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeChangeListener;
+
+/**
+ * A {@link DOMDataTreeChangeListener} which is only interested in part of the changes to its subtree. When registered
+ * with the distributed data store, its filter is applied by the shard, so the changes it rejects are never
+ * delivered.
+ */
+public interface FilteredDOMDataTreeChangeListener extends DOMDataTreeChangeListener {
+    /**
+     * Returns the filter to apply to the changes delivered to this listener. It is read once, when the listener is
+     * registered.
+     */
+    @Nonnull
+    DataTreeChangeFilter getFilter();
+}
@@ -22,13 +22,22 @@ import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
  */
 final class ForwardingDataTreeChangeListener implements DOMDataTreeChangeListener {
     private final ActorSelection actor;
+    private final DataTreeChangeFilter filter;
 
     ForwardingDataTreeChangeListener(final ActorSelection actor) {
+        this(actor, DataTreeChangeFilter.ACCEPT_ALL);
+    }
+
+    ForwardingDataTreeChangeListener(final ActorSelection actor, final DataTreeChangeFilter filter) {
         this.actor = Preconditions.checkNotNull(actor, "actor should not be null");
+        this.filter = Preconditions.checkNotNull(filter);
     }
 
     @Override
     public void onDataTreeChanged(Collection<DataTreeCandidate> changes) {
-        actor.tell(new DataTreeChanged(changes), ActorRef.noSender());
+        final Collection<DataTreeCandidate> filtered = filter.filter(changes);
+        if (!filtered.isEmpty()) {
+            actor.tell(new DataTreeChanged(filtered), ActorRef.noSender());
+        }
     }
 }
@@ -13,6 +13,8 @@ import akka.actor.ActorSelection;
 import akka.actor.Cancellable;
 import akka.actor.Props;
 import akka.serialization.Serialization;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
@@ -66,6 +68,7 @@ import org.opendaylight.controller.cluster.raft.base.messages.FollowerInitialSyn
 import org.opendaylight.controller.cluster.raft.messages.AppendEntriesReply;
 import org.opendaylight.controller.cluster.raft.messages.ServerRemoved;
 import org.opendaylight.controller.cluster.raft.protobuff.client.messages.Payload;
+import org.opendaylight.controller.cluster.reporting.MetricsReporter;
 import org.opendaylight.yangtools.concepts.Identifier;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
@@ -102,6 +105,12 @@ public class Shard extends RaftActor {
     // FIXME: shard names should be encapsulated in their own class and this should be exposed as a constant.
     public static final String DEFAULT_NAME = "default";
 
+    /**
+     * The name, relative to the shard actor's path, of the metric holding the number of transactions in the shard's
+     * commit queue.
+     */
+    public static final String COMMIT_QUEUE_SIZE = "commit-q-size";
+
     // The state of this Shard
     private final ShardDataTree store;
 
@@ -114,6 +123,8 @@ public class Shard extends RaftActor {
 
     private final ShardCommitCoordinator commitCoordinator;
 
+    private final String commitQueueSizeMetric;
+
     private long transactionCommitTimeout;
 
     private Cancellable txCommitTimeoutCheckSchedule;
@@ -132,6 +143,9 @@ public class Shard extends RaftActor {
 
     private ShardSnapshot restoreFromSnapshot;
 
+    // Read by the shard MBean so recovery progress can be observed while the actor is busy recovering
+    private volatile ShardRecoveryCoordinator recoveryCoordinator;
+
     private final ShardTransactionMessageRetrySupport messageRetrySupport;
 
     protected Shard(AbstractBuilder<?, ?> builder) {
@@ -161,6 +175,14 @@ public class Shard extends RaftActor {
         commitCoordinator = new ShardCommitCoordinator(store,
                 datastoreContext.getShardCommitQueueExpiryTimeoutInMillis(),
                 datastoreContext.getShardTransactionCommitQueueCapacity(), LOG, this.name);
+        commitCoordinator.setCommitBatchSize(datastoreContext.getShardCommitBatchSize());
+        commitCoordinator.setMaxSpeculativeCommits(datastoreContext.getShardMaxSpeculativeCommits());
+
+        // Published so the transaction rate limiter of a local frontend can detect a backed up commit queue
+        commitQueueSizeMetric = MetricRegistry.name(self().path().toStringWithoutAddress(), COMMIT_QUEUE_SIZE);
+        final MetricRegistry metricRegistry = MetricsReporter.getInstance(MeteringBehavior.DOMAIN).getMetricsRegistry();
+        metricRegistry.remove(commitQueueSizeMetric);
+        metricRegistry.register(commitQueueSizeMetric, (Gauge<Integer>) commitCoordinator::getQueueSize);
 
         setTransactionCommitTimeout();
 
@@ -206,6 +228,8 @@ public class Shard extends RaftActor {
         commitCoordinator.abortPendingTransactions("Transaction aborted due to shutdown.", this);
 
         shardMBean.unregisterMBean();
+
+        MetricsReporter.getInstance(MeteringBehavior.DOMAIN).getMetricsRegistry().remove(commitQueueSizeMetric);
     }
 
     @Override
@@ -292,6 +316,21 @@ public class Shard extends RaftActor {
         return commitCoordinator.getCohortCacheSize();
     }
 
+    public boolean isRecoveryComplete() {
+        final ShardRecoveryCoordinator coordinator = recoveryCoordinator;
+        return coordinator == null || coordinator.isRecoveryComplete();
+    }
+
+    public long getRecoveredLogEntryCount() {
+        final ShardRecoveryCoordinator coordinator = recoveryCoordinator;
+        return coordinator != null ? coordinator.getRecoveredLogEntryCount() : 0;
+    }
+
+    public double getRecoveryLogEntryRate() {
+        final ShardRecoveryCoordinator coordinator = recoveryCoordinator;
+        return coordinator != null ? coordinator.getRecoveryLogEntryRate() : 0;
+    }
+
     @Override
     protected Optional<ActorRef> getRoleChangeNotifier() {
         return roleChangeNotifier;
@@ -307,6 +346,8 @@ public class Shard extends RaftActor {
         datastoreContext = context;
 
         commitCoordinator.setQueueCapacity(datastoreContext.getShardTransactionCommitQueueCapacity());
+        commitCoordinator.setCommitBatchSize(datastoreContext.getShardCommitBatchSize());
+        commitCoordinator.setMaxSpeculativeCommits(datastoreContext.getShardMaxSpeculativeCommits());
 
         setTransactionCommitTimeout();
 
@@ -337,7 +378,7 @@ public class Shard extends RaftActor {
 
         final Payload payload;
         try {
-            payload = CommitTransactionPayload.create(transactionId, candidate);
+            payload = CommitTransactionPayload.create(transactionId, candidate, store.getSchemaFingerprint());
         } catch (IOException e) {
             LOG.error("{}: failed to encode transaction {} candidate {}", persistenceId(), transactionId, candidate,
                 e);
@@ -348,6 +389,55 @@ public class Shard extends RaftActor {
         persistData(cohortEntry.getReplySender(), cohortEntry.getTransactionID(), payload);
     }
 
+    void continueCommit(final CommitBatch batch) {
+        final DataTreeCandidate candidate = batch.getCandidate();
+        if ((!hasFollowers() && !persistence().isRecoveryApplicable()) || isEmptyCommit(candidate)) {
+            finishCommit(batch);
+            return;
+        }
+
+        final Payload payload;
+        try {
+            payload = CommitTransactionPayload.create(batch.getIdentifier(), candidate, store.getSchemaFingerprint());
+        } catch (IOException e) {
+            LOG.error("{}: failed to encode batch {} candidate {}", persistenceId(), batch, candidate, e);
+            throw Throwables.propagate(e);
+        }
+
+        // The batch has no single client, so the shard itself stands in for the client on consensus
+        persistData(getSelf(), batch.getIdentifier(), payload);
+    }
+
+    private void finishCommit(@Nonnull final CommitBatch batch) {
+        LOG.debug("{}: Finishing commit for batch {}", persistenceId(), batch);
+
+        try {
+            if (commitCoordinator.isCurrentBatch(batch)) {
+                batch.commit();
+            } else {
+                // The batch timed out, so its transactions may have been overtaken - see finishCommit below
+                store.applyForeignCandidate(batch.getIdentifier(), batch.getCandidate());
+            }
+
+            for (CohortEntry cohortEntry : batch.getCohortEntries()) {
+                cohortEntry.getReplySender().tell(
+                        CommitTransactionReply.instance(cohortEntry.getClientVersion()).toSerializable(), getSelf());
+                shardMBean.incrementCommittedTransactionCount();
+            }
+
+            shardMBean.setLastCommittedTransactionTime(System.currentTimeMillis());
+        } catch (Exception e) {
+            LOG.error("{}, An exception occurred while committing batch {}", persistenceId(), batch, e);
+
+            for (CohortEntry cohortEntry : batch.getCohortEntries()) {
+                cohortEntry.getReplySender().tell(new akka.actor.Status.Failure(e), getSelf());
+                shardMBean.incrementFailedTransactionsCount();
+            }
+        } finally {
+            commitCoordinator.batchComplete(batch);
+        }
+    }
+
     private void handleCommitTransaction(final CommitTransaction commit) {
         if (isLeader()) {
             if(!commitCoordinator.handleCommit(commit.getTransactionID(), getSender(), this)) {
@@ -413,6 +503,11 @@ public class Shard extends RaftActor {
         // after the commit has been replicated to a majority of the followers.
 
         CohortEntry cohortEntry = commitCoordinator.getCohortEntryIfCurrent(transactionID);
+        if (cohortEntry == null) {
+            // The transaction may have been replicated speculatively behind earlier ones
+            cohortEntry = commitCoordinator.getPendingCommitIfNext(transactionID);
+        }
+
         if (cohortEntry == null) {
             // The transaction is no longer the current commit. This can happen if the transaction
             // was aborted prior, most likely due to timeout in the front-end. We need to finish
@@ -657,14 +752,19 @@ public class Shard extends RaftActor {
     @Override
     @Nonnull
     protected RaftActorRecoveryCohort getRaftActorRecoveryCohort() {
-        return new ShardRecoveryCoordinator(store, store.getSchemaContext(),
+        recoveryCoordinator = new ShardRecoveryCoordinator(store, store.getSchemaContext(),
                 restoreFromSnapshot != null ? restoreFromSnapshot.getSnapshot() : null, persistenceId(), LOG);
+        return recoveryCoordinator;
     }
 
     @Override
     protected void onRecoveryComplete() {
         restoreFromSnapshot = null;
 
+        if(recoveryCoordinator != null) {
+            recoveryCoordinator.recoveryComplete();
+        }
+
         //notify shard manager
         getContext().parent().tell(new ActorInitialized(), getSelf());
 
@@ -691,7 +791,12 @@ public class Shard extends RaftActor {
                 }
             } else {
                 // Replication consensus reached, proceed to commit
-                finishCommit(clientActor, identifier);
+                final CommitBatch batch = commitCoordinator.getCommitBatch(identifier);
+                if (batch != null) {
+                    finishCommit(batch);
+                } else {
+                    finishCommit(clientActor, identifier);
+                }
             }
         } else {
             LOG.error("{}: Unknown state received {} ClassLoader {}", persistenceId(), data,
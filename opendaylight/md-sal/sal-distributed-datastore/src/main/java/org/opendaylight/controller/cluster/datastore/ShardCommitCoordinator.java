@@ -15,6 +15,7 @@ import com.google.common.base.Preconditions;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -35,6 +36,7 @@ import org.opendaylight.controller.cluster.datastore.messages.ReadyTransactionRe
 import org.opendaylight.controller.cluster.datastore.utils.AbstractBatchedModificationsCursor;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.yangtools.concepts.Identifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.slf4j.Logger;
 
@@ -54,16 +56,29 @@ final class ShardCommitCoordinator {
 
     private CohortEntry currentCohortEntry;
 
+    private CommitBatch currentBatch;
+
+    // Batches which timed out while being replicated, still to be applied if replication succeeds
+    private final Map<Identifier, CommitBatch> expiredBatches = new HashMap<>();
+
+    // Entries being replicated, in commit order, which no longer block subsequent entries from being validated and
+    // replicated speculatively on top of them
+    private final Queue<CohortEntry> pendingCommits = new LinkedList<>();
+
     private final ShardDataTree dataTree;
 
     private final DataTreeCohortActorRegistry cohortRegistry = new DataTreeCohortActorRegistry();
 
     // We use a LinkedList here to avoid synchronization overhead with concurrent queue impls
     // since this should only be accessed on the shard's dispatcher.
-    private final Queue<CohortEntry> queuedCohortEntries = new LinkedList<>();
+    private final Deque<CohortEntry> queuedCohortEntries = new LinkedList<>();
 
     private int queueCapacity;
 
+    private int commitBatchSize = 1;
+
+    private int maxSpeculativeCommits;
+
     private final Logger log;
 
     private final String name;
@@ -99,6 +114,14 @@ final class ShardCommitCoordinator {
         this.queueCapacity = queueCapacity;
     }
 
+    void setCommitBatchSize(int commitBatchSize) {
+        this.commitBatchSize = commitBatchSize;
+    }
+
+    void setMaxSpeculativeCommits(int maxSpeculativeCommits) {
+        this.maxSpeculativeCommits = maxSpeculativeCommits;
+    }
+
     private ReadyTransactionReply readyTransactionReply(Shard shard) {
         if(readyTransactionReply == null) {
             readyTransactionReply = new ReadyTransactionReply(Serialization.serializedActorPath(shard.self()));
@@ -288,13 +311,14 @@ final class ShardCommitCoordinator {
     private void handleCanCommit(CohortEntry cohortEntry) {
         cohortEntry.updateLastAccessTime();
 
-        if(currentCohortEntry != null) {
+        if(isCommitInProgress()) {
             // There's already a Tx commit in progress so we can't process this entry yet - but it's in the
             // queue and will get processed after all prior entries complete.
 
             if(log.isDebugEnabled()) {
-                log.debug("{}: Commit for Tx {} already in progress - skipping canCommit for {} for now",
-                        name, currentCohortEntry.getTransactionID(), cohortEntry.getTransactionID());
+                log.debug("{}: Commit for {} already in progress - skipping canCommit for {} for now",
+                        name, currentCohortEntry != null ? currentCohortEntry.getTransactionID() : currentBatch,
+                        cohortEntry.getTransactionID());
             }
 
             return;
@@ -304,8 +328,7 @@ final class ShardCommitCoordinator {
         // it the current entry and proceed with canCommit.
         // Purposely checking reference equality here.
         if(queuedCohortEntries.peek() == cohortEntry) {
-            currentCohortEntry = queuedCohortEntries.poll();
-            doCanCommit(currentCohortEntry);
+            processNextCohortEntry(queuedCohortEntries.poll());
         } else {
             if(log.isDebugEnabled()) {
                 log.debug("{}: Tx {} is the next pending canCommit - skipping {} for now", name,
@@ -379,6 +402,123 @@ final class ShardCommitCoordinator {
         }
     }
 
+    private boolean isCommitInProgress() {
+        return currentCohortEntry != null || currentBatch != null || pendingCommits.size() > maxSpeculativeCommits;
+    }
+
+    /**
+     * Makes the given entry, just removed from the head of the queue, the current entry and proceeds with canCommit.
+     * If commits are batched and the entry is to be committed immediately, the consecutive entries which can be
+     * committed along with it are removed from the queue as well and are committed together with it as a batch.
+     */
+    private void processNextCohortEntry(final CohortEntry cohortEntry) {
+        if(cohortEntry.isPreCommitted()) {
+            // A member of a batch which failed to commit, which is now committed on its own
+            currentCohortEntry = cohortEntry;
+            doCommit(cohortEntry);
+            return;
+        }
+
+        // A batch is only formed on top of the committed state, as its members' candidates are combined against it
+        if(commitBatchSize > 1 && cohortEntry.isDoImmediateCommit() && pendingCommits.isEmpty()) {
+            final List<CohortEntry> batched = pollBatchableCohortEntries(cohortEntry);
+            if(batched.size() > 1) {
+                doBatchCommit(batched);
+                return;
+            }
+        }
+
+        currentCohortEntry = cohortEntry;
+        doCanCommit(currentCohortEntry);
+    }
+
+    /**
+     * Removes from the queue the entries following the given entry which are ready to be committed immediately and
+     * do not modify any subtree modified by a preceding entry, up to the commit batch size.
+     */
+    private List<CohortEntry> pollBatchableCohortEntries(final CohortEntry first) {
+        final List<CohortEntry> batched = new ArrayList<>(commitBatchSize);
+        batched.add(first);
+
+        final List<YangInstanceIdentifier> batchedPaths = new ArrayList<>(
+                CommitBatch.modifiedPaths(first.getDataTreeModification()));
+        while(batched.size() < commitBatchSize) {
+            final CohortEntry next = queuedCohortEntries.peek();
+            if(next == null || !next.isReadyToCommit() || !next.isDoImmediateCommit() || next.isAborted()) {
+                break;
+            }
+
+            final Collection<YangInstanceIdentifier> paths = CommitBatch.modifiedPaths(
+                    next.getDataTreeModification());
+            if(CommitBatch.overlaps(batchedPaths, paths)) {
+                log.debug("{}: Tx {} conflicts with the current batch - committing it separately", name,
+                        next.getTransactionID());
+                break;
+            }
+
+            batchedPaths.addAll(paths);
+            batched.add(queuedCohortEntries.poll());
+        }
+
+        return batched;
+    }
+
+    /**
+     * Validates and prepares each of the given entries, failing those which cannot be committed, and commits the
+     * remaining ones as a single batch. Should the batch itself fail to be prepared, its entries are committed one at
+     * a time instead.
+     */
+    private void doBatchCommit(final List<CohortEntry> cohortEntries) {
+        final List<CohortEntry> prepared = new ArrayList<>(cohortEntries.size());
+        for(CohortEntry cohortEntry: cohortEntries) {
+            cohortEntry.updateLastAccessTime();
+
+            Throwable failure;
+            try {
+                if(cohortEntry.canCommit()) {
+                    cohortEntry.preCommit();
+                    prepared.add(cohortEntry);
+                    continue;
+                }
+
+                failure = new TransactionCommitFailedException("Can Commit failed, no detailed cause available.");
+            } catch (Exception e) {
+                log.debug("{}: An exception occurred while preparing transaction {}", name,
+                        cohortEntry.getTransactionID(), e);
+                failure = e instanceof ExecutionException ? e.getCause() : e;
+            }
+
+            cohortEntry.getReplySender().tell(new Failure(failure), cohortEntry.getShard().self());
+            cohortCache.remove(cohortEntry.getTransactionID());
+        }
+
+        if(prepared.isEmpty()) {
+            maybeProcessNextCohortEntry();
+            return;
+        }
+
+        final Shard shard = prepared.get(0).getShard();
+        try {
+            currentBatch = CommitBatch.prepare(dataTree, prepared);
+
+            log.debug("{}: Committing batch {}", name, currentBatch);
+
+            shard.continueCommit(currentBatch);
+        } catch (Exception e) {
+            log.warn("{}: An exception occurred while committing a batch of {} transactions - committing them "
+                    + "one at a time", name, prepared.size(), e);
+
+            // Put the entries back at the head of the queue, in order, so a failure is confined to the transaction
+            // which caused it
+            for(int i = prepared.size() - 1; i >= 0; i--) {
+                queuedCohortEntries.addFirst(prepared.get(i));
+            }
+
+            currentBatch = null;
+            maybeProcessNextCohortEntry();
+        }
+    }
+
     private boolean doCommit(CohortEntry cohortEntry) {
         log.debug("{}: Committing transaction {}", name, cohortEntry.getTransactionID());
 
@@ -390,7 +530,14 @@ final class ShardCommitCoordinator {
         // normally fail since we ensure only one concurrent 3-phase commit.
 
         try {
-            cohortEntry.preCommit();
+            if(cohortEntry.isPreCommitted()) {
+                // The entry was prepared as a member of a batch which failed to commit
+                if(!cohortEntry.reprepare()) {
+                    throw new TransactionCommitFailedException("Can Commit failed, no detailed cause available.");
+                }
+            } else {
+                cohortEntry.preCommit();
+            }
 
             cohortEntry.getShard().continueCommit(cohortEntry);
 
@@ -405,6 +552,18 @@ final class ShardCommitCoordinator {
             currentTransactionComplete(cohortEntry.getTransactionID(), true);
         }
 
+        if(success && maxSpeculativeCommits > 0 && currentCohortEntry == cohortEntry) {
+            // The entry is being replicated - subsequent entries may proceed speculatively on top of it
+            pendingCommits.add(cohortEntry);
+            dataTree.addPendingCandidate(cohortEntry.getCandidate());
+            currentCohortEntry = null;
+
+            log.debug("{}: Transaction {} is being replicated, {} pending commits", name,
+                    cohortEntry.getTransactionID(), pendingCommits.size());
+
+            maybeProcessNextCohortEntry();
+        }
+
         return success;
     }
 
@@ -471,6 +630,32 @@ final class ShardCommitCoordinator {
     }
 
     void checkForExpiredTransactions(final long timeout, final Shard shard) {
+        if(currentBatch != null && currentBatch.isExpired(timeout)) {
+            log.warn("{}: Current batch {} has timed out after {} ms - aborting", name, currentBatch, timeout);
+
+            // The batch is kept in case it is replicated successfully, like an aborted transaction in the cache
+            expiredBatches.put(currentBatch.getIdentifier(), currentBatch);
+            for(CohortEntry cohortEntry: currentBatch.getCohortEntries()) {
+                try {
+                    cohortEntry.abort();
+                    shard.getShardMBean().incrementAbortTransactionsCount();
+                } catch (Exception e) {
+                    log.error("{}: An exception happened during abort", name, e);
+                }
+            }
+
+            currentBatch = null;
+        }
+
+        final CohortEntry pendingCommit = pendingCommits.peek();
+        if(pendingCommit != null && pendingCommit.isExpired(timeout)) {
+            log.warn("{}: Pending transaction {} has timed out after {} ms - aborting it and the {} transactions "
+                    + "replicated speculatively behind it", name, pendingCommit.getTransactionID(), timeout,
+                    pendingCommits.size() - 1);
+
+            unwindPendingCommits(shard);
+        }
+
         CohortEntry cohortEntry = getCurrentCohortEntry();
         if(cohortEntry != null) {
             if(cohortEntry.isExpired(timeout)) {
@@ -484,8 +669,27 @@ final class ShardCommitCoordinator {
         cleanupExpiredCohortEntries();
     }
 
+    /**
+     * Aborts the entries being replicated, all of which depend on the first one, and unwinds their candidates. The
+     * entries are kept in the cache, so if they are replicated after all, they are applied like any other aborted
+     * transaction which was replicated.
+     */
+    private void unwindPendingCommits(final Shard shard) {
+        for(CohortEntry cohortEntry: pendingCommits) {
+            try {
+                cohortEntry.abort();
+                shard.getShardMBean().incrementAbortTransactionsCount();
+            } catch (Exception e) {
+                log.error("{}: An exception happened during abort", name, e);
+            }
+        }
+
+        pendingCommits.clear();
+        dataTree.clearPendingCandidates();
+    }
+
     void abortPendingTransactions(final String reason, final Shard shard) {
-        if(currentCohortEntry == null && queuedCohortEntries.isEmpty()) {
+        if(!isCommitInProgress() && pendingCommits.isEmpty() && queuedCohortEntries.isEmpty()) {
             return;
         }
 
@@ -503,12 +707,31 @@ final class ShardCommitCoordinator {
     private List<CohortEntry> getAndClearPendingCohortEntries() {
         List<CohortEntry> cohortEntries = new ArrayList<>();
 
+        for(CohortEntry cohortEntry: pendingCommits) {
+            cohortEntries.add(cohortEntry);
+            cohortCache.remove(cohortEntry.getTransactionID());
+        }
+
+        pendingCommits.clear();
+        dataTree.clearPendingCandidates();
+
         if(currentCohortEntry != null) {
             cohortEntries.add(currentCohortEntry);
             cohortCache.remove(currentCohortEntry.getTransactionID());
             currentCohortEntry = null;
         }
 
+        if(currentBatch != null) {
+            for(CohortEntry cohortEntry: currentBatch.getCohortEntries()) {
+                cohortEntries.add(cohortEntry);
+                cohortCache.remove(cohortEntry.getTransactionID());
+            }
+
+            currentBatch = null;
+        }
+
+        expiredBatches.clear();
+
         for(CohortEntry cohortEntry: queuedCohortEntries) {
             cohortEntries.add(cohortEntry);
             cohortCache.remove(cohortEntry.getTransactionID());
@@ -519,7 +742,7 @@ final class ShardCommitCoordinator {
     }
 
     Collection<Object> convertPendingTransactionsToMessages(final int maxModificationsPerBatch) {
-        if(currentCohortEntry == null && queuedCohortEntries.isEmpty()) {
+        if(!isCommitInProgress() && pendingCommits.isEmpty() && queuedCohortEntries.isEmpty()) {
             return Collections.emptyList();
         }
 
@@ -586,6 +809,53 @@ final class ShardCommitCoordinator {
         return currentCohortEntry;
     }
 
+    /**
+     * Returns the cohort entry for the oldest transaction being replicated if the given transaction ID matches it.
+     *
+     * @param transactionID the ID of the transaction
+     * @return the CohortEntry or null if the given transaction ID does not match the oldest pending commit
+     */
+    CohortEntry getPendingCommitIfNext(Identifier transactionID) {
+        final CohortEntry next = pendingCommits.peek();
+        return next != null && next.getTransactionID().equals(transactionID) ? next : null;
+    }
+
+    /**
+     * Returns the current or an expired batch replicated with the given identifier, or null if there is none.
+     */
+    CommitBatch getCommitBatch(Identifier identifier) {
+        if(currentBatch != null && currentBatch.getIdentifier().equals(identifier)) {
+            return currentBatch;
+        }
+
+        return expiredBatches.get(identifier);
+    }
+
+    boolean isCurrentBatch(CommitBatch batch) {
+        return currentBatch == batch;
+    }
+
+    /**
+     * This method is called when the commit of a batch is complete, successful or not. If it is the current batch,
+     * the next cohort entry, if any, is dequeued and processed.
+     *
+     * @param batch the completed batch
+     */
+    void batchComplete(CommitBatch batch) {
+        expiredBatches.remove(batch.getIdentifier());
+        for(CohortEntry cohortEntry: batch.getCohortEntries()) {
+            cohortCache.remove(cohortEntry.getTransactionID());
+        }
+
+        if(currentBatch == batch) {
+            currentBatch = null;
+
+            log.debug("{}: batchComplete: {}", name, batch);
+
+            maybeProcessNextCohortEntry();
+        }
+    }
+
     CohortEntry getAndRemoveCohortEntry(Identifier transactionID) {
         return cohortCache.remove(transactionID);
     }
@@ -614,6 +884,13 @@ final class ShardCommitCoordinator {
 
             log.debug("{}: currentTransactionComplete: {}", name, transactionID);
 
+            maybeProcessNextCohortEntry();
+        } else if(getPendingCommitIfNext(transactionID) != null) {
+            dataTree.removePendingCandidate(pendingCommits.poll().getCandidate());
+
+            log.debug("{}: pending transaction complete: {}, {} pending commits", name, transactionID,
+                    pendingCommits.size());
+
             maybeProcessNextCohortEntry();
         }
     }
@@ -625,15 +902,14 @@ final class ShardCommitCoordinator {
         while(iter.hasNext()) {
             final CohortEntry next = iter.next();
             if(next.isReadyToCommit()) {
-                if(currentCohortEntry == null) {
+                if(!isCommitInProgress()) {
                     if(log.isDebugEnabled()) {
                         log.debug("{}: Next entry to canCommit {}", name, next);
                     }
 
                     iter.remove();
-                    currentCohortEntry = next;
-                    currentCohortEntry.updateLastAccessTime();
-                    doCanCommit(currentCohortEntry);
+                    next.updateLastAccessTime();
+                    processNextCohortEntry(next);
                 }
 
                 break;
@@ -661,7 +937,8 @@ final class ShardCommitCoordinator {
     }
 
     private void maybeRunOperationOnPendingTransactionsComplete() {
-        if(runOnPendingTransactionsComplete != null && currentCohortEntry == null && queuedCohortEntries.isEmpty()) {
+        if(runOnPendingTransactionsComplete != null && !isCommitInProgress() && pendingCommits.isEmpty()
+                && queuedCohortEntries.isEmpty()) {
             log.debug("{}: Pending transactions complete - running operation {}", name, runOnPendingTransactionsComplete);
 
             runOnPendingTransactionsComplete.run();
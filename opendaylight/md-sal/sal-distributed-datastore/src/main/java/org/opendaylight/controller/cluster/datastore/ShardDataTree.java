@@ -10,12 +10,18 @@ package org.opendaylight.controller.cluster.datastore;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.opendaylight.controller.cluster.access.concepts.LocalHistoryIdentifier;
 import org.opendaylight.controller.cluster.access.concepts.TransactionIdentifier;
+import org.opendaylight.controller.cluster.datastore.persisted.SchemaFingerprint;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncDataBroker.DataChangeScope;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeListener;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeChangeListener;
@@ -31,6 +37,7 @@ import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTreeTip;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
 import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -52,8 +59,16 @@ public class ShardDataTree extends ShardDataTreeTransactionParent {
     private final ShardDataTreeChangeListenerPublisher treeChangeListenerPublisher;
     private final ShardDataChangeListenerPublisher dataChangeListenerPublisher;
     private final TipProducingDataTree dataTree;
+
+    // Candidates of transactions being replicated, in commit order, on top of which subsequent transactions are
+    // validated and prepared speculatively
+    private final Deque<DataTreeCandidateTip> pendingCandidates = new ArrayDeque<>();
+
+    // Listeners invoked synchronously with each committed candidate, see addCommitListener()
+    private final List<DOMDataTreeChangeListener> commitListeners = new ArrayList<>();
     private final String logContext;
     private SchemaContext schemaContext;
+    private SchemaFingerprint schemaFingerprint;
 
     public ShardDataTree(final SchemaContext schemaContext, final TreeType treeType,
             final ShardDataTreeChangeListenerPublisher treeChangeListenerPublisher,
@@ -74,13 +89,56 @@ public class ShardDataTree extends ShardDataTreeTransactionParent {
         return dataTree;
     }
 
+    /**
+     * Returns the tip against which transactions are validated and prepared. This is the candidate of the last
+     * transaction being replicated speculatively, if any, otherwise the data tree itself.
+     */
+    TipProducingDataTreeTip getTip() {
+        return pendingCandidates.isEmpty() ? dataTree : pendingCandidates.getLast();
+    }
+
+    /**
+     * Makes the given candidate, prepared against the current tip and now being replicated, the tip for subsequent
+     * transactions.
+     */
+    void addPendingCandidate(final DataTreeCandidateTip candidate) {
+        pendingCandidates.addLast(candidate);
+    }
+
+    /**
+     * Removes the given candidate from the pending candidates once it has been committed, or has failed to commit.
+     */
+    void removePendingCandidate(final DataTreeCandidate candidate) {
+        pendingCandidates.remove(candidate);
+    }
+
+    /**
+     * Unwinds all pending candidates, eg if they failed to replicate, so subsequent transactions are once more
+     * validated and prepared against the data tree itself.
+     */
+    void clearPendingCandidates() {
+        if (!pendingCandidates.isEmpty()) {
+            LOG.debug("{}: Unwinding {} pending candidates", logContext, pendingCandidates.size());
+            pendingCandidates.clear();
+        }
+    }
+
     SchemaContext getSchemaContext() {
         return schemaContext;
     }
 
+    /**
+     * Returns the fingerprint of the current SchemaContext, which is persisted with the data so recovery can tell
+     * whether it needs to be pruned.
+     */
+    SchemaFingerprint getSchemaFingerprint() {
+        return schemaFingerprint;
+    }
+
     void updateSchemaContext(final SchemaContext schemaContext) {
         Preconditions.checkNotNull(schemaContext);
         this.schemaContext = schemaContext;
+        this.schemaFingerprint = SchemaFingerprint.of(schemaContext);
         dataTree.setSchemaContext(schemaContext);
     }
 
@@ -111,7 +169,29 @@ public class ShardDataTree extends ShardDataTreeTransactionParent {
         return ensureTransactionChain(txId.getHistoryId()).newReadWriteTransaction(txId);
     }
 
+    /**
+     * Adds a listener which is invoked synchronously, in the shard's commit path, with the root candidate of each
+     * committed transaction, i.e. from {@link #notifyListeners(DataTreeCandidate)}. Unlike tree change listeners, which
+     * are notified asynchronously, a commit listener hence never lags behind the committed state. The listener is
+     * immediately notified of the current data. It must not modify the data tree.
+     */
+    public void addCommitListener(final DOMDataTreeChangeListener listener) {
+        commitListeners.add(Preconditions.checkNotNull(listener));
+
+        final Optional<DataTreeCandidate> currentState = readCurrentData();
+        if (currentState.isPresent()) {
+            listener.onDataTreeChanged(Collections.singletonList(currentState.get()));
+        }
+    }
+
+    private void notifyCommitListeners(final DataTreeCandidate candidate) {
+        for (DOMDataTreeChangeListener listener : commitListeners) {
+            listener.onDataTreeChanged(Collections.singletonList(candidate));
+        }
+    }
+
     public void notifyListeners(final DataTreeCandidate candidate) {
+        notifyCommitListeners(candidate);
         treeChangeListenerPublisher.publishChanges(candidate, logContext);
         dataChangeListenerPublisher.publishChanges(candidate, logContext);
     }
@@ -12,11 +12,15 @@ import akka.actor.ActorRef;
 import akka.actor.PoisonPill;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import org.opendaylight.controller.cluster.datastore.jmx.mbeans.shard.ShardStats;
 import org.opendaylight.controller.cluster.datastore.messages.CreateSnapshot;
 import org.opendaylight.controller.cluster.datastore.messages.DataExists;
 import org.opendaylight.controller.cluster.datastore.messages.ReadData;
-import org.opendaylight.controller.cluster.datastore.utils.SerializationUtils;
+import org.opendaylight.controller.cluster.datastore.persisted.ShardDataTreeSnapshot;
+import org.opendaylight.controller.cluster.io.FileBackedOutputStream;
 import org.opendaylight.controller.cluster.raft.base.messages.CaptureSnapshotReply;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
@@ -27,17 +31,19 @@ import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
  */
 public class ShardReadTransaction extends ShardTransaction {
     private final AbstractShardDataTreeTransaction<?> transaction;
+    private final int snapshotSpillThreshold;
 
     public ShardReadTransaction(AbstractShardDataTreeTransaction<?> transaction, ActorRef shardActor,
-            ShardStats shardStats) {
+            ShardStats shardStats, int snapshotSpillThreshold) {
         super(shardActor, shardStats, transaction.getId());
         this.transaction = Preconditions.checkNotNull(transaction);
+        this.snapshotSpillThreshold = snapshotSpillThreshold;
     }
 
     @Override
     public void handleReceive(Object message) {
         if (message instanceof CreateSnapshot) {
-            createSnapshot();
+            createSnapshot((CreateSnapshot) message);
         } else if(ReadData.isSerializedType(message)) {
             readData(transaction, ReadData.fromSerializable(message));
         } else if(DataExists.isSerializedType(message)) {
@@ -47,7 +53,7 @@ public class ShardReadTransaction extends ShardTransaction {
         }
     }
 
-    private void createSnapshot() {
+    private void createSnapshot(CreateSnapshot message) {
 
         // This is a special message sent by the shard to send back a serialized snapshot of the whole
         // data store tree. This transaction was created for that purpose only so we can
@@ -57,8 +63,16 @@ public class ShardReadTransaction extends ShardTransaction {
         final ActorRef self = getSelf();
         final Optional<NormalizedNode<?, ?>> result = transaction.getSnapshot().readNode(YangInstanceIdentifier.EMPTY);
 
-        byte[] serialized = SerializationUtils.serializeNormalizedNode(result.get());
-        sender.tell(new CaptureSnapshotReply(serialized), self);
+        // The tree is streamed to a file once it exceeds the threshold so we don't need to hold the
+        // whole serialized snapshot in memory. The file is deleted once the snapshot is no longer referenced.
+        final FileBackedOutputStream snapshotStream = new FileBackedOutputStream(snapshotSpillThreshold, null);
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(snapshotStream))) {
+            new ShardDataTreeSnapshot(result.get(), message.getSchemaFingerprint()).serialize(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error serializing snapshot", e);
+        }
+
+        sender.tell(new CaptureSnapshotReply(snapshotStream.asByteSource()), self);
 
         self.tell(PoisonPill.getInstance(), self);
     }
@@ -7,86 +7,202 @@
  */
 package org.opendaylight.controller.cluster.datastore;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.cluster.datastore.persisted.CommitTransactionPayload;
 import org.opendaylight.controller.cluster.datastore.persisted.DataTreeCandidateSupplier;
-import org.opendaylight.controller.cluster.access.concepts.TransactionIdentifier;
+import org.opendaylight.controller.cluster.datastore.persisted.SchemaFingerprint;
+import org.opendaylight.controller.cluster.datastore.persisted.ShardDataTreeSnapshot;
 import org.opendaylight.controller.cluster.datastore.utils.DataTreeModificationOutput;
 import org.opendaylight.controller.cluster.datastore.utils.NormalizedNodeXMLOutput;
 import org.opendaylight.controller.cluster.datastore.utils.PruningDataTreeModification;
-import org.opendaylight.controller.cluster.datastore.utils.SerializationUtils;
 import org.opendaylight.controller.cluster.raft.RaftActorRecoveryCohort;
 import org.opendaylight.controller.cluster.raft.protobuff.client.messages.Payload;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.slf4j.Logger;
 
 /**
- * Coordinates persistence recovery of journal log entries and snapshots for a shard. Each snapshot
- * and journal log entry batch are de-serialized and applied to their own write transaction
- * instance in parallel on a thread pool for faster recovery time. However the transactions are
- * committed to the data store in the order the corresponding snapshot or log batch are received
- * to preserve data store integrity.
+ * Coordinates persistence recovery of journal log entries and snapshots for a shard. Journal log entry
+ * payloads are de-serialized in parallel on a thread pool, ahead of the entry currently being applied,
+ * for faster recovery time. However the entries are applied to the batch's write transaction, and the
+ * transactions are committed to the data store, in the order they are received to preserve data store
+ * integrity.
+ *
+ * <p>
+ * Data is normally pruned of nodes unknown to the current schema while it is applied, as the models may have
+ * changed since it was persisted. Pruning validates every node so it is skipped for snapshots and payloads which
+ * carry a {@link SchemaFingerprint} matching the current schema. If such data nevertheless fails to apply, the batch
+ * or snapshot is pruned and applied again.
  *
  * @author Thomas Pantelis
  */
 class ShardRecoveryCoordinator implements RaftActorRecoveryCohort {
+    // The maximum number of payloads being de-serialized ahead of the entry being applied
+    private static final int MAX_PENDING_DECODES = 1000;
+
     private final ShardDataTree store;
     private final String shardName;
     private final Logger log;
     private final SchemaContext schemaContext;
-    private PruningDataTreeModification transaction;
+    private final SchemaFingerprint schemaFingerprint;
+    private final Executor decodeExecutor;
+    private final Deque<CompletableFuture<Entry<Optional<SchemaFingerprint>, DataTreeCandidate>>> pendingDecodes =
+            new ArrayDeque<>();
+    private final long recoveryStartNanos = System.nanoTime();
+    private volatile long recoveryElapsedNanos = -1;
+    // The candidates of the current batch, kept so the batch can be pruned if it fails to apply
+    private final List<DataTreeCandidate> batchCandidates = new ArrayList<>();
+    private DataTreeModification transaction;
+    private PruningDataTreeModification pruningTransaction;
+    private boolean pruneBatch;
     private int size;
+    private int prunedSize;
+    private volatile long recoveredLogEntryCount;
     private final byte[] restoreFromSnapshot;
 
     ShardRecoveryCoordinator(ShardDataTree store, SchemaContext schemaContext, byte[] restoreFromSnapshot,
             String shardName, Logger log) {
+        this(store, schemaContext, restoreFromSnapshot, shardName, log, ForkJoinPool.commonPool());
+    }
+
+    @VisibleForTesting
+    ShardRecoveryCoordinator(ShardDataTree store, SchemaContext schemaContext, byte[] restoreFromSnapshot,
+            String shardName, Logger log, Executor decodeExecutor) {
         this.store = Preconditions.checkNotNull(store);
         this.restoreFromSnapshot = restoreFromSnapshot;
         this.shardName = shardName;
         this.log = log;
         this.schemaContext = schemaContext;
+        this.schemaFingerprint = SchemaFingerprint.of(schemaContext);
+        this.decodeExecutor = Preconditions.checkNotNull(decodeExecutor);
     }
 
     @Override
     public void startLogRecoveryBatch(int maxBatchSize) {
         log.debug("{}: starting log recovery batch with max size {}", shardName, maxBatchSize);
-        transaction = new PruningDataTreeModification(store.newModification(), store.getDataTree(), schemaContext);
+        transaction = store.newModification();
+        pruningTransaction = null;
+        pruneBatch = false;
+        batchCandidates.clear();
         size = 0;
+        prunedSize = 0;
     }
 
     @Override
     public void appendRecoveredLogEntry(Payload payload) {
         Preconditions.checkState(transaction != null, "call startLogRecovery before calling appendRecoveredLogEntry");
 
+        if (payload instanceof DataTreeCandidateSupplier) {
+            final DataTreeCandidateSupplier supplier = (DataTreeCandidateSupplier) payload;
+            pendingDecodes.add(CompletableFuture.supplyAsync(() -> decode(supplier), decodeExecutor));
+
+            // Apply whatever has been decoded so far, waiting only if too many payloads are pending
+            applyDecodedEntries(MAX_PENDING_DECODES);
+        } else {
+            log.error("{}: Unknown payload {} received during recovery", shardName, payload);
+        }
+    }
+
+    private static Entry<Optional<SchemaFingerprint>, DataTreeCandidate> decode(
+            final DataTreeCandidateSupplier supplier) {
         try {
-            if (payload instanceof DataTreeCandidateSupplier) {
-                final Entry<Optional<TransactionIdentifier>, DataTreeCandidate> e =
-                        ((DataTreeCandidateSupplier)payload).getCandidate();
+            // FIXME: BUG-5280: propagate transaction state
+            if (supplier instanceof CommitTransactionPayload) {
+                return ((CommitTransactionPayload) supplier).getCandidateWithSchemaFingerprint();
+            }
 
-                DataTreeCandidates.applyToModification(transaction, e.getValue());
-                size++;
+            return new SimpleImmutableEntry<>(Optional.empty(), supplier.getCandidate().getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-                if (e.getKey().isPresent()) {
-                    // FIXME: BUG-5280: propagate transaction state
+    /**
+     * Applies decoded entries to the current transaction, in order, until the next entry is still being decoded
+     * and no more than the given number of entries are pending.
+     */
+    private void applyDecodedEntries(final int maxPending) {
+        while (!pendingDecodes.isEmpty() && (pendingDecodes.size() > maxPending || pendingDecodes.peek().isDone())) {
+            final Entry<Optional<SchemaFingerprint>, DataTreeCandidate> entry;
+            try {
+                entry = pendingDecodes.poll().join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    log.error("{}: Error extracting payload", shardName, e.getCause().getCause());
+                    continue;
+                }
+
+                throw e;
+            }
+
+            batchCandidates.add(entry.getValue());
+            if (!pruneBatch && isCurrentSchema(entry.getKey())) {
+                try {
+                    DataTreeCandidates.applyToModification(transaction, entry.getValue());
+                } catch (RuntimeException e) {
+                    pruneCurrentBatch(e);
                 }
             } else {
-                log.error("{}: Unknown payload {} received during recovery", shardName, payload);
+                // Pruning writes through to the same modification, so entries can be freely interleaved
+                if (pruningTransaction == null) {
+                    pruningTransaction = new PruningDataTreeModification(transaction, store.getDataTree(),
+                            schemaContext);
+                }
+
+                DataTreeCandidates.applyToModification(pruningTransaction, entry.getValue());
+                prunedSize++;
             }
-        } catch (IOException e) {
-            log.error("{}: Error extracting payload", shardName, e);
+
+            size++;
+            recoveredLogEntryCount++;
+        }
+    }
+
+    /**
+     * Rebuilds the current batch from its candidates, pruning all of them. Used when data carrying the current
+     * schema's fingerprint does not actually match the schema.
+     */
+    private void pruneCurrentBatch(final Exception cause) {
+        log.warn("{}: Recovered log entries written with the current schema failed to apply, pruning the batch",
+                shardName, cause);
+
+        transaction = store.newModification();
+        pruningTransaction = new PruningDataTreeModification(transaction, store.getDataTree(), schemaContext);
+        for (DataTreeCandidate candidate : batchCandidates) {
+            DataTreeCandidates.applyToModification(pruningTransaction, candidate);
         }
+
+        prunedSize = batchCandidates.size();
+        pruneBatch = true;
+    }
+
+    private boolean isCurrentSchema(final Optional<SchemaFingerprint> fingerprint) {
+        return fingerprint.isPresent() && schemaFingerprint.equals(fingerprint.get());
     }
 
-    private void commitTransaction(PruningDataTreeModification tx) throws DataValidationFailedException {
-        store.commit(tx.getResultingModification());
+    private void commitTransaction(DataTreeModification tx) throws DataValidationFailedException {
+        store.commit(tx);
     }
 
     /**
@@ -96,18 +212,35 @@ class ShardRecoveryCoordinator implements RaftActorRecoveryCohort {
     public void applyCurrentLogRecoveryBatch() {
         Preconditions.checkState(transaction != null, "call startLogRecovery before calling applyCurrentLogRecoveryBatch");
 
-        log.debug("{}: Applying current log recovery batch with size {}", shardName, size);
+        applyDecodedEntries(0);
+
+        log.debug("{}: Applying current log recovery batch with size {}, {} pruned", shardName, size, prunedSize);
         try {
-            commitTransaction(transaction);
+            commitBatch();
         } catch (Exception e) {
             File file = new File(System.getProperty("karaf.data", "."),
                     "failed-recovery-batch-" + shardName + ".out");
-            DataTreeModificationOutput.toFile(file, transaction.getResultingModification());
+            DataTreeModificationOutput.toFile(file, transaction);
             throw new RuntimeException(String.format(
                     "%s: Failed to apply recovery batch. Modification data was written to file %s",
                     shardName, file), e);
         }
         transaction = null;
+        pruningTransaction = null;
+        batchCandidates.clear();
+    }
+
+    private void commitBatch() throws DataValidationFailedException {
+        if (!pruneBatch && prunedSize < size) {
+            try {
+                commitTransaction(transaction);
+                return;
+            } catch (DataValidationFailedException | RuntimeException e) {
+                pruneCurrentBatch(e);
+            }
+        }
+
+        commitTransaction(transaction);
     }
 
     /**
@@ -119,12 +252,30 @@ class ShardRecoveryCoordinator implements RaftActorRecoveryCohort {
     public void applyRecoverySnapshot(final byte[] snapshotBytes) {
         log.debug("{}: Applying recovered snapshot", shardName);
 
-        final NormalizedNode<?, ?> node = SerializationUtils.deserializeNormalizedNode(snapshotBytes);
-        final PruningDataTreeModification tx = new PruningDataTreeModification(store.newModification(),
-                store.getDataTree(), schemaContext);
-        tx.write(YangInstanceIdentifier.EMPTY, node);
+        final ShardDataTreeSnapshot snapshot;
+        try {
+            snapshot = ShardDataTreeSnapshot.deserialize(snapshotBytes);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(String.format("%s: Error deserializing recovery snapshot",
+                    shardName), e);
+        }
+
+        final NormalizedNode<?, ?> node = snapshot.getRootNode();
         try {
-            commitTransaction(tx);
+            if (isCurrentSchema(snapshot.getSchemaFingerprint())) {
+                try {
+                    applySnapshot(node, false);
+                    return;
+                } catch (DataValidationFailedException | RuntimeException e) {
+                    log.warn("{}: Recovered snapshot written with the current schema failed to apply, pruning it",
+                            shardName, e);
+                }
+            } else {
+                log.debug("{}: Pruning recovered snapshot written with schema {}", shardName,
+                        snapshot.getSchemaFingerprint());
+            }
+
+            applySnapshot(node, true);
         } catch (Exception e) {
             File file = new File(System.getProperty("karaf.data", "."),
                     "failed-recovery-snapshot-" + shardName + ".xml");
@@ -135,8 +286,53 @@ class ShardRecoveryCoordinator implements RaftActorRecoveryCohort {
         }
     }
 
+    private void applySnapshot(final NormalizedNode<?, ?> node, final boolean prune)
+            throws DataValidationFailedException {
+        final DataTreeModification tx = store.newModification();
+        if (prune) {
+            new PruningDataTreeModification(tx, store.getDataTree(), schemaContext).write(
+                    YangInstanceIdentifier.EMPTY, node);
+        } else {
+            tx.write(YangInstanceIdentifier.EMPTY, node);
+        }
+
+        commitTransaction(tx);
+    }
+
     @Override
     public byte[] getRestoreFromSnapshot() {
         return restoreFromSnapshot;
     }
+
+    /**
+     * Notifies that recovery has completed, which stops the recovery timer.
+     */
+    void recoveryComplete() {
+        if (recoveryElapsedNanos < 0) {
+            recoveryElapsedNanos = System.nanoTime() - recoveryStartNanos;
+            log.info("{}: Recovered {} journal log entries in {} ms", shardName, recoveredLogEntryCount,
+                    TimeUnit.NANOSECONDS.toMillis(recoveryElapsedNanos));
+        }
+    }
+
+    boolean isRecoveryComplete() {
+        return recoveryElapsedNanos >= 0;
+    }
+
+    /**
+     * Returns the number of journal log entries applied so far. This may be called from any thread.
+     */
+    long getRecoveredLogEntryCount() {
+        return recoveredLogEntryCount;
+    }
+
+    /**
+     * Returns the average number of journal log entries applied per second, while recovery is in progress or over
+     * the whole recovery once it has completed. This may be called from any thread.
+     */
+    double getRecoveryLogEntryRate() {
+        final long elapsedNanos = recoveryElapsedNanos >= 0 ? recoveryElapsedNanos :
+            System.nanoTime() - recoveryStartNanos;
+        return elapsedNanos > 0 ? recoveredLogEntryCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0;
+    }
 }
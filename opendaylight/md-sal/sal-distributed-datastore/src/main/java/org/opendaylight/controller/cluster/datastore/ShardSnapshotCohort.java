@@ -64,7 +64,7 @@ class ShardSnapshotCohort implements RaftActorSnapshotCohort {
         ActorRef createSnapshotTransaction = transactionActorFactory.newShardTransaction(
                 TransactionType.READ_ONLY, new TransactionIdentifier(readHistoryId, readCounter++));
 
-        createSnapshotTransaction.tell(CreateSnapshot.INSTANCE, actorRef);
+        createSnapshotTransaction.tell(new CreateSnapshot(store.getSchemaFingerprint()), actorRef);
     }
 
     @Override
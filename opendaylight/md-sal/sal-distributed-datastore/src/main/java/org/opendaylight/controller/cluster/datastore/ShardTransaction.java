@@ -108,7 +108,7 @@ public abstract class ShardTransaction extends AbstractUntypedActorWithMetering
         }
 
         final YangInstanceIdentifier path = message.getPath();
-        Optional<NormalizedNode<?, ?>> optional = transaction.getSnapshot().readNode(path);
+        Optional<NormalizedNode<?, ?>> optional = message.limitDepth(transaction.getSnapshot().readNode(path));
         ReadDataReply readDataReply = new ReadDataReply(optional.orNull(), message.getVersion());
         sender().tell(readDataReply.toSerializable(), self());
     }
@@ -147,7 +147,8 @@ public abstract class ShardTransaction extends AbstractUntypedActorWithMetering
             final ShardTransaction tx;
             switch (type) {
             case READ_ONLY:
-                tx = new ShardReadTransaction(transaction, shardActor, shardStats);
+                tx = new ShardReadTransaction(transaction, shardActor, shardStats,
+                        datastoreContext.getShardSnapshotChunkSize());
                 break;
             case READ_WRITE:
                 tx = new ShardReadWriteTransaction((ReadWriteShardDataTreeTransaction)transaction, shardActor, shardStats);
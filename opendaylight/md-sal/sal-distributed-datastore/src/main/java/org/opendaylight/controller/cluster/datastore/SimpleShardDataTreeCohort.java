@@ -46,7 +46,7 @@ final class SimpleShardDataTreeCohort extends ShardDataTreeCohort {
     public ListenableFuture<Boolean> canCommit() {
         DataTreeModification modification = getDataTreeModification();
         try {
-            dataTree.getDataTree().validate(modification);
+            dataTree.getTip().validate(modification);
             LOG.trace("Transaction {} validated", transaction);
             return TRUE_FUTURE;
         }
@@ -70,7 +70,7 @@ final class SimpleShardDataTreeCohort extends ShardDataTreeCohort {
     @Override
     public ListenableFuture<Void> preCommit() {
         try {
-            candidate = dataTree.getDataTree().prepare(getDataTreeModification());
+            candidate = dataTree.getTip().prepare(getDataTreeModification());
             /*
              * FIXME: this is the place where we should be interacting with persistence, specifically by invoking
              *        persist on the candidate (which gives us a Future).
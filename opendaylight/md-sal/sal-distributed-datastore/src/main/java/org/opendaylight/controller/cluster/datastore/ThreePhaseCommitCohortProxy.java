@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
 import org.opendaylight.controller.cluster.access.concepts.TransactionIdentifier;
 import org.opendaylight.controller.cluster.datastore.messages.AbortTransaction;
 import org.opendaylight.controller.cluster.datastore.messages.AbortTransactionReply;
@@ -150,7 +151,14 @@ public class ThreePhaseCommitCohortProxy extends AbstractThreePhaseCommitCohort<
             return;
         }
 
-        commitOperationCallback = new TransactionRateLimitingCallback(actorContext);
+        final List<String> shardNames = new ArrayList<>(cohorts.size());
+        for(CohortInfo info: cohorts) {
+            if(info.getShardName() != null) {
+                shardNames.add(info.getShardName());
+            }
+        }
+
+        commitOperationCallback = new TransactionRateLimitingCallback(actorContext, shardNames);
         commitOperationCallback.run();
 
         final Iterator<CohortInfo> iterator = cohorts.iterator();
@@ -365,15 +373,25 @@ public class ThreePhaseCommitCohortProxy extends AbstractThreePhaseCommitCohort<
     }
 
     static class CohortInfo {
+        private final String shardName;
         private final Future<ActorSelection> actorFuture;
         private volatile ActorSelection resolvedActor;
         private final Supplier<Short> actorVersionSupplier;
 
         CohortInfo(Future<ActorSelection> actorFuture, Supplier<Short> actorVersionSupplier) {
+            this(null, actorFuture, actorVersionSupplier);
+        }
+
+        CohortInfo(String shardName, Future<ActorSelection> actorFuture, Supplier<Short> actorVersionSupplier) {
+            this.shardName = shardName;
             this.actorFuture = actorFuture;
             this.actorVersionSupplier = actorVersionSupplier;
         }
 
+        @Nullable String getShardName() {
+            return shardName;
+        }
+
         Future<ActorSelection> getActorFuture() {
             return actorFuture;
         }
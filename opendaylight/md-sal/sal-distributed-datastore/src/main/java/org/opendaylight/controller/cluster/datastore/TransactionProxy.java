@@ -15,16 +15,20 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
 import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.opendaylight.controller.cluster.access.concepts.TransactionIdentifier;
 import org.opendaylight.controller.cluster.datastore.messages.AbstractRead;
 import org.opendaylight.controller.cluster.datastore.messages.DataExists;
@@ -33,22 +37,42 @@ import org.opendaylight.controller.cluster.datastore.modification.AbstractModifi
 import org.opendaylight.controller.cluster.datastore.modification.DeleteModification;
 import org.opendaylight.controller.cluster.datastore.modification.MergeModification;
 import org.opendaylight.controller.cluster.datastore.modification.WriteModification;
+import org.opendaylight.controller.cluster.datastore.shardstrategy.ShardPrefixTable;
 import org.opendaylight.controller.cluster.datastore.utils.ActorContext;
 import org.opendaylight.controller.cluster.datastore.utils.NormalizedNodeAggregator;
+import org.opendaylight.controller.cluster.datastore.utils.NormalizedNodeDepthLimiter;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.sal.core.spi.data.AbstractDOMStoreTransaction;
 import org.opendaylight.controller.sal.core.spi.data.DOMStoreReadWriteTransaction;
 import org.opendaylight.yangtools.util.concurrent.MappingCheckedFuture;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import scala.concurrent.Future;
 import scala.concurrent.Promise;
 
 /**
- * A transaction potentially spanning multiple backend shards.
+ * A transaction potentially spanning multiple backend shards. Modifications and reads of a path with prefix shards
+ * beneath it, see {@link org.opendaylight.controller.cluster.datastore.shardstrategy.PrefixShardStrategy}, are split
+ * across the shard owning the path and the prefix shards.
  */
 public class TransactionProxy extends AbstractDOMStoreTransaction<TransactionIdentifier> implements DOMStoreReadWriteTransaction {
     private static enum TransactionState {
@@ -62,6 +86,7 @@ public class TransactionProxy extends AbstractDOMStoreTransaction<TransactionIde
     private final AbstractTransactionContextFactory<?> txContextFactory;
     private final TransactionType type;
     private TransactionState state = TransactionState.OPEN;
+    private Set<YangInstanceIdentifier> ensuredPrefixes;
 
     @VisibleForTesting
     public TransactionProxy(final AbstractTransactionContextFactory<?> txContextFactory, final TransactionType type) {
@@ -75,9 +100,34 @@ public class TransactionProxy extends AbstractDOMStoreTransaction<TransactionIde
 
     @Override
     public CheckedFuture<Boolean, ReadFailedException> exists(final YangInstanceIdentifier path) {
+        final Map<YangInstanceIdentifier, String> childPrefixShards = childPrefixShards(path);
+        if (!childPrefixShards.isEmpty()) {
+            return prefixShardsExist(path, childPrefixShards.keySet());
+        }
+
         return executeRead(shardNameFromIdentifier(path), new DataExists(path, DataStoreVersions.CURRENT_VERSION));
     }
 
+    private CheckedFuture<Boolean, ReadFailedException> prefixShardsExist(final YangInstanceIdentifier path,
+            final Collection<YangInstanceIdentifier> childPrefixes) {
+        final List<CheckedFuture<Boolean, ReadFailedException>> futures = new ArrayList<>(childPrefixes.size() + 1);
+        futures.add(executeRead(shardNameFromIdentifier(path),
+                new DataExists(path, DataStoreVersions.CURRENT_VERSION)));
+        for (YangInstanceIdentifier prefix : childPrefixes) {
+            futures.add(exists(prefix));
+        }
+
+        final ListenableFuture<Boolean> aggregateFuture = Futures.transform(Futures.allAsList(futures),
+            new Function<List<Boolean>, Boolean>() {
+                @Override
+                public Boolean apply(final List<Boolean> input) {
+                    return input.contains(Boolean.TRUE);
+                }
+            });
+
+        return MappingCheckedFuture.create(aggregateFuture, ReadFailedException.MAPPER);
+    }
+
     private <T> CheckedFuture<T, ReadFailedException> executeRead(String shardName, final AbstractRead<T> readCmd) {
         Preconditions.checkState(type != TransactionType.WRITE_ONLY, "Reads from write-only transactions are not allowed");
 
@@ -99,46 +149,137 @@ public class TransactionProxy extends AbstractDOMStoreTransaction<TransactionIde
 
     @Override
     public CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> read(final YangInstanceIdentifier path) {
+        return read(path, -1);
+    }
+
+    /**
+     * Reads the data at the given path without the nodes more than maxDepth levels beneath it, see
+     * {@link NormalizedNodeDepthLimiter}. The depth is limited by each shard before the data is returned, so reading
+     * the top levels of a large subtree does not transfer all of it.
+     *
+     * @param path the path to read
+     * @param maxDepth the maximum depth of the nodes to read, or a negative value for no limit
+     */
+    public CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> read(final YangInstanceIdentifier path,
+            final int maxDepth) {
         Preconditions.checkState(type != TransactionType.WRITE_ONLY, "Reads from write-only transactions are not allowed");
 
         LOG.debug("Tx {} read {}", getIdentifier(), path);
 
         if (YangInstanceIdentifier.EMPTY.equals(path)) {
-            return readAllData();
-        } else {
-            return singleShardRead(shardNameFromIdentifier(path), path);
+            return readAllData(maxDepth);
         }
+
+        final Map<YangInstanceIdentifier, String> childPrefixShards = childPrefixShards(path);
+        if (!childPrefixShards.isEmpty()) {
+            return prefixShardsRead(path, childPrefixShards.keySet(), maxDepth);
+        }
+
+        return singleShardRead(shardNameFromIdentifier(path), path, maxDepth);
+    }
+
+    /**
+     * Reads a path whose data is split across the shard owning the path and the shards of the prefixes beneath it.
+     */
+    private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> prefixShardsRead(
+            final YangInstanceIdentifier path, final Collection<YangInstanceIdentifier> childPrefixes,
+            final int maxDepth) {
+        final List<YangInstanceIdentifier> paths = new ArrayList<>(childPrefixes.size() + 1);
+        final List<CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException>> futures =
+                new ArrayList<>(childPrefixes.size() + 1);
+
+        paths.add(path);
+        futures.add(singleShardRead(shardNameFromIdentifier(path), path, maxDepth));
+
+        // The depth of a prefix beneath the path is not known up front, so the prefix shards' data is limited once
+        // it has been aggregated
+        for (YangInstanceIdentifier prefix : childPrefixes) {
+            paths.add(prefix);
+            futures.add(read(prefix));
+        }
+
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> aggregateFuture = Futures.transform(
+            Futures.allAsList(futures),
+            new Function<List<Optional<NormalizedNode<?, ?>>>, Optional<NormalizedNode<?, ?>>>() {
+                @Override
+                public Optional<NormalizedNode<?, ?>> apply(final List<Optional<NormalizedNode<?, ?>>> input) {
+                    final Map<YangInstanceIdentifier, NormalizedNode<?, ?>> subtrees = new HashMap<>();
+                    for (int i = 0; i < input.size(); i++) {
+                        if (input.get(i).isPresent()) {
+                            subtrees.put(paths.get(i), input.get(i).get());
+                        }
+                    }
+
+                    if (subtrees.isEmpty()) {
+                        return Optional.absent();
+                    }
+
+                    try {
+                        final Optional<NormalizedNode<?, ?>> aggregated = NormalizedNodeAggregator.aggregateSubtrees(
+                                path, subtrees, txContextFactory.getActorContext().getSchemaContext(),
+                                txContextFactory.getActorContext().getDatastoreContext().getLogicalStoreType());
+                        return aggregated.isPresent() ? Optional.<NormalizedNode<?, ?>>of(
+                                NormalizedNodeDepthLimiter.limitDepth(aggregated.get(), maxDepth)) : aggregated;
+                    } catch (DataValidationFailedException e) {
+                        throw new IllegalArgumentException("Failed to aggregate", e);
+                    }
+                }
+            });
+
+        return MappingCheckedFuture.create(aggregateFuture, ReadFailedException.MAPPER);
     }
 
     private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> singleShardRead(
-            final String shardName, final YangInstanceIdentifier path) {
-        return executeRead(shardName, new ReadData(path, DataStoreVersions.CURRENT_VERSION));
+            final String shardName, final YangInstanceIdentifier path, final int maxDepth) {
+        return executeRead(shardName, new ReadData(path, DataStoreVersions.CURRENT_VERSION, maxDepth));
     }
 
-    private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readAllData() {
+    /**
+     * Reads the root of every shard and merges each shard's data into the aggregate as soon as it arrives, so the
+     * data of no more than one shard needs to be retained, rather than that of all of them, before it is merged.
+     */
+    private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readAllData(final int maxDepth) {
         final Set<String> allShardNames = txContextFactory.getActorContext().getConfiguration().getAllShardNames();
-        final Collection<CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException>> futures = new ArrayList<>(allShardNames.size());
+        final NormalizedNodeAggregator aggregator = NormalizedNodeAggregator.create(YangInstanceIdentifier.EMPTY,
+                txContextFactory.getActorContext().getSchemaContext(),
+                txContextFactory.getActorContext().getDatastoreContext().getLogicalStoreType());
+        final SettableFuture<Optional<NormalizedNode<?, ?>>> aggregateFuture = SettableFuture.create();
+        final AtomicInteger remaining = new AtomicInteger(allShardNames.size());
+
+        if (allShardNames.isEmpty()) {
+            aggregateFuture.set(aggregator.getAggregatedNode());
+        }
 
         for (String shardName : allShardNames) {
-            futures.add(singleShardRead(shardName, YangInstanceIdentifier.EMPTY));
+            Futures.addCallback(singleShardRead(shardName, YangInstanceIdentifier.EMPTY, maxDepth),
+                new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
+                    @Override
+                    public void onSuccess(final Optional<NormalizedNode<?, ?>> result) {
+                        if (aggregateFuture.isDone()) {
+                            return;
+                        }
+
+                        if (result.isPresent()) {
+                            try {
+                                aggregator.merge(result.get());
+                            } catch (DataValidationFailedException e) {
+                                aggregateFuture.setException(new IllegalArgumentException("Failed to aggregate", e));
+                                return;
+                            }
+                        }
+
+                        if (remaining.decrementAndGet() == 0) {
+                            aggregateFuture.set(aggregator.getAggregatedNode());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(final Throwable t) {
+                        aggregateFuture.setException(t);
+                    }
+                });
         }
 
-        final ListenableFuture<List<Optional<NormalizedNode<?, ?>>>> listFuture = Futures.allAsList(futures);
-        final ListenableFuture<Optional<NormalizedNode<?, ?>>> aggregateFuture;
-
-        aggregateFuture = Futures.transform(listFuture, new Function<List<Optional<NormalizedNode<?, ?>>>, Optional<NormalizedNode<?, ?>>>() {
-            @Override
-            public Optional<NormalizedNode<?, ?>> apply(final List<Optional<NormalizedNode<?, ?>>> input) {
-                try {
-                    return NormalizedNodeAggregator.aggregate(YangInstanceIdentifier.EMPTY, input,
-                            txContextFactory.getActorContext().getSchemaContext(),
-                            txContextFactory.getActorContext().getDatastoreContext().getLogicalStoreType());
-                } catch (DataValidationFailedException e) {
-                    throw new IllegalArgumentException("Failed to aggregate", e);
-                }
-            }
-        });
-
         return MappingCheckedFuture.create(aggregateFuture, ReadFailedException.MAPPER);
     }
 
@@ -165,7 +306,34 @@ public class TransactionProxy extends AbstractDOMStoreTransaction<TransactionIde
                     modification.getPath());
         }
 
-        TransactionContextWrapper contextWrapper = getContextWrapper(modification.getPath());
+        final YangInstanceIdentifier path = modification.getPath();
+        final String shardName = shardNameFromIdentifier(path);
+        if (!(modification instanceof DeleteModification)) {
+            ensurePrefixParentsExist(path, shardName);
+        }
+
+        final Map<YangInstanceIdentifier, String> childPrefixShards = childPrefixShards(path);
+        if (childPrefixShards.isEmpty() || modification instanceof DeleteModification) {
+            executeModification(shardName, modification);
+        } else {
+            // The prefixes' data is only stored in their own shards
+            NormalizedNode<?, ?> data = ((WriteModification) modification).getData();
+            for (YangInstanceIdentifier prefix : childPrefixShards.keySet()) {
+                data = pruneNode(data, prefix.relativeTo(path).get().getPathArguments());
+            }
+
+            executeModification(shardName, modification instanceof MergeModification
+                    ? new MergeModification(path, data) : new WriteModification(path, data));
+        }
+
+        // Split off the parts of the modification which belong to the shards of the prefixes beneath the path
+        for (YangInstanceIdentifier prefix : childPrefixShards.keySet()) {
+            executeChildPrefixModification(modification, prefix);
+        }
+    }
+
+    private void executeModification(final String shardName, final AbstractModification modification) {
+        TransactionContextWrapper contextWrapper = getContextWrapper(shardName);
         contextWrapper.maybeExecuteTransactionOperation(new TransactionOperation() {
             @Override
             protected void invoke(TransactionContext transactionContext) {
@@ -174,6 +342,124 @@ public class TransactionProxy extends AbstractDOMStoreTransaction<TransactionIde
         });
     }
 
+    private void executeChildPrefixModification(final AbstractModification modification,
+            final YangInstanceIdentifier prefix) {
+        if (modification instanceof DeleteModification) {
+            executeModification(new DeleteModification(prefix));
+            return;
+        }
+
+        final Optional<NormalizedNode<?, ?>> data = NormalizedNodes.findNode(
+                ((WriteModification) modification).getData(),
+                prefix.relativeTo(modification.getPath()).get().getPathArguments());
+        if (data.isPresent()) {
+            executeModification(modification instanceof MergeModification ? new MergeModification(prefix,
+                    data.get()) : new WriteModification(prefix, data.get()));
+        } else if (!(modification instanceof MergeModification)) {
+            // The write replaces the whole subtree, including the prefix
+            executeModification(new DeleteModification(prefix));
+        }
+    }
+
+    /**
+     * Returns a copy of the given node without the descendant at the given relative path, or the node itself if it
+     * has no such descendant.
+     */
+    private static NormalizedNode<?, ?> pruneNode(final NormalizedNode<?, ?> node, final List<PathArgument> path) {
+        final PathArgument arg = path.get(0);
+        final List<PathArgument> remaining = path.subList(1, path.size());
+
+        if (node instanceof MapNode && arg instanceof NodeIdentifierWithPredicates) {
+            final MapNode map = (MapNode) node;
+            final Optional<MapEntryNode> child = map.getChild((NodeIdentifierWithPredicates) arg);
+            if (!child.isPresent()) {
+                return node;
+            }
+
+            final CollectionNodeBuilder<MapEntryNode, ? extends MapNode> builder = (map instanceof OrderedMapNode
+                    ? Builders.orderedMapBuilder() : Builders.mapBuilder()).withNodeIdentifier(map.getIdentifier());
+            for (MapEntryNode entry : map.getValue()) {
+                if (!arg.equals(entry.getIdentifier())) {
+                    builder.withChild(entry);
+                } else if (!remaining.isEmpty()) {
+                    builder.withChild((MapEntryNode) pruneNode(entry, remaining));
+                }
+            }
+
+            return builder.build();
+        }
+
+        if (node instanceof DataContainerNode) {
+            final DataContainerNode<?> container = (DataContainerNode<?>) node;
+            final DataContainerNodeBuilder<?, ?> builder = dataContainerBuilder(container);
+            if (builder == null || !container.getChild(arg).isPresent()) {
+                return node;
+            }
+
+            for (DataContainerChild<? extends PathArgument, ?> child : container.getValue()) {
+                if (!arg.equals(child.getIdentifier())) {
+                    builder.withChild(child);
+                } else if (!remaining.isEmpty()) {
+                    builder.withChild((DataContainerChild<?, ?>) pruneNode(child, remaining));
+                }
+            }
+
+            return builder.build();
+        }
+
+        // Leaf sets and unkeyed lists cannot contain a prefix
+        return node;
+    }
+
+    private static DataContainerNodeBuilder<?, ?> dataContainerBuilder(final DataContainerNode<?> node) {
+        if (node instanceof ContainerNode) {
+            return Builders.containerBuilder().withNodeIdentifier(((ContainerNode) node).getIdentifier());
+        } else if (node instanceof MapEntryNode) {
+            return Builders.mapEntryBuilder().withNodeIdentifier(((MapEntryNode) node).getIdentifier());
+        } else if (node instanceof AugmentationNode) {
+            return Builders.augmentationBuilder().withNodeIdentifier(((AugmentationNode) node).getIdentifier());
+        } else if (node instanceof ChoiceNode) {
+            return Builders.choiceBuilder().withNodeIdentifier(((ChoiceNode) node).getIdentifier());
+        } else if (node instanceof UnkeyedListEntryNode) {
+            return Builders.unkeyedListEntryBuilder().withNodeIdentifier(
+                    ((UnkeyedListEntryNode) node).getIdentifier());
+        }
+
+        return null;
+    }
+
+    /**
+     * Ensures the parents of the prefix owning the given path exist in the prefix's shard, which does not otherwise
+     * contain them, before writing to it.
+     */
+    private void ensurePrefixParentsExist(final YangInstanceIdentifier path, final String shardName) {
+        final ShardPrefixTable prefixShardTable = getActorContext().getShardStrategyFactory().getPrefixShardTable();
+        if (prefixShardTable.isEmpty()) {
+            return;
+        }
+
+        final Entry<YangInstanceIdentifier, String> prefixShard = prefixShardTable.findPrefixShard(path);
+        if (prefixShard == null || !shardName.equals(prefixShard.getValue())) {
+            return;
+        }
+
+        final YangInstanceIdentifier prefix = prefixShard.getKey();
+        final List<PathArgument> prefixArgs = prefix.getPathArguments();
+        if (prefixArgs.size() < 2) {
+            return;
+        }
+
+        if (ensuredPrefixes == null) {
+            ensuredPrefixes = new HashSet<>();
+        }
+
+        if (ensuredPrefixes.add(prefix)) {
+            executeModification(shardName, new MergeModification(YangInstanceIdentifier.create(prefixArgs.get(0)),
+                    ImmutableNodes.fromInstanceId(getActorContext().getSchemaContext(),
+                            prefix.getAncestor(prefixArgs.size() - 1))));
+        }
+    }
+
     private void checkModificationState() {
         Preconditions.checkState(type != TransactionType.READ_ONLY,
                 "Modification operation on read-only transaction is not allowed");
@@ -256,13 +542,14 @@ public class TransactionProxy extends AbstractDOMStoreTransaction<TransactionIde
             contextWrapper.maybeExecuteTransactionOperation(new TransactionOperation() {
                 @Override
                 public void invoke(TransactionContext transactionContext) {
-                    promise.completeWith(getDirectCommitFuture(transactionContext, operationCallbackRef));
+                    promise.completeWith(getDirectCommitFuture(transactionContext, operationCallbackRef,
+                            shardName));
                 }
             });
             future = promise.future();
         } else {
             // avoid the creation of a promise and a TransactionOperation
-            future = getDirectCommitFuture(transactionContext, operationCallbackRef);
+            future = getDirectCommitFuture(transactionContext, operationCallbackRef, shardName);
         }
 
         return new SingleCommitCohortProxy(txContextFactory.getActorContext(), future, getIdentifier(),
@@ -270,9 +557,9 @@ public class TransactionProxy extends AbstractDOMStoreTransaction<TransactionIde
     }
 
     private Future<?> getDirectCommitFuture(TransactionContext transactionContext,
-            OperationCallback.Reference operationCallbackRef) {
+            OperationCallback.Reference operationCallbackRef, String shardName) {
         TransactionRateLimitingCallback rateLimitingCallback = new TransactionRateLimitingCallback(
-                txContextFactory.getActorContext());
+                txContextFactory.getActorContext(), Collections.singleton(shardName));
         operationCallbackRef.set(rateLimitingCallback);
         rateLimitingCallback.run();
         return transactionContext.directCommit();
@@ -297,7 +584,8 @@ public class TransactionProxy extends AbstractDOMStoreTransaction<TransactionIde
                 }
             };
 
-            cohorts.add(new ThreePhaseCommitCohortProxy.CohortInfo(wrapper.readyTransaction(), txVersionSupplier));
+            cohorts.add(new ThreePhaseCommitCohortProxy.CohortInfo(e.getKey(), wrapper.readyTransaction(),
+                    txVersionSupplier));
         }
 
         return new ThreePhaseCommitCohortProxy(txContextFactory.getActorContext(), cohorts, getIdentifier());
@@ -307,8 +595,10 @@ public class TransactionProxy extends AbstractDOMStoreTransaction<TransactionIde
         return txContextFactory.getActorContext().getShardStrategyFactory().getStrategy(path).findShard(path);
     }
 
-    private TransactionContextWrapper getContextWrapper(final YangInstanceIdentifier path) {
-        return getContextWrapper(shardNameFromIdentifier(path));
+    private Map<YangInstanceIdentifier, String> childPrefixShards(final YangInstanceIdentifier path) {
+        final ShardPrefixTable prefixShardTable = getActorContext().getShardStrategyFactory().getPrefixShardTable();
+        return prefixShardTable.isEmpty() ? Collections.<YangInstanceIdentifier, String>emptyMap() :
+            prefixShardTable.findChildPrefixShards(path);
     }
 
     private TransactionContextWrapper getContextWrapper(final String shardName) {
@@ -317,6 +607,8 @@ public class TransactionProxy extends AbstractDOMStoreTransaction<TransactionIde
             return existing;
         }
 
+        txContextFactory.getActorContext().acquireTxCreationPermit(shardName);
+
         final TransactionContextWrapper fresh = txContextFactory.newTransactionContextWrapper(this, shardName);
         txContextWrappers.put(shardName, fresh);
         return fresh;
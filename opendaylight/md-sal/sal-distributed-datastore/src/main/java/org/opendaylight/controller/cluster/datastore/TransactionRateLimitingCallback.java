@@ -12,12 +12,15 @@ import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Ticker;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 import org.opendaylight.controller.cluster.datastore.utils.ActorContext;
+import org.opendaylight.controller.cluster.datastore.utils.TransactionRateLimiter;
 
 /**
- * TransactionRateLimitingCallback computes the new transaction rate limit on the successful completion of a
- * transaction
+ * TransactionRateLimitingCallback times the commit of a transaction and, on its successful completion, updates the
+ * commit timer and notifies the TransactionRateLimiter for each shard involved in the commit.
  */
 public class TransactionRateLimitingCallback implements OperationCallback{
     private static Ticker TICKER = Ticker.systemTicker();
@@ -29,12 +32,20 @@ public class TransactionRateLimitingCallback implements OperationCallback{
     }
 
     private final Timer commitTimer;
+    private final TransactionRateLimiter rateLimiter;
+    private final Collection<String> shardNames;
     private long startTime;
     private long elapsedTime;
     private volatile State state = State.STOPPED;
 
     TransactionRateLimitingCallback(ActorContext actorContext){
+        this(actorContext, Collections.<String>emptyList());
+    }
+
+    TransactionRateLimitingCallback(ActorContext actorContext, Collection<String> shardNames){
         commitTimer = actorContext.getOperationTimer(ActorContext.COMMIT);
+        rateLimiter = actorContext.getTxRateLimiter();
+        this.shardNames = shardNames;
     }
 
     @Override
@@ -64,6 +75,13 @@ public class TransactionRateLimitingCallback implements OperationCallback{
         Preconditions.checkState(state != State.STOPPED, "state is STOPPED");
         pause();
         commitTimer.update(elapsedTime, TimeUnit.NANOSECONDS);
+        if(rateLimiter != null) {
+            // The latency of a commit spanning several shards is attributed to each of them.
+            for(String shardName: shardNames) {
+                rateLimiter.commitCompleted(shardName, elapsedTime);
+            }
+        }
+
         state = State.STOPPED;
     }
 
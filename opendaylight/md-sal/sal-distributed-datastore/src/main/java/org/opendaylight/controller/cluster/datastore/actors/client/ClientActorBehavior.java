@@ -154,6 +154,12 @@ public abstract class ClientActorBehavior extends RecoveredClientActorBehavior<C
 
         if (needBackend) {
             startResolve(queue, queue.getCookie());
+        } else {
+            // Requests are still pending, keep the timer going for the oldest of them
+            final Optional<FiniteDuration> maybeTimeout = queue.rescheduleTimer();
+            if (maybeTimeout.isPresent()) {
+                scheduleQueueTimeout(queue, maybeTimeout.get());
+            }
         }
 
         return this;
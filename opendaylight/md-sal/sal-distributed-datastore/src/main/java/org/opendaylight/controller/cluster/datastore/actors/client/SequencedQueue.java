@@ -10,9 +10,8 @@ package org.opendaylight.controller.cluster.datastore.actors.client;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Ticker;
-import java.util.Deque;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
@@ -21,13 +20,21 @@ import javax.annotation.concurrent.NotThreadSafe;
 import org.opendaylight.controller.cluster.access.concepts.Request;
 import org.opendaylight.controller.cluster.access.concepts.RequestException;
 import org.opendaylight.controller.cluster.access.concepts.ResponseEnvelope;
+import org.opendaylight.yangtools.concepts.WritableIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import scala.concurrent.duration.FiniteDuration;
 
-/*
- * TODO: make this class and its users thread-safe. This will require some atomic state-keeping so that timeouts,
- *       retries and enqueues work as expected.
+/**
+ * Queue of the requests towards a single backend, in the order in which they were enqueued. Requests are kept in an
+ * array-backed ring and are also indexed by their target and sequence, so a response completes its request in
+ * constant time, regardless of the order in which the backend responds. Requests completed out of order leave a hole
+ * in the ring, which is reclaimed once the requests before it have completed.
+ *
+ * <p>
+ * This class is accessed only from the client actor. Application threads enqueue requests via
+ * {@link ClientActorBehavior#sendRequest(long, org.opendaylight.controller.cluster.access.commands.TransactionRequest,
+ * RequestCallback)}, which hands them over to the actor through its mailbox.
  */
 @NotThreadSafe
 final class SequencedQueue {
@@ -41,15 +48,52 @@ final class SequencedQueue {
     private static final FiniteDuration INITIAL_REQUEST_TIMEOUT = FiniteDuration.apply(REQUEST_TIMEOUT_NANOS,
         TimeUnit.NANOSECONDS);
 
+    // Must be a power of two
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Identifies a request by its target and sequence. Sequences are allocated per target, so the sequence alone is
+     * not unique within the queue.
+     */
+    private static final class RequestKey {
+        private final WritableIdentifier target;
+        private final long sequence;
+
+        RequestKey(final WritableIdentifier target, final long sequence) {
+            this.target = target;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * target.hashCode() + Long.hashCode(sequence);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof RequestKey)) {
+                return false;
+            }
+
+            final RequestKey other = (RequestKey) obj;
+            return sequence == other.sequence && target.equals(other.target);
+        }
+    }
+
     /**
      * We need to keep the sequence of operations towards the backend, hence we use a queue. Since targets can
-     * progress at different speeds, these may be completed out of order.
-     *
-     * TODO: The combination of target and sequence uniquely identifies a particular request, we will need to
-     *       figure out a more efficient lookup mechanism to deal with responses which do not match the queue
-     *       order.
+     * progress at different speeds, these may be completed out of order. Entries are stored at their position
+     * modulo the length of the array, positions between {@link #head} and {@link #tail} with no entry have been
+     * completed.
      */
-    private final Deque<SequencedQueueEntry> queue = new LinkedList<>();
+    private SequencedQueueEntry[] entries = new SequencedQueueEntry[INITIAL_CAPACITY];
+    private final Map<RequestKey, SequencedQueueEntry> index = new HashMap<>();
+    private long head;
+    private long tail;
+
     private final Ticker ticker;
     private final Long cookie;
 
@@ -111,8 +155,11 @@ final class SequencedQueue {
 
         final long now = ticker.read();
         final SequencedQueueEntry e = new SequencedQueueEntry(request, sequence, callback, now);
+        final SequencedQueueEntry existing = index.putIfAbsent(new RequestKey(request.getTarget(), sequence), e);
+        Preconditions.checkArgument(existing == null, "Request %s has the same sequence as queued request %s",
+            request, existing);
 
-        queue.add(e);
+        add(e);
         LOG.debug("Enqueued request {} to queue {}", request, this);
 
         if (backend == null) {
@@ -129,20 +176,18 @@ final class SequencedQueue {
     }
 
     ClientActorBehavior complete(final ClientActorBehavior current, final ResponseEnvelope<?> response) {
-        // Responses to different targets may arrive out of order, hence we use an iterator
-        final Iterator<SequencedQueueEntry> it = queue.iterator();
-        while (it.hasNext()) {
-            final SequencedQueueEntry e = it.next();
-            if (e.acceptsResponse(response)) {
-                lastProgress = ticker.read();
-                it.remove();
-                LOG.debug("Completing request {} with {}", e, response);
-                return e.complete(response.getMessage());
-            }
+        // Responses to different targets may arrive out of order, hence we look the request up by its target
+        final SequencedQueueEntry e = index.remove(new RequestKey(response.getMessage().getTarget(),
+            response.getSequence()));
+        if (e == null) {
+            LOG.debug("No request matching {} found", response);
+            return current;
         }
 
-        LOG.debug("No request matching {} found", response);
-        return current;
+        lastProgress = ticker.read();
+        remove(e);
+        LOG.debug("Completing request {} with {}", e, response);
+        return e.complete(response.getMessage());
     }
 
     Optional<FiniteDuration> setBackendInfo(final CompletionStage<? extends BackendInfo> proof, final BackendInfo backend) {
@@ -155,15 +200,18 @@ final class SequencedQueue {
         backendProof = null;
         LOG.debug("Resolved backend {}",  backend);
 
-        if (queue.isEmpty()) {
+        if (isEmpty()) {
             // No pending requests, hence no need for a timer
             return Optional.empty();
         }
 
         LOG.debug("Resending requests to backend {}", backend);
         final long now = ticker.read();
-        for (SequencedQueueEntry e : queue) {
-            e.retransmit(backend, now);
+        for (long i = head; i < tail; ++i) {
+            final SequencedQueueEntry e = entries[slot(i)];
+            if (e != null) {
+                e.retransmit(backend, now);
+            }
         }
 
         if (expectingTimer != null) {
@@ -189,7 +237,7 @@ final class SequencedQueue {
     }
 
     boolean hasCompleted() {
-        return !notClosed && queue.isEmpty();
+        return !notClosed && isEmpty();
     }
 
     /**
@@ -203,7 +251,7 @@ final class SequencedQueue {
         expectingTimer = null;
         final long now = ticker.read();
 
-        if (!queue.isEmpty()) {
+        if (!isEmpty()) {
             final long ticksSinceProgress = now - lastProgress;
             if (ticksSinceProgress >= NO_PROGRESS_TIMEOUT_NANOS) {
                 LOG.error("Queue {} has not seen progress in {} seconds, failing all requests", this,
@@ -216,7 +264,7 @@ final class SequencedQueue {
         }
 
         // We always schedule requests in sequence, hence any timeouts really just mean checking the head of the queue
-        final SequencedQueueEntry head = queue.peek();
+        final SequencedQueueEntry head = peek();
         if (head != null && head.isTimedOut(now, REQUEST_TIMEOUT_NANOS)) {
             backend = null;
             LOG.debug("Queue {} invalidated backend info", this);
@@ -226,13 +274,42 @@ final class SequencedQueue {
         }
     }
 
+    /**
+     * Schedule a timer for the request at the head of the queue, if one is needed. Requests are transmitted in queue
+     * order, hence the head of the queue is always the first request to time out and a single timer covers the entire
+     * queue.
+     *
+     * @return Optional duration after which the caller MUST schedule a timer, or empty if none is needed
+     */
+    Optional<FiniteDuration> rescheduleTimer() {
+        final SequencedQueueEntry head = peek();
+        if (head == null || backend == null || expectingTimer != null) {
+            return Optional.empty();
+        }
+
+        final long now = ticker.read();
+        final long nextTicks = Math.max(head.getLastActivityTicks() + REQUEST_TIMEOUT_NANOS, now);
+        expectingTimer = nextTicks;
+        return Optional.of(FiniteDuration.apply(nextTicks - now, TimeUnit.NANOSECONDS));
+    }
+
     void poison(final RequestException cause) {
         close();
 
-        SequencedQueueEntry e = queue.poll();
-        while (e != null) {
-            e.poison(cause);
-            e = queue.poll();
+        final SequencedQueueEntry[] toPoison = entries;
+        final long from = head;
+        final long to = tail;
+
+        entries = new SequencedQueueEntry[INITIAL_CAPACITY];
+        index.clear();
+        head = 0;
+        tail = 0;
+
+        for (long i = from; i < to; ++i) {
+            final SequencedQueueEntry e = toPoison[(int) (i & (toPoison.length - 1))];
+            if (e != null) {
+                e.poison(cause);
+            }
         }
     }
 
@@ -240,4 +317,44 @@ final class SequencedQueue {
     void close() {
         notClosed = false;
     }
+
+    private boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    private int slot(final long position) {
+        return (int) (position & (entries.length - 1));
+    }
+
+    private SequencedQueueEntry peek() {
+        return head == tail ? null : entries[slot(head)];
+    }
+
+    private void add(final SequencedQueueEntry e) {
+        if (tail - head == entries.length) {
+            grow();
+        }
+
+        e.setPosition(tail);
+        entries[slot(tail)] = e;
+        tail++;
+    }
+
+    private void remove(final SequencedQueueEntry e) {
+        entries[slot(e.getPosition())] = null;
+
+        // Reclaim the completed positions at the head, so it always refers to a pending request
+        while (head != tail && entries[slot(head)] == null) {
+            head++;
+        }
+    }
+
+    private void grow() {
+        final SequencedQueueEntry[] grown = new SequencedQueueEntry[entries.length * 2];
+        for (long i = head; i < tail; ++i) {
+            grown[(int) (i & (grown.length - 1))] = entries[slot(i)];
+        }
+
+        entries = grown;
+    }
 }
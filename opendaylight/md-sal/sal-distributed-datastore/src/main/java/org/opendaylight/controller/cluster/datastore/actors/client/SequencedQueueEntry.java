@@ -15,7 +15,6 @@ import org.opendaylight.controller.cluster.access.concepts.Request;
 import org.opendaylight.controller.cluster.access.concepts.RequestEnvelope;
 import org.opendaylight.controller.cluster.access.concepts.RequestException;
 import org.opendaylight.controller.cluster.access.concepts.Response;
-import org.opendaylight.controller.cluster.access.concepts.ResponseEnvelope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,6 +45,9 @@ final class SequencedQueueEntry {
 
     private Optional<LastTry> lastTry = Optional.empty();
 
+    // Position of this entry in its SequencedQueue, maintained by the queue
+    private long position;
+
     SequencedQueueEntry(final Request<?, ?> request, final long sequence, final RequestCallback callback,
         final long now) {
         this.request = Preconditions.checkNotNull(request);
@@ -58,8 +60,19 @@ final class SequencedQueueEntry {
         return sequence;
     }
 
-    boolean acceptsResponse(final ResponseEnvelope<?> response) {
-        return getSequence() == response.getSequence() && request.getTarget().equals(response.getMessage().getTarget());
+    long getPosition() {
+        return position;
+    }
+
+    void setPosition(final long position) {
+        this.position = position;
+    }
+
+    /**
+     * Returns the time at which this request was last transmitted, or enqueued if it has not been transmitted yet.
+     */
+    long getLastActivityTicks() {
+        return lastTry.isPresent() ? lastTry.get().timeTicks : enqueuedTicks;
     }
 
     long getCurrentTry() {
@@ -77,14 +90,7 @@ final class SequencedQueueEntry {
     }
 
     boolean isTimedOut(final long now, final long timeoutNanos) {
-        final long elapsed;
-
-        if (lastTry.isPresent()) {
-            elapsed = now - lastTry.get().timeTicks;
-        } else {
-            elapsed = now - enqueuedTicks;
-        }
-
+        final long elapsed = now - getLastActivityTicks();
         if (elapsed >= timeoutNanos) {
             LOG.debug("Request {} timed out after {}ns", request, elapsed);
             return true;
@@ -13,6 +13,7 @@ import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opendaylight.controller.cluster.access.concepts.MemberName;
+import org.opendaylight.controller.cluster.datastore.shardstrategy.ShardPrefixTable;
 import org.opendaylight.controller.cluster.datastore.shardstrategy.ShardStrategy;
 
 public interface Configuration {
@@ -42,6 +43,11 @@ public interface Configuration {
      */
     @Nullable ShardStrategy getStrategyForModule(@Nonnull String moduleName);
 
+    /**
+     * Returns the shards configured for data subtree prefixes of the modules using the prefix shard strategy.
+     */
+    @Nonnull ShardPrefixTable getPrefixShardTable();
+
     /**
      * Returns all the configured shard names.
      */
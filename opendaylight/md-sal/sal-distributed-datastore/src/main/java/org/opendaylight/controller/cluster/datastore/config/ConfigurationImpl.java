@@ -20,8 +20,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.opendaylight.controller.cluster.access.concepts.MemberName;
+import org.opendaylight.controller.cluster.datastore.shardstrategy.PrefixShardStrategy;
+import org.opendaylight.controller.cluster.datastore.shardstrategy.ShardPrefixTable;
 import org.opendaylight.controller.cluster.datastore.shardstrategy.ShardStrategy;
 import org.opendaylight.controller.cluster.datastore.shardstrategy.ShardStrategyFactory;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 
 public class ConfigurationImpl implements Configuration {
     private volatile Map<String, ModuleConfig> moduleConfigMap;
@@ -30,6 +33,7 @@ public class ConfigurationImpl implements Configuration {
 
     private volatile Map<String, String> namespaceToModuleName;
     private volatile Set<String> allShardNames;
+    private volatile ShardPrefixTable prefixShardTable;
 
     public ConfigurationImpl(final String moduleShardsConfigPath, final String modulesConfigPath) {
         this(new FileModuleShardConfigProvider(moduleShardsConfigPath, modulesConfigPath));
@@ -45,6 +49,7 @@ public class ConfigurationImpl implements Configuration {
 
         this.allShardNames = createAllShardNames(moduleConfigMap.values());
         this.namespaceToModuleName = createNamespaceToModuleName(moduleConfigMap.values());
+        this.prefixShardTable = createPrefixShardTable(moduleConfigMap.values());
     }
 
     private static Set<String> createAllShardNames(Iterable<ModuleConfig> moduleConfigs) {
@@ -67,6 +72,21 @@ public class ConfigurationImpl implements Configuration {
         return builder.build();
     }
 
+    private static ShardPrefixTable createPrefixShardTable(Iterable<ModuleConfig> moduleConfigs) {
+        final Map<YangInstanceIdentifier, String> prefixShards = new HashMap<>();
+        for(ModuleConfig moduleConfig : moduleConfigs) {
+            if(moduleConfig.getShardStrategy() instanceof PrefixShardStrategy) {
+                for(ShardConfig shardConfig : moduleConfig.getShardConfigs()) {
+                    if(shardConfig.getPrefix() != null) {
+                        prefixShards.put(shardConfig.getPrefix(), shardConfig.getName());
+                    }
+                }
+            }
+        }
+
+        return ShardPrefixTable.of(prefixShards);
+    }
+
     @Override
     public Collection<String> getMemberShardNames(final MemberName memberName){
         Preconditions.checkNotNull(memberName, "memberName should not be null");
@@ -122,6 +142,11 @@ public class ConfigurationImpl implements Configuration {
         return Collections.emptyList();
     }
 
+    @Override
+    public ShardPrefixTable getPrefixShardTable() {
+        return prefixShardTable;
+    }
+
     @Override
     public Set<String> getAllShardNames() {
         return allShardNames;
@@ -141,15 +166,23 @@ public class ConfigurationImpl implements Configuration {
     public synchronized void addModuleShardConfiguration(ModuleShardConfiguration config) {
         Preconditions.checkNotNull(config, "ModuleShardConfiguration should not be null");
 
-        ModuleConfig moduleConfig = ModuleConfig.builder(config.getModuleName()).
+        // A module using the prefix strategy is spread over several shards, which are added one at a time
+        ModuleConfig existing = moduleConfigMap.get(config.getModuleName());
+        boolean addingPrefixShard = existing != null && config.getPrefix() != null;
+
+        ModuleConfig moduleConfig = (addingPrefixShard ? ModuleConfig.builder(existing) :
+                ModuleConfig.builder(config.getModuleName())).
                 nameSpace(config.getNamespace().toASCIIString()).
                 shardStrategy(createShardStrategy(config.getModuleName(), config.getShardStrategyName())).
-                shardConfig(config.getShardName(), config.getShardMemberNames()).build();
+                shardConfig(config.getShardName(), config.getShardMemberNames(), config.getPrefix()).build();
 
         updateModuleConfigMap(moduleConfig);
 
-        namespaceToModuleName = ImmutableMap.<String, String>builder().putAll(namespaceToModuleName).
-                put(moduleConfig.getNameSpace(), moduleConfig.getName()).build();
+        if(!addingPrefixShard) {
+            namespaceToModuleName = ImmutableMap.<String, String>builder().putAll(namespaceToModuleName).
+                    put(moduleConfig.getNameSpace(), moduleConfig.getName()).build();
+        }
+
         allShardNames = ImmutableSet.<String>builder().addAll(allShardNames).add(config.getShardName()).build();
     }
 
@@ -173,7 +206,8 @@ public class ConfigurationImpl implements Configuration {
             if(shardConfig != null) {
                 Set<MemberName> replicas = new HashSet<>(shardConfig.getReplicas());
                 replicas.add(newMemberName);
-                updateModuleConfigMap(ModuleConfig.builder(moduleConfig).shardConfig(shardName, replicas).build());
+                updateModuleConfigMap(ModuleConfig.builder(moduleConfig).shardConfig(shardName, replicas,
+                        shardConfig.getPrefix()).build());
                 return;
             }
         }
@@ -189,7 +223,8 @@ public class ConfigurationImpl implements Configuration {
             if(shardConfig != null) {
                 Set<MemberName> replicas = new HashSet<>(shardConfig.getReplicas());
                 replicas.remove(newMemberName);
-                updateModuleConfigMap(ModuleConfig.builder(moduleConfig).shardConfig(shardName, replicas).build());
+                updateModuleConfigMap(ModuleConfig.builder(moduleConfig).shardConfig(shardName, replicas,
+                        shardConfig.getPrefix()).build());
                 return;
             }
         }
@@ -199,5 +234,6 @@ public class ConfigurationImpl implements Configuration {
         Map<String, ModuleConfig> newModuleConfigMap = new HashMap<>(moduleConfigMap);
         newModuleConfigMap.put(moduleConfig.getName(), moduleConfig);
         moduleConfigMap = ImmutableMap.copyOf(newModuleConfigMap);
+        prefixShardTable = createPrefixShardTable(moduleConfigMap.values());
     }
 }
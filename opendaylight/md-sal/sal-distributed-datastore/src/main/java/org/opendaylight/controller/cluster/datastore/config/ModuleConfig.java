@@ -10,12 +10,13 @@ package org.opendaylight.controller.cluster.datastore.config;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opendaylight.controller.cluster.access.concepts.MemberName;
 import org.opendaylight.controller.cluster.datastore.shardstrategy.ShardStrategy;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 
 /**
  * Encapsulates configuration for a module.
@@ -78,7 +79,8 @@ public class ModuleConfig {
         private String name;
         private String nameSpace;
         private ShardStrategy shardStrategy;
-        private final Map<String, ShardConfig> shardConfigs = new HashMap<>();
+        // Ordered so the first shard of a module is the first one configured
+        private final Map<String, ShardConfig> shardConfigs = new LinkedHashMap<>();
 
         private Builder(String name) {
             this.name = name;
@@ -109,7 +111,12 @@ public class ModuleConfig {
         }
 
         public Builder shardConfig(String name, Collection<MemberName> replicas) {
-            shardConfigs.put(name, new ShardConfig(name, replicas));
+            return shardConfig(name, replicas, null);
+        }
+
+        public Builder shardConfig(String name, Collection<MemberName> replicas,
+                @Nullable YangInstanceIdentifier prefix) {
+            shardConfigs.put(name, new ShardConfig(name, replicas, prefix));
             return this;
         }
 
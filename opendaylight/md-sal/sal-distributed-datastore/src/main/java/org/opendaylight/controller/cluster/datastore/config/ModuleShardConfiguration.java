@@ -13,6 +13,7 @@ import java.util.Collection;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opendaylight.controller.cluster.access.concepts.MemberName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 
 /**
  * Encapsulates information for adding a new module shard configuration.
@@ -25,6 +26,7 @@ public class ModuleShardConfiguration {
     private final String shardName;
     private final String shardStrategyName;
     private final Collection<MemberName> shardMemberNames;
+    private final YangInstanceIdentifier prefix;
 
     /**
      * Constructs a new instance.
@@ -38,11 +40,29 @@ public class ModuleShardConfiguration {
      */
     public ModuleShardConfiguration(@Nonnull URI namespace, @Nonnull String moduleName, @Nonnull String shardName,
             @Nullable String shardStrategyName, @Nonnull Collection<MemberName> shardMemberNames) {
+        this(namespace, moduleName, shardName, shardStrategyName, shardMemberNames, null);
+    }
+
+    /**
+     * Constructs a new instance for a shard of a module using the "prefix" sharding strategy.
+     *
+     * @param namespace the name space of the module.
+     * @param moduleName the name of the module.
+     * @param shardName the name of the shard.
+     * @param shardStrategyName the name of the sharding strategy (eg "prefix"). If null the default strategy
+     *                          is used.
+     * @param shardMemberNames the names of the shard's member replicas.
+     * @param prefix the data subtree prefix the shard is for, or null for the module's data outside of any prefix.
+     */
+    public ModuleShardConfiguration(@Nonnull URI namespace, @Nonnull String moduleName, @Nonnull String shardName,
+            @Nullable String shardStrategyName, @Nonnull Collection<MemberName> shardMemberNames,
+            @Nullable YangInstanceIdentifier prefix) {
         this.namespace = Preconditions.checkNotNull(namespace, "nameSpace should not be null");
         this.moduleName = Preconditions.checkNotNull(moduleName, "moduleName should not be null");
         this.shardName = Preconditions.checkNotNull(shardName, "shardName should not be null");
         this.shardStrategyName = shardStrategyName;
         this.shardMemberNames = Preconditions.checkNotNull(shardMemberNames, "shardMemberNames");
+        this.prefix = prefix;
     }
 
     public URI getNamespace() {
@@ -65,10 +85,15 @@ public class ModuleShardConfiguration {
         return shardMemberNames;
     }
 
+    @Nullable
+    public YangInstanceIdentifier getPrefix() {
+        return prefix;
+    }
+
     @Override
     public String toString() {
         return "ModuleShardConfiguration [namespace=" + namespace + ", moduleName=" + moduleName + ", shardName="
                 + shardName + ", shardMemberNames=" + shardMemberNames + ", shardStrategyName=" + shardStrategyName
-                + "]";
+                + ", prefix=" + prefix + "]";
     }
 }
@@ -12,7 +12,9 @@ import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opendaylight.controller.cluster.access.concepts.MemberName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 
 /**
  * Encapsulated configuration for a shard.
@@ -20,10 +22,17 @@ import org.opendaylight.controller.cluster.access.concepts.MemberName;
 public class ShardConfig {
     private final String name;
     private final Set<MemberName> replicas;
+    private final YangInstanceIdentifier prefix;
 
     public ShardConfig(@Nonnull final String name, @Nonnull final Collection<MemberName> replicas) {
+        this(name, replicas, null);
+    }
+
+    public ShardConfig(@Nonnull final String name, @Nonnull final Collection<MemberName> replicas,
+            @Nullable final YangInstanceIdentifier prefix) {
         this.name = Preconditions.checkNotNull(name);
         this.replicas = ImmutableSet.copyOf(Preconditions.checkNotNull(replicas));
+        this.prefix = prefix;
     }
 
     @Nonnull
@@ -35,4 +44,12 @@ public class ShardConfig {
     public Set<MemberName> getReplicas() {
         return replicas;
     }
+
+    /**
+     * Returns the data subtree prefix the shard is configured for, if the module uses the prefix shard strategy.
+     */
+    @Nullable
+    public YangInstanceIdentifier getPrefix() {
+        return prefix;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.entityownership;
+
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.CANDIDATE_NAME_QNAME;
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.CANDIDATE_NODE_ID;
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_NODE_ID;
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_OWNERS_NODE_ID;
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_OWNER_NODE_ID;
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_QNAME;
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_TYPES_PATH;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.cluster.datastore.ShardDataTree;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeChangeListener;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.controller.md.sal.clustering.entity.owners.rev150804.entity.owners.EntityType;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+
+/**
+ * EntityOwnershipIndex keeps track of the entities each member is a candidate for and the entities each member owns,
+ * as committed to the entity ownership shard, along with the candidates of each entity in the order they were added.
+ * <p>
+ * The entity ownership model is keyed by entity, so finding the entities of a given member otherwise requires
+ * walking every entity, which is what the shard needs to do when a member goes down. The index is registered as a
+ * commit listener of the shard's data tree, hence it is updated synchronously, on the shard actor, with each
+ * committed candidate and always reflects the committed state.
+ */
+class EntityOwnershipIndex implements DOMDataTreeChangeListener {
+    private static final NodeIdentifier ENTITY_TYPE_LIST_ID = new NodeIdentifier(EntityType.QNAME);
+
+    private final Map<String, Set<YangInstanceIdentifier>> candidateEntities = new HashMap<>();
+    private final Map<String, Set<YangInstanceIdentifier>> ownedEntities = new HashMap<>();
+    private final Map<YangInstanceIdentifier, Set<String>> entityCandidates = new HashMap<>();
+
+    void init(ShardDataTree shardDataTree) {
+        shardDataTree.addCommitListener(this);
+    }
+
+    @Override
+    public void onDataTreeChanged(@Nonnull Collection<DataTreeCandidate> changes) {
+        for (DataTreeCandidate change : changes) {
+            final YangInstanceIdentifier rootPath = change.getRootPath();
+            Preconditions.checkArgument(rootPath.isEmpty(), "Unexpected candidate root %s", rootPath);
+
+            final Optional<DataTreeCandidateNode> entityOwners = modifiedChild(change.getRootNode(),
+                    ENTITY_OWNERS_NODE_ID);
+            if (!entityOwners.isPresent()) {
+                continue;
+            }
+
+            final Optional<DataTreeCandidateNode> entityTypes = modifiedChild(entityOwners.get(),
+                    ENTITY_TYPE_LIST_ID);
+            if (!entityTypes.isPresent()) {
+                continue;
+            }
+
+            for (DataTreeCandidateNode entityType : modifiedChildren(entityTypes.get())) {
+                final Optional<DataTreeCandidateNode> entities = modifiedChild(entityType, ENTITY_NODE_ID);
+                if (!entities.isPresent()) {
+                    continue;
+                }
+
+                final YangInstanceIdentifier entityTypePath = ENTITY_TYPES_PATH.node(entityType.getIdentifier());
+                for (DataTreeCandidateNode entity : modifiedChildren(entities.get())) {
+                    onEntityChanged(entityTypePath.node(ENTITY_QNAME).node(entity.getIdentifier()), entity);
+                }
+            }
+        }
+    }
+
+    private void onEntityChanged(YangInstanceIdentifier entityPath, DataTreeCandidateNode entity) {
+        final Optional<DataTreeCandidateNode> candidates = modifiedChild(entity, CANDIDATE_NODE_ID);
+        if (candidates.isPresent()) {
+            for (DataTreeCandidateNode candidateNode : modifiedChildren(candidates.get())) {
+                final String candidate = ((NodeIdentifierWithPredicates) candidateNode.getIdentifier())
+                        .getKeyValues().get(CANDIDATE_NAME_QNAME).toString();
+                if (candidateNode.getDataAfter().isPresent()) {
+                    add(candidateEntities, candidate, entityPath);
+                    add(entityCandidates, entityPath, candidate);
+                } else {
+                    remove(candidateEntities, candidate, entityPath);
+                    remove(entityCandidates, entityPath, candidate);
+                }
+            }
+        }
+
+        final Optional<DataTreeCandidateNode> ownerLeaf = modifiedChild(entity, ENTITY_OWNER_NODE_ID);
+        if (ownerLeaf.isPresent()) {
+            final String origOwner = owner(ownerLeaf.get().getDataBefore());
+            final String newOwner = owner(ownerLeaf.get().getDataAfter());
+            if (!Strings.isNullOrEmpty(origOwner)) {
+                remove(ownedEntities, origOwner, entityPath);
+            }
+            if (!Strings.isNullOrEmpty(newOwner)) {
+                add(ownedEntities, newOwner, entityPath);
+            }
+        }
+    }
+
+    private static Optional<DataTreeCandidateNode> modifiedChild(DataTreeCandidateNode parent, PathArgument childId) {
+        final DataTreeCandidateNode child = parent.getModifiedChild(childId);
+        return child != null && child.getModificationType() != ModificationType.UNMODIFIED ? Optional.of(child)
+                : Optional.<DataTreeCandidateNode>absent();
+    }
+
+    private static Collection<DataTreeCandidateNode> modifiedChildren(DataTreeCandidateNode parent) {
+        final Collection<DataTreeCandidateNode> children = new ArrayList<>();
+        for (DataTreeCandidateNode child : parent.getChildNodes()) {
+            if (child.getModificationType() != ModificationType.UNMODIFIED) {
+                children.add(child);
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Returns the paths of the entities the given member is a candidate for.
+     */
+    Set<YangInstanceIdentifier> getCandidateEntities(String memberName) {
+        return snapshot(candidateEntities, memberName);
+    }
+
+    /**
+     * Returns the paths of the entities owned by the given member.
+     */
+    Set<YangInstanceIdentifier> getOwnedEntities(String memberName) {
+        return snapshot(ownedEntities, memberName);
+    }
+
+    /**
+     * Returns the candidates of the given entity, in the order they were added.
+     */
+    List<String> getCandidates(YangInstanceIdentifier entityPath) {
+        final Set<String> candidates = entityCandidates.get(entityPath);
+        return candidates != null ? new ArrayList<>(candidates) : new ArrayList<>();
+    }
+
+    private static String owner(Optional<NormalizedNode<?, ?>> ownerLeaf) {
+        return ownerLeaf.isPresent() ? AbstractEntityOwnerChangeListener.extractOwner((LeafNode<?>) ownerLeaf.get())
+                : null;
+    }
+
+    private static <K, V> void add(Map<K, Set<V>> index, K key, V value) {
+        Set<V> values = index.get(key);
+        if (values == null) {
+            // Insertion order is kept as owner selection depends on the order of an entity's candidates
+            values = new LinkedHashSet<>();
+            index.put(key, values);
+        }
+
+        values.add(value);
+    }
+
+    private static <K, V> void remove(Map<K, Set<V>> index, K key, V value) {
+        final Set<V> values = index.get(key);
+        if (values != null) {
+            values.remove(value);
+            if (values.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static Set<YangInstanceIdentifier> snapshot(Map<String, Set<YangInstanceIdentifier>> index,
+            String memberName) {
+        final Set<YangInstanceIdentifier> entities = index.get(memberName);
+        return entities != null ? ImmutableSet.copyOf(entities) : ImmutableSet.of();
+    }
+}
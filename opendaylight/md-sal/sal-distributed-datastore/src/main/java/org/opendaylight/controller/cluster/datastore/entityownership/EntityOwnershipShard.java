@@ -7,18 +7,14 @@
  */
 package org.opendaylight.controller.cluster.datastore.entityownership;
 
-import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.CANDIDATE_NODE_ID;
 import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_ID_NODE_ID;
-import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_ID_QNAME;
 import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_NODE_ID;
 import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_OWNERS_PATH;
 import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_OWNER_NODE_ID;
 import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_OWNER_QNAME;
 import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_TYPES_PATH;
 import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_TYPE_NODE_ID;
-import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_TYPE_QNAME;
 import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.candidateMapEntry;
-import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.candidateNodeKey;
 import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.candidatePath;
 import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.createEntity;
 import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.entityOwnersWithCandidate;
@@ -81,6 +77,7 @@ class EntityOwnershipShard extends Shard {
     private final EntityOwnerSelectionStrategyConfig strategyConfig;
     private final Map<YangInstanceIdentifier, Cancellable> entityToScheduledOwnershipTask = new HashMap<>();
     private final EntityOwnershipStatistics entityOwnershipStatistics;
+    private final EntityOwnershipIndex entityOwnershipIndex;
 
     private static DatastoreContext noPersistenceDatastoreContext(DatastoreContext datastoreContext) {
         return DatastoreContext.newBuilderFrom(datastoreContext).persistent(false).build();
@@ -94,6 +91,8 @@ class EntityOwnershipShard extends Shard {
         this.strategyConfig = builder.ownerSelectionStrategyConfig;
         this.entityOwnershipStatistics = new EntityOwnershipStatistics();
         this.entityOwnershipStatistics.init(getDataStore());
+        this.entityOwnershipIndex = new EntityOwnershipIndex();
+        this.entityOwnershipIndex.init(getDataStore());
 
         for(String peerId: getRaftActorContext().getPeerIds()) {
             ShardIdentifier shardId = ShardIdentifier.fromShardIdString(peerId);
@@ -344,7 +343,9 @@ class EntityOwnershipShard extends Shard {
 
         if(isLeader()) {
             String currentOwner = getCurrentOwner(message.getEntityPath());
-            if(message.getRemovedCandidate().equals(currentOwner) || message.getRemainingCandidates().size() == 0){
+            // The owner may already have been cleared, along with the removal of the candidate, on peer down
+            if(message.getRemovedCandidate().equals(currentOwner) ||
+                    message.getRemainingCandidates().size() == 0 && !"".equals(currentOwner)){
                 String entityType = EntityOwnersModel.entityTypeFromEntityPath(message.getEntityPath());
                 writeNewOwner(message.getEntityPath(),
                         newOwner(currentOwner, message.getRemainingCandidates(), entityOwnershipStatistics.byEntityType(entityType),
@@ -380,6 +381,15 @@ class EntityOwnershipShard extends Shard {
 
         LOG.debug("{}: onCandidateAdded: {}", persistenceId(), message);
 
+        // The notification is delivered asynchronously, hence the candidate may have been removed since, e.g. on
+        // peer down. In that case it must neither be considered up nor selected as the owner - the owner will be
+        // updated on the subsequent CandidateRemoved.
+        if(!entityOwnershipIndex.getCandidates(message.getEntityPath()).contains(message.getNewCandidate())) {
+            LOG.debug("{}: Candidate {} is no longer present for entity {}", persistenceId(),
+                    message.getNewCandidate(), message.getEntityPath());
+            return;
+        }
+
         // Since a node's candidate member is only added by the node itself, we can assume the node is up so
         // remove it from the downPeerMemberNames.
         downPeerMemberNames.remove(message.getNewCandidate());
@@ -432,29 +442,38 @@ class EntityOwnershipShard extends Shard {
         commitCoordinator.onStateChanged(this, isLeader());
     }
 
-    private void removeCandidateFromEntities(final MemberName owner) {
+    private void removeCandidateFromEntities(final MemberName member) {
         final BatchedModifications modifications = commitCoordinator.newBatchedModifications();
-        searchForEntities((entityTypeNode, entityNode) -> {
-            if (hasCandidate(entityNode, owner)) {
-                YangInstanceIdentifier entityId =
-                        (YangInstanceIdentifier) entityNode.getIdentifier().getKeyValues().get(ENTITY_ID_QNAME);
-                YangInstanceIdentifier candidatePath = candidatePath(
-                        entityTypeNode.getIdentifier().getKeyValues().get(ENTITY_TYPE_QNAME).toString(),
-                        entityId, owner.getName());
 
-                LOG.info("{}: Found entity {}, removing candidate {}, path {}", persistenceId(), entityId,
-                        owner, candidatePath);
+        // Only the entities the member is a candidate for or owns are affected, which are found via the index
+        // rather than by walking all the entities
+        for (YangInstanceIdentifier entityPath : entityOwnershipIndex.getCandidateEntities(member.getName())) {
+            YangInstanceIdentifier candidatePath = candidatePath(entityPath, member.getName());
 
-                modifications.addModification(new DeleteModification(candidatePath));
-            }
-        });
+            LOG.info("{}: Found entity {}, removing candidate {}, path {}", persistenceId(), entityPath,
+                    member, candidatePath);
 
-        commitCoordinator.commitModifications(modifications, this);
-    }
+            modifications.addModification(new DeleteModification(candidatePath));
+        }
+
+        // Select new owners for the member's entities in the same batch, rather than one commit per entity as each
+        // removed candidate is observed
+        for (YangInstanceIdentifier entityPath : entityOwnershipIndex.getOwnedEntities(member.getName())) {
+            Collection<String> remainingCandidates = entityOwnershipIndex.getCandidates(entityPath);
+            remainingCandidates.remove(member.getName());
+
+            String entityType = EntityOwnersModel.entityTypeFromEntityPath(entityPath);
+            String newOwner = newOwner(member.getName(), remainingCandidates,
+                    entityOwnershipStatistics.byEntityType(entityType), getEntityOwnerElectionStrategy(entityPath));
+
+            LOG.debug("{}: Writing new owner {} for entity {} owned by {}", persistenceId(), newOwner, entityPath,
+                    member);
 
-    private static boolean hasCandidate(MapEntryNode entity, MemberName candidateName) {
-        return ((MapNode)entity.getChild(CANDIDATE_NODE_ID).get()).getChild(candidateNodeKey(candidateName.getName()))
-                .isPresent();
+            modifications.addModification(new WriteModification(entityPath.node(ENTITY_OWNER_QNAME),
+                    ImmutableNodes.leafNode(ENTITY_OWNER_NODE_ID, newOwner)));
+        }
+
+        commitCoordinator.commitModifications(modifications, this);
     }
 
     private void searchForEntities(EntityWalker walker) {
@@ -55,4 +55,16 @@ public interface DatastoreConfigurationMXBean {
     int getMaxShardDataStoreExecutorQueueSize();
 
     int getShardSnapshotChunkSize();
+
+    int getShardMaxInFlightAppendEntries();
+
+    boolean isShardJournalGroupCommitEnabled();
+
+    boolean isShardOffHeapReplicatedLogEnabled();
+
+    int getMaxTreeChangeListenerLag();
+
+    int getShardCommitBatchSize();
+
+    int getShardMaxSpeculativeCommits();
 }
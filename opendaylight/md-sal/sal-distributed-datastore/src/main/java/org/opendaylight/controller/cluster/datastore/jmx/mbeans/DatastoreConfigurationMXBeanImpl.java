@@ -134,4 +134,34 @@ public class DatastoreConfigurationMXBeanImpl extends AbstractMXBean implements
         return context.getShardSnapshotChunkSize();
     }
 
+    @Override
+    public int getShardMaxInFlightAppendEntries() {
+        return context.getShardMaxInFlightAppendEntries();
+    }
+
+    @Override
+    public boolean isShardJournalGroupCommitEnabled() {
+        return context.isShardJournalGroupCommitEnabled();
+    }
+
+    @Override
+    public boolean isShardOffHeapReplicatedLogEnabled() {
+        return context.isShardOffHeapReplicatedLogEnabled();
+    }
+
+    @Override
+    public int getMaxTreeChangeListenerLag() {
+        return context.getMaxTreeChangeListenerLag();
+    }
+
+    @Override
+    public int getShardCommitBatchSize() {
+        return context.getShardCommitBatchSize();
+    }
+
+    @Override
+    public int getShardMaxSpeculativeCommits() {
+        return context.getShardMaxSpeculativeCommits();
+    }
+
 }
@@ -7,6 +7,8 @@
  */
 package org.opendaylight.controller.cluster.datastore.jmx.mbeans;
 
+import java.util.Map;
+
 /**
  * JMX bean for general datastore info.
  *
@@ -14,4 +16,14 @@ package org.opendaylight.controller.cluster.datastore.jmx.mbeans;
  */
 public interface DatastoreInfoMXBean {
     double getTransactionCreationRateLimit();
+
+    /**
+     * Returns the current transaction rate limit, in transactions per second, for each shard.
+     */
+    Map<String, Double> getShardTransactionRateLimits();
+
+    /**
+     * Returns the number of transactions that were delayed by the rate limit for each shard.
+     */
+    Map<String, Long> getShardThrottledTransactionCounts();
 }
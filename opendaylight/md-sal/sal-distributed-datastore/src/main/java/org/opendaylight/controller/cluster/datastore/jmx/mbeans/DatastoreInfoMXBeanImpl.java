@@ -7,6 +7,8 @@
  */
 package org.opendaylight.controller.cluster.datastore.jmx.mbeans;
 
+import java.util.Map;
+
 import org.opendaylight.controller.cluster.datastore.utils.ActorContext;
 import org.opendaylight.controller.md.sal.common.util.jmx.AbstractMXBean;
 
@@ -29,4 +31,14 @@ public class DatastoreInfoMXBeanImpl extends AbstractMXBean implements Datastore
     public double getTransactionCreationRateLimit() {
         return actorContext.getTxCreationLimit();
     }
+
+    @Override
+    public Map<String, Double> getShardTransactionRateLimits() {
+        return actorContext.getTxRateLimiter().getShardRateLimits();
+    }
+
+    @Override
+    public Map<String, Long> getShardThrottledTransactionCounts() {
+        return actorContext.getTxRateLimiter().getShardThrottledCounts();
+    }
 }
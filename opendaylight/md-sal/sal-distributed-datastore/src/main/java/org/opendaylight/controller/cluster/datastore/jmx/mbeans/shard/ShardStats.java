@@ -356,6 +356,24 @@ public class ShardStats extends AbstractMXBean implements ShardStatsMXBean {
         return shard.getCohortCacheSize();
     }
 
+    @Override
+    public boolean isRecoveryComplete() {
+        return shard.isRecoveryComplete();
+    }
+
+    @Override
+    public long getRecoveredLogEntryCount() {
+        return shard.getRecoveredLogEntryCount();
+    }
+
+    /**
+     * Returns the average number of journal log entries recovered per second.
+     */
+    @Override
+    public double getRecoveryLogEntryRate() {
+        return shard.getRecoveryLogEntryRate();
+    }
+
     @Override
     public void captureSnapshot() {
         if(shard != null) {
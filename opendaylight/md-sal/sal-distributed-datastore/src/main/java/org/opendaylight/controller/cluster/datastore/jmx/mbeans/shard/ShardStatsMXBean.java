@@ -90,5 +90,11 @@ public interface ShardStatsMXBean {
 
    int getTxCohortCacheSize();
 
+   boolean isRecoveryComplete();
+
+   long getRecoveredLogEntryCount();
+
+   double getRecoveryLogEntryRate();
+
    void captureSnapshot();
 }
@@ -7,6 +7,9 @@
  */
 package org.opendaylight.controller.cluster.datastore.messages;
 
+import javax.annotation.Nullable;
+import org.opendaylight.controller.cluster.datastore.persisted.SchemaFingerprint;
+
 /**
  * Message sent to a transaction actor to create a snapshot of the data store.
  *
@@ -15,5 +18,20 @@ package org.opendaylight.controller.cluster.datastore.messages;
 public class CreateSnapshot {
     // Note: This class does not need to Serializable as it's only sent locally.
 
-    public static final CreateSnapshot INSTANCE = new CreateSnapshot();
+    public static final CreateSnapshot INSTANCE = new CreateSnapshot(null);
+
+    private final SchemaFingerprint schemaFingerprint;
+
+    /**
+     * @param schemaFingerprint the fingerprint of the models the data was written with, to be recorded in the
+     *                          snapshot, if known
+     */
+    public CreateSnapshot(@Nullable SchemaFingerprint schemaFingerprint) {
+        this.schemaFingerprint = schemaFingerprint;
+    }
+
+    @Nullable
+    public SchemaFingerprint getSchemaFingerprint() {
+        return schemaFingerprint;
+    }
 }
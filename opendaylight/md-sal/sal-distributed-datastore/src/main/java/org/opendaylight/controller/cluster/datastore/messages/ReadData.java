@@ -8,18 +8,28 @@
 
 package org.opendaylight.controller.cluster.datastore.messages;
 
+import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import org.opendaylight.controller.cluster.datastore.utils.NormalizedNodeDepthLimiter;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.sal.core.spi.data.DOMStoreReadTransaction;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.util.concurrent.MappingCheckedFuture;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 
 public class ReadData extends AbstractRead<Optional<NormalizedNode<?, ?>>> {
     private static final long serialVersionUID = 1L;
 
+    private int maxDepth = -1;
+
     public ReadData() {
     }
 
@@ -27,9 +37,64 @@ public class ReadData extends AbstractRead<Optional<NormalizedNode<?, ?>>> {
         super(path, version);
     }
 
+    /**
+     * Creates a message reading the data at the given path, without the nodes more than maxDepth levels beneath it.
+     * The depth is limited by the shard, before the data is serialized.
+     *
+     * @param maxDepth the maximum depth of the nodes to read, or a negative value for no limit
+     */
+    public ReadData(final YangInstanceIdentifier path, short version, int maxDepth) {
+        super(path, version);
+        this.maxDepth = maxDepth;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+
+        // The depth is appended to the message, so it is absent if it was sent by an older version
+        try {
+            maxDepth = in.readInt();
+        } catch (EOFException e) {
+            maxDepth = -1;
+        }
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+        out.writeInt(maxDepth);
+    }
+
     @Override
     public CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> apply(DOMStoreReadTransaction readDelegate) {
-        return readDelegate.read(getPath());
+        final CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> future = readDelegate.read(getPath());
+        if (maxDepth < 0) {
+            return future;
+        }
+
+        return MappingCheckedFuture.create(Futures.transform(future,
+            new Function<Optional<NormalizedNode<?, ?>>, Optional<NormalizedNode<?, ?>>>() {
+                @Override
+                public Optional<NormalizedNode<?, ?>> apply(final Optional<NormalizedNode<?, ?>> input) {
+                    return limitDepth(input);
+                }
+            }), ReadFailedException.MAPPER);
+    }
+
+    /**
+     * Limits the depth of the data read for this message.
+     */
+    public Optional<NormalizedNode<?, ?>> limitDepth(final Optional<NormalizedNode<?, ?>> data) {
+        if (maxDepth < 0 || !data.isPresent()) {
+            return data;
+        }
+
+        return Optional.<NormalizedNode<?, ?>>of(NormalizedNodeDepthLimiter.limitDepth(data.get(), maxDepth));
     }
 
     @Override
@@ -44,7 +109,7 @@ public class ReadData extends AbstractRead<Optional<NormalizedNode<?, ?>>> {
 
     @Override
     protected AbstractRead<Optional<NormalizedNode<?, ?>>> newInstance(short withVersion) {
-        return new ReadData(getPath(), withVersion);
+        return new ReadData(getPath(), withVersion, maxDepth);
     }
 
     public static ReadData fromSerializable(final Object serializable) {
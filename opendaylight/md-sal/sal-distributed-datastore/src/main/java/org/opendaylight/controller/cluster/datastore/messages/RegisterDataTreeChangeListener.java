@@ -9,10 +9,13 @@ package org.opendaylight.controller.cluster.datastore.messages;
 
 import akka.actor.ActorRef;
 import com.google.common.base.Preconditions;
+import java.io.EOFException;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.io.OptionalDataException;
+import org.opendaylight.controller.cluster.datastore.DataTreeChangeFilter;
 import org.opendaylight.controller.cluster.datastore.utils.SerializationUtils;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 
@@ -25,12 +28,23 @@ public final class RegisterDataTreeChangeListener implements Externalizable, Lis
     private ActorRef dataTreeChangeListenerPath;
     private YangInstanceIdentifier path;
     private boolean registerOnAllInstances;
+    private DataTreeChangeFilter filter;
+
+    public RegisterDataTreeChangeListener() {
+        // For Externalizable
+    }
 
     public RegisterDataTreeChangeListener(final YangInstanceIdentifier path, final ActorRef dataTreeChangeListenerPath,
             final boolean registerOnAllInstances) {
+        this(path, dataTreeChangeListenerPath, registerOnAllInstances, DataTreeChangeFilter.ACCEPT_ALL);
+    }
+
+    public RegisterDataTreeChangeListener(final YangInstanceIdentifier path, final ActorRef dataTreeChangeListenerPath,
+            final boolean registerOnAllInstances, final DataTreeChangeFilter filter) {
         this.path = Preconditions.checkNotNull(path);
         this.dataTreeChangeListenerPath = Preconditions.checkNotNull(dataTreeChangeListenerPath);
         this.registerOnAllInstances = registerOnAllInstances;
+        this.filter = Preconditions.checkNotNull(filter);
     }
 
     @Override
@@ -47,11 +61,16 @@ public final class RegisterDataTreeChangeListener implements Externalizable, Lis
         return registerOnAllInstances;
     }
 
+    public DataTreeChangeFilter getFilter() {
+        return filter;
+    }
+
     @Override
     public void writeExternal(final ObjectOutput out) throws IOException {
         out.writeObject(dataTreeChangeListenerPath);
         SerializationUtils.serializePath(path, out);
         out.writeBoolean(registerOnAllInstances);
+        out.writeObject(filter);
     }
 
     @Override
@@ -59,5 +78,12 @@ public final class RegisterDataTreeChangeListener implements Externalizable, Lis
         dataTreeChangeListenerPath = (ActorRef) in.readObject();
         path = SerializationUtils.deserializePath(in);
         registerOnAllInstances = in.readBoolean();
+
+        // The filter is appended to the message, so it is absent if it was sent by an older version
+        try {
+            filter = (DataTreeChangeFilter) in.readObject();
+        } catch (EOFException | OptionalDataException e) {
+            filter = DataTreeChangeFilter.ACCEPT_ALL;
+        }
     }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.persisted;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * An immutable sequence of bytes held in a list of chunks rather than in a single array, so it can be built, written
+ * out and read back in without reallocating or copying the bytes as a whole. All chunks except the last one are full.
+ */
+final class ChunkedByteArray {
+    // The largest chunk allocated, bounding the size of any single allocation for large payloads
+    static final int MAX_CHUNK_SIZE = 256 * 1024;
+
+    private final List<byte[]> chunks;
+    private final int size;
+
+    ChunkedByteArray(final List<byte[]> chunks, final int size) {
+        this.chunks = ImmutableList.copyOf(chunks);
+        this.size = size;
+    }
+
+    /**
+     * Reads the given number of bytes into chunks of at most {@link #MAX_CHUNK_SIZE} bytes.
+     */
+    static ChunkedByteArray readFrom(final DataInput in, final int size) throws IOException {
+        Preconditions.checkArgument(size >= 0, "Invalid size %s", size);
+
+        final ImmutableList.Builder<byte[]> chunks = ImmutableList.builder();
+        int remaining = size;
+        while (remaining > 0) {
+            final byte[] chunk = new byte[Math.min(remaining, MAX_CHUNK_SIZE)];
+            in.readFully(chunk);
+            chunks.add(chunk);
+            remaining -= chunk.length;
+        }
+
+        return new ChunkedByteArray(chunks.build(), size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @VisibleForTesting
+    List<byte[]> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Writes the bytes, chunk by chunk, to the given output.
+     */
+    void copyTo(final DataOutput out) throws IOException {
+        int remaining = size;
+        for (byte[] chunk : chunks) {
+            final int length = Math.min(remaining, chunk.length);
+            out.write(chunk, 0, length);
+            remaining -= length;
+        }
+    }
+
+    /**
+     * Returns a stream reading the bytes in place.
+     */
+    InputStream openStream() {
+        return new ChunkedInputStream();
+    }
+
+    private final class ChunkedInputStream extends InputStream {
+        private int chunkIndex;
+        private int chunkOffset;
+        private int offset;
+
+        @Override
+        public int read() {
+            if (!nextChunk()) {
+                return -1;
+            }
+
+            offset++;
+            return chunks.get(chunkIndex)[chunkOffset++] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            Preconditions.checkPositionIndexes(off, off + len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+
+            final byte[] chunk = chunks.get(chunkIndex);
+            final int count = Math.min(len, Math.min(chunk.length - chunkOffset, available()));
+            System.arraycopy(chunk, chunkOffset, b, off, count);
+            chunkOffset += count;
+            offset += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return size - offset;
+        }
+
+        /**
+         * Moves on to the next chunk if the current one has been read, returning false if there is nothing left to
+         * read.
+         */
+        private boolean nextChunk() {
+            if (offset >= size) {
+                return false;
+            }
+
+            if (chunkOffset == chunks.get(chunkIndex).length) {
+                chunkIndex++;
+                chunkOffset = 0;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.persisted;
+
+import com.google.common.base.Preconditions;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An OutputStream which collects the bytes written to it in a {@link ChunkedByteArray}. Unlike a
+ * ByteArrayOutputStream it never copies the bytes already written as it grows: once a chunk is full a new one is
+ * allocated, each twice the size of the previous one up to {@link ChunkedByteArray#MAX_CHUNK_SIZE}. The last chunk
+ * is trimmed to the bytes written when the stream is closed, as the result may be retained for a long time.
+ */
+final class ChunkedOutputStream extends OutputStream {
+    private final List<byte[]> chunks = new ArrayList<>();
+    private byte[] currentChunk;
+    private int currentOffset;
+    private int size;
+    private boolean closed;
+
+    ChunkedOutputStream(final int initialChunkSize) {
+        Preconditions.checkArgument(initialChunkSize > 0, "Invalid initial chunk size %s", initialChunkSize);
+        currentChunk = new byte[Math.min(initialChunkSize, ChunkedByteArray.MAX_CHUNK_SIZE)];
+        chunks.add(currentChunk);
+    }
+
+    @Override
+    public void write(final int b) {
+        ensureSpace();
+        currentChunk[currentOffset++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+        Preconditions.checkPositionIndexes(off, off + len, b.length);
+
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            ensureSpace();
+            final int count = Math.min(remaining, currentChunk.length - currentOffset);
+            System.arraycopy(b, offset, currentChunk, currentOffset, count);
+            currentOffset += count;
+            offset += count;
+            remaining -= count;
+        }
+
+        size += len;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            if (currentOffset < currentChunk.length) {
+                chunks.set(chunks.size() - 1, Arrays.copyOf(currentChunk, currentOffset));
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the bytes written to this stream, which must have been closed.
+     */
+    ChunkedByteArray toChunkedByteArray() {
+        Preconditions.checkState(closed, "Stream has not been closed");
+        return new ChunkedByteArray(chunks, size);
+    }
+
+    private void ensureSpace() {
+        Preconditions.checkState(!closed, "Stream is closed");
+        if (currentOffset == currentChunk.length) {
+            currentChunk = new byte[Math.min(currentChunk.length * 2, ChunkedByteArray.MAX_CHUNK_SIZE)];
+            currentOffset = 0;
+            chunks.add(currentChunk);
+        }
+    }
+}
@@ -9,9 +9,8 @@ package org.opendaylight.controller.cluster.datastore.persisted;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
-import com.google.common.io.ByteArrayDataOutput;
-import com.google.common.io.ByteStreams;
-import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -20,13 +19,19 @@ import java.io.Serializable;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Map.Entry;
 import java.util.Optional;
+import javax.annotation.Nullable;
 import org.opendaylight.controller.cluster.access.concepts.TransactionIdentifier;
 import org.opendaylight.controller.cluster.raft.protobuff.client.messages.Payload;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
 
 /**
  * Payload persisted when a transaction commits. It contains the transaction identifier and the
- * {@link DataTreeCandidate}
+ * {@link DataTreeCandidate}, optionally followed by the {@link SchemaFingerprint} of the models the candidate was
+ * written with. Readers which do not know about the fingerprint ignore it.
+ *
+ * <p>
+ * The serialized form is held in a {@link ChunkedByteArray}, so it is built, replicated and persisted without the
+ * whole of it being copied, and is only decoded when the candidate is requested.
  *
  * @author Robert Varga
  */
@@ -34,27 +39,25 @@ import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
 public final class CommitTransactionPayload extends Payload implements DataTreeCandidateSupplier, Serializable {
     private static final class Proxy implements Externalizable {
         private static final long serialVersionUID = 1L;
-        private byte[] serialized;
+        private ChunkedByteArray serialized;
 
         public Proxy() {
             // For Externalizable
         }
 
-        Proxy(final byte[] serialized) {
+        Proxy(final ChunkedByteArray serialized) {
             this.serialized = Preconditions.checkNotNull(serialized);
         }
 
         @Override
         public void writeExternal(final ObjectOutput out) throws IOException {
-            out.writeInt(serialized.length);
-            out.write(serialized);
+            out.writeInt(serialized.size());
+            serialized.copyTo(out);
         }
 
         @Override
         public void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
-            final int length = in.readInt();
-            serialized = new byte[length];
-            in.readFully(serialized);
+            serialized = ChunkedByteArray.readFrom(in, in.readInt());
         }
 
         private Object readResolve() {
@@ -64,30 +67,68 @@ public final class CommitTransactionPayload extends Payload implements DataTreeC
 
     private static final long serialVersionUID = 1L;
 
-    private final byte[] serialized;
+    // Marks the optional schema fingerprint trailing the candidate
+    private static final byte SCHEMA_FINGERPRINT = 1;
+
+    // The size of the first chunk of a new payload, which fits small transactions
+    private static final int INITIAL_CHUNK_SIZE = 512;
 
-    CommitTransactionPayload(final byte[] serialized) {
+    private final ChunkedByteArray serialized;
+
+    CommitTransactionPayload(final ChunkedByteArray serialized) {
         this.serialized = Preconditions.checkNotNull(serialized);
     }
 
     public static CommitTransactionPayload create(final TransactionIdentifier transactionId,
             final DataTreeCandidate candidate) throws IOException {
-        final ByteArrayDataOutput out = ByteStreams.newDataOutput();
-        transactionId.writeTo(out);
-        DataTreeCandidateInputOutput.writeDataTreeCandidate(out, candidate);
-        return new CommitTransactionPayload(out.toByteArray());
+        return create(transactionId, candidate, null);
+    }
+
+    public static CommitTransactionPayload create(final TransactionIdentifier transactionId,
+            final DataTreeCandidate candidate, @Nullable final SchemaFingerprint schemaFingerprint)
+                    throws IOException {
+        final ChunkedOutputStream cos = new ChunkedOutputStream(INITIAL_CHUNK_SIZE);
+        try (DataOutputStream out = new DataOutputStream(cos)) {
+            transactionId.writeTo(out);
+            DataTreeCandidateInputOutput.writeDataTreeCandidate(out, candidate);
+            if (schemaFingerprint != null) {
+                out.writeByte(SCHEMA_FINGERPRINT);
+                schemaFingerprint.writeTo(out);
+            }
+        }
+
+        return new CommitTransactionPayload(cos.toChunkedByteArray());
     }
 
     @Override
     public Entry<Optional<TransactionIdentifier>, DataTreeCandidate> getCandidate() throws IOException {
-        final DataInput in = ByteStreams.newDataInput(serialized);
+        final DataInputStream in = new DataInputStream(serialized.openStream());
         return new SimpleImmutableEntry<>(Optional.of(TransactionIdentifier.readFrom(in)),
                 DataTreeCandidateInputOutput.readDataTreeCandidate(in));
     }
 
+    /**
+     * Returns the candidate along with the fingerprint of the models it was written with, if it was recorded.
+     */
+    public Entry<Optional<SchemaFingerprint>, DataTreeCandidate> getCandidateWithSchemaFingerprint()
+            throws IOException {
+        final DataInputStream in = new DataInputStream(serialized.openStream());
+        TransactionIdentifier.readFrom(in);
+        final DataTreeCandidate candidate = DataTreeCandidateInputOutput.readDataTreeCandidate(in);
+
+        final Optional<SchemaFingerprint> schemaFingerprint;
+        if (in.available() > 0 && in.readByte() == SCHEMA_FINGERPRINT) {
+            schemaFingerprint = Optional.of(SchemaFingerprint.readFrom(in));
+        } else {
+            schemaFingerprint = Optional.empty();
+        }
+
+        return new SimpleImmutableEntry<>(schemaFingerprint, candidate);
+    }
+
     @Override
     public int size() {
-        return serialized.length;
+        return serialized.size();
     }
 
     private Object writeReplace() {
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.persisted;
+
+import com.google.common.annotations.Beta;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.WritableObject;
+import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * A fingerprint of the YANG modules in a {@link SchemaContext} and the data nodes they define. It is persisted along
+ * with snapshots and transaction payloads so that recovery can tell whether data was written with the same models as
+ * are currently loaded, in which case it need not be pruned of nodes unknown to the current schema.
+ */
+@Beta
+public final class SchemaFingerprint implements WritableObject {
+    private final long value;
+
+    private SchemaFingerprint(final long value) {
+        this.value = value;
+    }
+
+    /**
+     * Computes the fingerprint of a SchemaContext from the name, namespace and revision of each of its modules and
+     * submodules, and from the path, kind and list keys of each data node. The latter covers models whose content
+     * changed without a revision bump, eg between snapshot builds.
+     */
+    public static @Nonnull SchemaFingerprint of(final @Nonnull SchemaContext schemaContext) {
+        final List<String> ids = new ArrayList<>();
+        for (Module module : schemaContext.getModules()) {
+            ids.add(moduleId(module));
+            for (Module submodule : module.getSubmodules()) {
+                ids.add(moduleId(submodule));
+            }
+        }
+
+        addDataNodeIds("", schemaContext.getChildNodes(), ids);
+        Collections.sort(ids);
+
+        final Hasher hasher = Hashing.sha256().newHasher();
+        for (String id : ids) {
+            hasher.putString(id, StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+
+        return new SchemaFingerprint(hasher.hash().asLong());
+    }
+
+    private static String moduleId(final Module module) {
+        return module.getName() + '@' + module.getQNameModule().getFormattedRevision() + ' ' + module.getNamespace();
+    }
+
+    private static void addDataNodeIds(final String parentPath, final Collection<? extends DataSchemaNode> nodes,
+            final List<String> ids) {
+        for (DataSchemaNode node : nodes) {
+            final String path = parentPath + '/' + node.getQName();
+            if (node instanceof ListSchemaNode) {
+                ids.add(path + " list " + ((ListSchemaNode) node).getKeyDefinition());
+            } else {
+                ids.add(path + ' ' + kindOf(node));
+            }
+
+            if (node instanceof DataNodeContainer) {
+                addDataNodeIds(path, ((DataNodeContainer) node).getChildNodes(), ids);
+            } else if (node instanceof ChoiceSchemaNode) {
+                addDataNodeIds(path, ((ChoiceSchemaNode) node).getCases(), ids);
+            }
+        }
+    }
+
+    private static String kindOf(final DataSchemaNode node) {
+        if (node instanceof ContainerSchemaNode) {
+            return "container";
+        } else if (node instanceof LeafSchemaNode) {
+            return "leaf";
+        } else if (node instanceof LeafListSchemaNode) {
+            return "leaf-list";
+        } else if (node instanceof ChoiceSchemaNode) {
+            return "choice";
+        } else if (node instanceof ChoiceCaseNode) {
+            return "case";
+        } else if (node instanceof AnyXmlSchemaNode) {
+            return "anyxml";
+        }
+
+        return node.getClass().getSimpleName();
+    }
+
+    public static @Nonnull SchemaFingerprint readFrom(final @Nonnull DataInput in) throws IOException {
+        return new SchemaFingerprint(in.readLong());
+    }
+
+    @Override
+    public void writeTo(final DataOutput out) throws IOException {
+        out.writeLong(value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || obj instanceof SchemaFingerprint && value == ((SchemaFingerprint) obj).value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SchemaFingerprint{%016x}", value);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.persisted;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.controller.cluster.datastore.utils.SerializationUtils;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+/**
+ * The state of a shard as persisted in a snapshot: the root node of the data tree, optionally followed by the
+ * {@link SchemaFingerprint} of the models it was written with. The fingerprint trails the node, so readers which
+ * only deserialize the node are not affected by it.
+ */
+@Beta
+public final class ShardDataTreeSnapshot {
+    // Marks the optional schema fingerprint trailing the root node
+    private static final byte SCHEMA_FINGERPRINT = 1;
+
+    private final NormalizedNode<?, ?> rootNode;
+    private final Optional<SchemaFingerprint> schemaFingerprint;
+
+    public ShardDataTreeSnapshot(@Nonnull final NormalizedNode<?, ?> rootNode,
+            @Nullable final SchemaFingerprint schemaFingerprint) {
+        this.rootNode = Preconditions.checkNotNull(rootNode);
+        this.schemaFingerprint = Optional.ofNullable(schemaFingerprint);
+    }
+
+    public NormalizedNode<?, ?> getRootNode() {
+        return rootNode;
+    }
+
+    public Optional<SchemaFingerprint> getSchemaFingerprint() {
+        return schemaFingerprint;
+    }
+
+    public void serialize(final DataOutput out) throws IOException {
+        SerializationUtils.serializeNormalizedNode(rootNode, out);
+        if (schemaFingerprint.isPresent()) {
+            out.writeByte(SCHEMA_FINGERPRINT);
+            schemaFingerprint.get().writeTo(out);
+        }
+    }
+
+    /**
+     * Deserializes a snapshot, including snapshots without a fingerprint and legacy protobuf-encoded snapshots.
+     */
+    public static ShardDataTreeSnapshot deserialize(final byte[] bytes) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        final NormalizedNode<?, ?> rootNode;
+        try {
+            rootNode = SerializationUtils.deserializeNormalizedNode(in);
+        } catch (IllegalArgumentException e) {
+            // Probably from legacy protobuf serialization, which SerializationUtils falls back to for byte arrays
+            return new ShardDataTreeSnapshot(SerializationUtils.deserializeNormalizedNode(bytes), null);
+        }
+
+        SchemaFingerprint schemaFingerprint = null;
+        if (in.available() > 0 && in.readByte() == SCHEMA_FINGERPRINT) {
+            schemaFingerprint = SchemaFingerprint.readFrom(in);
+        }
+
+        return new ShardDataTreeSnapshot(rootNode, schemaFingerprint);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.shardstrategy;
+
+import org.opendaylight.controller.cluster.datastore.config.Configuration;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+
+/**
+ * A ShardStrategy which spreads the data of a module across several shards by subtree. A path belongs to the shard
+ * configured for its longest prefix, as found in the configuration's {@link ShardPrefixTable}. Paths without a
+ * configured prefix belong to the module's first shard.
+ */
+public class PrefixShardStrategy implements ShardStrategy {
+
+    public static final String NAME = "prefix";
+
+    private final String moduleName;
+    private final Configuration configuration;
+
+    public PrefixShardStrategy(String moduleName, Configuration configuration) {
+        this.moduleName = moduleName;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public String findShard(YangInstanceIdentifier path) {
+        String shardName = configuration.getPrefixShardTable().findShard(path);
+        if (shardName == null) {
+            shardName = configuration.getShardNameForModule(moduleName);
+        }
+
+        return shardName != null ? shardName : DefaultShardStrategy.DEFAULT_SHARD;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.shardstrategy;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+
+/**
+ * An immutable routing table of the shards configured for data subtree prefixes. It is a trie keyed by path
+ * argument, so the shard owning a path is found by its longest configured prefix in a single walk down the path,
+ * regardless of the number of prefixes.
+ */
+public final class ShardPrefixTable {
+    private static final ShardPrefixTable EMPTY = new ShardPrefixTable(new Node(null, null,
+            Collections.<PathArgument, Node>emptyMap()));
+
+    private static final class Node {
+        final YangInstanceIdentifier prefix;
+        final String shardName;
+        final Map<PathArgument, Node> children;
+
+        Node(final YangInstanceIdentifier prefix, final String shardName, final Map<PathArgument, Node> children) {
+            this.prefix = prefix;
+            this.shardName = shardName;
+            this.children = children;
+        }
+    }
+
+    private final Node root;
+
+    private ShardPrefixTable(final Node root) {
+        this.root = root;
+    }
+
+    public static ShardPrefixTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a table from the given shard names keyed by prefix.
+     */
+    public static ShardPrefixTable of(@Nonnull final Map<YangInstanceIdentifier, String> prefixShards) {
+        if (prefixShards.isEmpty()) {
+            return EMPTY;
+        }
+
+        final MutableNode root = new MutableNode();
+        for (Entry<YangInstanceIdentifier, String> e : prefixShards.entrySet()) {
+            Preconditions.checkArgument(!e.getKey().isEmpty(), "Shard %s cannot be configured for the root prefix",
+                    e.getValue());
+
+            MutableNode node = root;
+            for (PathArgument arg : e.getKey().getPathArguments()) {
+                MutableNode child = node.children.get(arg);
+                if (child == null) {
+                    child = new MutableNode();
+                    node.children.put(arg, child);
+                }
+
+                node = child;
+            }
+
+            node.shardName = Preconditions.checkNotNull(e.getValue());
+        }
+
+        return new ShardPrefixTable(root.build(YangInstanceIdentifier.EMPTY));
+    }
+
+    public boolean isEmpty() {
+        return root.children.isEmpty();
+    }
+
+    /**
+     * Returns the name of the shard configured for the longest prefix of the given path, or null if no prefix of
+     * the path is configured.
+     */
+    @Nullable
+    public String findShard(@Nonnull final YangInstanceIdentifier path) {
+        final Entry<YangInstanceIdentifier, String> prefixShard = findPrefixShard(path);
+        return prefixShard != null ? prefixShard.getValue() : null;
+    }
+
+    /**
+     * Returns the longest configured prefix of the given path along with the name of its shard, or null if no
+     * prefix of the path is configured.
+     */
+    @Nullable
+    public Entry<YangInstanceIdentifier, String> findPrefixShard(@Nonnull final YangInstanceIdentifier path) {
+        Node match = null;
+        Node node = root;
+        for (PathArgument arg : path.getPathArguments()) {
+            node = node.children.get(arg);
+            if (node == null) {
+                break;
+            }
+
+            if (node.shardName != null) {
+                match = node;
+            }
+        }
+
+        return match != null ? new SimpleImmutableEntry<>(match.prefix, match.shardName) : null;
+    }
+
+    /**
+     * Returns the configured prefixes nearest beneath the given path, along with the names of their shards. Prefixes
+     * nested beneath these are not included.
+     */
+    @Nonnull
+    public Map<YangInstanceIdentifier, String> findChildPrefixShards(@Nonnull final YangInstanceIdentifier path) {
+        Node node = root;
+        for (PathArgument arg : path.getPathArguments()) {
+            node = node.children.get(arg);
+            if (node == null) {
+                return Collections.emptyMap();
+            }
+        }
+
+        if (node.children.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final ImmutableMap.Builder<YangInstanceIdentifier, String> builder = ImmutableMap.builder();
+        addChildPrefixShards(node, builder);
+        return builder.build();
+    }
+
+    private static void addChildPrefixShards(final Node node,
+            final ImmutableMap.Builder<YangInstanceIdentifier, String> builder) {
+        for (Node child : node.children.values()) {
+            if (child.shardName != null) {
+                builder.put(child.prefix, child.shardName);
+            } else {
+                addChildPrefixShards(child, builder);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final List<String> prefixes = new ArrayList<>();
+        toString(root, prefixes);
+        return "ShardPrefixTable " + prefixes;
+    }
+
+    private static void toString(final Node node, final List<String> prefixes) {
+        if (node.shardName != null) {
+            prefixes.add(node.prefix + "=" + node.shardName);
+        }
+
+        for (Node child : node.children.values()) {
+            toString(child, prefixes);
+        }
+    }
+
+    private static final class MutableNode {
+        final Map<PathArgument, MutableNode> children = new HashMap<>();
+        String shardName;
+
+        Node build(final YangInstanceIdentifier prefix) {
+            final Map<PathArgument, Node> builtChildren;
+            switch (children.size()) {
+            case 0:
+                builtChildren = Collections.emptyMap();
+                break;
+            case 1:
+                final Entry<PathArgument, MutableNode> e = children.entrySet().iterator().next();
+                builtChildren = Collections.singletonMap(e.getKey(), e.getValue().build(prefix.node(e.getKey())));
+                break;
+            default:
+                final ImmutableMap.Builder<PathArgument, Node> builder = ImmutableMap.builder();
+                for (Entry<PathArgument, MutableNode> child : children.entrySet()) {
+                    builder.put(child.getKey(), child.getValue().build(prefix.node(child.getKey())));
+                }
+
+                builtChildren = builder.build();
+            }
+
+            return new Node(prefix, shardName, builtChildren);
+        }
+    }
+}
@@ -34,12 +34,23 @@ public class ShardStrategyFactory {
         return shardStrategy;
     }
 
+    /**
+     * Returns the shards configured for data subtree prefixes of modules using the {@link PrefixShardStrategy}.
+     */
+    public ShardPrefixTable getPrefixShardTable() {
+        return configuration.getPrefixShardTable();
+    }
+
     public static ShardStrategy newShardStrategyInstance(String moduleName, String strategyName,
             Configuration configuration) {
         if(ModuleShardStrategy.NAME.equals(strategyName)){
             return new ModuleShardStrategy(moduleName, configuration);
         }
 
+        if(PrefixShardStrategy.NAME.equals(strategyName)){
+            return new PrefixShardStrategy(moduleName, configuration);
+        }
+
         return DefaultShardStrategy.getInstance();
     }
 
@@ -494,6 +494,17 @@ public class ActorContext {
         txRateLimiter.acquire();
     }
 
+    /**
+     * Try to acquire a permit for a transaction to access the given shard. Will block if no permits are available.
+     */
+    public void acquireTxCreationPermit(String shardName){
+        txRateLimiter.acquire(shardName);
+    }
+
+    public TransactionRateLimiter getTxRateLimiter() {
+        return txRateLimiter;
+    }
+
     /**
      * Return the operation timeout to be used when committing transactions
      * @return
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.utils;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+
+/**
+ * Coalesces consecutive DataTreeCandidates rooted at the same path into a single candidate, which describes the
+ * difference between the state before the first of them and the state after the last of them. The candidates must
+ * carry their before-images, ie they must not have been deserialized.
+ *
+ * <p>
+ * The coalesced candidate's nodes are computed lazily from the before and after states. Subtrees which are shared by
+ * both states, as is the case for the parts of an immutable tree untouched by the intervening commits, are detected
+ * by identity and reported as unmodified without being compared.
+ */
+public final class DataTreeCandidateCoalescer {
+    private DataTreeCandidateCoalescer() {
+    }
+
+    /**
+     * Coalesces each run of consecutive candidates with the same root path into a single candidate.
+     *
+     * @param candidates the candidates in the order in which they were committed
+     * @return the coalesced candidates, in the same order
+     */
+    @Nonnull
+    public static List<DataTreeCandidate> coalesce(@Nonnull final Collection<DataTreeCandidate> candidates) {
+        final List<DataTreeCandidate> coalesced = new ArrayList<>();
+        DataTreeCandidate first = null;
+        DataTreeCandidate last = null;
+        for (DataTreeCandidate candidate : candidates) {
+            if (first != null && !first.getRootPath().equals(candidate.getRootPath())) {
+                coalesced.add(coalesce(first, last));
+                first = null;
+            }
+
+            if (first == null) {
+                first = candidate;
+            }
+            last = candidate;
+        }
+
+        if (first != null) {
+            coalesced.add(coalesce(first, last));
+        }
+
+        return coalesced;
+    }
+
+    /**
+     * Coalesces two candidates with the same root path, the second one committed after the first one, into a single
+     * candidate. The first candidate may itself be the result of coalescing.
+     *
+     * @param first the earlier candidate
+     * @param last the later candidate
+     * @return the coalesced candidate
+     */
+    @Nonnull
+    public static DataTreeCandidate coalesce(@Nonnull final DataTreeCandidate first,
+            @Nonnull final DataTreeCandidate last) {
+        Preconditions.checkArgument(first.getRootPath().equals(last.getRootPath()),
+                "Candidates have different roots %s and %s", first.getRootPath(), last.getRootPath());
+        if (first == last) {
+            return first;
+        }
+
+        final YangInstanceIdentifier rootPath = first.getRootPath();
+        return DataTreeCandidates.newDataTreeCandidate(rootPath, new CoalescedNode(rootPath.getLastPathArgument(),
+                first.getRootNode().getDataBefore(), last.getRootNode().getDataAfter()));
+    }
+
+    private static final class CoalescedNode implements DataTreeCandidateNode {
+        private final PathArgument identifier;
+        private final Optional<NormalizedNode<?, ?>> before;
+        private final Optional<NormalizedNode<?, ?>> after;
+
+        CoalescedNode(@Nullable final PathArgument identifier, final Optional<NormalizedNode<?, ?>> before,
+                final Optional<NormalizedNode<?, ?>> after) {
+            this.identifier = identifier;
+            this.before = before;
+            this.after = after;
+        }
+
+        @Override
+        public PathArgument getIdentifier() {
+            if (identifier == null) {
+                throw new UnsupportedOperationException("Root node does not have an identifier");
+            }
+            return identifier;
+        }
+
+        @Override
+        public Optional<NormalizedNode<?, ?>> getDataBefore() {
+            return before;
+        }
+
+        @Override
+        public Optional<NormalizedNode<?, ?>> getDataAfter() {
+            return after;
+        }
+
+        @Override
+        public ModificationType getModificationType() {
+            if (!before.isPresent()) {
+                return after.isPresent() ? ModificationType.WRITE : ModificationType.UNMODIFIED;
+            }
+            if (!after.isPresent()) {
+                return ModificationType.DELETE;
+            }
+            if (before.get() == after.get()) {
+                return ModificationType.UNMODIFIED;
+            }
+            if (isContainer(before.get()) && isContainer(after.get())) {
+                return ModificationType.SUBTREE_MODIFIED;
+            }
+
+            return before.get().equals(after.get()) ? ModificationType.UNMODIFIED : ModificationType.WRITE;
+        }
+
+        @Override
+        public Collection<DataTreeCandidateNode> getChildNodes() {
+            if (before.isPresent() && after.isPresent() && before.get() == after.get()) {
+                return Collections.emptyList();
+            }
+
+            final Set<PathArgument> childIds = new LinkedHashSet<>();
+            addChildIds(before, childIds);
+            addChildIds(after, childIds);
+            if (childIds.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            final List<DataTreeCandidateNode> children = new ArrayList<>(childIds.size());
+            for (PathArgument childId : childIds) {
+                final DataTreeCandidateNode child = getModifiedChild(childId);
+                if (child.getModificationType() != ModificationType.UNMODIFIED) {
+                    children.add(child);
+                }
+            }
+
+            return children;
+        }
+
+        @Override
+        public DataTreeCandidateNode getModifiedChild(final PathArgument childId) {
+            final Optional<NormalizedNode<?, ?>> childBefore = getChild(before, childId);
+            final Optional<NormalizedNode<?, ?>> childAfter = getChild(after, childId);
+            return childBefore.isPresent() || childAfter.isPresent()
+                    ? new CoalescedNode(childId, childBefore, childAfter) : null;
+        }
+
+        private static boolean isContainer(final NormalizedNode<?, ?> node) {
+            // Entries of an unkeyed list are not uniquely identified, hence such a list is treated as a leaf
+            return node instanceof NormalizedNodeContainer && !(node instanceof UnkeyedListNode);
+        }
+
+        private static void addChildIds(final Optional<NormalizedNode<?, ?>> node, final Set<PathArgument> childIds) {
+            if (node.isPresent() && isContainer(node.get())) {
+                for (NormalizedNode<?, ?> child : ((NormalizedNodeContainer<?, ?, ?>) node.get()).getValue()) {
+                    childIds.add(child.getIdentifier());
+                }
+            }
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static Optional<NormalizedNode<?, ?>> getChild(final Optional<NormalizedNode<?, ?>> node,
+                final PathArgument childId) {
+            if (!node.isPresent() || !isContainer(node.get())) {
+                return Optional.absent();
+            }
+
+            return ((NormalizedNodeContainer) node.get()).getChild(childId);
+        }
+    }
+}
@@ -9,6 +9,8 @@ package org.opendaylight.controller.cluster.datastore.utils;
 
 import com.google.common.base.Optional;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
@@ -17,24 +19,36 @@ import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
+/**
+ * Combines data read from several sources, eg from each shard, into a single tree. Data may be merged in all at once
+ * or incrementally as each source's result arrives, in which case the result need not be retained once it has been
+ * merged.
+ */
 public class NormalizedNodeAggregator {
     private final YangInstanceIdentifier rootIdentifier;
-    private final List<Optional<NormalizedNode<?, ?>>> nodes;
     private final DataTree dataTree;
 
-    private NormalizedNodeAggregator(final YangInstanceIdentifier rootIdentifier, final List<Optional<NormalizedNode<?, ?>>> nodes,
+    private NormalizedNodeAggregator(final YangInstanceIdentifier rootIdentifier,
                              final SchemaContext schemaContext, LogicalDatastoreType logicalDatastoreType) {
         this.rootIdentifier = rootIdentifier;
-        this.nodes = nodes;
         this.dataTree = InMemoryDataTreeFactory.getInstance().create(
                 logicalDatastoreType == LogicalDatastoreType.CONFIGURATION ? TreeType.CONFIGURATION :
                     TreeType.OPERATIONAL);
         this.dataTree.setSchemaContext(schemaContext);
     }
 
+    /**
+     * Creates an aggregator into which data is merged incrementally with {@link #merge(NormalizedNode)}.
+     */
+    public static NormalizedNodeAggregator create(final YangInstanceIdentifier rootIdentifier,
+            final SchemaContext schemaContext, final LogicalDatastoreType logicalDatastoreType) {
+        return new NormalizedNodeAggregator(rootIdentifier, schemaContext, logicalDatastoreType);
+    }
+
     /**
      * Combine data from all the nodes in the list into a tree with root as rootIdentifier
      *
@@ -48,14 +62,65 @@ public class NormalizedNodeAggregator {
                                                           final List<Optional<NormalizedNode<?, ?>>> nodes,
                                                           final SchemaContext schemaContext,
                                                           LogicalDatastoreType logicalDatastoreType) throws DataValidationFailedException {
-        return new NormalizedNodeAggregator(rootIdentifier, nodes, schemaContext, logicalDatastoreType).aggregate();
+        return new NormalizedNodeAggregator(rootIdentifier, schemaContext, logicalDatastoreType).combine(nodes)
+                .getRootNode();
+    }
+
+    /**
+     * Combine data read from subtrees at and beneath rootIdentifier, eg from the shards of the prefixes beneath it,
+     * into a tree with root as rootIdentifier
+     *
+     * @param subtrees the data keyed by the path it was read from
+     * @param schemaContext
+     * @param logicalDatastoreType
+     * @return
+     * @throws DataValidationFailedException
+     */
+    public static Optional<NormalizedNode<?,?>> aggregateSubtrees(final YangInstanceIdentifier rootIdentifier,
+            final Map<YangInstanceIdentifier, NormalizedNode<?, ?>> subtrees, final SchemaContext schemaContext,
+            final LogicalDatastoreType logicalDatastoreType) throws DataValidationFailedException {
+        final NormalizedNodeAggregator aggregator = new NormalizedNodeAggregator(rootIdentifier, schemaContext,
+                logicalDatastoreType);
+        final DataTreeModification mod = aggregator.dataTree.takeSnapshot().newModification();
+
+        for (final Entry<YangInstanceIdentifier, NormalizedNode<?, ?>> e : subtrees.entrySet()) {
+            // Merge the subtree along with its parents, which need not be present in the other subtrees
+            final YangInstanceIdentifier topLevelPath = YangInstanceIdentifier.create(
+                    e.getKey().getPathArguments().get(0));
+            mod.merge(topLevelPath, ImmutableNodes.fromInstanceId(schemaContext, e.getKey(), e.getValue()));
+        }
+
+        mod.ready();
+        aggregator.dataTree.validate(mod);
+        aggregator.dataTree.commit(aggregator.dataTree.prepare(mod));
+
+        return aggregator.getRootNode();
     }
 
-    private Optional<NormalizedNode<?,?>> aggregate() throws DataValidationFailedException {
-        return combine().getRootNode();
+    /**
+     * Merges data into the tree with root as rootIdentifier. The tree is updated immediately, so the caller need not
+     * retain the data. This method may be called concurrently, eg from the callbacks of several reads.
+     *
+     * @param node the data to merge
+     * @throws DataValidationFailedException
+     */
+    public synchronized void merge(final NormalizedNode<?, ?> node) throws DataValidationFailedException {
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.merge(rootIdentifier, node);
+        mod.ready();
+        dataTree.validate(mod);
+        dataTree.commit(dataTree.prepare(mod));
+    }
+
+    /**
+     * Returns the tree with root as rootIdentifier combined from all the data merged so far.
+     */
+    public synchronized Optional<NormalizedNode<?, ?>> getAggregatedNode() {
+        return getRootNode();
     }
 
-    private NormalizedNodeAggregator combine() throws DataValidationFailedException {
+    private NormalizedNodeAggregator combine(final List<Optional<NormalizedNode<?, ?>>> nodes)
+            throws DataValidationFailedException {
         final DataTreeModification mod = dataTree.takeSnapshot().newModification();
 
         for (final Optional<NormalizedNode<?,?>> node : nodes) {
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.utils;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+
+/**
+ * Limits the depth of a NormalizedNode, eg to trim the result of a read before it is serialized. The node itself is
+ * at depth 0 and each level of data nodes beneath it increases the depth by one. The entries of a list or leaf-list
+ * are at the same depth as the list, choices and augmentations are transparent, and the key leaves of a list entry
+ * are always retained.
+ */
+public final class NormalizedNodeDepthLimiter {
+    private NormalizedNodeDepthLimiter() {
+    }
+
+    /**
+     * Returns a copy of the given node without the nodes deeper than maxDepth, or the node itself if it is no deeper.
+     *
+     * @param node the node to limit
+     * @param maxDepth the maximum depth of the nodes to retain, or a negative value for no limit
+     */
+    public static NormalizedNode<?, ?> limitDepth(final NormalizedNode<?, ?> node, final int maxDepth) {
+        if (maxDepth < 0) {
+            return node;
+        }
+
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(new DepthLimitingStreamWriter(
+                ImmutableNormalizedNodeStreamWriter.from(result), maxDepth))) {
+            writer.write(node);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(String.format("Error limiting the depth of %s", node), e);
+        }
+
+        return result.getResult();
+    }
+
+    /**
+     * The state of a node being written: the depth of its children, whether it was skipped and, for a list entry,
+     * its keys.
+     */
+    private static final class Frame {
+        static final Frame SKIPPED = new Frame(-1, Collections.<QName, Object>emptyMap());
+
+        final int childDepth;
+        final Map<QName, Object> keys;
+
+        Frame(final int childDepth, final Map<QName, Object> keys) {
+            this.childDepth = childDepth;
+            this.keys = keys;
+        }
+    }
+
+    private static final class DepthLimitingStreamWriter implements NormalizedNodeStreamWriter {
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private final NormalizedNodeStreamWriter delegate;
+        private final int maxDepth;
+
+        DepthLimitingStreamWriter(final NormalizedNodeStreamWriter delegate, final int maxDepth) {
+            this.delegate = delegate;
+            this.maxDepth = maxDepth;
+        }
+
+        private int depth() {
+            return stack.isEmpty() ? 0 : stack.peek().childDepth;
+        }
+
+        private boolean isWithinDepth() {
+            final int depth = depth();
+            return depth >= 0 && depth <= maxDepth;
+        }
+
+        private boolean isKey(final NodeIdentifier name) {
+            return !stack.isEmpty() && stack.peek().keys.containsKey(name.getNodeType());
+        }
+
+        /**
+         * Pushes the frame for a node whose children are nested one level deeper, returning true if the node is
+         * written.
+         */
+        private boolean startDataNode() {
+            if (!isWithinDepth()) {
+                stack.push(Frame.SKIPPED);
+                return false;
+            }
+
+            stack.push(new Frame(depth() + 1, Collections.<QName, Object>emptyMap()));
+            return true;
+        }
+
+        /**
+         * Pushes the frame for a node whose children are at the same level, eg a list or a choice, returning true
+         * if the node is written.
+         */
+        private boolean startTransparentNode() {
+            if (!isWithinDepth()) {
+                stack.push(Frame.SKIPPED);
+                return false;
+            }
+
+            stack.push(new Frame(depth(), Collections.<QName, Object>emptyMap()));
+            return true;
+        }
+
+        @Override
+        public void leafNode(final NodeIdentifier name, final Object value) throws IOException {
+            if (isWithinDepth() || isKey(name)) {
+                delegate.leafNode(name, value);
+            }
+        }
+
+        @Override
+        public void startLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            if (startTransparentNode()) {
+                delegate.startLeafSet(name, childSizeHint);
+            }
+        }
+
+        @Override
+        public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            if (startTransparentNode()) {
+                delegate.startOrderedLeafSet(name, childSizeHint);
+            }
+        }
+
+        @Override
+        public void leafSetEntryNode(final QName name, final Object value) throws IOException {
+            if (isWithinDepth()) {
+                delegate.leafSetEntryNode(name, value);
+            }
+        }
+
+        @Override
+        public void startContainerNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            if (startDataNode()) {
+                delegate.startContainerNode(name, childSizeHint);
+            }
+        }
+
+        @Override
+        public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint)
+                throws IOException {
+            if (startDataNode()) {
+                delegate.startYangModeledAnyXmlNode(name, childSizeHint);
+            }
+        }
+
+        @Override
+        public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            if (startTransparentNode()) {
+                delegate.startUnkeyedList(name, childSizeHint);
+            }
+        }
+
+        @Override
+        public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            if (startDataNode()) {
+                delegate.startUnkeyedListItem(name, childSizeHint);
+            }
+        }
+
+        @Override
+        public void startMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            if (startTransparentNode()) {
+                delegate.startMapNode(name, childSizeHint);
+            }
+        }
+
+        @Override
+        public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint)
+                throws IOException {
+            if (!isWithinDepth()) {
+                stack.push(Frame.SKIPPED);
+                return;
+            }
+
+            stack.push(new Frame(depth() + 1, identifier.getKeyValues()));
+            delegate.startMapEntryNode(identifier, childSizeHint);
+        }
+
+        @Override
+        public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            if (startTransparentNode()) {
+                delegate.startOrderedMapNode(name, childSizeHint);
+            }
+        }
+
+        @Override
+        public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            if (startTransparentNode()) {
+                delegate.startChoiceNode(name, childSizeHint);
+            }
+        }
+
+        @Override
+        public void startAugmentationNode(final AugmentationIdentifier identifier) throws IOException {
+            if (startTransparentNode()) {
+                delegate.startAugmentationNode(identifier);
+            }
+        }
+
+        @Override
+        public void anyxmlNode(final NodeIdentifier name, final Object value) throws IOException {
+            if (isWithinDepth()) {
+                delegate.anyxmlNode(name, value);
+            }
+        }
+
+        @Override
+        public void endNode() throws IOException {
+            if (stack.pop() != Frame.SKIPPED) {
+                delegate.endNode();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+    }
+}
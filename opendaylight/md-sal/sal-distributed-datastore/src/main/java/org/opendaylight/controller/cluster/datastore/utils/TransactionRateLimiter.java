@@ -8,124 +8,291 @@
 
 package org.opendaylight.controller.cluster.datastore.utils;
 
-import com.codahale.metrics.Snapshot;
-import com.codahale.metrics.Timer;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.base.Ticker;
 import com.google.common.util.concurrent.RateLimiter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import org.opendaylight.controller.cluster.datastore.DatastoreContext;
+import org.opendaylight.controller.cluster.common.actor.MeteringBehavior;
+import org.opendaylight.controller.cluster.datastore.Shard;
+import org.opendaylight.controller.cluster.datastore.messages.PrimaryShardInfo;
+import org.opendaylight.controller.cluster.reporting.MetricsReporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import scala.concurrent.Future;
+import scala.util.Try;
 
+/**
+ * Limits the rate at which transactions are admitted, per shard, using an additive-increase/multiplicative-decrease
+ * (AIMD) scheme. Each shard's rate limit is increased, at most once per adjustment interval, while commits on the
+ * shard complete without signs of congestion and decreased, at most once per commit round trip, when the shard
+ * appears congested, ie its commit latency rises well above its baseline latency or, for a local shard, its commit
+ * queue is backed up. The rate limit is only increased up to a multiple of the commit rate actually observed, so it
+ * does not grow without bound while the shard is lightly loaded.
+ *
+ * <p>
+ * A permit for a shard is acquired when a transaction first accesses the shard. Transaction creation is limited
+ * to the highest of the shard rate limits so it is not throttled by a single congested shard.
+ */
 public class TransactionRateLimiter {
     private static final Logger LOG = LoggerFactory.getLogger(TransactionRateLimiter.class);
 
-    private final ActorContext actorContext;
-    private final long commitTimeoutInSeconds;
-    private final String dataStoreName;
+    // The factor by which a shard's rate limit is decreased when it is congested
+    private static final double DECREASE_FACTOR = 0.75;
+
+    // The amount by which a shard's rate limit is increased per adjustment interval without congestion
+    private static final double INCREASE = 10.0;
+
+    // The minimum adjustment interval - the interval is the shard's commit round trip if that is longer
+    private static final long MIN_INCREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // A shard's rate limit is not increased beyond this multiple of its observed commit rate
+    private static final double RATE_HEADROOM = 2.0;
+
+    private static final double MIN_RATE_LIMIT = 1.0;
+
+    // A commit latency this many times the shard's baseline latency is considered congestion
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    // Commit latencies below this are never considered congestion
+    private static final long MIN_CONGESTED_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    // The number of transactions queued in a local shard's commit queue above which it is considered congested
+    private static final int MAX_QUEUE_DEPTH = 100;
+
+    // The weight given to a new sample in the smoothed latency
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    // The weight given to a new, higher sample in the baseline latency, which tracks the lowest recent latency
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final ConcurrentMap<String, ShardRateLimit> shardRateLimits = new ConcurrentHashMap<>();
     private final RateLimiter txRateLimiter;
-    private final AtomicLong acquireCount = new AtomicLong();
+    private final double initialRateLimit;
+    private final Ticker ticker;
+    private final Function<String, Integer> shardQueueDepth;
 
-    private volatile long pollOnCount = 1;
+    public TransactionRateLimiter(final ActorContext actorContext) {
+        this(actorContext, Ticker.systemTicker(), newLocalShardQueueDepth(actorContext));
+    }
 
-    public TransactionRateLimiter(ActorContext actorContext){
-        this.actorContext = actorContext;
-        this.commitTimeoutInSeconds = actorContext.getDatastoreContext().getShardTransactionCommitTimeoutInSeconds();
-        this.dataStoreName = actorContext.getDataStoreName();
-        this.txRateLimiter = RateLimiter.create(actorContext.getDatastoreContext().getTransactionCreationInitialRateLimit());
+    @VisibleForTesting
+    TransactionRateLimiter(final ActorContext actorContext, final Ticker ticker,
+            final Function<String, Integer> shardQueueDepth) {
+        this.initialRateLimit = actorContext.getDatastoreContext().getTransactionCreationInitialRateLimit();
+        this.txRateLimiter = RateLimiter.create(initialRateLimit);
+        this.ticker = ticker;
+        this.shardQueueDepth = shardQueueDepth;
     }
 
-    public void acquire(){
-        adjustRateLimit();
+    /**
+     * Acquires a permit to create a transaction, blocking if necessary.
+     */
+    public void acquire() {
         txRateLimiter.acquire();
     }
 
-    private void adjustRateLimit() {
-        final long count = acquireCount.incrementAndGet();
-        if(count >= pollOnCount) {
-            final Timer commitTimer = actorContext.getOperationTimer(ActorContext.COMMIT);
-            double newRateLimit = calculateNewRateLimit(commitTimer, commitTimeoutInSeconds);
+    /**
+     * Acquires a permit for a transaction to access the given shard, blocking if necessary.
+     */
+    public void acquire(final String shardName) {
+        getShardRateLimit(shardName).acquire();
+    }
 
-            if (newRateLimit < 1.0) {
-                newRateLimit = getRateLimitFromOtherDataStores();
-            }
+    /**
+     * Notifies that a transaction commit on the given shard completed successfully after the given time.
+     */
+    public void commitCompleted(final String shardName, final long elapsedNanos) {
+        final ShardRateLimit rateLimit = getShardRateLimit(shardName);
+        final Integer queueDepth = shardQueueDepth.apply(shardName);
+        if(rateLimit.update(elapsedNanos, queueDepth != null ? queueDepth : 0, ticker.read())) {
+            LOG.debug("Shard {} transaction rate limit adjusted to {}", shardName, rateLimit.getRate());
 
-            if (newRateLimit >= 1.0) {
-                txRateLimiter.setRate(newRateLimit);
-                pollOnCount = count + ((long) newRateLimit/2);
+            double maxRate = MIN_RATE_LIMIT;
+            for(ShardRateLimit r: shardRateLimits.values()) {
+                maxRate = Math.max(maxRate, r.getRate());
             }
+
+            txRateLimiter.setRate(maxRate);
         }
     }
 
-    public double getTxCreationLimit(){
+    public double getTxCreationLimit() {
         return txRateLimiter.getRate();
     }
 
-    private double getRateLimitFromOtherDataStores(){
-        // Since we have no rate data for unused Tx's data store, adjust to the rate from another
-        // data store that does have rate data.
-        for(String name: DatastoreContext.getGlobalDatastoreNames()) {
-            if(name.equals(this.dataStoreName)) {
-                continue;
-            }
+    /**
+     * Returns the current rate limit for each shard that has been accessed.
+     */
+    public Map<String, Double> getShardRateLimits() {
+        final Map<String, Double> rates = new TreeMap<>();
+        for(Map.Entry<String, ShardRateLimit> e: shardRateLimits.entrySet()) {
+            rates.put(e.getKey(), e.getValue().getRate());
+        }
 
-            double newRateLimit = calculateNewRateLimit(actorContext.getOperationTimer(name, ActorContext.COMMIT),
-                    this.commitTimeoutInSeconds);
-            if(newRateLimit > 0.0) {
-                LOG.debug("On unused Tx - data Store {} commit rateLimit adjusted to {}",
-                        this.dataStoreName, newRateLimit);
+        return rates;
+    }
 
-                return newRateLimit;
-            }
+    /**
+     * Returns the number of transactions that had to wait for a permit for each shard that has been accessed.
+     */
+    public Map<String, Long> getShardThrottledCounts() {
+        final Map<String, Long> counts = new TreeMap<>();
+        for(Map.Entry<String, ShardRateLimit> e: shardRateLimits.entrySet()) {
+            counts.put(e.getKey(), e.getValue().getThrottledCount());
         }
 
-        return -1.0D;
+        return counts;
     }
 
-    private static double calculateNewRateLimit(Timer commitTimer, long commitTimeoutInSeconds) {
-        if(commitTimer == null) {
-            // This can happen in unit tests.
-            return 0;
+    private ShardRateLimit getShardRateLimit(final String shardName) {
+        ShardRateLimit rateLimit = shardRateLimits.get(shardName);
+        if(rateLimit == null) {
+            final ShardRateLimit newRateLimit = new ShardRateLimit(initialRateLimit);
+            rateLimit = shardRateLimits.putIfAbsent(shardName, newRateLimit);
+            if(rateLimit == null) {
+                rateLimit = newRateLimit;
+            }
         }
 
-        Snapshot timerSnapshot = commitTimer.getSnapshot();
-        double newRateLimit = 0;
+        return rateLimit;
+    }
 
-        long commitTimeoutInNanos = TimeUnit.SECONDS.toNanos(commitTimeoutInSeconds);
+    /**
+     * Returns a Function which obtains the number of transactions queued in a local shard's commit queue from the
+     * gauge registered by the shard. The queue depth of remote shards is unknown but is reflected in their commit
+     * latency.
+     */
+    private static Function<String, Integer> newLocalShardQueueDepth(final ActorContext actorContext) {
+        final MetricRegistry registry = MetricsReporter.getInstance(MeteringBehavior.DOMAIN).getMetricsRegistry();
+        return shardName -> {
+            final Future<PrimaryShardInfo> future = actorContext.getPrimaryShardInfoCache().getIfPresent(shardName);
+            if(future == null || !future.isCompleted()) {
+                return null;
+            }
 
-        // Find the time that it takes for transactions to get executed in every 10th percentile
-        // Compute the rate limit for that percentile and sum it up
-        for(int i=1;i<=10;i++){
-            // Get the amount of time transactions take in the i*10th percentile
-            double percentileTimeInNanos = timerSnapshot.getValue(i * 0.1D);
+            final Try<PrimaryShardInfo> info = future.value().get();
+            if(info.isFailure() || !info.get().getLocalShardDataTree().isPresent()) {
+                return null;
+            }
 
-            if(percentileTimeInNanos > 0) {
-                // Figure out the rate limit for the i*10th percentile in nanos
-                double percentileRateLimit = (commitTimeoutInNanos / percentileTimeInNanos);
+            final String path = info.get().getPrimaryShardActor().pathString();
+            return gaugeValue(registry, MetricRegistry.name(path, Shard.COMMIT_QUEUE_SIZE));
+        };
+    }
+
+    private static int gaugeValue(final MetricRegistry registry, final String name) {
+        final Gauge<?> gauge = registry.getGauges().get(name);
+        return gauge != null && gauge.getValue() instanceof Number ? ((Number) gauge.getValue()).intValue() : 0;
+    }
 
-                // Add the percentileRateLimit to the total rate limit
-                newRateLimit += percentileRateLimit;
+    /**
+     * The AIMD state for a shard.
+     */
+    private static class ShardRateLimit {
+        private final RateLimiter rateLimiter;
+        private final AtomicLong throttledCount = new AtomicLong();
+        private final double initialRate;
+        private double rate;
+        private double smoothedLatency = -1;
+        private double baselineLatency = -1;
+        private long lastDecreaseTime;
+        private boolean decreased;
+        private long intervalStartTime = -1;
+        private long intervalCommits;
+
+        ShardRateLimit(final double initialRate) {
+            this.initialRate = initialRate;
+            rate = initialRate;
+            rateLimiter = RateLimiter.create(initialRate);
+        }
+
+        void acquire() {
+            if(rateLimiter.acquire() > 0) {
+                throttledCount.incrementAndGet();
             }
         }
 
-        // Compute the rate limit per second
-        return newRateLimit/(commitTimeoutInSeconds*10);
-    }
+        double getRate() {
+            return rateLimiter.getRate();
+        }
 
-    @VisibleForTesting
-    long getPollOnCount() {
-        return pollOnCount;
-    }
+        long getThrottledCount() {
+            return throttledCount.get();
+        }
 
-    @VisibleForTesting
-    void setPollOnCount(long value){
-        pollOnCount = value;
-    }
+        /**
+         * Updates the rate limit with a commit latency sample.
+         *
+         * @return true if the rate limit was changed
+         */
+        synchronized boolean update(final long latencyNanos, final int queueDepth, final long now) {
+            if(intervalStartTime < 0) {
+                intervalStartTime = now;
+            }
+            intervalCommits++;
 
-    @VisibleForTesting
-    void setAcquireCount(long value){
-        acquireCount.set(value);
-    }
+            if(smoothedLatency < 0) {
+                smoothedLatency = latencyNanos;
+                baselineLatency = latencyNanos;
+            } else {
+                smoothedLatency += (latencyNanos - smoothedLatency) * LATENCY_SMOOTHING;
+                baselineLatency = latencyNanos < baselineLatency ? latencyNanos :
+                    baselineLatency + (latencyNanos - baselineLatency) * BASELINE_DRIFT;
+            }
 
+            final boolean congested = queueDepth > MAX_QUEUE_DEPTH || smoothedLatency >
+                    Math.max(baselineLatency * LATENCY_TOLERANCE, MIN_CONGESTED_LATENCY_NANOS);
+
+            final double newRate;
+            if(congested) {
+                // Only back off once per round trip so commits that were already in flight when congestion started
+                // don't collapse the rate.
+                if(decreased && now - lastDecreaseTime < smoothedLatency) {
+                    return false;
+                }
+
+                decreased = true;
+                lastDecreaseTime = now;
+                startInterval(now);
+                newRate = Math.max(MIN_RATE_LIMIT, rate * DECREASE_FACTOR);
+            } else {
+                // Increase once per interval rather than per commit, as the number of commits grows with the rate
+                final long elapsed = now - intervalStartTime;
+                if(elapsed < Math.max(smoothedLatency, MIN_INCREASE_INTERVAL_NANOS)) {
+                    return false;
+                }
+
+                final double observedRate = intervalCommits * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+                startInterval(now);
+
+                final double maxRate = Math.max(initialRate, observedRate * RATE_HEADROOM);
+                if(rate >= maxRate) {
+                    return false;
+                }
+
+                newRate = Math.min(rate + INCREASE, maxRate);
+            }
+
+            if(newRate == rate) {
+                return false;
+            }
+
+            rate = newRate;
+            rateLimiter.setRate(newRate);
+            return true;
+        }
+
+        private void startInterval(final long now) {
+            intervalStartTime = now;
+            intervalCommits = 0;
+        }
+    }
 }
@@ -92,6 +92,12 @@ public class DistributedConfigDataStoreProviderModule extends
                 .transactionDebugContextEnabled(props.getTransactionDebugContextEnabled())
                 .customRaftPolicyImplementation(props.getCustomRaftPolicyImplementation())
                 .shardSnapshotChunkSize(props.getShardSnapshotChunkSize().getValue().intValue())
+                .shardMaxInFlightAppendEntries(props.getShardMaxInFlightAppendEntries().getValue().intValue())
+                .shardJournalGroupCommitEnabled(props.getShardJournalGroupCommitEnabled())
+                .shardOffHeapReplicatedLogEnabled(props.getShardOffHeapReplicatedLogEnabled())
+                .maxTreeChangeListenerLag(props.getMaxTreeChangeListenerLag().intValue())
+                .shardCommitBatchSize(props.getShardCommitBatchSize().getValue().intValue())
+                .shardMaxSpeculativeCommits(props.getShardMaxSpeculativeCommits().intValue())
                 .build();
     }
 
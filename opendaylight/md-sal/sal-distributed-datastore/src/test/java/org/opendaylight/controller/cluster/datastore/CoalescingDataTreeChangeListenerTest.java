@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import akka.testkit.JavaTestKit;
+import com.google.common.base.Optional;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.opendaylight.controller.cluster.datastore.messages.DataTreeChanged;
+import org.opendaylight.controller.cluster.datastore.messages.DataTreeChangedReply;
+import org.opendaylight.controller.md.cluster.datastore.model.TestModel;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+public class CoalescingDataTreeChangeListenerTest extends AbstractActorTest {
+
+    private static DataTreeCandidate mockCandidate(final YangInstanceIdentifier rootPath,
+            final NormalizedNode<?, ?> before, final NormalizedNode<?, ?> after) {
+        final DataTreeCandidateNode rootNode = mock(DataTreeCandidateNode.class);
+        doReturn(Optional.fromNullable(before)).when(rootNode).getDataBefore();
+        doReturn(Optional.fromNullable(after)).when(rootNode).getDataAfter();
+
+        final DataTreeCandidate candidate = mock(DataTreeCandidate.class);
+        doReturn(rootPath).when(candidate).getRootPath();
+        doReturn(rootNode).when(candidate).getRootNode();
+        return candidate;
+    }
+
+    @Test
+    public void testChangesAreForwardedWhileListenerKeepsUp() {
+        new JavaTestKit(getSystem()) {{
+            final CoalescingDataTreeChangeListener listener = new CoalescingDataTreeChangeListener(
+                    getSystem().actorSelection(getRef().path()), 2, getSystem().dispatcher());
+
+            final DataTreeCandidate candidate1 = mockCandidate(TestModel.TEST_PATH, null, null);
+            final DataTreeCandidate candidate2 = mockCandidate(TestModel.TEST2_PATH, null, null);
+            listener.onDataTreeChanged(Collections.singletonList(candidate1));
+            listener.onDataTreeChanged(Collections.singletonList(candidate2));
+
+            assertSame(candidate1, expectMsgClass(DataTreeChanged.class).getChanges().iterator().next());
+            assertSame(candidate2, expectMsgClass(DataTreeChanged.class).getChanges().iterator().next());
+            assertEquals(2, listener.getOutstandingNotifications());
+            assertEquals(0, listener.getPendingChanges());
+            assertEquals(0, listener.getCoalescedChanges());
+        }};
+    }
+
+    @Test
+    public void testChangesAreCoalescedWhileListenerLags() {
+        new JavaTestKit(getSystem()) {{
+            final CoalescingDataTreeChangeListener listener = new CoalescingDataTreeChangeListener(
+                    getSystem().actorSelection(getRef().path()), 1, getSystem().dispatcher());
+
+            final NormalizedNode<?, ?> node1 = ImmutableNodes.containerNode(TestModel.TEST_QNAME);
+            final NormalizedNode<?, ?> node2 = ImmutableNodes.containerNode(TestModel.TEST_QNAME);
+            final NormalizedNode<?, ?> node3 = ImmutableNodes.containerNode(TestModel.TEST_QNAME);
+
+            final DataTreeCandidate candidate1 = mockCandidate(TestModel.TEST_PATH, null, node1);
+            listener.onDataTreeChanged(Collections.singletonList(candidate1));
+            assertSame(candidate1, expectMsgClass(DataTreeChanged.class).getChanges().iterator().next());
+
+            listener.onDataTreeChanged(Arrays.asList(mockCandidate(TestModel.TEST_PATH, node1, node2)));
+            listener.onDataTreeChanged(Arrays.asList(mockCandidate(TestModel.TEST_PATH, node2, node3)));
+            expectNoMsg(duration("200 milliseconds"));
+            assertEquals(1, listener.getOutstandingNotifications());
+            assertEquals(1, listener.getPendingChanges());
+            assertEquals(1, listener.getCoalescedChanges());
+
+            reply(DataTreeChangedReply.getInstance());
+
+            final DataTreeChanged coalesced = expectMsgClass(DataTreeChanged.class);
+            assertEquals(1, coalesced.getChanges().size());
+
+            final DataTreeCandidate candidate = coalesced.getChanges().iterator().next();
+            assertEquals(TestModel.TEST_PATH, candidate.getRootPath());
+            assertSame(node1, candidate.getRootNode().getDataBefore().get());
+            assertSame(node3, candidate.getRootNode().getDataAfter().get());
+            assertEquals(ModificationType.SUBTREE_MODIFIED, candidate.getRootNode().getModificationType());
+            assertEquals(0, listener.getPendingChanges());
+            assertEquals(1, listener.getCoalescedChanges());
+
+            reply(DataTreeChangedReply.getInstance());
+            expectNoMsg(duration("200 milliseconds"));
+        }};
+    }
+
+    @Test
+    public void testHeldBackChangesAreBoundedPerRootPath() {
+        new JavaTestKit(getSystem()) {{
+            final CoalescingDataTreeChangeListener listener = new CoalescingDataTreeChangeListener(
+                    getSystem().actorSelection(getRef().path()), 1, getSystem().dispatcher());
+
+            listener.onDataTreeChanged(Collections.singletonList(mockCandidate(TestModel.TEST_PATH, null, null)));
+            expectMsgClass(DataTreeChanged.class);
+
+            final NormalizedNode<?, ?> first = ImmutableNodes.containerNode(TestModel.TEST_QNAME);
+            NormalizedNode<?, ?> last = first;
+            for (int i = 0; i < 100; i++) {
+                final NormalizedNode<?, ?> next = ImmutableNodes.containerNode(TestModel.TEST_QNAME);
+                listener.onDataTreeChanged(Arrays.asList(mockCandidate(TestModel.TEST_PATH, last, next),
+                        mockCandidate(TestModel.TEST2_PATH, null, null)));
+                last = next;
+            }
+
+            assertEquals(2, listener.getPendingChanges());
+            assertEquals(198, listener.getCoalescedChanges());
+
+            reply(DataTreeChangedReply.getInstance());
+
+            final DataTreeChanged coalesced = expectMsgClass(DataTreeChanged.class);
+            assertEquals(2, coalesced.getChanges().size());
+
+            final DataTreeCandidate candidate = coalesced.getChanges().iterator().next();
+            assertEquals(TestModel.TEST_PATH, candidate.getRootPath());
+            assertSame(first, candidate.getRootNode().getDataBefore().get());
+            assertSame(last, candidate.getRootNode().getDataAfter().get());
+            assertEquals(0, listener.getPendingChanges());
+        }};
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.opendaylight.controller.md.cluster.datastore.model.TestModel;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+public class CommitBatchTest {
+
+    @Test
+    public void testModifiedPaths() {
+        final ShardDataTree dataTree = new ShardDataTree(TestModel.createTestContext(), TreeType.OPERATIONAL);
+        final DataTreeModification modification = dataTree.newModification();
+        modification.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        modification.delete(TestModel.TEST2_PATH);
+        modification.ready();
+
+        assertEquals(ImmutableSet.of(TestModel.TEST_PATH, TestModel.TEST2_PATH),
+                ImmutableSet.copyOf(CommitBatch.modifiedPaths(modification)));
+    }
+
+    @Test
+    public void testOverlaps() {
+        assertTrue(CommitBatch.overlaps(Collections.singleton(TestModel.TEST_PATH),
+                Collections.singleton(TestModel.outerEntryPath(1))));
+        assertTrue(CommitBatch.overlaps(Collections.singleton(TestModel.outerEntryPath(1)),
+                Collections.singleton(TestModel.OUTER_LIST_PATH)));
+        assertTrue(CommitBatch.overlaps(Arrays.asList(TestModel.outerEntryPath(1), TestModel.TEST2_PATH),
+                Collections.singleton(TestModel.TEST2_PATH)));
+        assertFalse(CommitBatch.overlaps(Collections.singleton(TestModel.outerEntryPath(1)),
+                Arrays.asList(TestModel.outerEntryPath(2), TestModel.TEST2_PATH)));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import com.google.common.collect.Iterables;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.cluster.datastore.model.TestModel;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+
+public class DataTreeChangeFilterTest {
+    private DataTree dataTree;
+    private Collection<DataTreeCandidate> changes;
+
+    @Before
+    public void setUp() throws DataValidationFailedException {
+        dataTree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        dataTree.setSchemaContext(TestModel.createTestContext());
+
+        DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, TestModel.testNodeWithOuter(1, 2));
+        commit(mod);
+
+        // Add entry 3, delete entry 1 and add an inner list to entry 2
+        mod = dataTree.takeSnapshot().newModification();
+        mod.write(TestModel.outerEntryPath(3), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME,
+                TestModel.ID_QNAME, 3));
+        mod.delete(TestModel.outerEntryPath(1));
+        mod.write(TestModel.outerEntryPath(2), TestModel.outerNodeEntry(2, TestModel.innerNode("one")));
+        changes = Collections.singletonList(commit(mod));
+    }
+
+    private DataTreeCandidate commit(final DataTreeModification mod) throws DataValidationFailedException {
+        mod.ready();
+        dataTree.validate(mod);
+        final DataTreeCandidate candidate = dataTree.prepare(mod);
+        dataTree.commit(candidate);
+        return candidate;
+    }
+
+    private static DataTreeCandidateNode outerList(final Collection<DataTreeCandidate> filtered) {
+        assertEquals(1, filtered.size());
+        final DataTreeCandidateNode test = Iterables.getOnlyElement(filtered).getRootNode().getModifiedChild(
+                new NodeIdentifier(TestModel.TEST_QNAME));
+        return test == null ? null : test.getModifiedChild(new NodeIdentifier(TestModel.OUTER_LIST_QNAME));
+    }
+
+    @Test
+    public void testAcceptAll() {
+        assertSame(changes, DataTreeChangeFilter.ACCEPT_ALL.filter(changes));
+    }
+
+    @Test
+    public void testModificationTypes() {
+        final DataTreeChangeFilter filter = DataTreeChangeFilter.builder()
+                .modificationTypes(EnumSet.of(ModificationType.DELETE)).build();
+
+        final DataTreeCandidateNode outerList = outerList(filter.filter(changes));
+        assertEquals(1, outerList.getChildNodes().size());
+        assertEquals(ModificationType.DELETE, outerList.getModifiedChild(TestModel.outerEntryKey(1))
+                .getModificationType());
+        assertNull(outerList.getModifiedChild(TestModel.outerEntryKey(3)));
+    }
+
+    @Test
+    public void testMaxDepth() {
+        // The root is at depth 0, test at 1, outer-list and its entries at 2 and 3
+        final DataTreeChangeFilter filter = DataTreeChangeFilter.builder().maxDepth(2).build();
+
+        final DataTreeCandidateNode outerList = outerList(filter.filter(changes));
+        assertEquals(ModificationType.SUBTREE_MODIFIED, outerList.getModificationType());
+        assertTrue(outerList.getChildNodes().isEmpty());
+    }
+
+    @Test
+    public void testNodeTypes() {
+        final DataTreeChangeFilter filter = DataTreeChangeFilter.builder().nodeType(TestModel.INNER_LIST_QNAME)
+                .build();
+
+        final DataTreeCandidateNode outerList = outerList(filter.filter(changes));
+        assertEquals(1, outerList.getChildNodes().size());
+
+        final DataTreeCandidateNode outerEntry = outerList.getModifiedChild(TestModel.outerEntryKey(2));
+        assertEquals(1, outerEntry.getChildNodes().size());
+        assertEquals(new NodeIdentifier(TestModel.INNER_LIST_QNAME),
+                Iterables.getOnlyElement(outerEntry.getChildNodes()).getIdentifier());
+    }
+
+    @Test
+    public void testNoMatchingNodes() {
+        final DataTreeChangeFilter filter = DataTreeChangeFilter.builder().nodeType(TestModel.OUTER_CONTAINER_QNAME)
+                .build();
+
+        assertTrue(filter.filter(changes).isEmpty());
+    }
+
+    @Test
+    public void testSerialization() {
+        final DataTreeChangeFilter expected = DataTreeChangeFilter.builder()
+                .modificationTypes(EnumSet.of(ModificationType.WRITE, ModificationType.DELETE)).maxDepth(3)
+                .nodeType(TestModel.INNER_LIST_QNAME).nodeType(TestModel.NAME_QNAME).build();
+
+        final DataTreeChangeFilter actual = (DataTreeChangeFilter) SerializationUtils.clone(expected);
+        assertEquals(expected, actual);
+        assertEquals(expected.getModificationTypes(), actual.getModificationTypes());
+        assertEquals(expected.getMaxDepth(), actual.getMaxDepth());
+        assertEquals(expected.getNodeTypes(), actual.getNodeTypes());
+    }
+}
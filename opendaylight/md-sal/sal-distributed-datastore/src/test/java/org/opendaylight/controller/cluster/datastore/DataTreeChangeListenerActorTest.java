@@ -58,15 +58,11 @@ public class DataTreeChangeListenerActorTest extends AbstractActorTest {
             subject.tell(new DataTreeChanged(mockCandidates),
                     getRef());
 
-            new Within(duration("1 seconds")) {
-                @Override
-                protected void run() {
-                    expectNoMsg();
+            // The dropped notification is still acknowledged
+            expectMsgClass(DataTreeChangedReply.class);
 
-                    Mockito.verify(mockListener, Mockito.never()).onDataTreeChanged(
-                            Matchers.anyCollectionOf(DataTreeCandidate.class));
-                }
-            };
+            Mockito.verify(mockListener, Mockito.never()).onDataTreeChanged(
+                    Matchers.anyCollectionOf(DataTreeCandidate.class));
         }};
     }
 
@@ -64,6 +64,12 @@ public class DatastoreContextTest {
         assertEquals(InMemoryDOMDataStoreConfigProperties.DEFAULT_MAX_DATA_STORE_EXECUTOR_QUEUE_SIZE,
                 context.getDataStoreProperties().getMaxDataStoreExecutorQueueSize());
         assertEquals(DEFAULT_SHARD_SNAPSHOT_CHUNK_SIZE, context.getShardSnapshotChunkSize());
+        assertEquals(DatastoreContext.DEFAULT_SHARD_MAX_IN_FLIGHT_APPEND_ENTRIES, context.getShardMaxInFlightAppendEntries());
+        assertEquals(DatastoreContext.DEFAULT_SHARD_JOURNAL_GROUP_COMMIT_ENABLED, context.isShardJournalGroupCommitEnabled());
+        assertEquals(DatastoreContext.DEFAULT_SHARD_OFF_HEAP_REPLICATED_LOG_ENABLED, context.isShardOffHeapReplicatedLogEnabled());
+        assertEquals(DatastoreContext.DEFAULT_MAX_TREE_CHANGE_LISTENER_LAG, context.getMaxTreeChangeListenerLag());
+        assertEquals(DatastoreContext.DEFAULT_SHARD_COMMIT_BATCH_SIZE, context.getShardCommitBatchSize());
+        assertEquals(DatastoreContext.DEFAULT_SHARD_MAX_SPECULATIVE_COMMITS, context.getShardMaxSpeculativeCommits());
     }
 
     @Test
@@ -99,6 +105,12 @@ public class DatastoreContextTest {
         builder.maxShardDataStoreExecutorQueueSize(
                 InMemoryDOMDataStoreConfigProperties.DEFAULT_MAX_DATA_STORE_EXECUTOR_QUEUE_SIZE + 1);
         builder.shardSnapshotChunkSize(DEFAULT_SHARD_SNAPSHOT_CHUNK_SIZE+1);
+        builder.shardMaxInFlightAppendEntries(DatastoreContext.DEFAULT_SHARD_MAX_IN_FLIGHT_APPEND_ENTRIES + 1);
+        builder.shardJournalGroupCommitEnabled(!DatastoreContext.DEFAULT_SHARD_JOURNAL_GROUP_COMMIT_ENABLED);
+        builder.shardOffHeapReplicatedLogEnabled(!DatastoreContext.DEFAULT_SHARD_OFF_HEAP_REPLICATED_LOG_ENABLED);
+        builder.maxTreeChangeListenerLag(DatastoreContext.DEFAULT_MAX_TREE_CHANGE_LISTENER_LAG + 1);
+        builder.shardCommitBatchSize(DatastoreContext.DEFAULT_SHARD_COMMIT_BATCH_SIZE + 1);
+        builder.shardMaxSpeculativeCommits(DatastoreContext.DEFAULT_SHARD_MAX_SPECULATIVE_COMMITS + 1);
 
         DatastoreContext context = builder.build();
 
@@ -149,5 +161,11 @@ public class DatastoreContextTest {
         assertEquals(InMemoryDOMDataStoreConfigProperties.DEFAULT_MAX_DATA_STORE_EXECUTOR_QUEUE_SIZE + 1,
                 context.getDataStoreProperties().getMaxDataStoreExecutorQueueSize());
         assertEquals(DEFAULT_SHARD_SNAPSHOT_CHUNK_SIZE + 1, context.getShardSnapshotChunkSize());
+        assertEquals(DatastoreContext.DEFAULT_SHARD_MAX_IN_FLIGHT_APPEND_ENTRIES + 1, context.getShardMaxInFlightAppendEntries());
+        assertEquals(!DatastoreContext.DEFAULT_SHARD_JOURNAL_GROUP_COMMIT_ENABLED, context.isShardJournalGroupCommitEnabled());
+        assertEquals(!DatastoreContext.DEFAULT_SHARD_OFF_HEAP_REPLICATED_LOG_ENABLED, context.isShardOffHeapReplicatedLogEnabled());
+        assertEquals(DatastoreContext.DEFAULT_MAX_TREE_CHANGE_LISTENER_LAG + 1, context.getMaxTreeChangeListenerLag());
+        assertEquals(DatastoreContext.DEFAULT_SHARD_COMMIT_BATCH_SIZE + 1, context.getShardCommitBatchSize());
+        assertEquals(DatastoreContext.DEFAULT_SHARD_MAX_SPECULATIVE_COMMITS + 1, context.getShardMaxSpeculativeCommits());
     }
 }
@@ -9,14 +9,21 @@ package org.opendaylight.controller.cluster.datastore;
 
 import akka.actor.ActorRef;
 import akka.actor.Props;
+import com.google.common.util.concurrent.Uninterruptibles;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.opendaylight.controller.cluster.datastore.messages.DataTreeChanged;
 import org.opendaylight.controller.cluster.raft.utils.MessageCollectorActor;
+import org.opendaylight.controller.md.cluster.datastore.model.TestModel;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 
 public class ForwardingDataTreeChangeListenerTest extends AbstractActorTest {
 
@@ -34,4 +41,22 @@ public class ForwardingDataTreeChangeListenerTest extends AbstractActorTest {
         DataTreeChanged actual = MessageCollectorActor.expectFirstMatching(actorRef, DataTreeChanged.class, 5000);
         Assert.assertSame(expected, actual.getChanges());
     }
+
+    @Test
+    public void testOnDataChangedWithFilter() throws Exception {
+        final Props props = Props.create(MessageCollectorActor.class);
+        final ActorRef actorRef = getSystem().actorOf(props);
+
+        DataTreeChangeFilter filter = DataTreeChangeFilter.builder()
+                .modificationTypes(EnumSet.of(ModificationType.DELETE)).build();
+        ForwardingDataTreeChangeListener forwardingListener = new ForwardingDataTreeChangeListener(
+                getSystem().actorSelection(actorRef.path()), filter);
+
+        DataTreeCandidate written = DataTreeCandidates.fromNormalizedNode(TestModel.TEST_PATH,
+                ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        forwardingListener.onDataTreeChanged(Arrays.asList(written));
+
+        Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(0, MessageCollectorActor.getAllMatching(actorRef, DataTreeChanged.class).size());
+    }
 }
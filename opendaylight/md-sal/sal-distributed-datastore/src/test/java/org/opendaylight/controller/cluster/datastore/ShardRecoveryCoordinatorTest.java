@@ -11,10 +11,14 @@ package org.opendaylight.controller.cluster.datastore;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import com.google.common.base.Optional;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.cluster.datastore.persisted.CommitTransactionPayload;
+import org.opendaylight.controller.cluster.datastore.persisted.SchemaFingerprint;
+import org.opendaylight.controller.cluster.datastore.persisted.ShardDataTreeSnapshot;
 import org.opendaylight.controller.cluster.datastore.utils.SerializationUtils;
 import org.opendaylight.controller.md.cluster.datastore.model.CarsModel;
 import org.opendaylight.controller.md.cluster.datastore.model.PeopleModel;
@@ -74,6 +78,99 @@ public class ShardRecoveryCoordinatorTest extends AbstractTest {
         coordinator.applyCurrentLogRecoveryBatch();
     }
 
+    @Test
+    public void testAppendRecoveredLogEntryWithOtherSchemaFingerprint() throws IOException {
+        final ShardRecoveryCoordinator coordinator = new ShardRecoveryCoordinator(peopleDataTree,
+                peopleSchemaContext, null, "foobar", LoggerFactory.getLogger("foo"));
+        coordinator.startLogRecoveryBatch(10);
+        try {
+            coordinator.appendRecoveredLogEntry(CommitTransactionPayload.create(nextTransactionId(), createCar(),
+                    SchemaFingerprint.of(carsSchemaContext)));
+        } catch(final SchemaValidationFailedException e){
+            fail("SchemaValidationFailedException should not happen if pruning is done");
+        }
+
+        coordinator.applyCurrentLogRecoveryBatch();
+
+        assertEquals(false, readCars(peopleDataTree).isPresent());
+    }
+
+    @Test
+    public void testAppendRecoveredLogEntryWithCurrentSchemaFingerprint() throws IOException {
+        final ShardRecoveryCoordinator coordinator = new ShardRecoveryCoordinator(peopleDataTree,
+                peopleSchemaContext, null, "foobar", LoggerFactory.getLogger("foo"));
+
+        final TipProducingDataTree dataTree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        dataTree.setSchemaContext(peopleSchemaContext);
+        final DataTreeModification modification = dataTree.takeSnapshot().newModification();
+        modification.write(PeopleModel.BASE_PATH, PeopleModel.create());
+        modification.ready();
+
+        coordinator.startLogRecoveryBatch(10);
+        coordinator.appendRecoveredLogEntry(CommitTransactionPayload.create(nextTransactionId(),
+                dataTree.prepare(modification), SchemaFingerprint.of(peopleSchemaContext)));
+        coordinator.applyCurrentLogRecoveryBatch();
+
+        assertEquals(true, readPeople(peopleDataTree).isPresent());
+    }
+
+    @Test
+    public void testAppendRecoveredLogEntryWithCurrentSchemaFingerprintAndUnknownData() throws IOException {
+        final ShardRecoveryCoordinator coordinator = new ShardRecoveryCoordinator(peopleDataTree,
+                peopleSchemaContext, null, "foobar", LoggerFactory.getLogger("foo"));
+
+        final TipProducingDataTree dataTree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        dataTree.setSchemaContext(peopleSchemaContext);
+        final DataTreeModification modification = dataTree.takeSnapshot().newModification();
+        modification.write(PeopleModel.BASE_PATH, PeopleModel.create());
+        modification.ready();
+
+        // The cars data is unknown to the schema despite the matching fingerprint, so the batch must be pruned
+        coordinator.startLogRecoveryBatch(10);
+        coordinator.appendRecoveredLogEntry(CommitTransactionPayload.create(nextTransactionId(),
+                dataTree.prepare(modification), SchemaFingerprint.of(peopleSchemaContext)));
+        coordinator.appendRecoveredLogEntry(CommitTransactionPayload.create(nextTransactionId(), createCar(),
+                SchemaFingerprint.of(peopleSchemaContext)));
+        coordinator.applyCurrentLogRecoveryBatch();
+
+        assertEquals(false, readCars(peopleDataTree).isPresent());
+        assertEquals(true, readPeople(peopleDataTree).isPresent());
+        assertEquals(2, coordinator.getRecoveredLogEntryCount());
+    }
+
+    @Test
+    public void testAppendRecoveredLogEntriesAppliedInOrder() throws IOException {
+        final ShardRecoveryCoordinator coordinator = new ShardRecoveryCoordinator(peopleDataTree,
+                peopleSchemaContext, null, "foobar", LoggerFactory.getLogger("foo"));
+
+        final TipProducingDataTree dataTree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        dataTree.setSchemaContext(peopleSchemaContext);
+
+        coordinator.startLogRecoveryBatch(10);
+        for (int i = 0; i < 10; i++) {
+            final DataTreeModification modification = dataTree.takeSnapshot().newModification();
+            if (i % 2 == 0) {
+                modification.write(PeopleModel.BASE_PATH, PeopleModel.create());
+            } else {
+                modification.delete(PeopleModel.BASE_PATH);
+            }
+
+            modification.ready();
+            final DataTreeCandidateTip candidate = dataTree.prepare(modification);
+            dataTree.commit(candidate);
+            coordinator.appendRecoveredLogEntry(CommitTransactionPayload.create(nextTransactionId(), candidate));
+        }
+
+        coordinator.applyCurrentLogRecoveryBatch();
+
+        assertEquals(false, readPeople(peopleDataTree).isPresent());
+        assertEquals(10, coordinator.getRecoveredLogEntryCount());
+        assertEquals(false, coordinator.isRecoveryComplete());
+
+        coordinator.recoveryComplete();
+        assertEquals(true, coordinator.isRecoveryComplete());
+    }
+
     @Test
     public void testApplyRecoverySnapshot(){
         final ShardRecoveryCoordinator coordinator = new ShardRecoveryCoordinator(peopleDataTree,
@@ -86,6 +183,54 @@ public class ShardRecoveryCoordinatorTest extends AbstractTest {
         assertEquals(true, readPeople(peopleDataTree).isPresent());
     }
 
+    @Test
+    public void testApplyRecoverySnapshotWithCurrentSchemaFingerprint() throws IOException {
+        final ShardRecoveryCoordinator coordinator = new ShardRecoveryCoordinator(peopleDataTree,
+                peopleSchemaContext, null, "foobar", LoggerFactory.getLogger("foo"));
+
+        final TipProducingDataTree dataTree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        dataTree.setSchemaContext(peopleSchemaContext);
+        final DataTreeModification modification = dataTree.takeSnapshot().newModification();
+        modification.write(PeopleModel.BASE_PATH, PeopleModel.create());
+        modification.ready();
+        dataTree.commit(dataTree.prepare(modification));
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new ShardDataTreeSnapshot(dataTree.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY).get(),
+                SchemaFingerprint.of(peopleSchemaContext)).serialize(new DataOutputStream(bos));
+        coordinator.applyRecoverySnapshot(bos.toByteArray());
+
+        assertEquals(true, readPeople(peopleDataTree).isPresent());
+    }
+
+    @Test
+    public void testApplyRecoverySnapshotWithCurrentSchemaFingerprintAndUnknownData() throws IOException {
+        final ShardRecoveryCoordinator coordinator = new ShardRecoveryCoordinator(peopleDataTree,
+                peopleSchemaContext, null, "foobar", LoggerFactory.getLogger("foo"));
+
+        // The snapshot contains cars data unknown to the schema despite the matching fingerprint
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new ShardDataTreeSnapshot(SerializationUtils.deserializeNormalizedNode(createSnapshot()),
+                SchemaFingerprint.of(peopleSchemaContext)).serialize(new DataOutputStream(bos));
+        coordinator.applyRecoverySnapshot(bos.toByteArray());
+
+        assertEquals(false, readCars(peopleDataTree).isPresent());
+        assertEquals(true, readPeople(peopleDataTree).isPresent());
+    }
+
+    @Test
+    public void testApplyRecoverySnapshotWithOtherSchemaFingerprint() throws IOException {
+        final ShardRecoveryCoordinator coordinator = new ShardRecoveryCoordinator(peopleDataTree,
+                peopleSchemaContext, null, "foobar", LoggerFactory.getLogger("foo"));
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new ShardDataTreeSnapshot(SerializationUtils.deserializeNormalizedNode(createSnapshot()),
+                SchemaFingerprint.of(carsSchemaContext)).serialize(new DataOutputStream(bos));
+        coordinator.applyRecoverySnapshot(bos.toByteArray());
+
+        assertEquals(false, readCars(peopleDataTree).isPresent());
+        assertEquals(true, readPeople(peopleDataTree).isPresent());
+    }
 
     @Test
     public void testApplyCurrentLogRecoveryBatch(){
@@ -14,10 +14,13 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.opendaylight.controller.cluster.datastore.DataStoreVersions.CURRENT_VERSION;
 import akka.actor.ActorRef;
@@ -27,6 +30,7 @@ import akka.actor.Status.Failure;
 import akka.dispatch.Dispatchers;
 import akka.dispatch.OnComplete;
 import akka.japi.Creator;
+import akka.japi.Procedure;
 import akka.pattern.Patterns;
 import akka.persistence.SaveSnapshotSuccess;
 import akka.testkit.TestActorRef;
@@ -45,6 +49,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Test;
 import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.opendaylight.controller.cluster.DataPersistenceProvider;
 import org.opendaylight.controller.cluster.DelegatingPersistentDataProvider;
 import org.opendaylight.controller.cluster.access.concepts.LocalHistoryIdentifier;
@@ -1035,6 +1041,387 @@ public class ShardTest extends AbstractShardTest {
         }};
     }
 
+    @Test
+    public void testBatchedImmediateCommits() throws Exception{
+        dataStoreContextBuilder.shardCommitBatchSize(10);
+
+        new ShardTestKit(getSystem()) {{
+            final TestActorRef<Shard> shard = actorFactory.createTestActor(
+                    newShardProps().withDispatcher(Dispatchers.DefaultDispatcherId()),
+                    "testBatchedImmediateCommits");
+
+            waitUntilLeader(shard);
+
+            final ShardDataTree dataStore = shard.underlyingActor().getDataStore();
+
+            DataTreeModification modification = dataStore.newModification();
+            new WriteModification(TestModel.TEST_PATH, TestModel.testNodeWithOuter(1)).apply(modification);
+            modification.ready();
+            shard.tell(new ReadyLocalTransaction(nextTransactionId(), modification, true), getRef());
+
+            // These are queued behind the first Tx and, except for the last which conflicts with the one before it,
+            // are committed together
+
+            for (int i = 2; i <= 5; i++) {
+                modification = dataStore.newModification();
+                new WriteModification(TestModel.outerEntryPath(i), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME,
+                        TestModel.ID_QNAME, i)).apply(modification);
+                modification.ready();
+                shard.tell(new ReadyLocalTransaction(nextTransactionId(), modification, true), getRef());
+            }
+
+            // Merged rather than written as, like the others, it is made against a snapshot without entry 5, so
+            // writing the entry would conflict with the Tx before it, which creates the entry
+            modification = dataStore.newModification();
+            new MergeModification(TestModel.outerEntryPath(5), TestModel.outerNodeEntry(5,
+                    TestModel.innerNode("one"))).apply(modification);
+            modification.ready();
+            shard.tell(new ReadyLocalTransaction(nextTransactionId(), modification, true), getRef());
+
+            for (int i = 1; i <= 6; i++) {
+                expectMsgClass(CommitTransactionReply.class);
+            }
+
+            // 3 payloads were replicated for the 6 Txs - the 1st, the batch of the 2nd to 5th and the 6th
+            assertEquals("Last log index", 2, shard.underlyingActor().getShardMBean().getLastLogIndex());
+
+            assertEquals("Outer list", TestModel.outerNode(
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1),
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 2),
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 3),
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 4),
+                    TestModel.outerNodeEntry(5, TestModel.innerNode("one"))),
+                    readStore(shard, TestModel.OUTER_LIST_PATH));
+            assertEquals("Committed transactions", 6, shard.underlyingActor().getShardMBean()
+                    .getCommittedTransactionsCount());
+        }};
+    }
+
+    @Test
+    public void testBatchedImmediateCommitsWithFailedTransaction() throws Exception{
+        dataStoreContextBuilder.shardCommitBatchSize(10);
+
+        new ShardTestKit(getSystem()) {{
+            final TestActorRef<Shard> shard = actorFactory.createTestActor(
+                    newShardProps().withDispatcher(Dispatchers.DefaultDispatcherId()),
+                    "testBatchedImmediateCommitsWithFailedTransaction");
+
+            waitUntilLeader(shard);
+
+            final ShardDataTree dataStore = shard.underlyingActor().getDataStore();
+
+            DataTreeModification modification = dataStore.newModification();
+            new WriteModification(TestModel.TEST_PATH, TestModel.testNodeWithOuter(1)).apply(modification);
+            modification.ready();
+            shard.tell(new ReadyLocalTransaction(nextTransactionId(), modification, true), getRef());
+            expectMsgClass(CommitTransactionReply.class);
+
+            // Made against a snapshot without entry 3, so it conflicts with the Tx below which creates the entry
+            final DataTreeModification staleModification = dataStore.newModification();
+            new WriteModification(TestModel.outerEntryPath(3), TestModel.outerNodeEntry(3,
+                    TestModel.innerNode("stale"))).apply(staleModification);
+            staleModification.ready();
+
+            // The first of these is committed on its own and the others are queued behind it and then committed
+            // together, except for the stale Tx which fails
+
+            modification = dataStore.newModification();
+            new WriteModification(TestModel.outerEntryPath(3), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME,
+                    TestModel.ID_QNAME, 3)).apply(modification);
+            modification.ready();
+            shard.tell(new ReadyLocalTransaction(nextTransactionId(), modification, true), getRef());
+
+            modification = dataStore.newModification();
+            new WriteModification(TestModel.outerEntryPath(4), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME,
+                    TestModel.ID_QNAME, 4)).apply(modification);
+            modification.ready();
+            shard.tell(new ReadyLocalTransaction(nextTransactionId(), modification, true), getRef());
+
+            shard.tell(new ReadyLocalTransaction(nextTransactionId(), staleModification, true), getRef());
+
+            modification = dataStore.newModification();
+            new WriteModification(TestModel.outerEntryPath(5), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME,
+                    TestModel.ID_QNAME, 5)).apply(modification);
+            modification.ready();
+            shard.tell(new ReadyLocalTransaction(nextTransactionId(), modification, true), getRef());
+
+            expectMsgClass(CommitTransactionReply.class);
+            expectMsgClass(Failure.class);
+            expectMsgClass(CommitTransactionReply.class);
+            expectMsgClass(CommitTransactionReply.class);
+
+            assertEquals("Outer list", TestModel.outerNode(
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1),
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 3),
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 4),
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 5)),
+                    readStore(shard, TestModel.OUTER_LIST_PATH));
+            assertEquals("Committed transactions", 4, shard.underlyingActor().getShardMBean()
+                    .getCommittedTransactionsCount());
+
+            // The 4th and 5th Txs were replicated in a single payload
+            assertEquals("Last log index", 2, shard.underlyingActor().getShardMBean().getLastLogIndex());
+        }};
+    }
+
+    @Test
+    public void testBatchedImmediateCommitsFallBackToCommittingOneAtATime() throws Exception{
+        dataStoreContextBuilder.shardCommitBatchSize(10);
+
+        new ShardTestKit(getSystem()) {{
+            final TestActorRef<Shard> shard = actorFactory.createTestActor(
+                    newShardProps().withDispatcher(Dispatchers.DefaultDispatcherId()),
+                    "testBatchedImmediateCommitsFallBackToCommittingOneAtATime");
+
+            waitUntilLeader(shard);
+
+            final ShardDataTree dataStore = shard.underlyingActor().getDataStore();
+
+            DataTreeModification modification = dataStore.newModification();
+            new WriteModification(TestModel.TEST_PATH, TestModel.testNodeWithOuter(1)).apply(modification);
+            modification.ready();
+            shard.tell(new ReadyLocalTransaction(nextTransactionId(), modification, true), getRef());
+            expectMsgClass(CommitTransactionReply.class);
+
+            // This is committed on its own and the others are queued behind it to be committed as a batch
+            modification = dataStore.newModification();
+            new WriteModification(TestModel.outerEntryPath(2), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME,
+                    TestModel.ID_QNAME, 2)).apply(modification);
+            modification.ready();
+            shard.tell(new ReadyLocalTransaction(nextTransactionId(), modification, true), getRef());
+
+            final ShardDataTreeCohort actual3 = readyOuterEntryWrite(dataStore, 3);
+            final ShardDataTreeCohort cohort3 = createDelegatingMockCohort("cohort3", actual3);
+            doReturn(actual3.getDataTreeModification()).when(cohort3).getDataTreeModification();
+
+            final ShardDataTreeCohort actual4 = readyOuterEntryWrite(dataStore, 4);
+            final ShardDataTreeCohort cohort4 = createDelegatingMockCohort("cohort4", actual4);
+            doReturn(actual4.getDataTreeModification()).when(cohort4).getDataTreeModification();
+
+            // Fail combining the first cohort's candidate, obtained for the second time when the batch is
+            // prepared, into the batch's candidate
+            final DataTreeCandidateTip invalidCandidate = mock(DataTreeCandidateTip.class);
+            doThrow(new IllegalStateException("mock")).when(invalidCandidate).getRootNode();
+            final Answer<DataTreeCandidateTip> actualCandidate = new Answer<DataTreeCandidateTip>() {
+                @Override
+                public DataTreeCandidateTip answer(final InvocationOnMock invocation) {
+                    return actual3.getCandidate();
+                }
+            };
+            doAnswer(actualCandidate).doReturn(invalidCandidate).doAnswer(actualCandidate).when(cohort3)
+                    .getCandidate();
+
+            shard.tell(prepareForwardedReadyTransaction(cohort3, nextTransactionId(), CURRENT_VERSION, true),
+                    getRef());
+            shard.tell(prepareForwardedReadyTransaction(cohort4, nextTransactionId(), CURRENT_VERSION, true),
+                    getRef());
+
+            for (int i = 2; i <= 4; i++) {
+                expectMsgClass(CommitTransactionReply.class);
+            }
+
+            assertEquals("Outer list", TestModel.outerNode(
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1),
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 2),
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 3),
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 4)),
+                    readStore(shard, TestModel.OUTER_LIST_PATH));
+            assertEquals("Committed transactions", 4, shard.underlyingActor().getShardMBean()
+                    .getCommittedTransactionsCount());
+
+            // Each Tx was replicated in a payload of its own, having been prepared again on its own
+            assertEquals("Last log index", 3, shard.underlyingActor().getShardMBean().getLastLogIndex());
+            verify(cohort3, times(2)).preCommit();
+            verify(cohort4, times(2)).preCommit();
+        }};
+    }
+
+    private ShardDataTreeCohort readyOuterEntryWrite(final ShardDataTree dataStore, final int id) {
+        final ReadWriteShardDataTreeTransaction tx = dataStore.newReadWriteTransaction(nextTransactionId());
+        tx.getSnapshot().write(TestModel.outerEntryPath(id), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME,
+                TestModel.ID_QNAME, id));
+        return dataStore.finishTransaction(tx);
+    }
+
+    @Test
+    public void testSpeculativeImmediateCommits() throws Exception{
+        dataStoreContextBuilder.shardMaxSpeculativeCommits(2);
+
+        new ShardTestKit(getSystem()) {{
+            final TestActorRef<Shard> shard = actorFactory.createTestActor(
+                    newShardProps().withDispatcher(Dispatchers.DefaultDispatcherId()),
+                    "testSpeculativeImmediateCommits");
+
+            waitUntilLeader(shard);
+
+            final ShardDataTree dataStore = shard.underlyingActor().getDataStore();
+
+            writeToStore(shard, TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+            writeToStore(shard, TestModel.OUTER_LIST_PATH,
+                    ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build());
+
+            // The 1st Tx holds up the shard while it is prepared until the 2nd Tx has been readied, so the 2nd Tx is
+            // processed before the 1st Tx can have been replicated
+
+            final CountDownLatch secondReadied = new CountDownLatch(1);
+            final ShardDataTreeCohort cohort1 = setupMockWriteTransaction("cohort1", dataStore,
+                    TestModel.outerEntryPath(1), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME,
+                            TestModel.ID_QNAME, 1), new MutableCompositeModification(),
+                    new Function<ShardDataTreeCohort, ListenableFuture<Void>>() {
+                        @Override
+                        public ListenableFuture<Void> apply(final ShardDataTreeCohort actual) {
+                            Uninterruptibles.awaitUninterruptibly(secondReadied, 5, TimeUnit.SECONDS);
+                            return actual.preCommit();
+                        }
+                    });
+
+            final AtomicBoolean preparedOnFirstCandidate = new AtomicBoolean();
+            final AtomicBoolean firstCommittedWhenPrepared = new AtomicBoolean(true);
+            final ShardDataTreeCohort cohort2 = setupMockWriteTransaction("cohort2", dataStore,
+                    TestModel.outerEntryPath(2), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME,
+                            TestModel.ID_QNAME, 2), new MutableCompositeModification(),
+                    new Function<ShardDataTreeCohort, ListenableFuture<Void>>() {
+                        @Override
+                        public ListenableFuture<Void> apply(final ShardDataTreeCohort actual) {
+                            preparedOnFirstCandidate.set(dataStore.getTip() == cohort1.getCandidate());
+                            firstCommittedWhenPrepared.set(dataStore.readNode(
+                                    TestModel.outerEntryPath(1)).isPresent());
+                            return actual.preCommit();
+                        }
+                    });
+
+            shard.tell(prepareForwardedReadyTransaction(cohort1, nextTransactionId(), CURRENT_VERSION, true),
+                    getRef());
+            shard.tell(prepareForwardedReadyTransaction(cohort2, nextTransactionId(), CURRENT_VERSION, true),
+                    getRef());
+            secondReadied.countDown();
+
+            expectMsgClass(CommitTransactionReply.class);
+            expectMsgClass(CommitTransactionReply.class);
+
+            assertTrue("2nd Tx prepared against the candidate of the 1st Tx", preparedOnFirstCandidate.get());
+            assertFalse("1st Tx committed when the 2nd Tx was prepared", firstCommittedWhenPrepared.get());
+
+            assertEquals("Outer list", TestModel.outerNode(
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1),
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 2)),
+                    readStore(shard, TestModel.OUTER_LIST_PATH));
+        }};
+    }
+
+    @Test
+    public void testSpeculativeImmediateCommitsUnwoundOnTimeout() throws Exception{
+        dataStoreContextBuilder.shardMaxSpeculativeCommits(2).shardTransactionCommitTimeoutInSeconds(1);
+
+        // Holds back the shard's log entries, while set, so they are neither persisted nor applied
+        final AtomicBoolean holdBackLogEntries = new AtomicBoolean();
+        class TestPersistentDataProvider extends DelegatingPersistentDataProvider {
+            TestPersistentDataProvider(final DataPersistenceProvider delegate) {
+                super(delegate);
+            }
+
+            @Override
+            public <T> void persist(final T o, final Procedure<T> procedure) {
+                if(!holdBackLogEntries.get() || !(o instanceof ReplicatedLogEntry)) {
+                    super.persist(o, procedure);
+                }
+            }
+
+            @Override
+            public <T> void persistAsync(final T o, final Procedure<T> procedure) {
+                if(!holdBackLogEntries.get() || !(o instanceof ReplicatedLogEntry)) {
+                    super.persistAsync(o, procedure);
+                }
+            }
+        }
+
+        new ShardTestKit(getSystem()) {{
+            class TestShard extends Shard {
+                protected TestShard(final AbstractBuilder<?, ?> builder) {
+                    super(builder);
+                    setPersistence(new TestPersistentDataProvider(super.persistence()));
+                }
+            }
+
+            final Creator<Shard> creator = () -> new TestShard(newShardBuilder());
+
+            final TestActorRef<Shard> shard = actorFactory.createTestActor(
+                    Props.create(new DelegatingShardCreator(creator)).withDispatcher(
+                            Dispatchers.DefaultDispatcherId()), "testSpeculativeImmediateCommitsUnwoundOnTimeout");
+
+            waitUntilLeader(shard);
+
+            final ShardDataTree dataStore = shard.underlyingActor().getDataStore();
+
+            writeToStore(shard, TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+            writeToStore(shard, TestModel.OUTER_LIST_PATH,
+                    ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build());
+
+            // The 1st Tx is not replicated and times out, so it and the 2nd Tx, prepared speculatively on top of
+            // it, are aborted
+
+            holdBackLogEntries.set(true);
+            for (int i = 1; i <= 2; i++) {
+                final DataTreeModification modification = dataStore.newModification();
+                new WriteModification(TestModel.outerEntryPath(i), ImmutableNodes.mapEntry(
+                        TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i)).apply(modification);
+                modification.ready();
+                shard.tell(new ReadyLocalTransaction(nextTransactionId(), modification, true), getRef());
+            }
+
+            Uninterruptibles.sleepUninterruptibly(1500, TimeUnit.MILLISECONDS);
+            shard.tell(Shard.TX_COMMIT_TIMEOUT_CHECK_MESSAGE, ActorRef.noSender());
+            holdBackLogEntries.set(false);
+
+            // The 3rd Tx is prepared against the committed state and the 4th Tx speculatively on top of it
+
+            final CountDownLatch fourthReadied = new CountDownLatch(1);
+            final AtomicBoolean thirdPreparedOnDataTree = new AtomicBoolean();
+            final ShardDataTreeCohort cohort3 = setupMockWriteTransaction("cohort3", dataStore,
+                    TestModel.outerEntryPath(3), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME,
+                            TestModel.ID_QNAME, 3), new MutableCompositeModification(),
+                    new Function<ShardDataTreeCohort, ListenableFuture<Void>>() {
+                        @Override
+                        public ListenableFuture<Void> apply(final ShardDataTreeCohort actual) {
+                            thirdPreparedOnDataTree.set(dataStore.getTip() == dataStore.getDataTree());
+                            Uninterruptibles.awaitUninterruptibly(fourthReadied, 5, TimeUnit.SECONDS);
+                            return actual.preCommit();
+                        }
+                    });
+
+            final AtomicBoolean fourthPreparedOnThirdCandidate = new AtomicBoolean();
+            final ShardDataTreeCohort cohort4 = setupMockWriteTransaction("cohort4", dataStore,
+                    TestModel.outerEntryPath(4), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME,
+                            TestModel.ID_QNAME, 4), new MutableCompositeModification(),
+                    new Function<ShardDataTreeCohort, ListenableFuture<Void>>() {
+                        @Override
+                        public ListenableFuture<Void> apply(final ShardDataTreeCohort actual) {
+                            fourthPreparedOnThirdCandidate.set(dataStore.getTip() == cohort3.getCandidate());
+                            return actual.preCommit();
+                        }
+                    });
+
+            shard.tell(prepareForwardedReadyTransaction(cohort3, nextTransactionId(), CURRENT_VERSION, true),
+                    getRef());
+            shard.tell(prepareForwardedReadyTransaction(cohort4, nextTransactionId(), CURRENT_VERSION, true),
+                    getRef());
+            fourthReadied.countDown();
+
+            expectMsgClass(CommitTransactionReply.class);
+            expectMsgClass(CommitTransactionReply.class);
+
+            assertTrue("3rd Tx prepared against the data tree", thirdPreparedOnDataTree.get());
+            assertTrue("4th Tx prepared against the candidate of the 3rd Tx", fourthPreparedOnThirdCandidate.get());
+
+            assertEquals("Outer list", TestModel.outerNode(
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 3),
+                    ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 4)),
+                    readStore(shard, TestModel.OUTER_LIST_PATH));
+            assertEquals("Aborted transactions", 2, shard.underlyingActor().getShardMBean()
+                    .getAbortTransactionsCount());
+        }};
+    }
+
     @Test
     public void testReadyLocalTransactionWithThreePhaseCommit() throws Exception{
         new ShardTestKit(getSystem()) {{
@@ -345,6 +345,18 @@ public class ShardTransactionTest extends AbstractActorTest {
 
     @Test
     public void testOnReceiveCreateSnapshot() throws Exception {
+        verifyCreateSnapshot("testOnReceiveCreateSnapshot");
+    }
+
+    @Test
+    public void testOnReceiveCreateSnapshotSpilledToFile() throws Exception {
+        // A snapshot larger than the chunk size is streamed to a file
+        datastoreContext = DatastoreContext.newBuilder().shardSnapshotChunkSize(1).build();
+
+        verifyCreateSnapshot("testOnReceiveCreateSnapshotSpilledToFile");
+    }
+
+    private void verifyCreateSnapshot(final String name) throws Exception {
         new JavaTestKit(getSystem()) {{
             ShardTest.writeToStore(store.getDataTree(), TestModel.TEST_PATH,
                     ImmutableNodes.containerNode(TestModel.TEST_QNAME));
@@ -353,7 +365,7 @@ public class ShardTransactionTest extends AbstractActorTest {
                     YangInstanceIdentifier.EMPTY);
 
             final ActorRef transaction = newTransactionActor(TransactionType.READ_ONLY, readOnlyTransaction(),
-                    "testOnReceiveCreateSnapshot");
+                    name);
 
             watch(transaction);
 
@@ -364,7 +376,7 @@ public class ShardTransactionTest extends AbstractActorTest {
             assertNotNull("getSnapshot is null", reply.getSnapshot());
 
             NormalizedNode<?,?> actualRoot = SerializationUtils.deserializeNormalizedNode(
-                    reply.getSnapshot());
+                    reply.getSnapshot().read());
 
             assertEquals("Root node", expectedRoot, actualRoot);
 
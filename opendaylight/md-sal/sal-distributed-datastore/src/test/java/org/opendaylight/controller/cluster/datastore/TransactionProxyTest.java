@@ -33,6 +33,8 @@ import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Uninterruptibles;
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -45,6 +47,8 @@ import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.opendaylight.controller.cluster.access.concepts.MemberName;
 import org.opendaylight.controller.cluster.datastore.config.Configuration;
+import org.opendaylight.controller.cluster.datastore.config.ConfigurationImpl;
+import org.opendaylight.controller.cluster.datastore.config.ModuleShardConfiguration;
 import org.opendaylight.controller.cluster.datastore.exceptions.NoShardLeaderException;
 import org.opendaylight.controller.cluster.datastore.exceptions.NotInitializedException;
 import org.opendaylight.controller.cluster.datastore.exceptions.PrimaryNotFoundException;
@@ -58,6 +62,8 @@ import org.opendaylight.controller.cluster.datastore.modification.DeleteModifica
 import org.opendaylight.controller.cluster.datastore.modification.MergeModification;
 import org.opendaylight.controller.cluster.datastore.modification.WriteModification;
 import org.opendaylight.controller.cluster.datastore.shardstrategy.DefaultShardStrategy;
+import org.opendaylight.controller.cluster.datastore.shardstrategy.PrefixShardStrategy;
+import org.opendaylight.controller.cluster.datastore.shardstrategy.ShardStrategyFactory;
 import org.opendaylight.controller.cluster.datastore.utils.NormalizedNodeAggregatorTest;
 import org.opendaylight.controller.cluster.raft.utils.DoNothingActor;
 import org.opendaylight.controller.md.cluster.datastore.model.CarsModel;
@@ -67,6 +73,7 @@ import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.sal.core.spi.data.DOMStoreThreePhaseCommitCohort;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
@@ -544,6 +551,50 @@ public class TransactionProxyTest extends AbstractTransactionProxyTest {
                 actorSelection(actorRef2));
     }
 
+    @Test
+    public void testReadyWithWriteSplitAcrossPrefixShards() throws Exception {
+        Configuration configuration = new ConfigurationImpl("module-shards.conf", "modules.conf");
+        YangInstanceIdentifier car2Path = CarsModel.newCarPath("car2");
+        configuration.addModuleShardConfiguration(new ModuleShardConfiguration(CarsModel.BASE_QNAME.getNamespace(),
+                "cars", "cars-2", PrefixShardStrategy.NAME, Arrays.asList(MemberName.forName(memberName)),
+                car2Path));
+        SchemaContext schemaContext = SchemaContextHelper.full();
+        doReturn(new ShardStrategyFactory(configuration)).when(mockActorContext).getShardStrategyFactory();
+        doReturn(schemaContext).when(mockActorContext).getSchemaContext();
+
+        ActorRef actorRef1 = setupActorContextWithInitialCreateTransaction(getSystem(), WRITE_ONLY, "cars-1");
+        ActorRef actorRef2 = setupActorContextWithInitialCreateTransaction(getSystem(), WRITE_ONLY, "cars-2");
+
+        expectBatchedModificationsReady(actorRef1);
+        expectBatchedModificationsReady(actorRef2);
+
+        MapEntryNode car1 = CarsModel.newCarEntry("car1", BigInteger.valueOf(10));
+        MapEntryNode car2 = CarsModel.newCarEntry("car2", BigInteger.valueOf(20));
+        NormalizedNode<?, ?> carsNode = CarsModel.newCarsNode(CarsModel.newCarsMapNode(car1, car2));
+
+        TransactionProxy transactionProxy = new TransactionProxy(mockComponentFactory, WRITE_ONLY);
+
+        transactionProxy.write(CarsModel.BASE_PATH, carsNode);
+
+        DOMStoreThreePhaseCommitCohort ready = transactionProxy.ready();
+
+        assertTrue(ready instanceof ThreePhaseCommitCohortProxy);
+
+        verifyCohortFutures((ThreePhaseCommitCohortProxy)ready, actorSelection(actorRef1),
+                actorSelection(actorRef2));
+
+        List<BatchedModifications> batchedModifications = captureBatchedModifications(actorRef1);
+        assertEquals("Captured BatchedModifications count", 1, batchedModifications.size());
+        verifyBatchedModifications(batchedModifications.get(0), true, new WriteModification(CarsModel.BASE_PATH,
+                CarsModel.newCarsNode(CarsModel.newCarsMapNode(car1))));
+
+        batchedModifications = captureBatchedModifications(actorRef2);
+        assertEquals("Captured BatchedModifications count", 1, batchedModifications.size());
+        verifyBatchedModifications(batchedModifications.get(0), true, new MergeModification(CarsModel.BASE_PATH,
+                ImmutableNodes.fromInstanceId(schemaContext, CarsModel.CAR_LIST_PATH)),
+                new WriteModification(car2Path, car2));
+    }
+
     @Test
     public void testReadyWithWriteOnlyAndLastBatchPending() throws Exception {
         dataStoreContextBuilder.writeOnlyTransactionOptimizationsEnabled(true);
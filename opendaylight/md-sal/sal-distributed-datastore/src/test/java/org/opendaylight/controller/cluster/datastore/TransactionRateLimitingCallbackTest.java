@@ -10,17 +10,20 @@ package org.opendaylight.controller.cluster.datastore;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import com.codahale.metrics.Timer;
 import com.google.common.base.Ticker;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.controller.cluster.datastore.utils.ActorContext;
+import org.opendaylight.controller.cluster.datastore.utils.TransactionRateLimiter;
 
 /**
  * Unit tests for TransactionRateLimitingCallback.
@@ -38,12 +41,16 @@ public class TransactionRateLimitingCallbackTest {
     @Mock
     Ticker mockTicker;
 
+    @Mock
+    TransactionRateLimiter mockRateLimiter;
+
     TransactionRateLimitingCallback callback;
 
     @Before
     public void setUp(){
         MockitoAnnotations.initMocks(this);
         doReturn(mockTimer).when(mockContext).getOperationTimer(ActorContext.COMMIT);
+        doReturn(mockRateLimiter).when(mockContext).getTxRateLimiter();
         callback = new TransactionRateLimitingCallback(mockContext);
         TransactionRateLimitingCallback.setTicker(mockTicker);
     }
@@ -72,6 +79,18 @@ public class TransactionRateLimitingCallbackTest {
         verify(mockTimer).update(250L, TimeUnit.NANOSECONDS);
     }
 
+    @Test
+    public void testSuccessNotifiesRateLimiter() {
+        callback = new TransactionRateLimitingCallback(mockContext, Arrays.asList("shard1", "shard2"));
+        doReturn(1L).doReturn(201L).when(mockTicker).read();
+
+        callback.run();
+        callback.success();
+
+        verify(mockRateLimiter).commitCompleted("shard1", 200L);
+        verify(mockRateLimiter).commitCompleted("shard2", 200L);
+    }
+
     @Test
     public void testFailure() {
         doReturn(1L).when(mockTicker).read();
@@ -80,6 +99,7 @@ public class TransactionRateLimitingCallbackTest {
         callback.failure();
 
         verify(mockTimer, never()).update(anyLong(), any(TimeUnit.class));
+        verify(mockRateLimiter, never()).commitCompleted(anyString(), anyLong());
     }
 
     @Test
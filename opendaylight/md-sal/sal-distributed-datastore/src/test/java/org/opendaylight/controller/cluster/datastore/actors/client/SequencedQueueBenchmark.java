@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.actors.client;
+
+import static org.mockito.Mockito.mock;
+import akka.actor.ActorRef;
+import com.google.common.base.Ticker;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.cluster.access.ABIVersion;
+import org.opendaylight.controller.cluster.access.concepts.AbstractRequestFailureProxy;
+import org.opendaylight.controller.cluster.access.concepts.AbstractRequestProxy;
+import org.opendaylight.controller.cluster.access.concepts.FailureEnvelope;
+import org.opendaylight.controller.cluster.access.concepts.Request;
+import org.opendaylight.controller.cluster.access.concepts.RequestException;
+import org.opendaylight.controller.cluster.access.concepts.RequestFailure;
+import org.opendaylight.yangtools.concepts.WritableIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of enqueueing a number of outstanding requests towards a single backend into a
+ * {@link SequencedQueue} and completing all of them, either in the order in which they were sent or in random order,
+ * as happens when the transactions sharing the backend progress at different speeds.
+ *
+ * <p>
+ * The benchmarks are compiled with the tests and can be run with
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main SequencedQueueBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = SequencedQueueBenchmark.WARMUP_ITERATIONS)
+@Measurement(iterations = SequencedQueueBenchmark.MEASUREMENT_ITERATIONS)
+public class SequencedQueueBenchmark {
+    static final int WARMUP_ITERATIONS = 10;
+    static final int MEASUREMENT_ITERATIONS = 10;
+
+    // The number of requests each transaction has outstanding
+    private static final int REQUESTS_PER_TRANSACTION = 10;
+
+    private static final class BenchmarkIdentifier implements WritableIdentifier {
+        private static final long serialVersionUID = 1L;
+
+        private final long id;
+
+        BenchmarkIdentifier(final long id) {
+            this.id = id;
+        }
+
+        @Override
+        public void writeTo(final DataOutput out) throws IOException {
+            out.writeLong(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof BenchmarkIdentifier && id == ((BenchmarkIdentifier) obj).id;
+        }
+    }
+
+    private static final class BenchmarkFailure extends RequestFailure<WritableIdentifier, BenchmarkFailure> {
+        private static final long serialVersionUID = 1L;
+
+        BenchmarkFailure(final WritableIdentifier target, final RequestException cause) {
+            super(target, cause);
+        }
+
+        @Override
+        protected AbstractRequestFailureProxy<WritableIdentifier, BenchmarkFailure> externalizableProxy(
+                final ABIVersion version) {
+            return null;
+        }
+
+        @Override
+        protected BenchmarkFailure cloneAsVersion(final ABIVersion version) {
+            return this;
+        }
+    }
+
+    private static final class BenchmarkRequest extends Request<WritableIdentifier, BenchmarkRequest> {
+        private static final long serialVersionUID = 1L;
+
+        BenchmarkRequest(final WritableIdentifier target, final ActorRef replyTo) {
+            super(target, replyTo);
+        }
+
+        @Override
+        public RequestFailure<WritableIdentifier, ?> toRequestFailure(final RequestException cause) {
+            return new BenchmarkFailure(getTarget(), cause);
+        }
+
+        @Override
+        protected AbstractRequestProxy<WritableIdentifier, BenchmarkRequest> externalizableProxy(
+                final ABIVersion version) {
+            return null;
+        }
+
+        @Override
+        protected BenchmarkRequest cloneAsVersion(final ABIVersion version) {
+            return this;
+        }
+    }
+
+    private static final RequestCallback CALLBACK = response -> null;
+
+    @Param({"10000", "100000"})
+    public int outstandingRequests;
+
+    private final List<BenchmarkRequest> requests = new ArrayList<>();
+    private final List<Long> sequences = new ArrayList<>();
+    private final List<FailureEnvelope> inOrderResponses = new ArrayList<>();
+    private final List<FailureEnvelope> randomOrderResponses = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final RequestException cause = new RequestException("benchmark") {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean isRetriable() {
+                return false;
+            }
+        };
+
+        // The queue has no backend, hence requests are not transmitted and the reply address is not used
+        final ActorRef replyTo = mock(ActorRef.class);
+        for (int i = 0; i < outstandingRequests; ++i) {
+            final BenchmarkRequest request = new BenchmarkRequest(
+                new BenchmarkIdentifier(i / REQUESTS_PER_TRANSACTION), replyTo);
+            final long sequence = i % REQUESTS_PER_TRANSACTION;
+
+            requests.add(request);
+            sequences.add(sequence);
+            inOrderResponses.add(new FailureEnvelope(request.toRequestFailure(cause), sequence, 0));
+        }
+
+        randomOrderResponses.addAll(inOrderResponses);
+        Collections.shuffle(randomOrderResponses, new Random(42));
+    }
+
+    private SequencedQueue enqueueAll() {
+        final SequencedQueue queue = new SequencedQueue(0L, Ticker.systemTicker());
+        for (int i = 0; i < outstandingRequests; ++i) {
+            queue.enqueueRequest(sequences.get(i), requests.get(i), CALLBACK);
+        }
+
+        return queue;
+    }
+
+    @Benchmark
+    public SequencedQueue completeInOrder() {
+        final SequencedQueue queue = enqueueAll();
+        for (FailureEnvelope response : inOrderResponses) {
+            queue.complete(null, response);
+        }
+
+        return queue;
+    }
+
+    @Benchmark
+    public SequencedQueue completeInRandomOrder() {
+        final SequencedQueue queue = enqueueAll();
+        for (FailureEnvelope response : randomOrderResponses) {
+            queue.complete(null, response);
+        }
+
+        return queue;
+    }
+}
@@ -15,6 +15,8 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import akka.actor.ActorRef;
@@ -418,6 +420,73 @@ public class SequencedQueueTest {
         assertTrue(queue.runTimeout());
     }
 
+    @Test(expected=IllegalArgumentException.class)
+    public void testEnqueueDuplicateSequence() {
+        queue.enqueueRequest(0, mockRequest, mockCallback);
+
+        // Kaboom
+        queue.enqueueRequest(0, mockRequest2, mockCallback);
+    }
+
+    @Test
+    public void testCompleteOutOfOrder() throws NoProgressException {
+        final RequestCallback mockCallback2 = mock(RequestCallback.class);
+        queue.enqueueRequest(0, mockRequest, mockCallback);
+        ticker.increment(10);
+        queue.enqueueRequest(1, mockRequest2, mockCallback2);
+
+        final RequestFailure<WritableIdentifier, ?> response2 = mockRequest2.toRequestFailure(mockCause);
+        queue.complete(mockBehavior, new FailureEnvelope(response2, 1, 0));
+        verify(mockCallback2).complete(response2);
+        verifyNoMoreInteractions(mockCallback);
+
+        // The first request is still at the head of the queue
+        ticker.increment(SequencedQueue.REQUEST_TIMEOUT_NANOS - 10);
+        assertTrue(queue.runTimeout());
+
+        queue.complete(mockBehavior, mockResponseEnvelope);
+        verify(mockCallback).complete(mockResponse);
+        assertFalse(queue.runTimeout());
+    }
+
+    @Test
+    public void testCompleteManyOutOfOrder() {
+        final int count = 100;
+        for (int i = 0; i < count; ++i) {
+            queue.enqueueRequest(i, mockRequest, mockCallback);
+        }
+
+        // Complete the odd sequences first, then the even ones
+        for (int i = 1; i < count; i += 2) {
+            queue.complete(mockBehavior, new FailureEnvelope(mockResponse, i, 0));
+        }
+        for (int i = 0; i < count; i += 2) {
+            queue.complete(mockBehavior, new FailureEnvelope(mockResponse, i, 0));
+        }
+
+        verify(mockCallback, times(count)).complete(mockResponse);
+        queue.close();
+        assertTrue(queue.hasCompleted());
+    }
+
+    @Test
+    public void testRescheduleTimer() throws NoProgressException {
+        setupBackend();
+        assertFalse(queue.rescheduleTimer().isPresent());
+
+        queue.enqueueRequest(0, mockRequest, mockCallback);
+        assertTransmit(mockRequest, 0);
+        assertFalse(queue.rescheduleTimer().isPresent());
+
+        ticker.increment(10);
+        assertFalse(queue.runTimeout());
+
+        final Optional<FiniteDuration> ret = queue.rescheduleTimer();
+        assertTrue(ret.isPresent());
+        assertEquals(SequencedQueue.REQUEST_TIMEOUT_NANOS - 10, ret.get().toNanos());
+        assertFalse(queue.rescheduleTimer().isPresent());
+    }
+
     private void setupBackend() {
         final CompletableFuture<BackendInfo> proof = new CompletableFuture<>();
         assertTrue(queue.expectProof(proof));
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.entityownership;
+
+import static org.junit.Assert.assertEquals;
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.ENTITY_OWNERS_PATH;
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.candidatePath;
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.entityEntryWithOwner;
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.entityOwnersWithCandidate;
+import static org.opendaylight.controller.cluster.datastore.entityownership.EntityOwnersModel.entityPath;
+import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.cluster.datastore.AbstractActorTest;
+import org.opendaylight.controller.cluster.datastore.ShardDataTree;
+import org.opendaylight.controller.md.cluster.datastore.model.SchemaContextHelper;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+
+public class EntityOwnershipIndexTest extends AbstractActorTest {
+    private static final String LOCAL_MEMBER_NAME = "member-1";
+    private static final String REMOTE_MEMBER_NAME1 = "member-2";
+    private static final String REMOTE_MEMBER_NAME2 = "member-3";
+    private static final String ENTITY_TYPE = "test";
+    private static final YangInstanceIdentifier ENTITY_ID1 =
+            YangInstanceIdentifier.of(QName.create("test", "2015-08-14", "entity1"));
+    private static final YangInstanceIdentifier ENTITY_ID2 =
+            YangInstanceIdentifier.of(QName.create("test", "2015-08-14", "entity2"));
+    private static final YangInstanceIdentifier ENTITY_PATH1 = entityPath(ENTITY_TYPE, ENTITY_ID1);
+    private static final YangInstanceIdentifier ENTITY_PATH2 = entityPath(ENTITY_TYPE, ENTITY_ID2);
+
+    private final ShardDataTree shardDataTree = new ShardDataTree(SchemaContextHelper.entityOwners(),
+        TreeType.OPERATIONAL);
+    private EntityOwnershipIndex index;
+
+    @Before
+    public void setup() {
+        index = new EntityOwnershipIndex();
+        index.init(shardDataTree);
+    }
+
+    @Test
+    public void testCandidates() throws Exception {
+        writeNode(ENTITY_OWNERS_PATH, entityOwnersWithCandidate(ENTITY_TYPE, ENTITY_ID1, REMOTE_MEMBER_NAME2));
+        writeNode(ENTITY_OWNERS_PATH, entityOwnersWithCandidate(ENTITY_TYPE, ENTITY_ID1, LOCAL_MEMBER_NAME));
+        writeNode(ENTITY_OWNERS_PATH, entityOwnersWithCandidate(ENTITY_TYPE, ENTITY_ID1, REMOTE_MEMBER_NAME1));
+        writeNode(ENTITY_OWNERS_PATH, entityOwnersWithCandidate(ENTITY_TYPE, ENTITY_ID2, LOCAL_MEMBER_NAME));
+
+        assertEquals("Candidate entities", ImmutableSet.of(ENTITY_PATH1, ENTITY_PATH2),
+                index.getCandidateEntities(LOCAL_MEMBER_NAME));
+        assertEquals("Candidate entities", ImmutableSet.of(ENTITY_PATH1),
+                index.getCandidateEntities(REMOTE_MEMBER_NAME1));
+        assertEquals("Candidates", Arrays.asList(REMOTE_MEMBER_NAME2, LOCAL_MEMBER_NAME, REMOTE_MEMBER_NAME1),
+                index.getCandidates(ENTITY_PATH1));
+
+        deleteNode(candidatePath(ENTITY_TYPE, ENTITY_ID1, LOCAL_MEMBER_NAME));
+
+        assertEquals("Candidate entities", ImmutableSet.of(ENTITY_PATH2),
+                index.getCandidateEntities(LOCAL_MEMBER_NAME));
+        assertEquals("Candidates", Arrays.asList(REMOTE_MEMBER_NAME2, REMOTE_MEMBER_NAME1),
+                index.getCandidates(ENTITY_PATH1));
+
+        deleteNode(candidatePath(ENTITY_TYPE, ENTITY_ID2, LOCAL_MEMBER_NAME));
+
+        assertEquals("Candidate entities", Collections.emptySet(), index.getCandidateEntities(LOCAL_MEMBER_NAME));
+        assertEquals("Candidates", Collections.emptyList(), index.getCandidates(ENTITY_PATH2));
+    }
+
+    @Test
+    public void testOwners() throws Exception {
+        writeNode(ENTITY_OWNERS_PATH, entityOwnersWithCandidate(ENTITY_TYPE, ENTITY_ID1, LOCAL_MEMBER_NAME));
+        writeNode(ENTITY_OWNERS_PATH, entityOwnersWithCandidate(ENTITY_TYPE, ENTITY_ID2, LOCAL_MEMBER_NAME));
+
+        writeNode(ENTITY_PATH1, entityEntryWithOwner(ENTITY_ID1, LOCAL_MEMBER_NAME));
+        writeNode(ENTITY_PATH2, entityEntryWithOwner(ENTITY_ID2, LOCAL_MEMBER_NAME));
+        assertEquals("Owned entities", ImmutableSet.of(ENTITY_PATH1, ENTITY_PATH2),
+                index.getOwnedEntities(LOCAL_MEMBER_NAME));
+
+        // Change the owner of entity 1
+
+        writeNode(ENTITY_PATH1, entityEntryWithOwner(ENTITY_ID1, REMOTE_MEMBER_NAME1));
+        assertEquals("Owned entities", ImmutableSet.of(ENTITY_PATH2), index.getOwnedEntities(LOCAL_MEMBER_NAME));
+        assertEquals("Owned entities", ImmutableSet.of(ENTITY_PATH1), index.getOwnedEntities(REMOTE_MEMBER_NAME1));
+
+        // Clear the owners
+
+        writeNode(ENTITY_PATH1, entityEntryWithOwner(ENTITY_ID1, ""));
+        writeNode(ENTITY_PATH2, entityEntryWithOwner(ENTITY_ID2, null));
+        assertEquals("Owned entities", Collections.emptySet(), index.getOwnedEntities(LOCAL_MEMBER_NAME));
+        assertEquals("Owned entities", Collections.emptySet(), index.getOwnedEntities(REMOTE_MEMBER_NAME1));
+    }
+
+    @Test
+    public void testInitialData() throws Exception {
+        writeNode(ENTITY_OWNERS_PATH, entityOwnersWithCandidate(ENTITY_TYPE, ENTITY_ID1, LOCAL_MEMBER_NAME));
+        writeNode(ENTITY_PATH2, entityEntryWithOwner(ENTITY_ID2, REMOTE_MEMBER_NAME1));
+
+        final EntityOwnershipIndex newIndex = new EntityOwnershipIndex();
+        newIndex.init(shardDataTree);
+
+        assertEquals("Candidate entities", ImmutableSet.of(ENTITY_PATH1),
+                newIndex.getCandidateEntities(LOCAL_MEMBER_NAME));
+        assertEquals("Owned entities", ImmutableSet.of(ENTITY_PATH2),
+                newIndex.getOwnedEntities(REMOTE_MEMBER_NAME1));
+    }
+
+    private void writeNode(YangInstanceIdentifier path, NormalizedNode<?, ?> node) throws DataValidationFailedException {
+        AbstractEntityOwnershipTest.writeNode(path, node, shardDataTree);
+    }
+
+    private void deleteNode(YangInstanceIdentifier path) throws DataValidationFailedException {
+        AbstractEntityOwnershipTest.deleteNode(path, shardDataTree);
+    }
+}
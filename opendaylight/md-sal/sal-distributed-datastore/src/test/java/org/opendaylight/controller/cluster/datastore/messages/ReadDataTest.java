@@ -31,6 +31,18 @@ public class ReadDataTest {
         ReadData actual = ReadData.fromSerializable(SerializationUtils.clone((Serializable) serialized));
         assertEquals("getPath", expected.getPath(), actual.getPath());
         assertEquals("getVersion", DataStoreVersions.CURRENT_VERSION, actual.getVersion());
+        assertEquals("getMaxDepth", -1, actual.getMaxDepth());
+    }
+
+    @Test
+    public void testSerializationWithMaxDepth() {
+        ReadData expected = new ReadData(TestModel.TEST_PATH, DataStoreVersions.CURRENT_VERSION, 2);
+
+        ReadData actual = ReadData.fromSerializable(SerializationUtils.clone((Serializable) expected.toSerializable()));
+        assertEquals("getPath", expected.getPath(), actual.getPath());
+        assertEquals("getMaxDepth", 2, actual.getMaxDepth());
+        assertEquals("asVersion getMaxDepth", 2, ((ReadData) actual.asVersion(
+                DataStoreVersions.BORON_VERSION - 1)).getMaxDepth());
     }
 
     @Test
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.persisted;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import com.google.common.io.ByteStreams;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.Test;
+
+public class ChunkedOutputStreamTest {
+
+    private static byte[] testBytes(final int size) {
+        final byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final byte[] expected = testBytes(ChunkedByteArray.MAX_CHUNK_SIZE * 2 + 100);
+
+        final ChunkedOutputStream cos = new ChunkedOutputStream(16);
+        cos.write(expected[0]);
+        cos.write(expected, 1, expected.length - 1);
+        cos.close();
+        assertEquals("size", expected.length, cos.size());
+
+        final ChunkedByteArray array = cos.toChunkedByteArray();
+        assertEquals("size", expected.length, array.size());
+
+        final InputStream in = array.openStream();
+        assertEquals("available", expected.length, in.available());
+        assertArrayEquals(expected, ByteStreams.toByteArray(in));
+        assertEquals("available", 0, in.available());
+        assertEquals("read", -1, in.read());
+    }
+
+    @Test
+    public void testCopyToAndReadFrom() throws IOException {
+        final byte[] expected = testBytes(ChunkedByteArray.MAX_CHUNK_SIZE + 1);
+
+        final ChunkedOutputStream cos = new ChunkedOutputStream(1024);
+        cos.write(expected);
+        cos.close();
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            cos.toChunkedByteArray().copyTo(out);
+        }
+        assertArrayEquals(expected, bos.toByteArray());
+
+        final ChunkedByteArray array = ChunkedByteArray.readFrom(new DataInputStream(
+                new ByteArrayInputStream(bos.toByteArray())), expected.length);
+        assertEquals("size", expected.length, array.size());
+        assertArrayEquals(expected, ByteStreams.toByteArray(array.openStream()));
+    }
+
+    @Test
+    public void testLastChunkTrimmed() throws IOException {
+        final byte[] expected = testBytes(100);
+
+        final ChunkedOutputStream cos = new ChunkedOutputStream(512);
+        cos.write(expected);
+        cos.close();
+
+        final ChunkedByteArray array = cos.toChunkedByteArray();
+        assertEquals("chunks", 1, array.getChunks().size());
+        assertArrayEquals(expected, array.getChunks().get(0));
+
+        final ChunkedOutputStream large = new ChunkedOutputStream(16);
+        large.write(testBytes(ChunkedByteArray.MAX_CHUNK_SIZE + 1));
+        large.close();
+
+        int capacity = 0;
+        for (byte[] chunk : large.toChunkedByteArray().getChunks()) {
+            capacity += chunk.length;
+        }
+        assertEquals("capacity", ChunkedByteArray.MAX_CHUNK_SIZE + 1, capacity);
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        final ChunkedOutputStream cos = new ChunkedOutputStream(16);
+        cos.close();
+
+        final ChunkedByteArray array = cos.toChunkedByteArray();
+        assertEquals("size", 0, array.size());
+        assertEquals("read", -1, array.openStream().read());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWriteAfterClose() {
+        final ChunkedOutputStream cos = new ChunkedOutputStream(16);
+        cos.close();
+        cos.write(1);
+    }
+}
@@ -8,15 +8,20 @@
 package org.opendaylight.controller.cluster.datastore.persisted;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Map.Entry;
+import java.util.Optional;
 import org.apache.commons.lang3.SerializationUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.cluster.datastore.AbstractTest;
+import org.opendaylight.controller.md.cluster.datastore.model.SchemaContextHelper;
 import org.opendaylight.controller.md.cluster.datastore.model.TestModel;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
@@ -129,6 +134,33 @@ public class CommitTransactionPayloadTest extends AbstractTest {
         assertCandidateEquals(candidate, SerializationUtils.clone(payload).getCandidate().getValue());
     }
 
+    @Test
+    public void testSchemaFingerprintSerDes() throws IOException {
+        final SchemaFingerprint fingerprint = SchemaFingerprint.of(TestModel.createTestContext());
+        final CommitTransactionPayload payload = SerializationUtils.clone(CommitTransactionPayload.create(
+            nextTransactionId(), candidate, fingerprint));
+
+        final Entry<Optional<SchemaFingerprint>, DataTreeCandidate> entry =
+                payload.getCandidateWithSchemaFingerprint();
+        assertEquals("schema fingerprint", Optional.of(fingerprint), entry.getKey());
+        assertCandidateEquals(candidate, entry.getValue());
+        assertCandidateEquals(candidate, payload.getCandidate().getValue());
+    }
+
+    @Test
+    public void testNoSchemaFingerprint() throws IOException {
+        final CommitTransactionPayload payload = CommitTransactionPayload.create(nextTransactionId(), candidate);
+        assertFalse("schema fingerprint present", payload.getCandidateWithSchemaFingerprint().getKey().isPresent());
+    }
+
+    @Test
+    public void testSchemaFingerprint() {
+        assertEquals(SchemaFingerprint.of(SchemaContextHelper.full()), SchemaFingerprint.of(
+            SchemaContextHelper.full()));
+        assertNotEquals(SchemaFingerprint.of(SchemaContextHelper.select(SchemaContextHelper.CARS_YANG)),
+            SchemaFingerprint.of(SchemaContextHelper.select(SchemaContextHelper.PEOPLE_YANG)));
+    }
+
     @SuppressWarnings({ "rawtypes", "unchecked" })
     @Test
     public void testLeafSetEntryNodeCandidate() throws Exception {
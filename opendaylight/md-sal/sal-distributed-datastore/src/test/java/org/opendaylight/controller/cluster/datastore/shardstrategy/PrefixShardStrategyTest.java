@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.shardstrategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.cluster.access.concepts.MemberName;
+import org.opendaylight.controller.cluster.datastore.config.Configuration;
+import org.opendaylight.controller.cluster.datastore.config.ConfigurationImpl;
+import org.opendaylight.controller.cluster.datastore.config.ModuleShardConfiguration;
+import org.opendaylight.controller.md.cluster.datastore.model.CarsModel;
+
+public class PrefixShardStrategyTest {
+    private Configuration configuration;
+
+    @Before
+    public void setUp() {
+        configuration = new ConfigurationImpl("module-shards.conf", "modules.conf");
+        configuration.addModuleShardConfiguration(new ModuleShardConfiguration(
+                CarsModel.BASE_QNAME.getNamespace(), "cars", "cars-2",
+                PrefixShardStrategy.NAME, Arrays.asList(MemberName.forName("member-1")),
+                CarsModel.newCarPath("car2")));
+    }
+
+    @Test
+    public void testFindShard() {
+        ShardStrategy strategy = new ShardStrategyFactory(configuration).getStrategy(CarsModel.BASE_PATH);
+        assertTrue(strategy instanceof PrefixShardStrategy);
+
+        assertEquals("cars-1", strategy.findShard(CarsModel.BASE_PATH));
+        assertEquals("cars-1", strategy.findShard(CarsModel.newCarPath("car1")));
+        assertEquals("cars-2", strategy.findShard(CarsModel.newCarPath("car2")));
+        assertEquals("cars-2", strategy.findShard(CarsModel.newCarPath("car2").node(CarsModel.CAR_PRICE_QNAME)));
+    }
+
+    @Test
+    public void testPrefixShardTable() {
+        assertEquals(ImmutableMap.of(CarsModel.newCarPath("car2"), "cars-2"),
+                configuration.getPrefixShardTable().findChildPrefixShards(CarsModel.BASE_PATH));
+        assertTrue(configuration.isShardConfigured("cars-2"));
+        assertTrue(configuration.isShardConfigured("cars-1"));
+    }
+}
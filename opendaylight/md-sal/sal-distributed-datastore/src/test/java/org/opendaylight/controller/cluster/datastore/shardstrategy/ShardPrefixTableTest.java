@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.shardstrategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.opendaylight.controller.md.cluster.datastore.model.CarsModel;
+import org.opendaylight.controller.md.cluster.datastore.model.PeopleModel;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+
+public class ShardPrefixTableTest {
+    private static final YangInstanceIdentifier CAR_1_PATH = CarsModel.newCarPath("car1");
+    private static final YangInstanceIdentifier CAR_2_PATH = CarsModel.newCarPath("car2");
+
+    private final ShardPrefixTable table = ShardPrefixTable.of(ImmutableMap.of(
+            CarsModel.CAR_LIST_PATH, "cars-list", CAR_1_PATH, "car-1", CAR_2_PATH, "car-2"));
+
+    @Test
+    public void testFindShard() {
+        assertNull(table.findShard(CarsModel.BASE_PATH));
+        assertNull(table.findShard(PeopleModel.BASE_PATH));
+        assertEquals("cars-list", table.findShard(CarsModel.CAR_LIST_PATH));
+        assertEquals("cars-list", table.findShard(CarsModel.newCarPath("car3")));
+        assertEquals("car-1", table.findShard(CAR_1_PATH));
+        assertEquals("car-2", table.findShard(CAR_2_PATH.node(CarsModel.CAR_PRICE_QNAME)));
+    }
+
+    @Test
+    public void testFindPrefixShard() {
+        assertEquals(CAR_1_PATH, table.findPrefixShard(CAR_1_PATH.node(CarsModel.CAR_PRICE_QNAME)).getKey());
+        assertEquals(CarsModel.CAR_LIST_PATH, table.findPrefixShard(CarsModel.newCarPath("car3")).getKey());
+        assertNull(table.findPrefixShard(YangInstanceIdentifier.EMPTY));
+    }
+
+    @Test
+    public void testFindChildPrefixShards() {
+        assertEquals(ImmutableMap.of(CarsModel.CAR_LIST_PATH, "cars-list"),
+                table.findChildPrefixShards(CarsModel.BASE_PATH));
+        assertEquals(ImmutableMap.of(CarsModel.CAR_LIST_PATH, "cars-list"),
+                table.findChildPrefixShards(YangInstanceIdentifier.EMPTY));
+        assertEquals(ImmutableMap.of(CAR_1_PATH, "car-1", CAR_2_PATH, "car-2"),
+                table.findChildPrefixShards(CarsModel.CAR_LIST_PATH));
+        assertTrue(table.findChildPrefixShards(CAR_1_PATH).isEmpty());
+        assertTrue(table.findChildPrefixShards(PeopleModel.BASE_PATH).isEmpty());
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(ShardPrefixTable.empty().isEmpty());
+        assertTrue(ShardPrefixTable.of(ImmutableMap.<YangInstanceIdentifier, String>of()).isEmpty());
+        assertNull(ShardPrefixTable.empty().findShard(CarsModel.BASE_PATH));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRootPrefix() {
+        ShardPrefixTable.of(ImmutableMap.of(YangInstanceIdentifier.EMPTY, "root"));
+    }
+}
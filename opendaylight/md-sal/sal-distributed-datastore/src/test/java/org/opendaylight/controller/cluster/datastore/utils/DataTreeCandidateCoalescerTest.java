@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.cluster.datastore.model.TestModel;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * Unit tests for DataTreeCandidateCoalescer.
+ */
+public class DataTreeCandidateCoalescerTest {
+    private final SchemaContext schemaContext = TestModel.createTestContext();
+    private DataTree dataTree;
+
+    @Before
+    public void setUp() throws DataValidationFailedException {
+        dataTree = newDataTree();
+        commit(dataTree, TestModel.TEST_PATH, TestModel.testNodeWithOuter(1, 2));
+    }
+
+    private DataTree newDataTree() {
+        final DataTree tree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(schemaContext);
+        return tree;
+    }
+
+    private static DataTreeCandidate commit(final DataTree tree, final YangInstanceIdentifier path,
+            final NormalizedNode<?, ?> data)
+                    throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        if (data != null) {
+            mod.write(path, data);
+        } else {
+            mod.delete(path);
+        }
+
+        return commit(tree, mod);
+    }
+
+    private static DataTreeCandidate commit(final DataTree tree, final DataTreeModification mod)
+            throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        final DataTreeCandidate candidate = tree.prepare(mod);
+        tree.commit(candidate);
+        return candidate;
+    }
+
+    @Test
+    public void testSingleCandidate() throws DataValidationFailedException {
+        final DataTreeCandidate candidate = commit(dataTree, TestModel.outerEntryPath(3),
+                ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 3));
+
+        final List<DataTreeCandidate> coalesced = DataTreeCandidateCoalescer.coalesce(ImmutableList.of(candidate));
+        assertEquals(1, coalesced.size());
+        assertSame(candidate, coalesced.get(0));
+    }
+
+    @Test
+    public void testCoalescedCandidateProducesFinalState() throws DataValidationFailedException {
+        final DataTree replica = newDataTree();
+        commit(replica, TestModel.TEST_PATH, TestModel.testNodeWithOuter(1, 2));
+
+        final DataTreeCandidate candidate1 = commit(dataTree, TestModel.outerEntryPath(3),
+                ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 3));
+        final DataTreeCandidate candidate2 = commit(dataTree, TestModel.outerEntryPath(1), null);
+        final DataTreeCandidate candidate3 = commit(dataTree, TestModel.outerEntryPath(2),
+                TestModel.outerNodeEntry(2, TestModel.innerNode("one", "two")));
+
+        final List<DataTreeCandidate> coalesced = DataTreeCandidateCoalescer.coalesce(
+                ImmutableList.of(candidate1, candidate2, candidate3));
+        assertEquals(1, coalesced.size());
+
+        final DataTreeCandidate candidate = coalesced.get(0);
+        assertEquals(YangInstanceIdentifier.EMPTY, candidate.getRootPath());
+
+        final DataTreeCandidateNode testNode = candidate.getRootNode().getModifiedChild(
+                new NodeIdentifier(TestModel.TEST_QNAME));
+        assertEquals(ModificationType.SUBTREE_MODIFIED, testNode.getModificationType());
+
+        final DataTreeCandidateNode outerList = testNode.getModifiedChild(
+                new NodeIdentifier(TestModel.OUTER_LIST_QNAME));
+        assertEquals(ModificationType.DELETE, outerList.getModifiedChild(TestModel.outerEntryKey(1))
+                .getModificationType());
+        assertEquals(ModificationType.SUBTREE_MODIFIED, outerList.getModifiedChild(TestModel.outerEntryKey(2))
+                .getModificationType());
+        assertEquals(ModificationType.WRITE, outerList.getModifiedChild(TestModel.outerEntryKey(3))
+                .getModificationType());
+
+        final DataTreeModification mod = replica.takeSnapshot().newModification();
+        DataTreeCandidates.applyToModification(mod, candidate);
+        commit(replica, mod);
+
+        assertEquals(dataTree.takeSnapshot().readNode(TestModel.TEST_PATH),
+                replica.takeSnapshot().readNode(TestModel.TEST_PATH));
+    }
+
+    @Test
+    public void testCreatedAndDeletedNodeIsUnmodified() throws DataValidationFailedException {
+        final DataTreeCandidate candidate1 = commit(dataTree, TestModel.outerEntryPath(3),
+                ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 3));
+        final DataTreeCandidate candidate2 = commit(dataTree, TestModel.outerEntryPath(3), null);
+
+        final DataTreeCandidate candidate = DataTreeCandidateCoalescer.coalesce(
+                ImmutableList.of(candidate1, candidate2)).get(0);
+        assertEquals(ModificationType.UNMODIFIED, candidate.getRootNode().getModificationType());
+        assertFalse(candidate.getRootNode().getChildNodes().iterator().hasNext());
+    }
+
+    @Test
+    public void testCandidatesWithDifferentRootPaths() throws DataValidationFailedException {
+        final DataTreeCandidate candidate1 = commit(dataTree, TestModel.outerEntryPath(3),
+                ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 3));
+        final DataTreeCandidate candidate2 = DataTreeCandidates.newDataTreeCandidate(TestModel.TEST_PATH,
+                candidate1.getRootNode().getModifiedChild(new NodeIdentifier(TestModel.TEST_QNAME)));
+
+        final List<DataTreeCandidate> coalesced = DataTreeCandidateCoalescer.coalesce(
+                ImmutableList.of(candidate1, candidate2));
+        assertEquals(2, coalesced.size());
+        assertSame(candidate1, coalesced.get(0));
+        assertSame(candidate2, coalesced.get(1));
+    }
+}
@@ -71,6 +71,30 @@ public class NormalizedNodeAggregatorTest {
 
     }
 
+    @Test
+    public void testMerge() throws InterruptedException, ExecutionException, ReadFailedException,
+            DataValidationFailedException {
+        SchemaContext schemaContext = SchemaContextHelper.full();
+        NormalizedNode<?, ?> expectedNode1 = ImmutableNodes.containerNode(TestModel.TEST_QNAME);
+        NormalizedNode<?, ?> expectedNode2 = ImmutableNodes.containerNode(CarsModel.CARS_QNAME);
+
+        NormalizedNodeAggregator aggregator = NormalizedNodeAggregator.create(YangInstanceIdentifier.EMPTY,
+                schemaContext, LogicalDatastoreType.CONFIGURATION);
+
+        aggregator.merge(getRootNode(expectedNode1, schemaContext));
+
+        Collection<NormalizedNode<?,?>> collection =
+                (Collection<NormalizedNode<?,?>>) aggregator.getAggregatedNode().get().getValue();
+        assertEquals(expectedNode1, findChildWithQName(collection, TestModel.TEST_QNAME));
+        assertEquals(null, findChildWithQName(collection, CarsModel.BASE_QNAME));
+
+        aggregator.merge(getRootNode(expectedNode2, schemaContext));
+
+        collection = (Collection<NormalizedNode<?,?>>) aggregator.getAggregatedNode().get().getValue();
+        assertEquals(expectedNode1, findChildWithQName(collection, TestModel.TEST_QNAME));
+        assertEquals(expectedNode2, findChildWithQName(collection, CarsModel.BASE_QNAME));
+    }
+
     public static NormalizedNode<?, ?> getRootNode(NormalizedNode<?, ?> moduleNode, SchemaContext schemaContext)
             throws ReadFailedException, ExecutionException, InterruptedException {
         try (InMemoryDOMDataStore store = new InMemoryDOMDataStore("test", Executors.newSingleThreadExecutor())) {
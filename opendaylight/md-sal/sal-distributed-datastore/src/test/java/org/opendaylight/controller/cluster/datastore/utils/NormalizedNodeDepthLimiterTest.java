@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.cluster.datastore.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+import org.opendaylight.controller.md.cluster.datastore.model.TestModel;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+/**
+ * Unit tests for NormalizedNodeDepthLimiter.
+ */
+public class NormalizedNodeDepthLimiterTest {
+    private final NormalizedNode<?, ?> testNode = TestModel.testNodeWithOuter(TestModel.outerNode(
+            TestModel.outerNodeEntry(1, TestModel.innerNode("one", "two")),
+            TestModel.outerNodeEntry(2, TestModel.innerNode("three"))));
+
+    @Test
+    public void testNoLimit() {
+        assertSame(testNode, NormalizedNodeDepthLimiter.limitDepth(testNode, -1));
+    }
+
+    @Test
+    public void testLimitToNode() {
+        assertEquals(ImmutableNodes.containerNode(TestModel.TEST_QNAME),
+                NormalizedNodeDepthLimiter.limitDepth(testNode, 0));
+    }
+
+    @Test
+    public void testLimitRetainsListEntryKeys() {
+        assertEquals(TestModel.testNodeWithOuter(1, 2), NormalizedNodeDepthLimiter.limitDepth(testNode, 1));
+    }
+
+    @Test
+    public void testLimitBeyondDeepestNode() {
+        assertEquals(testNode, NormalizedNodeDepthLimiter.limitDepth(testNode, 2));
+        assertEquals(testNode, NormalizedNodeDepthLimiter.limitDepth(testNode, 10));
+    }
+}
@@ -12,11 +12,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
-import com.codahale.metrics.Snapshot;
-import com.codahale.metrics.Timer;
+import com.google.common.base.Function;
+import com.google.common.base.Ticker;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.time.StopWatch;
 import org.hamcrest.BaseMatcher;
@@ -37,170 +36,171 @@ public class TransactionRateLimiterTest {
     public DatastoreContext datastoreContext;
 
     @Mock
-    public Timer commitTimer;
+    private Ticker ticker;
 
-    @Mock
-    private Timer.Context commitTimerContext;
+    private final Map<String, Integer> queueDepths = new HashMap<>();
 
-    @Mock
-    private Snapshot commitSnapshot;
+    private TransactionRateLimiter rateLimiter;
 
     @Before
     public void setUp(){
         MockitoAnnotations.initMocks(this);
         doReturn(datastoreContext).when(actorContext).getDatastoreContext();
-        doReturn(30).when(datastoreContext).getShardTransactionCommitTimeoutInSeconds();
         doReturn(100L).when(datastoreContext).getTransactionCreationInitialRateLimit();
-        doReturn(commitTimer).when(actorContext).getOperationTimer("commit");
-        doReturn(commitTimerContext).when(commitTimer).time();
-        doReturn(commitSnapshot).when(commitTimer).getSnapshot();
+        doReturn(0L).when(ticker).read();
+
+        rateLimiter = new TransactionRateLimiter(actorContext, ticker, new Function<String, Integer>() {
+            @Override
+            public Integer apply(String shardName) {
+                return queueDepths.get(shardName);
+            }
+        });
     }
 
     @Test
-    public void testAcquireRateLimitChanged(){
-        for(int i=1;i<11;i++){
-            // Keep on increasing the amount of time it takes to complete transaction for each tenth of a
-            // percentile. Essentially this would be 1ms for the 10th percentile, 2ms for 20th percentile and so on.
-            doReturn(TimeUnit.MILLISECONDS.toNanos(i) * 1D).when(commitSnapshot).getValue(i * 0.1);
+    public void testRateLimitIncreasedOncePerInterval(){
+        for(int i = 0; i < 60; i++) {
+            doReturn(TimeUnit.MILLISECONDS.toNanos(i)).when(ticker).read();
+            rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
         }
 
-        TransactionRateLimiter rateLimiter = new TransactionRateLimiter(actorContext);
+        // Still within the increase interval so no change
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(100));
+        assertThat(rateLimiter.getTxCreationLimit(), approximately(100));
 
-        rateLimiter.acquire();
+        doReturn(TimeUnit.MILLISECONDS.toNanos(100)).when(ticker).read();
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
 
-        assertThat(rateLimiter.getTxCreationLimit(), approximately(292));
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(110));
+        assertThat(rateLimiter.getTxCreationLimit(), approximately(110));
 
-        assertEquals(147, rateLimiter.getPollOnCount());
-    }
+        doReturn(TimeUnit.MILLISECONDS.toNanos(150)).when(ticker).read();
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
 
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(110));
+    }
 
     @Test
-    public void testAcquirePercentileValueZero(){
-
-        for(int i=1;i<11;i++){
-            // Keep on increasing the amount of time it takes to complete transaction for each tenth of a
-            // percentile. Essentially this would be 1ms for the 10th percentile, 2ms for 20th percentile and so on.
-            doReturn(TimeUnit.MILLISECONDS.toNanos(i) * 1D).when(commitSnapshot).getValue(i * 0.1);
+    public void testRateLimitNotIncreasedBeyondInitialRateWhenLightlyLoaded(){
+        // 5 commits in 100ms, 50 per second, caps the rate limit at the initial rate
+        for(int i = 0; i <= 4; i++) {
+            doReturn(TimeUnit.MILLISECONDS.toNanos(i * 25)).when(ticker).read();
+            rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
         }
 
-        doReturn(TimeUnit.MILLISECONDS.toNanos(0) * 1D).when(commitSnapshot).getValue(0.1);
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(100));
 
-        TransactionRateLimiter rateLimiter = new TransactionRateLimiter(actorContext);
+        doReturn(TimeUnit.SECONDS.toNanos(10)).when(ticker).read();
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
 
-        rateLimiter.acquire();
-
-        assertThat(rateLimiter.getTxCreationLimit(), approximately(192));
-
-        assertEquals(97, rateLimiter.getPollOnCount());
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(100));
+        assertThat(rateLimiter.getTxCreationLimit(), approximately(100));
     }
 
     @Test
-    public void testAcquireOnePercentileValueVeryHigh(){
-
-        for(int i=1;i<11;i++){
-            // Keep on increasing the amount of time it takes to complete transaction for each tenth of a
-            // percentile. Essentially this would be 1ms for the 10th percentile, 2ms for 20th percentile and so on.
-            doReturn(TimeUnit.MILLISECONDS.toNanos(i) * 1D).when(commitSnapshot).getValue(i * 0.1);
+    public void testRateLimitCappedByObservedCommitRate(){
+        for(int i = 0; i < 12; i++) {
+            doReturn(TimeUnit.MILLISECONDS.toNanos(i * 8)).when(ticker).read();
+            rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
         }
 
-        // ten seconds
-        doReturn(TimeUnit.MILLISECONDS.toNanos(10000) * 1D).when(commitSnapshot).getValue(1.0);
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(100));
 
-        TransactionRateLimiter rateLimiter = new TransactionRateLimiter(actorContext);
+        // 13 commits in 250ms, 52 per second, caps the rate limit at 104
+        doReturn(TimeUnit.MILLISECONDS.toNanos(250)).when(ticker).read();
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
 
-        rateLimiter.acquire();
-
-        assertThat(rateLimiter.getTxCreationLimit(), approximately(282));
-
-        assertEquals(142, rateLimiter.getPollOnCount());
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(104));
+        assertThat(rateLimiter.getTxCreationLimit(), approximately(104));
     }
 
     @Test
-    public void testAcquireWithAllPercentileValueVeryHigh(){
+    public void testRateLimitDecreasedOnLatencySpike(){
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(100));
 
-        for(int i=1;i<11;i++){
-            // Keep on increasing the amount of time it takes to complete transaction for each tenth of a
-            // percentile. Essentially this would be 1ms for the 10th percentile, 2ms for 20th percentile and so on.
-            doReturn(TimeUnit.MILLISECONDS.toNanos(10000) * 1D).when(commitSnapshot).getValue(i * 0.1);
-        }
+        doReturn(TimeUnit.MILLISECONDS.toNanos(10)).when(ticker).read();
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(100));
 
-        TransactionRateLimiter rateLimiter = new TransactionRateLimiter(actorContext);
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(75));
+        assertThat(rateLimiter.getTxCreationLimit(), approximately(75));
+    }
 
-        rateLimiter.acquire();
+    @Test
+    public void testRateLimitDecreasedOncePerRoundTrip(){
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
 
-        // The initial rate limit will be retained here because the calculated rate limit was too small
-        assertThat(rateLimiter.getTxCreationLimit(), approximately(100));
+        doReturn(TimeUnit.MILLISECONDS.toNanos(10)).when(ticker).read();
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(75));
+
+        // Still within the smoothed commit latency of the last decrease so no change
+        doReturn(TimeUnit.MILLISECONDS.toNanos(20)).when(ticker).read();
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(75));
 
-        assertEquals(1, rateLimiter.getPollOnCount());
+        doReturn(TimeUnit.MILLISECONDS.toNanos(100)).when(ticker).read();
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(56.25));
     }
 
     @Test
-    public void testAcquireWithRealPercentileValues(){
+    public void testRateLimitDecreasedOnQueueDepth(){
+        queueDepths.put("shard1", 500);
 
-        for(int i=1;i<11;i++){
-            // Keep on increasing the amount of time it takes to complete transaction for each tenth of a
-            // percentile. Essentially this would be 1ms for the 10th percentile, 2ms for 20th percentile and so on.
-            doReturn(TimeUnit.MILLISECONDS.toNanos(8) * 1D).when(commitSnapshot).getValue(i * 0.1);
-        }
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
 
-        doReturn(TimeUnit.MILLISECONDS.toNanos(20) * 1D).when(commitSnapshot).getValue(0.7);
-        doReturn(TimeUnit.MILLISECONDS.toNanos(100) * 1D).when(commitSnapshot).getValue(0.9);
-        doReturn(TimeUnit.MILLISECONDS.toNanos(200) * 1D).when(commitSnapshot).getValue(1.0);
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(75));
+        assertThat(rateLimiter.getTxCreationLimit(), approximately(75));
 
-        TransactionRateLimiter rateLimiter = new TransactionRateLimiter(actorContext);
+        // Not congested anymore but still within the increase interval following the decrease
+        queueDepths.put("shard1", 10);
+        doReturn(TimeUnit.MILLISECONDS.toNanos(10)).when(ticker).read();
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
 
-        rateLimiter.acquire();
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(75));
 
-        assertThat(rateLimiter.getTxCreationLimit(), approximately(101));
+        doReturn(TimeUnit.MILLISECONDS.toNanos(100)).when(ticker).read();
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
 
-        assertEquals(51, rateLimiter.getPollOnCount());
+        assertThat(rateLimiter.getShardRateLimits().get("shard1"), approximately(85));
     }
 
-
-
     @Test
-    public void testAcquireGetRateLimitFromOtherDataStores(){
-        for(int i=1;i<11;i++){
-            // Keep on increasing the amount of time it takes to complete transaction for each tenth of a
-            // percentile. Essentially this would be 1ms for the 10th percentile, 2ms for 20th percentile and so on.
-            doReturn(0.0D).when(commitSnapshot).getValue(i * 0.1);
-        }
-
-        Timer operationalCommitTimer = mock(Timer.class);
-        Timer.Context operationalCommitTimerContext = mock(Timer.Context.class);
-        Snapshot operationalCommitSnapshot = mock(Snapshot.class);
-
-        doReturn(operationalCommitTimer).when(actorContext).getOperationTimer("operational", "commit");
-        doReturn(operationalCommitTimerContext).when(operationalCommitTimer).time();
-        doReturn(operationalCommitSnapshot).when(operationalCommitTimer).getSnapshot();
-
-        for(int i=1;i<11;i++){
-            // Keep on increasing the amount of time it takes to complete transaction for each tenth of a
-            // percentile. Essentially this would be 1ms for the 10th percentile, 2ms for 20th percentile and so on.
-            doReturn(TimeUnit.MILLISECONDS.toNanos(i) * 1D).when(operationalCommitSnapshot).getValue(i * 0.1);
-        }
+    public void testTxCreationLimitIsHighestShardRateLimit(){
+        queueDepths.put("shard2", 500);
 
+        rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
+        rateLimiter.commitCompleted("shard2", TimeUnit.MILLISECONDS.toNanos(1));
 
-        DatastoreContext.getGlobalDatastoreNames().add("config");
-        DatastoreContext.getGlobalDatastoreNames().add("operational");
-
-        TransactionRateLimiter rateLimiter = new TransactionRateLimiter(actorContext);
+        Map<String, Double> rateLimits = rateLimiter.getShardRateLimits();
+        assertEquals("Shard rate limits size", 2, rateLimits.size());
+        assertThat(rateLimits.get("shard1"), approximately(100));
+        assertThat(rateLimits.get("shard2"), approximately(75));
+        assertThat(rateLimiter.getTxCreationLimit(), approximately(100));
+    }
 
-        rateLimiter.acquire();
+    @Test
+    public void testShardThrottledCounts(){
+        rateLimiter.acquire("shard1");
+        assertEquals("Throttled count", Long.valueOf(0), rateLimiter.getShardThrottledCounts().get("shard1"));
 
-        assertThat(rateLimiter.getTxCreationLimit(), approximately(292));
+        rateLimiter.acquire("shard1");
+        rateLimiter.acquire("shard2");
 
-        assertEquals(147, rateLimiter.getPollOnCount());
+        assertEquals("Throttled count", Long.valueOf(1), rateLimiter.getShardThrottledCounts().get("shard1"));
+        assertEquals("Throttled count", Long.valueOf(0), rateLimiter.getShardThrottledCounts().get("shard2"));
     }
 
     @Test
     public void testRateLimiting(){
-
-        for(int i=1;i<11;i++){
-            doReturn(TimeUnit.SECONDS.toNanos(1) * 1D).when(commitSnapshot).getValue(i * 0.1);
+        queueDepths.put("shard1", 500);
+        for(int i = 0; i < 20; i++) {
+            doReturn(TimeUnit.SECONDS.toNanos(i)).when(ticker).read();
+            rateLimiter.commitCompleted("shard1", TimeUnit.MILLISECONDS.toNanos(1));
         }
 
-        TransactionRateLimiter rateLimiter = new TransactionRateLimiter(actorContext);
+        assertThat(rateLimiter.getTxCreationLimit(), approximately(1));
 
         StopWatch watch = new StopWatch();
 
@@ -216,70 +216,6 @@ public class TransactionRateLimiterTest {
                 watch.getTime() > 1000);
     }
 
-    @Test
-    public void testRateLimitNotCalculatedUntilPollCountReached(){
-
-        for(int i=1;i<11;i++){
-            // Keep on increasing the amount of time it takes to complete transaction for each tenth of a
-            // percentile. Essentially this would be 1ms for the 10th percentile, 2ms for 20th percentile and so on.
-            doReturn(TimeUnit.MILLISECONDS.toNanos(8) * 1D).when(commitSnapshot).getValue(i * 0.1);
-        }
-
-        doReturn(TimeUnit.MILLISECONDS.toNanos(20) * 1D).when(commitSnapshot).getValue(0.7);
-        doReturn(TimeUnit.MILLISECONDS.toNanos(100) * 1D).when(commitSnapshot).getValue(0.9);
-        doReturn(TimeUnit.MILLISECONDS.toNanos(200) * 1D).when(commitSnapshot).getValue(1.0);
-
-        TransactionRateLimiter rateLimiter = new TransactionRateLimiter(actorContext);
-
-        rateLimiter.acquire();
-
-        assertThat(rateLimiter.getTxCreationLimit(), approximately(101));
-
-        assertEquals(51, rateLimiter.getPollOnCount());
-
-        for(int i=0;i<49;i++){
-            rateLimiter.acquire();
-        }
-
-        verify(commitTimer, times(1)).getSnapshot();
-
-        // Acquiring one more time will cause the re-calculation of the rate limit
-        rateLimiter.acquire();
-
-        verify(commitTimer, times(2)).getSnapshot();
-    }
-
-    @Test
-    public void testAcquireNegativeAcquireAndPollOnCount(){
-
-        for(int i=1;i<11;i++){
-            // Keep on increasing the amount of time it takes to complete transaction for each tenth of a
-            // percentile. Essentially this would be 1ms for the 10th percentile, 2ms for 20th percentile and so on.
-            doReturn(TimeUnit.MILLISECONDS.toNanos(8) * 1D).when(commitSnapshot).getValue(i * 0.1);
-        }
-
-        doReturn(TimeUnit.MILLISECONDS.toNanos(20) * 1D).when(commitSnapshot).getValue(0.7);
-        doReturn(TimeUnit.MILLISECONDS.toNanos(100) * 1D).when(commitSnapshot).getValue(0.9);
-        doReturn(TimeUnit.MILLISECONDS.toNanos(200) * 1D).when(commitSnapshot).getValue(1.0);
-
-        TransactionRateLimiter rateLimiter = new TransactionRateLimiter(actorContext);
-        rateLimiter.setAcquireCount(Long.MAX_VALUE-1);
-        rateLimiter.setPollOnCount(Long.MAX_VALUE);
-
-        rateLimiter.acquire();
-
-        assertThat(rateLimiter.getTxCreationLimit(), approximately(101));
-
-        assertEquals(-9223372036854775759L, rateLimiter.getPollOnCount());
-
-        for(int i=0;i<50;i++){
-            rateLimiter.acquire();
-        }
-
-        verify(commitTimer, times(2)).getSnapshot();
-
-    }
-
     public Matcher<Double> approximately(final double val){
         return new BaseMatcher<Double>() {
             @Override
@@ -294,6 +230,4 @@ public class TransactionRateLimiterTest {
             }
         };
     }
-
-
-}
\ No newline at end of file
+}
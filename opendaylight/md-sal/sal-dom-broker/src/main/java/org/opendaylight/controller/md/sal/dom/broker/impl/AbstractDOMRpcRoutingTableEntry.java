@@ -8,17 +8,15 @@
 package org.opendaylight.controller.md.sal.dom.broker.impl;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.util.concurrent.CheckedFuture;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcImplementation;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
+import org.opendaylight.yangtools.util.MapAdaptor;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
@@ -37,7 +35,8 @@ abstract class AbstractDOMRpcRoutingTableEntry {
     }
 
     protected final List<DOMRpcImplementation> getImplementations(final YangInstanceIdentifier context) {
-        return impls.get(context);
+        // The map may not support null keys, which are never registered anyway
+        return context != null ? impls.get(context) : null;
     }
 
     final Map<YangInstanceIdentifier, List<DOMRpcImplementation>> getImplementations() {
@@ -53,50 +52,50 @@ abstract class AbstractDOMRpcRoutingTableEntry {
     }
 
     /**
+     * Returns a new entry with the given implementation registered for the given contexts. The entry's map is
+     * snapshotted rather than rebuilt, so once it is large only the modified contexts are copied.
      *
-     * @param implementation
-     * @param newRpcs List of new RPCs, must be mutable
-     * @return
+     * @param implementation implementation to add
+     * @param newRpcs List of contexts to register the implementation for
+     * @return the new entry
      */
     final AbstractDOMRpcRoutingTableEntry add(final DOMRpcImplementation implementation, final List<YangInstanceIdentifier> newRpcs) {
-        final Builder<YangInstanceIdentifier, List<DOMRpcImplementation>> vb = ImmutableMap.builder();
-        for (final Entry<YangInstanceIdentifier, List<DOMRpcImplementation>> ve : impls.entrySet()) {
-            if (newRpcs.remove(ve.getKey())) {
-                final ArrayList<DOMRpcImplementation> i = new ArrayList<>(ve.getValue().size() + 1);
-                i.addAll(ve.getValue());
-                i.add(implementation);
-                vb.put(ve.getKey(), i);
+        final Map<YangInstanceIdentifier, List<DOMRpcImplementation>> vb = MapAdaptor.getDefaultInstance().takeSnapshot(impls);
+        for (final YangInstanceIdentifier ii : newRpcs) {
+            final List<DOMRpcImplementation> existing = vb.get(ii);
+            final ArrayList<DOMRpcImplementation> i;
+            if (existing != null) {
+                i = new ArrayList<>(existing.size() + 1);
+                i.addAll(existing);
             } else {
-                vb.put(ve);
+                i = new ArrayList<>(1);
             }
-        }
-        for(final YangInstanceIdentifier ii : newRpcs) {
-            final ArrayList<DOMRpcImplementation> impl = new ArrayList<>(1);
-            impl.add(implementation);
-            vb.put(ii,impl);
+
+            i.add(implementation);
+            vb.put(ii, i);
         }
 
-        return newInstance(vb.build());
+        return newInstance(MapAdaptor.getDefaultInstance().optimize(vb));
     }
 
     final AbstractDOMRpcRoutingTableEntry remove(final DOMRpcImplementation implementation, final List<YangInstanceIdentifier> removed) {
-        final Builder<YangInstanceIdentifier, List<DOMRpcImplementation>> vb = ImmutableMap.builder();
-        for (final Entry<YangInstanceIdentifier, List<DOMRpcImplementation>> ve : impls.entrySet()) {
-            if (removed.remove(ve.getKey())) {
-                final ArrayList<DOMRpcImplementation> i = new ArrayList<>(ve.getValue());
+        final Map<YangInstanceIdentifier, List<DOMRpcImplementation>> vb = MapAdaptor.getDefaultInstance().takeSnapshot(impls);
+        for (final YangInstanceIdentifier ii : removed) {
+            final List<DOMRpcImplementation> existing = vb.get(ii);
+            if (existing != null) {
+                final ArrayList<DOMRpcImplementation> i = new ArrayList<>(existing);
                 i.remove(implementation);
                 // We could trimToSize(), but that may perform another copy just to get rid
                 // of a single element. That is probably not worth the trouble.
                 if (!i.isEmpty()) {
-                    vb.put(ve.getKey(), i);
+                    vb.put(ii, i);
+                } else {
+                    vb.remove(ii);
                 }
-            } else {
-                vb.put(ve);
             }
         }
 
-        final Map<YangInstanceIdentifier, List<DOMRpcImplementation>> v = vb.build();
-        return v.isEmpty() ? null : newInstance(v);
+        return vb.isEmpty() ? null : newInstance(MapAdaptor.getDefaultInstance().optimize(vb));
     }
 
     protected abstract CheckedFuture<DOMRpcResult, DOMRpcException> invokeRpc(final NormalizedNode<?, ?> input);
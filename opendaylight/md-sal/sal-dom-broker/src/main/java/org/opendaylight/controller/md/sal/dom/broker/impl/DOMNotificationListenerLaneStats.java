@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.md.sal.dom.broker.impl;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Statistics of the delivery lane of a listener registered with {@link DOMNotificationRouter}, as exposed via
+ * {@link org.opendaylight.controller.md.sal.dom.broker.impl.jmx.DOMNotificationRouterMXBean}.
+ */
+public final class DOMNotificationListenerLaneStats {
+    private final String listenerClassName;
+    private final int currentQueueSize;
+    private final int maxQueueSize;
+    private final long deliveredCount;
+    private final long rejectedCount;
+
+    @ConstructorProperties({"listenerClassName", "currentQueueSize", "maxQueueSize", "deliveredCount",
+        "rejectedCount"})
+    public DOMNotificationListenerLaneStats(final String listenerClassName, final int currentQueueSize,
+            final int maxQueueSize, final long deliveredCount, final long rejectedCount) {
+        this.listenerClassName = listenerClassName;
+        this.currentQueueSize = currentQueueSize;
+        this.maxQueueSize = maxQueueSize;
+        this.deliveredCount = deliveredCount;
+        this.rejectedCount = rejectedCount;
+    }
+
+    /**
+     * Returns the name of the listener class.
+     */
+    public String getListenerClassName() {
+        return listenerClassName;
+    }
+
+    /**
+     * Returns the number of notifications waiting to be delivered to the listener, i.e. how far it lags behind.
+     */
+    public int getCurrentQueueSize() {
+        return currentQueueSize;
+    }
+
+    /**
+     * Returns the largest number of notifications which have been waiting for the listener at any one time.
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * Returns the number of notifications delivered to the listener.
+     */
+    public long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    /**
+     * Returns the number of notifications which were rejected, i.e. not published, because the listener's queue was
+     * full.
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DOMNotificationListenerLaneStats [listenerClassName=" + listenerClassName + ", currentQueueSize="
+                + currentQueueSize + ", maxQueueSize=" + maxQueueSize + ", deliveredCount=" + deliveredCount
+                + ", rejectedCount=" + rejectedCount + "]";
+    }
+}
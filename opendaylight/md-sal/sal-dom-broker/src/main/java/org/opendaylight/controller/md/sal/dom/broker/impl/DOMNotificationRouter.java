@@ -22,8 +22,10 @@ import com.lmax.disruptor.PhasedBackoffWaitStrategy;
 import com.lmax.disruptor.WaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
@@ -46,11 +48,17 @@ import org.slf4j.LoggerFactory;
  * Joint implementation of {@link DOMNotificationPublishService} and {@link DOMNotificationService}. Provides
  * routing of notifications from publishers to subscribers.
  *
- * Internal implementation works by allocating a two-handler Disruptor. The first handler delivers notifications
- * to subscribed listeners and the second one notifies whoever may be listening on the returned future. Registration
- * state tracking is performed by a simple immutable multimap -- when a registration or unregistration occurs we
- * re-generate the entire map from scratch and set it atomically. While registrations/unregistrations synchronize
- * on this instance, notifications do not take any locks here.
+ * Internal implementation works by allocating a single-handler Disruptor, whose handler hands notifications over
+ * to the delivery lanes of subscribed listeners. Each registered listener has its own lane, with a bounded queue
+ * drained on the executor, so that a slow listener does not hold up delivery to other listeners. Should a listener
+ * fall behind so much that its queue fills up, publishers of notifications for that listener are held back just like
+ * when the Disruptor is full: a slot in each subscribed lane is reserved before the notification is published, which
+ * blocks or is rejected when a lane is full. Rejections are tracked in the lanes' statistics, which are exposed via
+ * {@link #getListenerLaneStats()}. The future returned to the publisher completes once all lanes have delivered the
+ * notification. Registration state tracking is performed by a simple immutable
+ * multimap -- when a registration or unregistration occurs we re-generate the entire map from scratch and set it
+ * atomically. While registrations/unregistrations synchronize on this instance, notifications do not take any
+ * locks here.
  *
  * The fully-blocking {@link #publish(long, DOMNotification, Collection)} and non-blocking {@link #offerNotification(DOMNotification)}
  * are realized using the Disruptor's native operations. The bounded-blocking {@link #offerNotification(DOMNotification, long, TimeUnit)}
@@ -69,55 +77,63 @@ public final class DOMNotificationRouter implements AutoCloseable, DOMNotificati
 
         }
     };
-    private static final EventHandler<DOMNotificationRouterEvent> NOTIFY_FUTURE = new EventHandler<DOMNotificationRouterEvent>() {
-        @Override
-        public void onEvent(final DOMNotificationRouterEvent event, final long sequence, final boolean endOfBatch) {
-            event.setFuture();
-        }
-    };
+
+    /**
+     * Default depth of the queue of each registered listener.
+     */
+    public static final int DEFAULT_LISTENER_QUEUE_DEPTH = 65536;
 
     private final Disruptor<DOMNotificationRouterEvent> disruptor;
     private final ExecutorService executor;
-    private volatile Multimap<SchemaPath, ListenerRegistration<? extends DOMNotificationListener>> listeners = ImmutableMultimap.of();
+    private final int listenerQueueDepth;
+    private volatile Multimap<SchemaPath, DOMNotificationRouterLane> listeners = ImmutableMultimap.of();
     private final ListenerRegistry<DOMNotificationSubscriptionListener> subscriptionListeners = ListenerRegistry.create();
 
     @SuppressWarnings("unchecked")
-    private DOMNotificationRouter(final ExecutorService executor, final int queueDepth, final WaitStrategy strategy) {
+    private DOMNotificationRouter(final ExecutorService executor, final int queueDepth, final WaitStrategy strategy,
+            final int listenerQueueDepth) {
+        Preconditions.checkArgument(listenerQueueDepth > 0, "Invalid listener queue depth %s", listenerQueueDepth);
         this.executor = Preconditions.checkNotNull(executor);
+        this.listenerQueueDepth = listenerQueueDepth;
 
         disruptor = new Disruptor<>(DOMNotificationRouterEvent.FACTORY, queueDepth, executor, ProducerType.MULTI, strategy);
         disruptor.handleEventsWith(DISPATCH_NOTIFICATIONS);
-        disruptor.after(DISPATCH_NOTIFICATIONS).handleEventsWith(NOTIFY_FUTURE);
         disruptor.start();
     }
 
     public static DOMNotificationRouter create(final int queueDepth) {
         final ExecutorService executor = Executors.newCachedThreadPool();
 
-        return new DOMNotificationRouter(executor, queueDepth, DEFAULT_STRATEGY);
+        return new DOMNotificationRouter(executor, queueDepth, DEFAULT_STRATEGY, DEFAULT_LISTENER_QUEUE_DEPTH);
     }
 
     public static DOMNotificationRouter create(final int queueDepth, final long spinTime, final long parkTime, final TimeUnit unit) {
+        return create(queueDepth, spinTime, parkTime, unit, DEFAULT_LISTENER_QUEUE_DEPTH);
+    }
+
+    public static DOMNotificationRouter create(final int queueDepth, final long spinTime, final long parkTime,
+            final TimeUnit unit, final int listenerQueueDepth) {
         Preconditions.checkArgument(Long.lowestOneBit(queueDepth) == Long.highestOneBit(queueDepth),
                 "Queue depth %s is not power-of-two", queueDepth);
         final ExecutorService executor = Executors.newCachedThreadPool();
         final WaitStrategy strategy = PhasedBackoffWaitStrategy.withLock(spinTime, parkTime, unit);
 
-        return new DOMNotificationRouter(executor, queueDepth, strategy);
+        return new DOMNotificationRouter(executor, queueDepth, strategy, listenerQueueDepth);
     }
 
     @Override
     public synchronized <T extends DOMNotificationListener> ListenerRegistration<T> registerNotificationListener(final T listener, final Collection<SchemaPath> types) {
+        final DOMNotificationRouterLane lane = new DOMNotificationRouterLane(listener, executor, listenerQueueDepth);
         final ListenerRegistration<T> reg = new AbstractListenerRegistration<T>(listener) {
             @Override
             protected void removeRegistration() {
-                final ListenerRegistration<T> me = this;
+                lane.close();
 
                 synchronized (DOMNotificationRouter.this) {
-                    replaceListeners(ImmutableMultimap.copyOf(Multimaps.filterValues(listeners, new Predicate<ListenerRegistration<? extends DOMNotificationListener>>() {
+                    replaceListeners(ImmutableMultimap.copyOf(Multimaps.filterValues(listeners, new Predicate<DOMNotificationRouterLane>() {
                         @Override
-                        public boolean apply(final ListenerRegistration<? extends DOMNotificationListener> input) {
-                            return input != me;
+                        public boolean apply(final DOMNotificationRouterLane input) {
+                            return input != lane;
                         }
                     })));
                 }
@@ -125,11 +141,11 @@ public final class DOMNotificationRouter implements AutoCloseable, DOMNotificati
         };
 
         if (!types.isEmpty()) {
-            final Builder<SchemaPath, ListenerRegistration<? extends DOMNotificationListener>> b = ImmutableMultimap.builder();
+            final Builder<SchemaPath, DOMNotificationRouterLane> b = ImmutableMultimap.builder();
             b.putAll(listeners);
 
             for (final SchemaPath t : types) {
-                b.put(t, reg);
+                b.put(t, lane);
             }
 
             replaceListeners(b.build());
@@ -149,7 +165,7 @@ public final class DOMNotificationRouter implements AutoCloseable, DOMNotificati
      * @param newListeners
      */
     private void replaceListeners(
-            final Multimap<SchemaPath, ListenerRegistration<? extends DOMNotificationListener>> newListeners) {
+            final Multimap<SchemaPath, DOMNotificationRouterLane> newListeners) {
         listeners = newListeners;
         notifyListenerTypesChanged(newListeners.keySet());
     }
@@ -185,7 +201,57 @@ public final class DOMNotificationRouter implements AutoCloseable, DOMNotificati
         return subscriptionListeners.registerWithType(listener);
     }
 
-    private ListenableFuture<Void> publish(final long seq, final DOMNotification notification, final Collection<ListenerRegistration<? extends DOMNotificationListener>> subscribers) {
+    private static void release(final Iterable<DOMNotificationRouterLane> lanes) {
+        for (DOMNotificationRouterLane lane : lanes) {
+            lane.release();
+        }
+    }
+
+    private static void reserve(final Collection<DOMNotificationRouterLane> subscribers) throws InterruptedException {
+        final List<DOMNotificationRouterLane> reserved = new ArrayList<>(subscribers.size());
+        try {
+            for (DOMNotificationRouterLane lane : subscribers) {
+                lane.reserve();
+                reserved.add(lane);
+            }
+        } catch (InterruptedException e) {
+            release(reserved);
+            throw e;
+        }
+    }
+
+    private static boolean tryReserve(final Collection<DOMNotificationRouterLane> subscribers) {
+        final List<DOMNotificationRouterLane> reserved = new ArrayList<>(subscribers.size());
+        for (DOMNotificationRouterLane lane : subscribers) {
+            if (!lane.tryReserve()) {
+                release(reserved);
+                return false;
+            }
+            reserved.add(lane);
+        }
+        return true;
+    }
+
+    private static boolean tryReserve(final Collection<DOMNotificationRouterLane> subscribers, final long timeout,
+            final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        final List<DOMNotificationRouterLane> reserved = new ArrayList<>(subscribers.size());
+        try {
+            for (DOMNotificationRouterLane lane : subscribers) {
+                if (!lane.tryReserve(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    release(reserved);
+                    return false;
+                }
+                reserved.add(lane);
+            }
+        } catch (InterruptedException e) {
+            release(reserved);
+            throw e;
+        }
+        return true;
+    }
+
+    private ListenableFuture<Void> publish(final long seq, final DOMNotification notification, final Collection<DOMNotificationRouterLane> subscribers) {
         final DOMNotificationRouterEvent event = disruptor.get(seq);
         final ListenableFuture<Void> future = event.initialize(notification, subscribers);
         disruptor.getRingBuffer().publish(seq);
@@ -194,20 +260,22 @@ public final class DOMNotificationRouter implements AutoCloseable, DOMNotificati
 
     @Override
     public ListenableFuture<? extends Object> putNotification(final DOMNotification notification) throws InterruptedException {
-        final Collection<ListenerRegistration<? extends DOMNotificationListener>> subscribers = listeners.get(notification.getType());
+        final Collection<DOMNotificationRouterLane> subscribers = listeners.get(notification.getType());
         if (subscribers.isEmpty()) {
             return NO_LISTENERS;
         }
 
+        reserve(subscribers);
         final long seq = disruptor.getRingBuffer().next();
         return publish(seq, notification, subscribers);
     }
 
-    private ListenableFuture<? extends Object> tryPublish(final DOMNotification notification, final Collection<ListenerRegistration<? extends DOMNotificationListener>> subscribers) {
+    private ListenableFuture<? extends Object> tryPublish(final DOMNotification notification, final Collection<DOMNotificationRouterLane> subscribers) {
         final long seq;
         try {
              seq = disruptor.getRingBuffer().tryNext();
         } catch (final InsufficientCapacityException e) {
+            release(subscribers);
             return DOMNotificationPublishService.REJECTED;
         }
 
@@ -216,22 +284,29 @@ public final class DOMNotificationRouter implements AutoCloseable, DOMNotificati
 
     @Override
     public ListenableFuture<? extends Object> offerNotification(final DOMNotification notification) {
-        final Collection<ListenerRegistration<? extends DOMNotificationListener>> subscribers = listeners.get(notification.getType());
+        final Collection<DOMNotificationRouterLane> subscribers = listeners.get(notification.getType());
         if (subscribers.isEmpty()) {
             return NO_LISTENERS;
         }
 
+        if (!tryReserve(subscribers)) {
+            return DOMNotificationPublishService.REJECTED;
+        }
         return tryPublish(notification, subscribers);
     }
 
     @Override
     public ListenableFuture<? extends Object> offerNotification(final DOMNotification notification, final long timeout,
             final TimeUnit unit) throws InterruptedException {
-        final Collection<ListenerRegistration<? extends DOMNotificationListener>> subscribers = listeners.get(notification.getType());
+        final Collection<DOMNotificationRouterLane> subscribers = listeners.get(notification.getType());
         if (subscribers.isEmpty()) {
             return NO_LISTENERS;
         }
 
+        if (!tryReserve(subscribers, timeout, unit)) {
+            return DOMNotificationPublishService.REJECTED;
+        }
+
         // Attempt to perform a non-blocking publish first
         final ListenableFuture<? extends Object> noBlock = tryPublish(notification, subscribers);
         if (!DOMNotificationPublishService.REJECTED.equals(noBlock)) {
@@ -245,6 +320,20 @@ public final class DOMNotificationRouter implements AutoCloseable, DOMNotificati
         throw new UnsupportedOperationException("Not implemented yet");
     }
 
+    /**
+     * Returns the statistics of the delivery lanes of currently registered listeners.
+     *
+     * @return list of lane statistics, one for each listener
+     */
+    public List<DOMNotificationListenerLaneStats> getListenerLaneStats() {
+        final List<DOMNotificationListenerLaneStats> stats = new ArrayList<>();
+        for (DOMNotificationRouterLane lane : new LinkedHashSet<>(listeners.values())) {
+            stats.add(new DOMNotificationListenerLaneStats(lane.getListener().getClass().getName(),
+                lane.getQueueSize(), lane.getMaxQueueSize(), lane.getDeliveredCount(), lane.getRejectedCount()));
+        }
+        return stats;
+    }
+
     @Override
     public void close() {
         disruptor.shutdown();
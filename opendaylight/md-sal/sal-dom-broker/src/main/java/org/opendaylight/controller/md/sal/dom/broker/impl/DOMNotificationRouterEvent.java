@@ -13,14 +13,13 @@ import com.google.common.util.concurrent.SettableFuture;
 import com.lmax.disruptor.EventFactory;
 import java.util.Collection;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
-import org.opendaylight.controller.md.sal.dom.api.DOMNotificationListener;
-import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A single notification event in the disruptor ringbuffer. These objects are reused,
- * so they do have mutable state.
+ * so they do have mutable state. Delivering the event hands the notification over to
+ * the delivery lanes of its subscribers, which complete the future once they are done.
  */
 final class DOMNotificationRouterEvent {
     private static final Logger LOG = LoggerFactory.getLogger(DOMNotificationRouterEvent.class);
@@ -31,7 +30,7 @@ final class DOMNotificationRouterEvent {
         }
     };
 
-    private Collection<ListenerRegistration<? extends DOMNotificationListener>> subscribers;
+    private Collection<DOMNotificationRouterLane> subscribers;
     private DOMNotification notification;
     private SettableFuture<Void> future;
 
@@ -39,7 +38,7 @@ final class DOMNotificationRouterEvent {
         // Hidden on purpose, initialized in initialize()
     }
 
-    ListenableFuture<Void> initialize(final DOMNotification notification, final Collection<ListenerRegistration<? extends DOMNotificationListener>> subscribers) {
+    ListenableFuture<Void> initialize(final DOMNotification notification, final Collection<DOMNotificationRouterLane> subscribers) {
         this.notification = Preconditions.checkNotNull(notification);
         this.subscribers = Preconditions.checkNotNull(subscribers);
         this.future = SettableFuture.create();
@@ -48,25 +47,15 @@ final class DOMNotificationRouterEvent {
 
     void deliverNotification() {
         LOG.trace("Start delivery of notification {}", notification);
-        for (ListenerRegistration<? extends DOMNotificationListener> r : subscribers) {
-            final DOMNotificationListener listener = r.getInstance();
-            if (listener != null) {
-                try {
-                    LOG.trace("Notifying listener {}", listener);
-                    listener.onNotification(notification);
-                    LOG.trace("Listener notification completed");
-                } catch (Exception e) {
-                    LOG.error("Delivery of notification {} caused an error in listener {}", notification, listener, e);
-                }
-            }
+        final DOMNotificationRouterLane.Delivery delivery = new DOMNotificationRouterLane.Delivery(notification, future,
+            subscribers.size());
+        for (DOMNotificationRouterLane lane : subscribers) {
+            lane.offer(delivery);
         }
-        LOG.trace("Delivery completed");
-    }
+        LOG.trace("Notification queued to {} listeners", subscribers.size());
 
-    void setFuture() {
-        future.set(null);
         notification = null;
         subscribers = null;
         future = null;
     }
-}
\ No newline at end of file
+}
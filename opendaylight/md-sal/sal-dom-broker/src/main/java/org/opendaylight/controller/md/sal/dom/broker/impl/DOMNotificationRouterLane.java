@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.md.sal.dom.broker.impl;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotificationListener;
+import org.opendaylight.controller.md.sal.dom.spi.DOMNotificationBatchListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivery lane of a single registered {@link DOMNotificationListener}. Notifications routed to the listener are
+ * placed on the lane's queue, which is drained by a task running on the router's executor, so a slow listener only
+ * delays its own notifications. The queue is bounded: a publisher needs to reserve a slot in the lane before it
+ * publishes a notification, blocking or being rejected if the listener has fallen behind by the lane's depth. The
+ * slot is released once the notification has been delivered, hence notifications are never dropped.
+ *
+ * Listeners implementing {@link DOMNotificationBatchListener} are handed all notifications queued up at the time
+ * of delivery, up to {@link #MAX_BATCH_SIZE}, in one go.
+ */
+final class DOMNotificationRouterLane implements Runnable {
+    /**
+     * A notification being delivered to one or more lanes. Completes the publisher's future once every lane has
+     * delivered it.
+     */
+    static final class Delivery {
+        private final DOMNotification notification;
+        private final SettableFuture<Void> future;
+        private final AtomicInteger remaining;
+
+        Delivery(final DOMNotification notification, final SettableFuture<Void> future, final int lanes) {
+            this.notification = Preconditions.checkNotNull(notification);
+            this.future = Preconditions.checkNotNull(future);
+            this.remaining = new AtomicInteger(lanes);
+        }
+
+        void complete() {
+            if (remaining.decrementAndGet() == 0) {
+                future.set(null);
+            }
+        }
+    }
+
+    static final int MAX_BATCH_SIZE = 256;
+
+    private static final Logger LOG = LoggerFactory.getLogger(DOMNotificationRouterLane.class);
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final DOMNotificationListener listener;
+    // Not bounded by itself, the slots bound it
+    private final BlockingQueue<Delivery> queue = new LinkedBlockingQueue<>();
+    private final Semaphore slots;
+    private final Executor executor;
+    private volatile int maxQueueSize;
+    private volatile boolean closed;
+
+    DOMNotificationRouterLane(final DOMNotificationListener listener, final Executor executor, final int queueDepth) {
+        Preconditions.checkArgument(queueDepth > 0, "Invalid queue depth %s", queueDepth);
+        this.listener = Preconditions.checkNotNull(listener);
+        this.executor = Preconditions.checkNotNull(executor);
+        this.slots = new Semaphore(queueDepth);
+    }
+
+    /**
+     * Reserve a slot for a notification, waiting for one to become available if the queue is full.
+     */
+    void reserve() throws InterruptedException {
+        slots.acquire();
+    }
+
+    /**
+     * Reserve a slot for a notification without waiting.
+     *
+     * @return false if the queue is full
+     */
+    boolean tryReserve() {
+        return reserved(slots.tryAcquire());
+    }
+
+    /**
+     * Reserve a slot for a notification, waiting up to the specified time for one to become available.
+     *
+     * @return false if the queue remained full
+     */
+    boolean tryReserve(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return reserved(slots.tryAcquire(timeout, unit));
+    }
+
+    private boolean reserved(final boolean success) {
+        if (!success) {
+            rejectedCount.incrementAndGet();
+            LOG.debug("Listener {} queue is full, rejecting notification", listener);
+        }
+        return success;
+    }
+
+    /**
+     * Release a slot which was reserved for a notification which has not been published after all.
+     */
+    void release() {
+        slots.release();
+    }
+
+    /**
+     * Enqueue a notification for delivery, for which a slot has been reserved. Never blocks.
+     */
+    void offer(final Delivery delivery) {
+        if (closed) {
+            slots.release();
+            delivery.complete();
+            return;
+        }
+
+        queue.add(delivery);
+        final int size = queue.size();
+        if (size > maxQueueSize) {
+            // Only the router's dispatch thread updates this, hence check-then-set is safe
+            maxQueueSize = size;
+        }
+
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this);
+        }
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    DOMNotificationListener getListener() {
+        return listener;
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public void run() {
+        final List<Delivery> batch = new ArrayList<>();
+        do {
+            while (queue.drainTo(batch, MAX_BATCH_SIZE) != 0) {
+                try {
+                    if (!closed) {
+                        deliver(batch);
+                    }
+                } finally {
+                    slots.release(batch.size());
+                    for (Delivery d : batch) {
+                        d.complete();
+                    }
+                    batch.clear();
+                }
+            }
+
+            scheduled.set(false);
+
+            // Re-check the queue: a notification may have been enqueued after we drained it, but before we have
+            // cleared the flag, in which case nobody has scheduled us.
+        } while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+    }
+
+    private void deliver(final List<Delivery> batch) {
+        if (batch.size() > 1 && listener instanceof DOMNotificationBatchListener) {
+            final List<DOMNotification> notifications = new ArrayList<>(batch.size());
+            for (Delivery d : batch) {
+                notifications.add(d.notification);
+            }
+
+            try {
+                LOG.trace("Notifying listener {} of {} notifications", listener, notifications.size());
+                ((DOMNotificationBatchListener) listener).onNotifications(notifications);
+                LOG.trace("Listener notification completed");
+            } catch (Exception e) {
+                LOG.error("Delivery of notifications {} caused an error in listener {}", notifications, listener, e);
+            }
+        } else {
+            for (Delivery d : batch) {
+                try {
+                    LOG.trace("Notifying listener {}", listener);
+                    listener.onNotification(d.notification);
+                    LOG.trace("Listener notification completed");
+                } catch (Exception e) {
+                    LOG.error("Delivery of notification {} caused an error in listener {}", d.notification,
+                        listener, e);
+                }
+            }
+        }
+
+        deliveredCount.addAndGet(batch.size());
+    }
+}
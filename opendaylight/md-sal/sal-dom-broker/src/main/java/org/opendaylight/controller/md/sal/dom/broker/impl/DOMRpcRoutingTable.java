@@ -28,6 +28,7 @@ import org.opendaylight.controller.md.sal.dom.api.DOMRpcIdentifier;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcImplementation;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcImplementationNotAvailableException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
+import org.opendaylight.yangtools.util.MapAdaptor;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
@@ -79,20 +80,15 @@ final class DOMRpcRoutingTable {
         // First decompose the identifiers to a multimap
         final ListMultimap<SchemaPath, YangInstanceIdentifier> toAdd = decomposeIdentifiers(rpcs);
 
-        // Now iterate over existing entries, modifying them as appropriate...
-        final Builder<SchemaPath, AbstractDOMRpcRoutingTableEntry> mb = ImmutableMap.builder();
-        for (Entry<SchemaPath, AbstractDOMRpcRoutingTableEntry> re : this.rpcs.entrySet()) {
-            List<YangInstanceIdentifier> newRpcs = new ArrayList<>(toAdd.removeAll(re.getKey()));
-            if (!newRpcs.isEmpty()) {
-                final AbstractDOMRpcRoutingTableEntry ne = re.getValue().add(implementation, newRpcs);
-                mb.put(re.getKey(), ne);
-            } else {
-                mb.put(re);
+        // Now modify the entries of the affected RPCs in a snapshot of the table, creating them as needed
+        final Map<SchemaPath, AbstractDOMRpcRoutingTableEntry> mb = MapAdaptor.getDefaultInstance().takeSnapshot(this.rpcs);
+        for (Entry<SchemaPath, Collection<YangInstanceIdentifier>> e : toAdd.asMap().entrySet()) {
+            final AbstractDOMRpcRoutingTableEntry existing = mb.get(e.getKey());
+            if (existing != null) {
+                mb.put(e.getKey(), existing.add(implementation, new ArrayList<>(e.getValue())));
+                continue;
             }
-        }
 
-        // Finally add whatever is left in the decomposed multimap
-        for (Entry<SchemaPath, Collection<YangInstanceIdentifier>> e : toAdd.asMap().entrySet()) {
             final Builder<YangInstanceIdentifier, List<DOMRpcImplementation>> vb = ImmutableMap.builder();
             final List<DOMRpcImplementation> v = Collections.singletonList(implementation);
             for (YangInstanceIdentifier i : e.getValue()) {
@@ -102,7 +98,7 @@ final class DOMRpcRoutingTable {
             mb.put(e.getKey(), createRpcEntry(schemaContext, e.getKey(), vb.build()));
         }
 
-        return new DOMRpcRoutingTable(mb.build(), schemaContext);
+        return new DOMRpcRoutingTable(MapAdaptor.getDefaultInstance().optimize(mb), schemaContext);
     }
 
     DOMRpcRoutingTable remove(final DOMRpcImplementation implementation, final Set<DOMRpcIdentifier> rpcs) {
@@ -113,22 +109,22 @@ final class DOMRpcRoutingTable {
         // First decompose the identifiers to a multimap
         final ListMultimap<SchemaPath, YangInstanceIdentifier> toRemove = decomposeIdentifiers(rpcs);
 
-        // Now iterate over existing entries, modifying them as appropriate...
-        final Builder<SchemaPath, AbstractDOMRpcRoutingTableEntry> b = ImmutableMap.builder();
-        for (Entry<SchemaPath, AbstractDOMRpcRoutingTableEntry> e : this.rpcs.entrySet()) {
-            final List<YangInstanceIdentifier> removed = new ArrayList<>(toRemove.removeAll(e.getKey()));
-            if (!removed.isEmpty()) {
-                final AbstractDOMRpcRoutingTableEntry ne = e.getValue().remove(implementation, removed);
+        // Now modify the entries of the affected RPCs in a snapshot of the table
+        final Map<SchemaPath, AbstractDOMRpcRoutingTableEntry> b = MapAdaptor.getDefaultInstance().takeSnapshot(this.rpcs);
+        for (Entry<SchemaPath, Collection<YangInstanceIdentifier>> e : toRemove.asMap().entrySet()) {
+            final AbstractDOMRpcRoutingTableEntry existing = b.get(e.getKey());
+            if (existing != null) {
+                final AbstractDOMRpcRoutingTableEntry ne = existing.remove(implementation, new ArrayList<>(e.getValue()));
                 if (ne != null) {
                     b.put(e.getKey(), ne);
+                } else {
+                    b.remove(e.getKey());
                 }
-            } else {
-                b.put(e);
             }
         }
 
-        // All done, whatever is in toRemove, was not there in the first place
-        return new DOMRpcRoutingTable(b.build(), schemaContext);
+        // All done, whatever else is in toRemove, was not there in the first place
+        return new DOMRpcRoutingTable(MapAdaptor.getDefaultInstance().optimize(b), schemaContext);
     }
 
     boolean contains(final DOMRpcIdentifier input) {
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.md.sal.dom.broker.impl.jmx;
+
+import java.util.List;
+import org.opendaylight.controller.md.sal.dom.broker.impl.DOMNotificationListenerLaneStats;
+
+public interface DOMNotificationRouterMXBean {
+
+    /**
+     * Returns the statistics of the delivery lanes of the currently registered notification listeners.
+     */
+    List<DOMNotificationListenerLaneStats> getListenerLaneStats();
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.md.sal.dom.broker.impl.jmx;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.common.util.jmx.AbstractMXBean;
+import org.opendaylight.controller.md.sal.dom.broker.impl.DOMNotificationListenerLaneStats;
+import org.opendaylight.controller.md.sal.dom.broker.impl.DOMNotificationRouter;
+
+public class DOMNotificationRouterMXBeanImpl extends AbstractMXBean implements DOMNotificationRouterMXBean {
+
+    private final DOMNotificationRouter router;
+
+    /**
+     * Constructor.
+     *
+     * @param router the DOMNotificationRouter used to obtain the stats.
+     * @param mBeanType mBeanType Used as the <code>type</code> property in the bean's ObjectName.
+     */
+    public DOMNotificationRouterMXBeanImpl(@Nonnull DOMNotificationRouter router, @Nonnull String mBeanType) {
+        super("NotificationListenerLanes", mBeanType, null);
+        this.router = router;
+    }
+
+    @Override
+    public List<DOMNotificationListenerLaneStats> getListenerLaneStats() {
+        return router.getListenerLaneStats();
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.md.sal.dom.broker.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotificationListener;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotificationPublishService;
+import org.opendaylight.controller.md.sal.dom.spi.DOMNotificationBatchListener;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+public class DOMNotificationRouterTest {
+    private static final SchemaPath TYPE = SchemaPath.create(true,
+        QName.create("urn:test", "2016-08-01", "test-notification"));
+
+    private DOMNotificationRouter router;
+
+    private static final class TestNotification implements DOMNotification {
+        private final ContainerNode body = mock(ContainerNode.class);
+
+        @Nonnull
+        @Override
+        public SchemaPath getType() {
+            return TYPE;
+        }
+
+        @Nonnull
+        @Override
+        public ContainerNode getBody() {
+            return body;
+        }
+    }
+
+    /**
+     * Listener which blocks delivery of the first notification until released.
+     */
+    private static class BlockingListener implements DOMNotificationListener {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<DOMNotification> received = new ArrayList<>();
+
+        @Override
+        public void onNotification(@Nonnull final DOMNotification notification) {
+            entered.countDown();
+            Uninterruptibles.awaitUninterruptibly(release, 5, TimeUnit.SECONDS);
+            received.add(notification);
+        }
+    }
+
+    private static final class BlockingBatchListener extends BlockingListener
+            implements DOMNotificationBatchListener {
+        final List<Integer> batchSizes = new ArrayList<>();
+
+        @Override
+        public void onNotifications(@Nonnull final List<DOMNotification> notifications) {
+            batchSizes.add(notifications.size());
+            received.addAll(notifications);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        router = DOMNotificationRouter.create(16, 0, 0, TimeUnit.MILLISECONDS, 3);
+    }
+
+    @After
+    public void tearDown() {
+        router.close();
+    }
+
+    @Test
+    public void testSlowListenerDoesNotDelayOthers() throws Exception {
+        final BlockingListener slow = new BlockingListener();
+        final CountDownLatch fastReceived = new CountDownLatch(2);
+        router.registerNotificationListener(slow, TYPE);
+        router.registerNotificationListener(new DOMNotificationListener() {
+            @Override
+            public void onNotification(@Nonnull final DOMNotification notification) {
+                fastReceived.countDown();
+            }
+        }, TYPE);
+
+        final ListenableFuture<?> first = router.offerNotification(new TestNotification());
+        final ListenableFuture<?> second = router.offerNotification(new TestNotification());
+
+        assertTrue("Fast listener received notifications", fastReceived.await(5, TimeUnit.SECONDS));
+        assertTrue("Slow listener invoked", slow.entered.await(5, TimeUnit.SECONDS));
+        assertFalse("Delivery complete", first.isDone());
+
+        slow.release.countDown();
+        second.get(5, TimeUnit.SECONDS);
+        assertTrue("Delivery complete", first.isDone());
+        assertEquals("Received notifications", 2, slow.received.size());
+    }
+
+    @Test
+    public void testRejectWhenListenerQueueIsFull() throws Exception {
+        final BlockingListener slow = new BlockingListener();
+        router.registerNotificationListener(slow, TYPE);
+
+        router.offerNotification(new TestNotification());
+        assertTrue("Slow listener invoked", slow.entered.await(5, TimeUnit.SECONDS));
+
+        // The notification being delivered and the two queued ones take up the listener's queue, the fourth one is
+        // rejected
+        router.offerNotification(new TestNotification());
+        final ListenableFuture<?> third = router.offerNotification(new TestNotification());
+        assertSame("Rejected", DOMNotificationPublishService.REJECTED,
+            router.offerNotification(new TestNotification()));
+        assertFalse("Delivery complete", third.isDone());
+
+        DOMNotificationListenerLaneStats stats = router.getListenerLaneStats().get(0);
+        assertEquals("Listener class", BlockingListener.class.getName(), stats.getListenerClassName());
+        assertEquals("Rejected count", 1, stats.getRejectedCount());
+
+        slow.release.countDown();
+        third.get(5, TimeUnit.SECONDS);
+        router.offerNotification(new TestNotification()).get(5, TimeUnit.SECONDS);
+
+        stats = router.getListenerLaneStats().get(0);
+        assertEquals("Current queue size", 0, stats.getCurrentQueueSize());
+        assertEquals("Delivered count", 4, stats.getDeliveredCount());
+        assertEquals("Rejected count", 1, stats.getRejectedCount());
+        assertEquals("Received notifications", 4, slow.received.size());
+    }
+
+    @Test
+    public void testPutBlocksWhenListenerQueueIsFull() throws Exception {
+        final BlockingListener slow = new BlockingListener();
+        router.registerNotificationListener(slow, TYPE);
+
+        router.offerNotification(new TestNotification());
+        assertTrue("Slow listener invoked", slow.entered.await(5, TimeUnit.SECONDS));
+        router.offerNotification(new TestNotification());
+        router.offerNotification(new TestNotification());
+
+        final CountDownLatch published = new CountDownLatch(1);
+        final Thread publisher = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    router.putNotification(new TestNotification());
+                    published.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        publisher.start();
+
+        assertFalse("Published while the listener's queue is full", published.await(200, TimeUnit.MILLISECONDS));
+
+        slow.release.countDown();
+        assertTrue("Published", published.await(5, TimeUnit.SECONDS));
+        publisher.join(5000);
+
+        while (router.getListenerLaneStats().get(0).getDeliveredCount() < 4) {
+            Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+        }
+        assertEquals("Received notifications", 4, slow.received.size());
+        assertEquals("Rejected count", 0, router.getListenerLaneStats().get(0).getRejectedCount());
+    }
+
+    @Test
+    public void testBatchDelivery() throws Exception {
+        final BlockingBatchListener listener = new BlockingBatchListener();
+        router.registerNotificationListener(listener, TYPE);
+
+        router.offerNotification(new TestNotification());
+        assertTrue("Listener invoked", listener.entered.await(5, TimeUnit.SECONDS));
+
+        router.offerNotification(new TestNotification());
+        final ListenableFuture<?> last = router.offerNotification(new TestNotification());
+        while (router.getListenerLaneStats().get(0).getCurrentQueueSize() < 2) {
+            Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+        }
+
+        listener.release.countDown();
+        last.get(5, TimeUnit.SECONDS);
+
+        assertEquals("Received notifications", 3, listener.received.size());
+        assertEquals("Batch sizes", 1, listener.batchSizes.size());
+        assertEquals("Batch size", Integer.valueOf(2), listener.batchSizes.get(0));
+    }
+
+    @Test
+    public void testClosedRegistration() throws Exception {
+        final BlockingListener listener = new BlockingListener();
+        listener.release.countDown();
+        router.registerNotificationListener(listener, TYPE).close();
+
+        router.offerNotification(new TestNotification()).get(5, TimeUnit.SECONDS);
+        assertTrue("Received notifications", listener.received.isEmpty());
+        assertTrue("Lane stats", router.getListenerLaneStats().isEmpty());
+    }
+}
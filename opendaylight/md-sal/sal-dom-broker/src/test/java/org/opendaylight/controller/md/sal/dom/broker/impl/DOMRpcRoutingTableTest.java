@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.md.sal.dom.broker.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcIdentifier;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcImplementation;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+public class DOMRpcRoutingTableTest {
+    private static final QName RPC_QNAME = QName.create("urn:test", "2016-08-01", "test-rpc");
+    private static final QName CONTEXT_QNAME = QName.create(RPC_QNAME, "context");
+    private static final SchemaPath RPC_TYPE = SchemaPath.create(true, RPC_QNAME);
+    private static final int CONTEXT_COUNT = 5000;
+
+    private static DOMRpcIdentifier routedRpc(final int i) {
+        return DOMRpcIdentifier.create(RPC_TYPE, YangInstanceIdentifier.of(QName.create(CONTEXT_QNAME,
+                "context-" + i)));
+    }
+
+    @Test
+    public void testAddAndRemoveRoutedContexts() {
+        final DOMRpcImplementation impl1 = mock(DOMRpcImplementation.class);
+        final DOMRpcImplementation impl2 = mock(DOMRpcImplementation.class);
+
+        DOMRpcRoutingTable table = DOMRpcRoutingTable.EMPTY;
+        for (int i = 0; i < CONTEXT_COUNT; i++) {
+            table = table.add(impl1, ImmutableSet.of(routedRpc(i)));
+        }
+
+        final DOMRpcRoutingTable withImpl1 = table;
+        table = table.add(impl2, ImmutableSet.of(routedRpc(0), routedRpc(1)));
+
+        assertEquals("Registered contexts", CONTEXT_COUNT, table.getRpcs().get(RPC_TYPE).size());
+        for (int i = 0; i < CONTEXT_COUNT; i++) {
+            assertTrue("Context " + i, table.contains(routedRpc(i)));
+        }
+
+        // Earlier tables are not affected by later modifications
+        for (int i = 0; i < CONTEXT_COUNT; i += 2) {
+            table = table.remove(impl1, ImmutableSet.of(routedRpc(i)));
+        }
+
+        assertEquals("Registered contexts", CONTEXT_COUNT, withImpl1.getRpcs().get(RPC_TYPE).size());
+        assertTrue("Context 0", table.contains(routedRpc(0)));
+        assertFalse("Context 2", table.contains(routedRpc(2)));
+        assertTrue("Context 3", table.contains(routedRpc(3)));
+        assertEquals("Registered contexts", CONTEXT_COUNT / 2 + 1, table.getRpcs().get(RPC_TYPE).size());
+
+        table = table.remove(impl2, ImmutableSet.of(routedRpc(0), routedRpc(1)));
+        assertFalse("Context 0", table.contains(routedRpc(0)));
+        assertTrue("Context 1", table.contains(routedRpc(1)));
+
+        for (int i = 1; i < CONTEXT_COUNT; i += 2) {
+            table = table.remove(impl1, ImmutableSet.of(routedRpc(i)));
+        }
+
+        assertTrue("RPCs", table.getRpcs().isEmpty());
+    }
+
+    @Test
+    public void testAddAndRemoveEmpty() {
+        final DOMRpcImplementation impl = mock(DOMRpcImplementation.class);
+        final Set<DOMRpcIdentifier> empty = ImmutableSet.of();
+
+        assertSame(DOMRpcRoutingTable.EMPTY, DOMRpcRoutingTable.EMPTY.add(impl, empty));
+        assertSame(DOMRpcRoutingTable.EMPTY, DOMRpcRoutingTable.EMPTY.remove(impl, empty));
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.md.sal.dom.spi;
+
+import com.google.common.annotations.Beta;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotificationListener;
+
+/**
+ * A {@link DOMNotificationListener} which can process multiple notifications in one go. Implementations which
+ * support it may deliver the notifications which queued up for such a listener in a single invocation of
+ * {@link #onNotifications(List)} rather than invoking {@link #onNotification(DOMNotification)} for each of them.
+ */
+@Beta
+public interface DOMNotificationBatchListener extends DOMNotificationListener {
+    /**
+     * Invoked whenever one or more {@link DOMNotification}s matching the subscription criteria are received.
+     *
+     * @param notifications Received notifications, in the order they were published
+     */
+    void onNotifications(@Nonnull List<DOMNotification> notifications);
+}
@@ -198,6 +198,9 @@ public class XSQLAdapter extends Thread implements SchemaContextListener {
         XSQLBluePrintNode main = rs.getMainTable();
         List<NETask> tasks = new LinkedList<XSQLAdapter.NETask>();
 
+        // Records are consumed while the tasks are still producing them, hence the result set can stream them
+        rs.setStreaming(true);
+
         for (Object entry : roots) {
             NETask task = new NETask(rs, entry, main, bluePrint);
             rs.numberOfTasks++;
@@ -465,13 +468,16 @@ public class XSQLAdapter extends Thread implements SchemaContextListener {
         }
 
         public void run() {
-            rs.addRecords(modelRoot, main, true, main.getBluePrintNodeName(),
-                    bluePrint);
-            synchronized (rs) {
-                rs.numberOfTasks--;
-                if (rs.numberOfTasks == 0) {
-                    rs.setFinished(true);
-                    rs.notifyAll();
+            try {
+                rs.addRecords(modelRoot, main, true, main.getBluePrintNodeName(),
+                        bluePrint);
+            } finally {
+                synchronized (rs) {
+                    rs.numberOfTasks--;
+                    if (rs.numberOfTasks == 0) {
+                        rs.setFinished(true);
+                        rs.notifyAll();
+                    }
                 }
             }
         }
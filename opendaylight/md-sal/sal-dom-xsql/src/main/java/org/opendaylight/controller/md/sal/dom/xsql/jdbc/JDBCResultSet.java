@@ -57,6 +57,11 @@ public class JDBCResultSet implements Serializable, ResultSet, ResultSetMetaData
     private static final Class<?>[] PROXY_INTERFACES = new Class[] { ResultSet.class };
     private static int nextID = 0;
 
+    /**
+     * The number of records buffered by a streaming result set if no fetch size has been specified.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
     private String sql = null;
     private List<XSQLBluePrintNode> tablesInQuery = new ArrayList<XSQLBluePrintNode>();
     private Map<String, XSQLBluePrintNode> tablesInQueryMap = new ConcurrentHashMap<String, XSQLBluePrintNode>();
@@ -64,6 +69,9 @@ public class JDBCResultSet implements Serializable, ResultSet, ResultSetMetaData
     private transient LinkedList<Map<String, Object>> records = new LinkedList<>();
     private transient Map<String, Object> currentRecord = null;
     private boolean finished = false;
+    private int fetchSize = 0;
+    private transient boolean streaming = false;
+    private transient boolean closed = false;
     private int id = 0;
     public int numberOfTasks = 0;
     private Map<String, Map<XSQLColumn, List<XSQLCriteria>>> criteria = new ConcurrentHashMap<String, Map<XSQLColumn, List<XSQLCriteria>>>();
@@ -204,15 +212,38 @@ public class JDBCResultSet implements Serializable, ResultSet, ResultSetMetaData
     }
 
     public boolean isFinished() {
-        return finished;
+        synchronized (this) {
+            return finished;
+        }
     }
 
     public void setFinished(boolean b) {
-        this.finished = b;
+        synchronized (this) {
+            this.finished = b;
+            this.notifyAll();
+        }
     }
 
     public int size() {
-        return this.records.size();
+        synchronized (this) {
+            return this.records == null ? 0 : this.records.size();
+        }
+    }
+
+    /**
+     * Marks this result set as being filled by producers running concurrently with its consumer. At most fetch size
+     * records are then buffered, and a producer adding a record to a full buffer waits until the consumer has caught
+     * up, so that large queries do not have to be held in memory as a whole.
+     */
+    public void setStreaming(boolean b) {
+        synchronized (this) {
+            this.streaming = b;
+            this.notifyAll();
+        }
+    }
+
+    private int getBufferSize() {
+        return fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE;
     }
 
     public void addRecord(Map<String, Object> r) {
@@ -220,6 +251,18 @@ public class JDBCResultSet implements Serializable, ResultSet, ResultSetMetaData
             if (records == null) {
                 records = new LinkedList<>();
             }
+            while (streaming && !closed && records.size() >= getBufferSize()) {
+                try {
+                    this.wait();
+                } catch (InterruptedException err) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (closed) {
+                // Nobody is going to read the record
+                return;
+            }
             records.add(r);
             this.notifyAll();
         }
@@ -242,40 +285,32 @@ public class JDBCResultSet implements Serializable, ResultSet, ResultSetMetaData
                 }
             }
         }
-        this.records.add(rec);
+        addRecord(rec);
     }
 
     public boolean next() {
-        this.currentRecord = null;
-        if (records == null) {
-            records = new LinkedList<>();
-        }
-        while (!finished || records.size() > 0) {
-            synchronized (this) {
-                if (records.size() == 0) {
-                    try {
-                        this.wait(1000);
-                    } catch (Exception err) {
-                    }
-                    if (records.size() > 0) {
-                        try {
-                            currentRecord = records.removeFirst();
-                            return true;
-                        } finally {
-                            this.notifyAll();
-                        }
-                    }
-                } else {
-                    try {
-                        currentRecord = records.removeFirst();
-                        return true;
-                    } finally {
-                        this.notifyAll();
-                    }
+        synchronized (this) {
+            this.currentRecord = null;
+            if (records == null) {
+                records = new LinkedList<>();
+            }
+            while (records.isEmpty()) {
+                if (finished || closed) {
+                    return false;
+                }
+                try {
+                    this.wait();
+                } catch (InterruptedException err) {
+                    Thread.currentThread().interrupt();
+                    return false;
                 }
             }
+
+            currentRecord = records.removeFirst();
+            // Wake up producers waiting for space in the buffer
+            this.notifyAll();
+            return true;
         }
-        return false;
     }
 
     public Map<String, Object> getCurrent() {
@@ -634,8 +669,13 @@ public class JDBCResultSet implements Serializable, ResultSet, ResultSetMetaData
 
     @Override
     public void close() throws SQLException {
-        // TODO Auto-generated method stub
-
+        synchronized (this) {
+            this.closed = true;
+            if (records != null) {
+                records.clear();
+            }
+            this.notifyAll();
+        }
     }
 
     @Override
@@ -846,8 +886,9 @@ public class JDBCResultSet implements Serializable, ResultSet, ResultSetMetaData
 
     @Override
     public int getFetchSize() throws SQLException {
-        // TODO Auto-generated method stub
-        return 0;
+        synchronized (this) {
+            return fetchSize;
+        }
     }
 
     @Override
@@ -1131,8 +1172,9 @@ public class JDBCResultSet implements Serializable, ResultSet, ResultSetMetaData
 
     @Override
     public boolean isClosed() throws SQLException {
-        // TODO Auto-generated method stub
-        return false;
+        synchronized (this) {
+            return closed;
+        }
     }
 
     @Override
@@ -1209,8 +1251,13 @@ public class JDBCResultSet implements Serializable, ResultSet, ResultSetMetaData
 
     @Override
     public void setFetchSize(int rows) throws SQLException {
-        // TODO Auto-generated method stub
-
+        if (rows < 0) {
+            throw new SQLException("Invalid fetch size " + rows);
+        }
+        synchronized (this) {
+            this.fetchSize = rows;
+            this.notifyAll();
+        }
     }
 
     @Override
@@ -39,6 +39,7 @@ public class JDBCStatement implements PreparedStatement {
     private transient JDBCConnection connection = null;
     private static Map<Integer, JDBCResultSet> queries = new ConcurrentHashMap<Integer, JDBCResultSet>();
     private String sql = null;
+    private int fetchSize = 0;
 
     public JDBCStatement(JDBCConnection con,String _sql) {
         this.connection = con;
@@ -77,6 +78,7 @@ public class JDBCStatement implements PreparedStatement {
     @Override
     public java.sql.ResultSet executeQuery(String _sql) throws SQLException {
         rs = new JDBCResultSet(_sql);
+        rs.setFetchSize(fetchSize);
         queries.put(rs.getID(), rs);
         synchronized (rs) {
             this.connection.send(new JDBCCommand(rs,
@@ -226,8 +228,7 @@ public class JDBCStatement implements PreparedStatement {
 
     @Override
     public int getFetchSize() throws SQLException {
-        // TODO Auto-generated method stub
-        return 0;
+        return fetchSize;
     }
 
     @Override
@@ -327,8 +328,10 @@ public class JDBCStatement implements PreparedStatement {
 
     @Override
     public void setFetchSize(int rows) throws SQLException {
-        // TODO Auto-generated method stub
-
+        if (rows < 0) {
+            throw new SQLException("Invalid fetch size " + rows);
+        }
+        this.fetchSize = rows;
     }
 
     @Override
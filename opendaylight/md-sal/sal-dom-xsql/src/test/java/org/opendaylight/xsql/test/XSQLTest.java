@@ -11,7 +11,11 @@ package org.opendaylight.xsql.test;
 import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -170,6 +174,40 @@ public class XSQLTest {
         }
     }
 
+    @Test
+    public void testStreamingResultSet() throws Exception {
+        final JDBCResultSet rs = new JDBCResultSet("select * from nodes/node;");
+        rs.setFetchSize(2);
+        rs.setStreaming(true);
+
+        final CountDownLatch added = new CountDownLatch(10);
+        final Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 10; i++) {
+                    Map<String, Object> rec = new HashMap<>();
+                    rec.put("id", i);
+                    rs.addRecord(rec);
+                    added.countDown();
+                }
+                rs.setFinished(true);
+            }
+        });
+        producer.start();
+
+        // The producer blocks once the buffer holds fetch size records
+        Assert.assertFalse(added.await(500, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(2, rs.size());
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(rs.next());
+            Assert.assertEquals(i, rs.getCurrent().get("id"));
+        }
+        Assert.assertFalse(rs.next());
+        producer.join(5000);
+        Assert.assertFalse(producer.isAlive());
+    }
+
     private static void parseFields(String sql,XSQLBluePrint bp,JDBCResultSet rs){
         try{
             JDBCServer.parseFields(rs, bp);
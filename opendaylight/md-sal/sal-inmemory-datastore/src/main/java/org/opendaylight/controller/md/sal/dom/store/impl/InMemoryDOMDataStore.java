@@ -83,6 +83,12 @@ public class InMemoryDOMDataStore extends TransactionReadyPrototype<String> impl
 
     private volatile AutoCloseable closeable;
 
+    /*
+     * Incremented each time the tip of the data tree moves. Cohorts validate and prepare outside of the store lock,
+     * recording the generation they started from, so commit can tell whether their candidate is still current.
+     */
+    private volatile long generation;
+
     public InMemoryDOMDataStore(final String name, final ExecutorService dataChangeListenerExecutor) {
         this(name, LogicalDatastoreType.OPERATIONAL, dataChangeListenerExecutor,
             InMemoryDOMDataStoreConfigProperties.DEFAULT_MAX_DATA_CHANGE_LISTENER_QUEUE_SIZE, false);
@@ -149,6 +155,7 @@ public class InMemoryDOMDataStore extends TransactionReadyPrototype<String> impl
     @Override
     public synchronized void onGlobalContextUpdated(final SchemaContext ctx) {
         dataTree.setSchemaContext(ctx);
+        generation++;
     }
 
     @Override
@@ -236,6 +243,10 @@ public class InMemoryDOMDataStore extends TransactionReadyPrototype<String> impl
         return name + "-" + txCounter.getAndIncrement();
     }
 
+    long currentGeneration() {
+        return generation;
+    }
+
     void validate(final DataTreeModification modification) throws DataValidationFailedException {
         dataTree.validate(modification);
     }
@@ -244,8 +255,25 @@ public class InMemoryDOMDataStore extends TransactionReadyPrototype<String> impl
         return dataTree.prepare(modification);
     }
 
-    synchronized void commit(final DataTreeCandidate candidate) {
+    /**
+     * Commits a candidate which was validated and prepared, without holding the store lock, against the tip at the
+     * specified generation. If the tip has moved since, the modification is validated and prepared again against the
+     * current tip before it is committed.
+     */
+    synchronized void commit(final long preparedGeneration, final DataTreeModification modification,
+            final DataTreeCandidate preparedCandidate) throws DataValidationFailedException {
+        final DataTreeCandidate candidate;
+        if (preparedGeneration == generation) {
+            candidate = preparedCandidate;
+        } else {
+            LOG.debug("{}: data tree moved since generation {}, revalidating {}", name, preparedGeneration,
+                modification);
+            dataTree.validate(modification);
+            candidate = dataTree.prepare(modification);
+        }
+
         dataTree.commit(candidate);
+        generation++;
         changePublisher.publishChange(candidate);
         ResolveDataChangeEventsTask.create(candidate, listenerTree).resolve(dataChangeListenerNotificationManager);
     }
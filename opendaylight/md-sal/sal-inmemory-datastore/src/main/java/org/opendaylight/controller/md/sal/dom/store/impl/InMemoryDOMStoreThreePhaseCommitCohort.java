@@ -32,6 +32,7 @@ class InMemoryDOMStoreThreePhaseCommitCohort implements DOMStoreThreePhaseCommit
     private final DataTreeModification modification;
     private final InMemoryDOMDataStore store;
     private DataTreeCandidate candidate;
+    private long generation;
 
     public InMemoryDOMStoreThreePhaseCommitCohort(final InMemoryDOMDataStore store, final SnapshotBackedWriteTransaction<String> writeTransaction, final DataTreeModification modification) {
         this.transaction = Preconditions.checkNotNull(writeTransaction);
@@ -46,27 +47,40 @@ class InMemoryDOMStoreThreePhaseCommitCohort implements DOMStoreThreePhaseCommit
         }
     }
 
+    private <T> ListenableFuture<T> validationFailed(final DataValidationFailedException cause) {
+        if (cause instanceof ConflictingModificationAppliedException) {
+            LOG.warn("Store Tx: {} Conflicting modification for {}.", getTransaction().getIdentifier(),
+                    cause.getPath());
+            warnDebugContext(getTransaction());
+            return Futures.immediateFailedFuture(new OptimisticLockFailedException("Optimistic lock failed.", cause));
+        }
+
+        LOG.warn("Store Tx: {} Data Precondition failed for {}.", getTransaction().getIdentifier(),
+                cause.getPath(), cause);
+        warnDebugContext(getTransaction());
+
+        // For debugging purposes, allow dumping of the modification. Coupled with the above
+        // precondition log, it should allow us to understand what went on.
+        LOG.trace("Store Tx: {} modifications: {} tree: {}", modification, store);
+
+        return Futures.immediateFailedFuture(new TransactionCommitFailedException("Data did not pass validation.",
+            cause));
+    }
+
     @Override
     public final ListenableFuture<Boolean> canCommit() {
+        /*
+         * Validation runs without holding the store lock, hence concurrently with other cohorts. Remember which
+         * generation of the data tree we have validated against, so commit can detect the tip has moved since.
+         */
+        generation = store.currentGeneration();
+
         try {
             store.validate(modification);
             LOG.debug("Store Transaction: {} can be committed", getTransaction().getIdentifier());
             return CAN_COMMIT_FUTURE;
-        } catch (ConflictingModificationAppliedException e) {
-            LOG.warn("Store Tx: {} Conflicting modification for {}.", getTransaction().getIdentifier(),
-                    e.getPath());
-            warnDebugContext(getTransaction());
-            return Futures.immediateFailedFuture(new OptimisticLockFailedException("Optimistic lock failed.", e));
         } catch (DataValidationFailedException e) {
-            LOG.warn("Store Tx: {} Data Precondition failed for {}.", getTransaction().getIdentifier(),
-                    e.getPath(), e);
-            warnDebugContext(getTransaction());
-
-            // For debugging purposes, allow dumping of the modification. Coupled with the above
-            // precondition log, it should allow us to understand what went on.
-            LOG.trace("Store Tx: {} modifications: {} tree: {}", modification, store);
-
-            return Futures.immediateFailedFuture(new TransactionCommitFailedException("Data did not pass validation.", e));
+            return validationFailed(e);
         } catch (Exception e) {
             LOG.warn("Unexpected failure in validation phase", e);
             return Futures.immediateFailedFuture(e);
@@ -100,9 +114,19 @@ class InMemoryDOMStoreThreePhaseCommitCohort implements DOMStoreThreePhaseCommit
 
         /*
          * The commit has to occur atomically with regard to listener
-         * registrations.
+         * registrations. If another cohort has committed since we have
+         * validated, the store validates and prepares the modification
+         * again before committing it.
          */
-        store.commit(candidate);
+        try {
+            store.commit(generation, modification, candidate);
+        } catch (DataValidationFailedException e) {
+            return validationFailed(e);
+        } catch (Exception e) {
+            LOG.warn("Unexpected failure in commit phase", e);
+            return Futures.immediateFailedFuture(e);
+        }
+
         return SUCCESSFUL_FUTURE;
     }
 }
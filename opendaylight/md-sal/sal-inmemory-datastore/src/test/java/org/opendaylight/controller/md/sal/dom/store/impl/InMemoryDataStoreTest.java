@@ -11,6 +11,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -20,6 +21,7 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.opendaylight.controller.md.sal.common.api.data.OptimisticLockFailedException;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.sal.core.spi.data.DOMStoreReadTransaction;
 import org.opendaylight.controller.sal.core.spi.data.DOMStoreReadWriteTransaction;
@@ -447,6 +449,73 @@ public class InMemoryDataStoreTest {
         assertFalse(txTwo.ready().canCommit().get());
     }
 
+    @Test
+    public void testInterleavedCommitRevalidates() throws InterruptedException, ExecutionException {
+        assertThreePhaseCommit(writeOuterList().ready());
+
+        DOMStoreWriteTransaction txOne = domStore.newWriteOnlyTransaction();
+        txOne.write(outerEntryPath(1), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1));
+        DOMStoreWriteTransaction txTwo = domStore.newWriteOnlyTransaction();
+        txTwo.write(outerEntryPath(2), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 2));
+
+        /**
+         * Both cohorts validate and prepare against the same tip, which txOne then moves
+         */
+        DOMStoreThreePhaseCommitCohort cohortOne = txOne.ready();
+        DOMStoreThreePhaseCommitCohort cohortTwo = txTwo.ready();
+        assertTrue(cohortOne.canCommit().get());
+        assertTrue(cohortTwo.canCommit().get());
+        cohortOne.preCommit().get();
+        cohortTwo.preCommit().get();
+        cohortOne.commit().get();
+        cohortTwo.commit().get();
+
+        DOMStoreReadTransaction readTx = domStore.newReadOnlyTransaction();
+        assertTrue(readTx.read(outerEntryPath(1)).get().isPresent());
+        assertTrue(readTx.read(outerEntryPath(2)).get().isPresent());
+    }
+
+    @Test
+    public void testInterleavedConflictingCommit() throws InterruptedException, ExecutionException {
+        assertThreePhaseCommit(writeOuterList().ready());
+
+        DOMStoreWriteTransaction txOne = domStore.newWriteOnlyTransaction();
+        txOne.write(outerEntryPath(1), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1));
+        DOMStoreWriteTransaction txTwo = domStore.newWriteOnlyTransaction();
+        txTwo.write(outerEntryPath(1), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1));
+
+        DOMStoreThreePhaseCommitCohort cohortOne = txOne.ready();
+        DOMStoreThreePhaseCommitCohort cohortTwo = txTwo.ready();
+        assertTrue(cohortOne.canCommit().get());
+        assertTrue(cohortTwo.canCommit().get());
+        cohortOne.preCommit().get();
+        cohortTwo.preCommit().get();
+        cohortOne.commit().get();
+
+        /**
+         * Asserts that txTwo fails to commit once it is revalidated against the new tip
+         */
+        try {
+            cohortTwo.commit().get();
+            fail("Expected OptimisticLockFailedException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof OptimisticLockFailedException);
+        }
+    }
+
+    private DOMStoreWriteTransaction writeOuterList() {
+        DOMStoreWriteTransaction writeTx = domStore.newWriteOnlyTransaction();
+        writeTx.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+                .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+                .withChild(ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        return writeTx;
+    }
+
+    private static YangInstanceIdentifier outerEntryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
     private static void assertThreePhaseCommit(final DOMStoreThreePhaseCommitCohort cohort)
             throws InterruptedException, ExecutionException {
         assertTrue(cohort.canCommit().get().booleanValue());
@@ -22,6 +22,7 @@ import org.opendaylight.controller.md.sal.dom.api.DOMRpcImplementation;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcImplementationNotAvailableException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.controller.remote.rpc.messages.ExecuteRpc;
+import org.opendaylight.controller.remote.rpc.registry.RouteIndex;
 import org.opendaylight.controller.remote.rpc.registry.RpcRegistry;
 import org.opendaylight.controller.remote.rpc.registry.RpcRegistry.Messages.FindRoutersReply;
 import org.opendaylight.controller.remote.rpc.utils.LatestEntryRoutingLogic;
@@ -36,11 +37,25 @@ public class RemoteRpcImplementation implements DOMRpcImplementation {
     private static final Logger LOG = LoggerFactory.getLogger(RemoteRpcImplementation.class);
 
     private final ActorRef rpcRegistry;
+    private final RouteIndex routeIndex;
     private final RemoteRpcProviderConfig config;
 
     public RemoteRpcImplementation(final ActorRef rpcRegistry, final RemoteRpcProviderConfig config) {
+        this(rpcRegistry, new RouteIndex(), config);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rpcRegistry the RpcRegistry actor, which is asked for routes not yet present in the route index
+     * @param routeIndex the route index maintained by the RpcRegistry actor
+     * @param config the config
+     */
+    public RemoteRpcImplementation(final ActorRef rpcRegistry, final RouteIndex routeIndex,
+            final RemoteRpcProviderConfig config) {
         this.config = config;
         this.rpcRegistry = rpcRegistry;
+        this.routeIndex = routeIndex;
     }
 
     @Override
@@ -53,7 +68,23 @@ public class RemoteRpcImplementation implements DOMRpcImplementation {
                             "Rpc implementation for {} was removed during processing.", rpc));
         }
         final RemoteDOMRpcFuture frontEndFuture = RemoteDOMRpcFuture.create(rpc.getType().getLastComponent());
-        findRouteAsync(rpc).onComplete(new OnComplete<FindRoutersReply>() {
+
+        // FIXME: Refactor routeId and message to use DOMRpcIdentifier directly.
+        final RpcRouter.RouteIdentifier<?, ?, ?> routeId =
+                new RouteIdentifierImpl(null, rpc.getType().getLastComponent(), rpc.getContextReference());
+
+        // Use the route index if it already knows the route, otherwise ask the registry, which waits a while
+        // for the route to be gossiped.
+        final ActorRef router = routeIndex.getLatestRouter(routeId);
+        if (router != null) {
+            final Object executeRpcMessage = ExecuteRpc.from(rpc, input);
+            LOG.debug("Found remote actor {} for rpc {} in route index - sending {}", router, rpc.getType(),
+                    executeRpcMessage);
+            frontEndFuture.completeWith(ask(router, executeRpcMessage, config.getAskDuration()));
+            return frontEndFuture;
+        }
+
+        findRouteAsync(routeId).onComplete(new OnComplete<FindRoutersReply>() {
 
             @Override
             public void onComplete(final Throwable error, final FindRoutersReply routes) throws Throwable {
@@ -77,10 +108,7 @@ public class RemoteRpcImplementation implements DOMRpcImplementation {
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private Future<FindRoutersReply> findRouteAsync(final DOMRpcIdentifier rpc) {
-        // FIXME: Refactor routeId and message to use DOMRpcIdentifier directly.
-        final RpcRouter.RouteIdentifier<?, ?, ?> routeId =
-                new RouteIdentifierImpl(null, rpc.getType().getLastComponent(), rpc.getContextReference());
+    private Future<FindRoutersReply> findRouteAsync(final RpcRouter.RouteIdentifier<?, ?, ?> routeId) {
         final RpcRegistry.Messages.FindRouters findMsg = new RpcRegistry.Messages.FindRouters(routeId);
         return (Future) ask(rpcRegistry, findMsg, config.getAskDuration());
     }
@@ -25,6 +25,7 @@ import org.opendaylight.controller.md.sal.dom.api.DOMRpcProviderService;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.controller.md.sal.dom.broker.spi.rpc.RpcRoutingStrategy;
 import org.opendaylight.controller.remote.rpc.messages.UpdateSchemaContext;
+import org.opendaylight.controller.remote.rpc.registry.RouteIndex;
 import org.opendaylight.controller.remote.rpc.registry.RpcRegistry;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.model.api.Module;
@@ -47,6 +48,7 @@ public class RpcManager extends AbstractUntypedActor {
     private SchemaContext schemaContext;
     private ActorRef rpcBroker;
     private ActorRef rpcRegistry;
+    private final RouteIndex routeIndex = new RouteIndex();
     private final RemoteRpcProviderConfig config;
     private RpcListener rpcListener;
     private RemoteRpcImplementation rpcImplementation;
@@ -80,7 +82,7 @@ public class RpcManager extends AbstractUntypedActor {
         LOG.debug("Create rpc registry and broker actors");
 
         rpcRegistry =
-                getContext().actorOf(RpcRegistry.props(config).
+                getContext().actorOf(RpcRegistry.props(config, routeIndex).
                     withMailbox(config.getMailBoxName()), config.getRpcRegistryName());
 
         rpcBroker =
@@ -95,7 +97,7 @@ public class RpcManager extends AbstractUntypedActor {
         LOG.debug("Registers rpc listeners");
 
         rpcListener = new RpcListener(rpcRegistry);
-        rpcImplementation = new RemoteRpcImplementation(rpcRegistry, config);
+        rpcImplementation = new RemoteRpcImplementation(rpcRegistry, routeIndex, config);
 
         rpcServices.registerRpcListener(rpcListener);
 
@@ -10,32 +10,41 @@ package org.opendaylight.controller.remote.rpc.messages;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
-import org.opendaylight.controller.cluster.datastore.node.utils.serialization.NormalizedNodeSerializer;
+import javax.annotation.Nullable;
+import org.opendaylight.controller.cluster.datastore.node.utils.stream.NormalizedNodeDataInput;
+import org.opendaylight.controller.cluster.datastore.node.utils.stream.NormalizedNodeDataOutput;
+import org.opendaylight.controller.cluster.datastore.node.utils.stream.NormalizedNodeInputOutput;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcIdentifier;
-import org.opendaylight.controller.protobuff.messages.common.NormalizedNodeMessages;
-import org.opendaylight.controller.protobuff.messages.common.NormalizedNodeMessages.Node;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 
 /**
+ * Requests execution of an RPC on a remote node. The input is serialized using the NormalizedNode stream format,
+ * whose header carries the stream version.
+ *
  * @author tony
  *
  */
-public class ExecuteRpc implements Serializable {
+public final class ExecuteRpc implements Serializable {
     private static final long serialVersionUID = 1128904894827335676L;
 
-    private final NormalizedNodeMessages.Node inputNormalizedNode;
+    private final NormalizedNode<?, ?> inputNormalizedNode;
     private final QName rpc;
 
-    private ExecuteRpc(final NormalizedNodeMessages.Node inputNormalizedNode, final QName rpc) {
+    private ExecuteRpc(@Nullable final NormalizedNode<?, ?> inputNormalizedNode, final QName rpc) {
         Preconditions.checkNotNull(rpc, "rpc Qname should not be null");
 
         this.inputNormalizedNode = inputNormalizedNode;
         this.rpc = rpc;
     }
 
-    public NormalizedNodeMessages.Node getInputNormalizedNode() {
+    @Nullable
+    public NormalizedNode<?, ?> getInputNormalizedNode() {
         return inputNormalizedNode;
     }
 
@@ -43,14 +52,8 @@ public class ExecuteRpc implements Serializable {
         return rpc;
     }
 
-    public static ExecuteRpc from(final DOMRpcIdentifier rpc, final NormalizedNode<?, ?> input) {
-        final Node serializedInput;
-        if(input != null) {
-            serializedInput = NormalizedNodeSerializer.serialize(input);
-        } else {
-            serializedInput = null;
-        }
-        return new ExecuteRpc(serializedInput, rpc.getType().getLastComponent());
+    public static ExecuteRpc from(final DOMRpcIdentifier rpc, @Nullable final NormalizedNode<?, ?> input) {
+        return new ExecuteRpc(input, rpc.getType().getLastComponent());
     }
 
     @Override
@@ -60,4 +63,44 @@ public class ExecuteRpc implements Serializable {
                 .add("normalizedNode", inputNormalizedNode)
                 .toString();
     }
+
+    private Object writeReplace() {
+        return new Proxy(this);
+    }
+
+    private static class Proxy implements Externalizable {
+        private static final long serialVersionUID = 1L;
+
+        private ExecuteRpc executeRpc;
+
+        public Proxy() {
+            // Needed for Externalizable
+        }
+
+        Proxy(final ExecuteRpc executeRpc) {
+            this.executeRpc = executeRpc;
+        }
+
+        @Override
+        public void writeExternal(final ObjectOutput out) throws IOException {
+            final NormalizedNodeDataOutput stream = NormalizedNodeInputOutput.newDataOutput(out);
+            stream.writeQName(executeRpc.getRpc());
+            stream.writeBoolean(executeRpc.getInputNormalizedNode() != null);
+            if(executeRpc.getInputNormalizedNode() != null) {
+                stream.writeNormalizedNode(executeRpc.getInputNormalizedNode());
+            }
+        }
+
+        @Override
+        public void readExternal(final ObjectInput in) throws IOException {
+            final NormalizedNodeDataInput stream = NormalizedNodeInputOutput.newDataInput(in);
+            final QName qname = stream.readQName();
+            final NormalizedNode<?, ?> input = stream.readBoolean() ? stream.readNormalizedNode() : null;
+            executeRpc = new ExecuteRpc(input, qname);
+        }
+
+        private Object readResolve() {
+            return executeRpc;
+        }
+    }
 }
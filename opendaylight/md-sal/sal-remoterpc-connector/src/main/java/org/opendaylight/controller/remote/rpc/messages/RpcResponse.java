@@ -7,19 +7,69 @@
  */
 package org.opendaylight.controller.remote.rpc.messages;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
-import org.opendaylight.controller.protobuff.messages.common.NormalizedNodeMessages;
+import javax.annotation.Nullable;
+import org.opendaylight.controller.cluster.datastore.node.utils.stream.NormalizedNodeDataInput;
+import org.opendaylight.controller.cluster.datastore.node.utils.stream.NormalizedNodeDataOutput;
+import org.opendaylight.controller.cluster.datastore.node.utils.stream.NormalizedNodeInputOutput;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 
-public class RpcResponse implements Serializable {
+/**
+ * The result of a remotely executed RPC. The result is serialized using the NormalizedNode stream format, whose
+ * header carries the stream version.
+ */
+public final class RpcResponse implements Serializable {
     private static final long serialVersionUID = -4211279498688989245L;
 
-    private final NormalizedNodeMessages.Node resultNormalizedNode;
+    private final NormalizedNode<?, ?> resultNormalizedNode;
 
-    public RpcResponse(final NormalizedNodeMessages.Node inputNormalizedNode) {
+    public RpcResponse(@Nullable final NormalizedNode<?, ?> inputNormalizedNode) {
         resultNormalizedNode = inputNormalizedNode;
     }
 
-    public NormalizedNodeMessages.Node getResultNormalizedNode() {
+    @Nullable
+    public NormalizedNode<?, ?> getResultNormalizedNode() {
         return resultNormalizedNode;
     }
+
+    private Object writeReplace() {
+        return new Proxy(this);
+    }
+
+    private static class Proxy implements Externalizable {
+        private static final long serialVersionUID = 1L;
+
+        private RpcResponse rpcResponse;
+
+        public Proxy() {
+            // Needed for Externalizable
+        }
+
+        Proxy(final RpcResponse rpcResponse) {
+            this.rpcResponse = rpcResponse;
+        }
+
+        @Override
+        public void writeExternal(final ObjectOutput out) throws IOException {
+            final NormalizedNodeDataOutput stream = NormalizedNodeInputOutput.newDataOutput(out);
+            stream.writeBoolean(rpcResponse.getResultNormalizedNode() != null);
+            if(rpcResponse.getResultNormalizedNode() != null) {
+                stream.writeNormalizedNode(rpcResponse.getResultNormalizedNode());
+            }
+        }
+
+        @Override
+        public void readExternal(final ObjectInput in) throws IOException {
+            final NormalizedNodeDataInput stream = NormalizedNodeInputOutput.newDataInput(in);
+            rpcResponse = new RpcResponse(stream.readBoolean() ? stream.readNormalizedNode() : null);
+        }
+
+        private Object readResolve() {
+            return rpcResponse;
+        }
+    }
 }
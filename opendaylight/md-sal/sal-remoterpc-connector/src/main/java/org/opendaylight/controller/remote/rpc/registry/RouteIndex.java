@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.remote.rpc.registry;
+
+import akka.actor.ActorRef;
+import akka.actor.Address;
+import akka.japi.Option;
+import akka.japi.Pair;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
+import org.opendaylight.controller.sal.connector.api.RpcRouter.RouteIdentifier;
+
+/**
+ * Index of the routers which have registered each RPC route, merged from the {@link RoutingTable}s of the local and
+ * all remote buckets. It is maintained incrementally by the {@link RpcRegistry} actor as buckets change and may be
+ * read concurrently, without locking, from any thread.
+ */
+public final class RouteIndex {
+
+    /**
+     * The immutable set of routers for a route, along with the most recently registered one.
+     */
+    private static final class Routers {
+        final Map<Address, Pair<ActorRef, Long>> routers;
+        final ActorRef latestRouter;
+
+        Routers(final Map<Address, Pair<ActorRef, Long>> routers) {
+            this.routers = ImmutableMap.copyOf(routers);
+
+            Pair<ActorRef, Long> latest = null;
+            for(Pair<ActorRef, Long> router: routers.values()) {
+                if(latest == null || router.second() > latest.second()) {
+                    latest = router;
+                }
+            }
+
+            latestRouter = latest.first();
+        }
+    }
+
+    private final ConcurrentMap<RouteIdentifier<?, ?, ?>, Routers> index = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the routers, with the time at which they registered, for the given route.
+     */
+    public Collection<Pair<ActorRef, Long>> getRouters(final RouteIdentifier<?, ?, ?> routeId) {
+        final Routers routers = index.get(routeId);
+        return routers != null ? routers.routers.values() : Collections.<Pair<ActorRef, Long>>emptyList();
+    }
+
+    /**
+     * Returns the router which most recently registered the given route, or null if there is none.
+     */
+    @Nullable
+    public ActorRef getLatestRouter(final RouteIdentifier<?, ?, ?> routeId) {
+        final Routers routers = index.get(routeId);
+        return routers != null ? routers.latestRouter : null;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Removes all routes, eg when the RpcRegistry actor is restarted and its buckets are rebuilt.
+     */
+    void clear() {
+        index.clear();
+    }
+
+    /**
+     * Updates the index for a change in the RoutingTable of a node's bucket. This must only be called from a single
+     * thread, ie by the RpcRegistry actor.
+     *
+     * @param address the address of the node owning the bucket
+     * @param oldTable the previous RoutingTable of the bucket, if any
+     * @param newTable the new RoutingTable of the bucket, if any
+     */
+    public void updateBucket(final Address address, @Nullable final RoutingTable oldTable,
+            @Nullable final RoutingTable newTable) {
+        if(oldTable != null) {
+            for(RouteIdentifier<?, ?, ?> routeId: oldTable.getRoutes()) {
+                if(newTable == null || newTable.getRouter() == null || !newTable.contains(routeId)) {
+                    removeRouter(routeId, address);
+                }
+            }
+        }
+
+        if(newTable != null && newTable.getRouter() != null) {
+            for(RouteIdentifier<?, ?, ?> routeId: newTable.getRoutes()) {
+                final Option<Pair<ActorRef, Long>> router = newTable.getRouterFor(routeId);
+                if(!router.isEmpty()) {
+                    putRouter(routeId, address, router.get());
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the index for routes added to and removed from a node's RoutingTable, without looking at the rest of
+     * the table. This must only be called from a single thread, ie by the RpcRegistry actor.
+     *
+     * @param address the address of the node owning the bucket
+     * @param table the updated RoutingTable of the bucket
+     * @param added the routes which were added to the table
+     * @param removed the routes which were removed from the table
+     */
+    public void updateRoutes(final Address address, final RoutingTable table,
+            final Collection<? extends RouteIdentifier<?, ?, ?>> added,
+            final Collection<? extends RouteIdentifier<?, ?, ?>> removed) {
+        // The table reflects all the changes, so a route may have been removed and re-added or vice versa
+        for(RouteIdentifier<?, ?, ?> routeId: removed) {
+            updateRoute(address, table, routeId);
+        }
+        for(RouteIdentifier<?, ?, ?> routeId: added) {
+            updateRoute(address, table, routeId);
+        }
+    }
+
+    private void updateRoute(final Address address, final RoutingTable table, final RouteIdentifier<?, ?, ?> routeId) {
+        final Option<Pair<ActorRef, Long>> router = table.getRouterFor(routeId);
+        if(router.isEmpty()) {
+            removeRouter(routeId, address);
+        } else {
+            putRouter(routeId, address, router.get());
+        }
+    }
+
+    private void putRouter(final RouteIdentifier<?, ?, ?> routeId, final Address address,
+            final Pair<ActorRef, Long> router) {
+        final Routers existing = index.get(routeId);
+        if(existing != null && router.equals(existing.routers.get(address))) {
+            return;
+        }
+
+        final Map<Address, Pair<ActorRef, Long>> routers = existing != null ? new HashMap<>(existing.routers) :
+            new HashMap<Address, Pair<ActorRef, Long>>(1);
+        routers.put(address, router);
+        index.put(routeId, new Routers(routers));
+    }
+
+    private void removeRouter(final RouteIdentifier<?, ?, ?> routeId, final Address address) {
+        final Routers existing = index.get(routeId);
+        if(existing == null || !existing.routers.containsKey(address)) {
+            return;
+        }
+
+        if(existing.routers.size() == 1) {
+            index.remove(routeId);
+        } else {
+            final Map<Address, Pair<ActorRef, Long>> routers = new HashMap<>(existing.routers);
+            routers.remove(address);
+            index.put(routeId, new Routers(routers));
+        }
+    }
+}
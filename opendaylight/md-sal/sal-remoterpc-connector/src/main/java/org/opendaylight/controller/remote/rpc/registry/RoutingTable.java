@@ -48,7 +48,11 @@ public class RoutingTable implements Copier<RoutingTable>, Serializable {
     }
 
     public void addRoute(RpcRouter.RouteIdentifier<?,?,?> routeId){
-        table.put(routeId, System.currentTimeMillis());
+        addRoute(routeId, System.currentTimeMillis());
+    }
+
+    void addRoute(RpcRouter.RouteIdentifier<?,?,?> routeId, long updatedTime){
+        table.put(routeId, updatedTime);
     }
 
     public void removeRoute(RpcRouter.RouteIdentifier<?, ?, ?> routeId){
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.remote.rpc.registry;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.controller.remote.rpc.registry.gossip.Delta;
+import org.opendaylight.controller.sal.connector.api.RpcRouter;
+
+/**
+ * The routes added to and removed from a {@link RoutingTable} by a single update.
+ */
+final class RoutingTableDelta implements Delta<RoutingTable> {
+    private static final long serialVersionUID = 1L;
+
+    private final Map<RpcRouter.RouteIdentifier<?, ?, ?>, Long> added = new HashMap<>();
+    private final Set<RpcRouter.RouteIdentifier<?, ?, ?>> removed = new HashSet<>();
+
+    void addRoute(RpcRouter.RouteIdentifier<?, ?, ?> routeId, long updatedTime) {
+        removed.remove(routeId);
+        added.put(routeId, updatedTime);
+    }
+
+    void removeRoute(RpcRouter.RouteIdentifier<?, ?, ?> routeId) {
+        added.remove(routeId);
+        removed.add(routeId);
+    }
+
+    /**
+     * Returns the routes added by this delta.
+     */
+    Set<RpcRouter.RouteIdentifier<?, ?, ?>> getAddedRoutes() {
+        return added.keySet();
+    }
+
+    /**
+     * Returns the routes removed by this delta.
+     */
+    Set<RpcRouter.RouteIdentifier<?, ?, ?>> getRemovedRoutes() {
+        return removed;
+    }
+
+    @Override
+    public void applyTo(RoutingTable table) {
+        for (RpcRouter.RouteIdentifier<?, ?, ?> routeId : removed) {
+            table.removeRoute(routeId);
+        }
+
+        for (Map.Entry<RpcRouter.RouteIdentifier<?, ?, ?>, Long> e : added.entrySet()) {
+            table.addRoute(e.getKey(), e.getValue());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RoutingTableDelta{" +
+                "added=" + added.keySet() +
+                ", removed=" + removed +
+                '}';
+    }
+}
@@ -8,13 +8,14 @@
 package org.opendaylight.controller.remote.rpc.registry;
 
 import akka.actor.ActorRef;
+import akka.actor.Address;
 import akka.actor.Cancellable;
 import akka.actor.Props;
 import akka.japi.Creator;
-import akka.japi.Option;
 import akka.japi.Pair;
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -27,30 +28,42 @@ import org.opendaylight.controller.remote.rpc.registry.RpcRegistry.Messages.Remo
 import org.opendaylight.controller.remote.rpc.registry.RpcRegistry.Messages.SetLocalRouter;
 import org.opendaylight.controller.remote.rpc.registry.gossip.Bucket;
 import org.opendaylight.controller.remote.rpc.registry.gossip.BucketStore;
+import org.opendaylight.controller.remote.rpc.registry.gossip.Delta;
 import org.opendaylight.controller.remote.rpc.registry.mbeans.RemoteRpcRegistryMXBean;
 import org.opendaylight.controller.remote.rpc.registry.mbeans.RemoteRpcRegistryMXBeanImpl;
 import org.opendaylight.controller.sal.connector.api.RpcRouter;
-import org.opendaylight.controller.sal.connector.api.RpcRouter.RouteIdentifier;
 import scala.concurrent.duration.FiniteDuration;
 
 /**
  * Registry to look up cluster nodes that have registered for a given rpc.
  * <p/>
  * It uses {@link org.opendaylight.controller.remote.rpc.registry.gossip.BucketStore} to maintain this
- * cluster wide information.
+ * cluster wide information. The routes of all buckets are merged into a {@link RouteIndex}, which is updated as
+ * buckets change and which can be shared with readers outside of this actor.
  */
 public class RpcRegistry extends BucketStore<RoutingTable> {
     private final Set<Runnable> routesUpdatedCallbacks = new HashSet<>();
     private final FiniteDuration findRouterTimeout;
+    private final RouteIndex routeIndex;
 
     public RpcRegistry(RemoteRpcProviderConfig config) {
+        this(config, new RouteIndex());
+    }
+
+    public RpcRegistry(RemoteRpcProviderConfig config, RouteIndex routeIndex) {
         super(config);
+        this.routeIndex = Preconditions.checkNotNull(routeIndex);
+        routeIndex.clear();
         getLocalBucket().setData(new RoutingTable());
         findRouterTimeout = getConfig().getGossipTickInterval().$times(10);
     }
 
     public static Props props(RemoteRpcProviderConfig config) {
-        return Props.create(new RpcRegistryCreator(config));
+        return props(config, new RouteIndex());
+    }
+
+    public static Props props(RemoteRpcProviderConfig config, RouteIndex routeIndex) {
+        return Props.create(new RpcRegistryCreator(config, routeIndex));
     }
 
     @Override
@@ -78,7 +91,11 @@ public class RpcRegistry extends BucketStore<RoutingTable> {
      * @param message contains {@link akka.actor.ActorRef} for rpc broker
      */
     private void receiveSetLocalRouter(SetLocalRouter message) {
-        getLocalBucket().getData().setRouter(message.getRouter());
+        RoutingTable table = getLocalBucket().getData();
+        RoutingTable oldTable = table.copy();
+        table.setRouter(message.getRouter());
+
+        routeIndex.updateBucket(getSelfAddress(), oldTable, table);
     }
 
     /**
@@ -88,12 +105,17 @@ public class RpcRegistry extends BucketStore<RoutingTable> {
 
         log.debug("AddOrUpdateRoutes: {}", msg.getRouteIdentifiers());
 
-        RoutingTable table = getLocalBucket().getData().copy();
+        RoutingTable table = getLocalDataForUpdate();
+        RoutingTableDelta delta = new RoutingTableDelta();
+        long updatedTime = System.currentTimeMillis();
         for(RpcRouter.RouteIdentifier<?, ?, ?> routeId : msg.getRouteIdentifiers()) {
-            table.addRoute(routeId);
+            table.addRoute(routeId, updatedTime);
+            delta.addRoute(routeId, updatedTime);
         }
 
-        updateLocalBucket(table);
+        updateLocalBucket(table, delta);
+        routeIndex.updateRoutes(getSelfAddress(), table, msg.getRouteIdentifiers(),
+                Collections.<RpcRouter.RouteIdentifier<?, ?, ?>>emptyList());
 
         onBucketsUpdated();
     }
@@ -103,12 +125,16 @@ public class RpcRegistry extends BucketStore<RoutingTable> {
      */
     private void receiveRemoveRoutes(RemoveRoutes msg) {
 
-        RoutingTable table = getLocalBucket().getData().copy();
+        RoutingTable table = getLocalDataForUpdate();
+        RoutingTableDelta delta = new RoutingTableDelta();
         for (RpcRouter.RouteIdentifier<?, ?, ?> routeId : msg.getRouteIdentifiers()) {
             table.removeRoute(routeId);
+            delta.removeRoute(routeId);
         }
 
-        updateLocalBucket(table);
+        updateLocalBucket(table, delta);
+        routeIndex.updateRoutes(getSelfAddress(), table, Collections.<RpcRouter.RouteIdentifier<?, ?, ?>>emptyList(),
+                msg.getRouteIdentifiers());
     }
 
     /**
@@ -154,34 +180,29 @@ public class RpcRegistry extends BucketStore<RoutingTable> {
     }
 
     private boolean findRouters(FindRouters findRouters, ActorRef sender) {
-        List<Pair<ActorRef, Long>> routers = new ArrayList<>();
-
-        RouteIdentifier<?, ?, ?> routeId = findRouters.getRouteIdentifier();
-        findRoutes(getLocalBucket().getData(), routeId, routers);
-
-        for(Bucket<RoutingTable> bucket : getRemoteBuckets().values()) {
-            findRoutes(bucket.getData(), routeId, routers);
-        }
+        Collection<Pair<ActorRef, Long>> routers = routeIndex.getRouters(findRouters.getRouteIdentifier());
 
         log.debug("Found {} routers for {}", routers.size(), findRouters.getRouteIdentifier());
 
         boolean foundRouters = !routers.isEmpty();
         if(foundRouters) {
-            sender.tell(new Messages.FindRoutersReply(routers), getSelf());
+            sender.tell(new Messages.FindRoutersReply(new ArrayList<>(routers)), getSelf());
         }
 
         return foundRouters;
     }
 
-    private void findRoutes(RoutingTable table, RpcRouter.RouteIdentifier<?, ?, ?> routeId,
-            List<Pair<ActorRef, Long>> routers) {
-        if (table == null) {
-            return;
-        }
+    @Override
+    protected void onRemoteBucketUpdated(Address address, Bucket<RoutingTable> oldBucket,
+            Bucket<RoutingTable> newBucket) {
+        routeIndex.updateBucket(address, oldBucket != null ? oldBucket.getData() : null, newBucket.getData());
+    }
 
-        Option<Pair<ActorRef, Long>> routerWithUpdateTime = table.getRouterFor(routeId);
-        if(!routerWithUpdateTime.isEmpty()) {
-            routers.add(routerWithUpdateTime.get());
+    @Override
+    protected void onRemoteBucketChanged(Address address, RoutingTable table, List<Delta<RoutingTable>> deltas) {
+        for(Delta<RoutingTable> delta: deltas) {
+            RoutingTableDelta routesDelta = (RoutingTableDelta) delta;
+            routeIndex.updateRoutes(address, table, routesDelta.getAddedRoutes(), routesDelta.getRemovedRoutes());
         }
     }
 
@@ -302,14 +323,16 @@ public class RpcRegistry extends BucketStore<RoutingTable> {
     private static class RpcRegistryCreator implements Creator<RpcRegistry> {
         private static final long serialVersionUID = 1L;
         private final RemoteRpcProviderConfig config;
+        private final RouteIndex routeIndex;
 
-        private RpcRegistryCreator(RemoteRpcProviderConfig config) {
+        private RpcRegistryCreator(RemoteRpcProviderConfig config, RouteIndex routeIndex) {
             this.config = config;
+            this.routeIndex = routeIndex;
         }
 
         @Override
         public RpcRegistry create() throws Exception {
-            RpcRegistry registry =  new RpcRegistry(config);
+            RpcRegistry registry =  new RpcRegistry(config, routeIndex);
             RemoteRpcRegistryMXBean mxBean = new RemoteRpcRegistryMXBeanImpl(registry);
             return registry;
         }
@@ -23,6 +23,11 @@ public class BucketImpl<T extends Copier<T>> implements Bucket<T>, Serializable
         this.data = data;
     }
 
+    BucketImpl(Long version, T data) {
+        this.version = version;
+        this.data = data;
+    }
+
     public BucketImpl(Bucket<T> other) {
         this.version = other.getVersion();
         this.data = other.getData();
@@ -30,7 +35,8 @@ public class BucketImpl<T extends Copier<T>> implements Bucket<T>, Serializable
 
     public void setData(T data) {
         this.data = data;
-        this.version = System.currentTimeMillis()+1;
+        // The version must always advance as it is also the base version of the next delta
+        this.version = Math.max(System.currentTimeMillis()+1, version+1);
     }
 
     @Override
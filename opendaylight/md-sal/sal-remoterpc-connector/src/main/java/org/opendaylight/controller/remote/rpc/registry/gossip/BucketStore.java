@@ -14,7 +14,13 @@ import akka.actor.Address;
 import akka.actor.Props;
 import akka.cluster.ClusterActorRefProvider;
 import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.opendaylight.controller.cluster.common.actor.AbstractUntypedActorWithMetering;
@@ -37,12 +43,20 @@ import org.slf4j.LoggerFactory;
  * <p>
  * Buckets are sync'ed across nodes using Gossip protocol (http://en.wikipedia.org/wiki/Gossip_protocol)<p>
  * This store uses a {@link org.opendaylight.controller.remote.rpc.registry.gossip.Gossiper}.
- *
+ * <p>
+ * The store keeps a bounded history of the {@link Delta}s made to each bucket, so that a member which has a recent
+ * version of a bucket is sent a {@link DeltaBucket} with only the changes since that version. Members which are too
+ * far behind, or whose version is otherwise unknown, are sent the full bucket.
  */
 public class BucketStore<T extends Copier<T>> extends AbstractUntypedActorWithMetering {
 
     private static final Long NO_VERSION = -1L;
 
+    /**
+     * The maximum number of deltas kept per bucket
+     */
+    private static final int MAX_DELTA_HISTORY = 100;
+
     protected final Logger log = LoggerFactory.getLogger(getClass());
 
     /**
@@ -60,6 +74,23 @@ public class BucketStore<T extends Copier<T>> extends AbstractUntypedActorWithMe
      */
     private final Map<Address, Long> versions = new HashMap<>();
 
+    /**
+     * Recent deltas, oldest first, for every bucket whose changes are known including the local bucket. The deltas
+     * of a bucket form a chain ending at the bucket's current version.
+     */
+    private final Map<Address, Deque<DeltaBucket<T>>> deltaHistories = new HashMap<>();
+
+    /**
+     * Whether the local bucket's data may have been handed out to another actor since it was last set
+     */
+    private boolean localDataShared;
+
+    /**
+     * Remote buckets whose data may have been handed out to another actor since it was received, hence which is copied
+     * before a delta is applied to it. The data of the other remote buckets is updated in place.
+     */
+    private final Set<Address> sharedRemoteData = new HashSet<>();
+
     /**
      * Cluster address for this node
      */
@@ -98,7 +129,8 @@ public class BucketStore<T extends Copier<T>> extends AbstractUntypedActorWithMe
         } else if (message instanceof GetAllBuckets) {
             receiveGetAllBuckets();
         } else if (message instanceof GetBucketsByMembers) {
-            receiveGetBucketsByMembers(((GetBucketsByMembers) message).getMembers());
+            GetBucketsByMembers getBuckets = (GetBucketsByMembers) message;
+            receiveGetBucketsByMembers(getBuckets.getMembers(), getBuckets.getKnownVersions());
         } else if (message instanceof GetBucketVersions) {
             receiveGetBucketVersions();
         } else if (message instanceof UpdateRemoteBuckets) {
@@ -133,9 +165,11 @@ public class BucketStore<T extends Copier<T>> extends AbstractUntypedActorWithMe
 
         //first add the local bucket
         all.put(selfAddress, new BucketImpl<>(localBucket));
+        localDataShared = true;
 
         //then get all remote buckets
         all.putAll(remoteBuckets);
+        sharedRemoteData.addAll(remoteBuckets.keySet());
 
         return all;
     }
@@ -144,10 +178,11 @@ public class BucketStore<T extends Copier<T>> extends AbstractUntypedActorWithMe
      * Returns buckets for requested members that this node knows about
      *
      * @param members requested members
+     * @param knownVersions versions of the buckets the requester already has
      */
-    void receiveGetBucketsByMembers(Set<Address> members){
+    void receiveGetBucketsByMembers(Set<Address> members, Map<Address, Long> knownVersions){
         final ActorRef sender = getSender();
-        Map<Address, Bucket<T>> buckets = getBucketsByMembers(members);
+        Map<Address, Bucket<T>> buckets = getBucketsByMembers(members, knownVersions);
         sender.tell(new GetBucketsByMembersReply<T>(buckets), getSelf());
     }
 
@@ -158,23 +193,75 @@ public class BucketStore<T extends Copier<T>> extends AbstractUntypedActorWithMe
      * @return buckets for requested memebers
      */
     Map<Address, Bucket<T>> getBucketsByMembers(Set<Address> members) {
-        Map<Address, Bucket<T>> buckets = new HashMap<>();
+        return getBucketsByMembers(members, Collections.<Address, Long>emptyMap());
+    }
 
-        //first add the local bucket if asked
-        if (members.contains(selfAddress)) {
-            buckets.put(selfAddress, new BucketImpl<>(localBucket));
-        }
+    /**
+     * Helper to collect buckets for requested members, as deltas against the given versions where possible
+     *
+     * @param members requested members
+     * @param knownVersions versions of the buckets the requester already has
+     * @return buckets or delta buckets for requested members
+     */
+    Map<Address, Bucket<T>> getBucketsByMembers(Set<Address> members, Map<Address, Long> knownVersions) {
+        Map<Address, Bucket<T>> buckets = new HashMap<>();
 
-        //then get buckets for requested remote nodes
         for (Address address : members){
-            if (remoteBuckets.containsKey(address)) {
-                buckets.put(address, remoteBuckets.get(address));
+            Bucket<T> bucket = address.equals(selfAddress) ? localBucket : remoteBuckets.get(address);
+            if (bucket == null) {
+                continue;
+            }
+
+            DeltaBucket<T> delta = getDeltaSince(address, knownVersions.get(address), bucket.getVersion());
+            if (delta != null) {
+                buckets.put(address, delta);
+            } else if (bucket == localBucket) {
+                buckets.put(address, new BucketImpl<>(localBucket));
+                localDataShared = true;
+            } else {
+                buckets.put(address, bucket);
+                sharedRemoteData.add(address);
             }
         }
 
         return buckets;
     }
 
+    /**
+     * Returns a delta bucket with the changes made to a bucket since the given version, or null if they are not all
+     * in the bucket's history.
+     */
+    private DeltaBucket<T> getDeltaSince(Address address, Long knownVersion, Long version) {
+        Deque<DeltaBucket<T>> history = deltaHistories.get(address);
+        if (knownVersion == null || history == null || history.getLast().getVersion().longValue() != version) {
+            return null;
+        }
+
+        List<Delta<T>> deltas = null;
+        for (DeltaBucket<T> entry : history) {
+            if (deltas != null) {
+                deltas.addAll(entry.getDeltas());
+            } else if (entry.getBaseVersion() == knownVersion) {
+                deltas = new ArrayList<>(entry.getDeltas());
+            }
+        }
+
+        return deltas != null ? new DeltaBucket<>(knownVersion, version, deltas) : null;
+    }
+
+    private void recordDelta(Address address, DeltaBucket<T> delta) {
+        Deque<DeltaBucket<T>> history = deltaHistories.get(address);
+        if (history == null) {
+            history = new ArrayDeque<>();
+            deltaHistories.put(address, history);
+        }
+
+        history.addLast(delta);
+        if (history.size() > MAX_DELTA_HISTORY) {
+            history.removeFirst();
+        }
+    }
+
     /**
      * Returns versions for all buckets known
      */
@@ -220,8 +307,37 @@ public class BucketStore<T extends Copier<T>> extends AbstractUntypedActorWithMe
 
             //update only if remote version is newer
             if ( remoteVersion.longValue() > localVersion.longValue() ) {
-                remoteBuckets.put(entry.getKey(), receivedBucket);
-                versions.put(entry.getKey(), remoteVersion);
+                if (receivedBucket instanceof DeltaBucket) {
+                    // A delta can only be applied to its base version - otherwise wait for the next gossip round,
+                    // which will send a delta against our version or the full bucket
+                    DeltaBucket<T> delta = (DeltaBucket<T>) receivedBucket;
+                    Bucket<T> current = remoteBuckets.get(entry.getKey());
+                    if (current == null || delta.getBaseVersion() != localVersion.longValue()) {
+                        log.debug("{}: Ignoring delta from version {} for {} at version {}", selfAddress,
+                                delta.getBaseVersion(), entry.getKey(), localVersion);
+                        continue;
+                    }
+
+                    // Apply the delta in place, unless the data may be in use elsewhere
+                    T data = current.getData();
+                    if (sharedRemoteData.remove(entry.getKey())) {
+                        data = data.copy();
+                    }
+                    delta.applyTo(data);
+
+                    remoteBuckets.put(entry.getKey(), new BucketImpl<>(remoteVersion, data));
+                    versions.put(entry.getKey(), remoteVersion);
+                    recordDelta(entry.getKey(), delta);
+                    onRemoteBucketChanged(entry.getKey(), data, delta.getDeltas());
+                } else {
+                    // The received bucket may be in use by the sender, eg if it is local
+                    sharedRemoteData.add(entry.getKey());
+                    deltaHistories.remove(entry.getKey());
+
+                    Bucket<T> oldBucket = remoteBuckets.put(entry.getKey(), receivedBucket);
+                    versions.put(entry.getKey(), remoteVersion);
+                    onRemoteBucketUpdated(entry.getKey(), oldBucket, receivedBucket);
+                }
             }
         }
 
@@ -232,16 +348,70 @@ public class BucketStore<T extends Copier<T>> extends AbstractUntypedActorWithMe
         onBucketsUpdated();
     }
 
+    /**
+     * Invoked when the bucket of a remote node is replaced by a newer full bucket.
+     *
+     * @param address the address of the remote node
+     * @param oldBucket the previous bucket, or null if there was none
+     * @param newBucket the new bucket
+     */
+    protected void onRemoteBucketUpdated(Address address, Bucket<T> oldBucket, Bucket<T> newBucket) {
+    }
+
+    /**
+     * Invoked when deltas have been applied to the bucket of a remote node.
+     *
+     * @param address the address of the remote node
+     * @param data the updated data of the bucket
+     * @param deltas the deltas which were applied, in order
+     */
+    protected void onRemoteBucketChanged(Address address, T data, List<Delta<T>> deltas) {
+    }
+
     protected void onBucketsUpdated() {
     }
 
+    protected Address getSelfAddress() {
+        return selfAddress;
+    }
+
     public BucketImpl<T> getLocalBucket() {
         return localBucket;
     }
 
+    /**
+     * Replaces the data of the local bucket. As the change is not known, the full bucket will be gossiped.
+     */
     protected void updateLocalBucket(T data) {
         localBucket.setData(data);
+        localDataShared = false;
+        versions.put(selfAddress, localBucket.getVersion());
+        deltaHistories.remove(selfAddress);
+    }
+
+    /**
+     * Updates the data of the local bucket with the given change, which will be gossiped to members which have the
+     * previous version.
+     *
+     * @param data the new data, which may be the instance returned by {@link #getLocalDataForUpdate()}
+     * @param delta the change from the previous data
+     */
+    protected void updateLocalBucket(T data, Delta<T> delta) {
+        final long baseVersion = localBucket.getVersion();
+        localBucket.setData(data);
+        localDataShared = false;
         versions.put(selfAddress, localBucket.getVersion());
+        recordDelta(selfAddress, new DeltaBucket<>(baseVersion, localBucket.getVersion(),
+                Collections.singletonList(delta)));
+    }
+
+    /**
+     * Returns the local bucket's data for modification. The data is copied only if it may have been handed out to
+     * another actor since it was last set, so the local bucket must be updated after the data is modified.
+     */
+    protected T getLocalDataForUpdate() {
+        T data = localBucket.getData();
+        return localDataShared ? data.copy() : data;
     }
 
     public Map<Address, Bucket<T>> getRemoteBuckets() {
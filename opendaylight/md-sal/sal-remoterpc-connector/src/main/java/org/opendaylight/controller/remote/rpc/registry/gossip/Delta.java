@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.remote.rpc.registry.gossip;
+
+import java.io.Serializable;
+
+/**
+ * A change made to the data of a {@link Bucket}. Deltas are gossiped in place of the full data to members which
+ * already have the version of the bucket the change was made to. A delta must not be modified once it has been
+ * passed to the {@link BucketStore}.
+ */
+public interface Delta<T> extends Serializable {
+
+    /**
+     * Applies this change to the given data, in place.
+     */
+    void applyTo(T data);
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.remote.rpc.registry.gossip;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A {@link Bucket} which carries the {@link Delta}s made to a node's data between a base version and the bucket's
+ * version rather than the data itself. It can only be applied by a member which has the base version.
+ */
+public final class DeltaBucket<T extends Copier<T>> implements Bucket<T>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long baseVersion;
+    private final long version;
+    private final List<Delta<T>> deltas;
+
+    public DeltaBucket(long baseVersion, long version, List<Delta<T>> deltas) {
+        Preconditions.checkArgument(version > baseVersion, "version %s must be newer than base version %s",
+                version, baseVersion);
+        this.baseVersion = baseVersion;
+        this.version = version;
+        this.deltas = ImmutableList.copyOf(deltas);
+    }
+
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Always returns null, as a delta bucket does not carry the data, see {@link #applyTo(Copier)}.
+     */
+    @Override
+    public T getData() {
+        return null;
+    }
+
+    public List<Delta<T>> getDeltas() {
+        return deltas;
+    }
+
+    /**
+     * Applies the deltas to the given base version data, in place.
+     */
+    public void applyTo(T data) {
+        for (Delta<T> delta : deltas) {
+            delta.applyTo(data);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DeltaBucket{" +
+                "baseVersion=" + baseVersion +
+                ", version=" + version +
+                ", deltas=" + deltas +
+                '}';
+    }
+}
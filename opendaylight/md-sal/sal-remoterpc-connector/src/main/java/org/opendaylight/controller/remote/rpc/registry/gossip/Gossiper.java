@@ -279,11 +279,12 @@ public class Gossiper extends AbstractUntypedActorWithMetering {
      *
      * @param remote     remote node to send Buckets to
      * @param addresses  node addresses whose buckets needs to be sent
+     * @param remoteVersions bucket versions the remote node has, used to send deltas instead of full buckets
      */
-    void sendGossipTo(final ActorRef remote, final Set<Address> addresses){
+    void sendGossipTo(final ActorRef remote, final Set<Address> addresses, final Map<Address, Long> remoteVersions){
 
-        Future<Object> futureReply =
-                Patterns.ask(getContext().parent(), new GetBucketsByMembers(addresses), config.getAskDuration());
+        Future<Object> futureReply = Patterns.ask(getContext().parent(),
+                new GetBucketsByMembers(addresses, remoteVersions), config.getAskDuration());
         futureReply.map(getMapperToSendGossip(remote), getContext().dispatcher());
     }
 
@@ -405,7 +406,7 @@ public class Gossiper extends AbstractUntypedActorWithMetering {
                     }
 
                     if (!localIsNewer.isEmpty()) {
-                        sendGossipTo(sender, localIsNewer);//send newer buckets to remote
+                        sendGossipTo(sender, localIsNewer, remoteVersions);//send newer buckets to remote
                     }
 
                 }
@@ -34,15 +34,31 @@ public class Messages {
         public static class GetBucketsByMembers implements Serializable{
             private static final long serialVersionUID = 1L;
             private final Set<Address> members;
+            private final Map<Address, Long> knownVersions;
 
             public GetBucketsByMembers(Set<Address> members){
+                this(members, Collections.<Address, Long>emptyMap());
+            }
+
+            /**
+             * @param members requested members
+             * @param knownVersions the versions of the buckets the receiving member already has, against which
+             *                      deltas may be sent instead of full buckets
+             */
+            public GetBucketsByMembers(Set<Address> members, Map<Address, Long> knownVersions){
                 Preconditions.checkArgument(members != null, "members can not be null");
+                Preconditions.checkArgument(knownVersions != null, "knownVersions can not be null");
                 this.members = members;
+                this.knownVersions = knownVersions;
             }
 
             public Set<Address> getMembers() {
                 return new HashSet<>(members);
             }
+
+            public Map<Address, Long> getKnownVersions() {
+                return Collections.unmodifiableMap(knownVersions);
+            }
         }
 
         public static class ContainsBuckets<T extends Copier<T>> implements Serializable{
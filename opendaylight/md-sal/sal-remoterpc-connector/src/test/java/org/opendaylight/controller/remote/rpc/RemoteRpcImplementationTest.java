@@ -15,6 +15,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.when;
 
 import akka.actor.ActorRef;
+import akka.actor.Address;
 import akka.actor.Status;
 import akka.japi.Pair;
 import akka.testkit.JavaTestKit;
@@ -26,11 +27,13 @@ import java.util.concurrent.TimeUnit;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
-import org.opendaylight.controller.cluster.datastore.node.utils.serialization.NormalizedNodeSerializer;
+import org.mockito.Mockito;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcImplementationNotAvailableException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.controller.remote.rpc.registry.RouteIndex;
+import org.opendaylight.controller.remote.rpc.registry.RoutingTable;
 import org.opendaylight.controller.remote.rpc.registry.RpcRegistry;
 import org.opendaylight.controller.remote.rpc.registry.RpcRegistry.Messages.FindRouters;
 import org.opendaylight.controller.sal.connector.api.RpcRouter.RouteIdentifier;
@@ -88,6 +91,35 @@ public class RemoteRpcImplementationTest extends AbstractRpcTest {
         assertEquals(rpcOutput, result.getResult());
     }
 
+    /**
+     * This test method invokes a remote rpc whose route is already in the route index.
+     */
+    @Test
+    public void testInvokeRpcWithRouteIndex() throws Exception {
+        final ContainerNode rpcOutput = makeRPCOutput("bar");
+        final DOMRpcResult rpcResult = new DefaultDOMRpcResult(rpcOutput);
+
+        when(domRpcService2.invokeRpc(eq(TEST_RPC_TYPE), Mockito.<NormalizedNode<?, ?>>any())).thenReturn(
+                Futures.<DOMRpcResult, DOMRpcException>immediateCheckedFuture(rpcResult));
+
+        final RoutingTable table = new RoutingTable();
+        table.setRouter(rpcBroker2);
+        table.addRoute(new RouteIdentifierImpl(null, TEST_RPC, TEST_PATH));
+
+        final RouteIndex routeIndex = new RouteIndex();
+        routeIndex.updateBucket(new Address("akka.tcp", "opendaylight-rpc", "memberB", 2550), null, table);
+
+        final RemoteRpcImplementation remoteRpcImpl = new RemoteRpcImplementation(rpcRegistry1Probe.getRef(),
+                routeIndex, config1);
+        final CheckedFuture<DOMRpcResult, DOMRpcException> frontEndFuture =
+                remoteRpcImpl.invokeRpc(TEST_RPC_ID, makeRPCInput("foo"));
+
+        final DOMRpcResult result = frontEndFuture.checkedGet(5, TimeUnit.SECONDS);
+        assertEquals(rpcOutput, result.getResult());
+
+        rpcRegistry1Probe.expectNoMsg(JavaTestKit.duration("100 milliseconds"));
+    }
+
     /**
      * This test method invokes and executes the remote rpc
      */
@@ -232,7 +264,7 @@ public class RemoteRpcImplementationTest extends AbstractRpcTest {
      */
     @Test(expected = DOMRpcImplementationNotAvailableException.class)
     public void testInvokeRpcWithLoopException() throws Exception {
-        final NormalizedNode<?, ?> invokeRpcInput = RemoteRpcInput.from(NormalizedNodeSerializer.serialize(makeRPCInput("foo")));
+        final NormalizedNode<?, ?> invokeRpcInput = RemoteRpcInput.from(makeRPCInput("foo"));
         final CheckedFuture<DOMRpcResult, DOMRpcException> frontEndFuture = remoteRpcImpl1.invokeRpc(TEST_RPC_ID, invokeRpcInput);
 
         frontEndFuture.checkedGet(5, TimeUnit.SECONDS);
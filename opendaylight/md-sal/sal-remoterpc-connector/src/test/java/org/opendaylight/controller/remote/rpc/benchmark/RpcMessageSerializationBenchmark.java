@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.remote.rpc.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.cluster.datastore.node.utils.serialization.NormalizedNodeSerializer;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcIdentifier;
+import org.opendaylight.controller.protobuff.messages.common.NormalizedNodeMessages;
+import org.opendaylight.controller.remote.rpc.messages.ExecuteRpc;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cost of a serialization round trip of a remote RPC input using the legacy protobuf-based
+ * NormalizedNodeSerializer with that of an {@link ExecuteRpc} message, which uses the NormalizedNode stream format.
+ * The input models a bulk flow programming call, ie a list of flows each with a handful of leaves.
+ *
+ * <p>
+ * The benchmarks are compiled with the tests and can be run with
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main RpcMessageSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = RpcMessageSerializationBenchmark.WARMUP_ITERATIONS)
+@Measurement(iterations = RpcMessageSerializationBenchmark.MEASUREMENT_ITERATIONS)
+public class RpcMessageSerializationBenchmark {
+    static final int WARMUP_ITERATIONS = 10;
+    static final int MEASUREMENT_ITERATIONS = 10;
+
+    private static final QName RPC = QName.create("urn:opendaylight:benchmark", "2016-01-01", "add-flows");
+    private static final QName INPUT = QName.create(RPC, "input");
+    private static final QName FLOW = QName.create(RPC, "flow");
+    private static final QName ID = QName.create(RPC, "id");
+    private static final QName TABLE_ID = QName.create(RPC, "table-id");
+    private static final QName PRIORITY = QName.create(RPC, "priority");
+    private static final QName MATCH = QName.create(RPC, "match");
+    private static final QName INSTRUCTIONS = QName.create(RPC, "instructions");
+
+    private static final DOMRpcIdentifier RPC_ID = DOMRpcIdentifier.create(SchemaPath.create(true, RPC));
+
+    @Param({"10", "1000", "10000"})
+    public int flowCount;
+
+    private ContainerNode input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> flows = ImmutableNodes.mapNodeBuilder(FLOW);
+        for(int i = 0; i < flowCount; i++) {
+            flows.withChild(ImmutableNodes.mapEntryBuilder(FLOW, ID, "flow-" + i)
+                    .withChild(ImmutableNodes.leafNode(TABLE_ID, (short) (i % 256)))
+                    .withChild(ImmutableNodes.leafNode(PRIORITY, i))
+                    .withChild(ImmutableNodes.leafNode(MATCH, "in_port=" + i + ",nw_dst=10.0.0." + i % 256))
+                    .withChild(ImmutableNodes.leafNode(INSTRUCTIONS, "output:" + (i % 48 + 1)))
+                    .build());
+        }
+
+        input = Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(INPUT))
+                .withChild(flows.build()).build();
+    }
+
+    @Benchmark
+    public NormalizedNode<?, ?> protobuf() throws IOException {
+        final byte[] bytes = NormalizedNodeSerializer.serialize(input).toByteArray();
+        return NormalizedNodeSerializer.deSerialize(NormalizedNodeMessages.Node.parseFrom(bytes));
+    }
+
+    @Benchmark
+    public NormalizedNode<?, ?> stream() throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(ExecuteRpc.from(RPC_ID, input));
+        }
+
+        try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            return ((ExecuteRpc) in.readObject()).getInputNormalizedNode();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.remote.rpc.messages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcIdentifier;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+/**
+ * Unit tests for ExecuteRpc.
+ */
+public class ExecuteRpcTest {
+    static final QName TEST_RPC = QName.create("urn:test", "2014-08-28", "test-rpc");
+    static final QName TEST_INPUT = QName.create(TEST_RPC, "input");
+    static final QName TEST_DATA = QName.create(TEST_RPC, "data");
+
+    static ContainerNode makeContainer(final QName name, final String data) {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(name))
+                .withChild(ImmutableNodes.leafNode(TEST_DATA, data)).build();
+    }
+
+    @Test
+    public void testSerialization() {
+        ContainerNode input = makeContainer(TEST_INPUT, "foo");
+        ExecuteRpc expected = ExecuteRpc.from(DOMRpcIdentifier.create(SchemaPath.create(true, TEST_RPC)), input);
+
+        ExecuteRpc actual = (ExecuteRpc) SerializationUtils.clone(expected);
+
+        assertEquals("getRpc", TEST_RPC, actual.getRpc());
+        assertEquals("getInputNormalizedNode", input, actual.getInputNormalizedNode());
+    }
+
+    @Test
+    public void testSerializationWithNullInput() {
+        ExecuteRpc expected = ExecuteRpc.from(DOMRpcIdentifier.create(SchemaPath.create(true, TEST_RPC)), null);
+
+        ExecuteRpc actual = (ExecuteRpc) SerializationUtils.clone(expected);
+
+        assertEquals("getRpc", TEST_RPC, actual.getRpc());
+        assertNull("getInputNormalizedNode", actual.getInputNormalizedNode());
+    }
+}
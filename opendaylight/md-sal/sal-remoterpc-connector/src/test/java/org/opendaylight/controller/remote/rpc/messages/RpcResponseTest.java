@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.remote.rpc.messages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+
+/**
+ * Unit tests for RpcResponse.
+ */
+public class RpcResponseTest {
+
+    @Test
+    public void testSerialization() {
+        ContainerNode output = ExecuteRpcTest.makeContainer(QName.create(ExecuteRpcTest.TEST_RPC, "output"), "bar");
+        RpcResponse expected = new RpcResponse(output);
+
+        RpcResponse actual = (RpcResponse) SerializationUtils.clone(expected);
+
+        assertEquals("getResultNormalizedNode", output, actual.getResultNormalizedNode());
+    }
+
+    @Test
+    public void testSerializationWithNullResult() {
+        RpcResponse actual = (RpcResponse) SerializationUtils.clone(new RpcResponse(null));
+
+        assertNull("getResultNormalizedNode", actual.getResultNormalizedNode());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.remote.rpc.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Address;
+import akka.japi.Pair;
+import akka.testkit.JavaTestKit;
+import com.typesafe.config.ConfigFactory;
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.controller.remote.rpc.RouteIdentifierImpl;
+import org.opendaylight.controller.sal.connector.api.RpcRouter.RouteIdentifier;
+import org.opendaylight.yangtools.yang.common.QName;
+
+/**
+ * Unit tests for RouteIndex.
+ */
+public class RouteIndexTest {
+    private static final QName RPC1 = QName.create("urn:test", "2016-01-01", "rpc1");
+    private static final QName RPC2 = QName.create("urn:test", "2016-01-01", "rpc2");
+    private static final RouteIdentifier<?, ?, ?> ROUTE1 = new RouteIdentifierImpl(null, RPC1, null);
+    private static final RouteIdentifier<?, ?, ?> ROUTE2 = new RouteIdentifierImpl(null, RPC2, null);
+
+    private static final Address ADDRESS1 = new Address("akka.tcp", "system", "host1", 2550);
+    private static final Address ADDRESS2 = new Address("akka.tcp", "system", "host2", 2550);
+
+    private static ActorSystem system;
+    private static ActorRef router1;
+    private static ActorRef router2;
+
+    private final RouteIndex routeIndex = new RouteIndex();
+
+    @BeforeClass
+    public static void setup() {
+        system = ActorSystem.create("opendaylight-rpc", ConfigFactory.load().getConfig("unit-test"));
+        router1 = new JavaTestKit(system).getRef();
+        router2 = new JavaTestKit(system).getRef();
+    }
+
+    @AfterClass
+    public static void teardown() {
+        JavaTestKit.shutdownActorSystem(system);
+    }
+
+    @Test
+    public void testUpdateBucket() throws InterruptedException {
+        RoutingTable table1 = newRoutingTable(router1, ROUTE1, ROUTE2);
+        routeIndex.updateBucket(ADDRESS1, null, table1);
+
+        assertEquals("size", 2, routeIndex.size());
+        assertEquals("getLatestRouter", router1, routeIndex.getLatestRouter(ROUTE1));
+        assertEquals("getLatestRouter", router1, routeIndex.getLatestRouter(ROUTE2));
+
+        // Ensure the second router registers the route later
+        Thread.sleep(5);
+
+        RoutingTable table2 = newRoutingTable(router2, ROUTE1);
+        routeIndex.updateBucket(ADDRESS2, null, table2);
+
+        Collection<Pair<ActorRef, Long>> routers = routeIndex.getRouters(ROUTE1);
+        assertEquals("getRouters size", 2, routers.size());
+        assertTrue("Missing router1", routers.contains(table1.getRouterFor(ROUTE1).get()));
+        assertTrue("Missing router2", routers.contains(table2.getRouterFor(ROUTE1).get()));
+        assertEquals("getLatestRouter", router2, routeIndex.getLatestRouter(ROUTE1));
+        assertEquals("getRouters size", 1, routeIndex.getRouters(ROUTE2).size());
+
+        // Remove ROUTE1 from the first bucket
+        RoutingTable newTable1 = table1.copy();
+        newTable1.removeRoute(ROUTE1);
+        routeIndex.updateBucket(ADDRESS1, table1, newTable1);
+
+        assertEquals("getRouters size", 1, routeIndex.getRouters(ROUTE1).size());
+        assertEquals("getLatestRouter", router2, routeIndex.getLatestRouter(ROUTE1));
+        assertEquals("getLatestRouter", router1, routeIndex.getLatestRouter(ROUTE2));
+
+        // Remove the second bucket's routes
+        routeIndex.updateBucket(ADDRESS2, table2, new RoutingTable());
+
+        assertEquals("size", 1, routeIndex.size());
+        assertTrue("Expected no routers", routeIndex.getRouters(ROUTE1).isEmpty());
+        assertNull("getLatestRouter", routeIndex.getLatestRouter(ROUTE1));
+    }
+
+    @Test
+    public void testUpdateBucketWithoutRouter() {
+        RoutingTable table = newRoutingTable(null, ROUTE1);
+        routeIndex.updateBucket(ADDRESS1, null, table);
+
+        assertEquals("size", 0, routeIndex.size());
+
+        RoutingTable newTable = table.copy();
+        newTable.setRouter(router1);
+        routeIndex.updateBucket(ADDRESS1, table, newTable);
+
+        assertEquals("getLatestRouter", router1, routeIndex.getLatestRouter(ROUTE1));
+    }
+
+    @Test
+    public void testUpdateRoutes() {
+        RoutingTable table = newRoutingTable(router1, ROUTE1);
+        routeIndex.updateBucket(ADDRESS1, null, table);
+
+        // Add ROUTE2 and remove ROUTE1
+        table.addRoute(ROUTE2);
+        routeIndex.updateRoutes(ADDRESS1, table, Collections.singletonList(ROUTE2),
+                Collections.<RouteIdentifier<?, ?, ?>>emptyList());
+        table.removeRoute(ROUTE1);
+        routeIndex.updateRoutes(ADDRESS1, table, Collections.<RouteIdentifier<?, ?, ?>>emptyList(),
+                Collections.singletonList(ROUTE1));
+
+        assertEquals("size", 1, routeIndex.size());
+        assertNull("getLatestRouter", routeIndex.getLatestRouter(ROUTE1));
+        assertEquals("getLatestRouter", router1, routeIndex.getLatestRouter(ROUTE2));
+
+        // A route removed and re-added since is kept
+        routeIndex.updateRoutes(ADDRESS1, table, Collections.<RouteIdentifier<?, ?, ?>>emptyList(),
+                Collections.singletonList(ROUTE2));
+        assertEquals("getLatestRouter", router1, routeIndex.getLatestRouter(ROUTE2));
+    }
+
+    @Test
+    public void testClear() {
+        routeIndex.updateBucket(ADDRESS1, null, newRoutingTable(router1, ROUTE1));
+        routeIndex.clear();
+
+        assertEquals("size", 0, routeIndex.size());
+        assertNull("getLatestRouter", routeIndex.getLatestRouter(ROUTE1));
+    }
+
+    private static RoutingTable newRoutingTable(final ActorRef router, final RouteIdentifier<?, ?, ?>... routes) {
+        RoutingTable table = new RoutingTable();
+        table.setRouter(router);
+        for(RouteIdentifier<?, ?, ?> route: routes) {
+            table.addRoute(route);
+        }
+
+        return table;
+    }
+}
@@ -12,8 +12,12 @@ import akka.actor.Address;
 import akka.actor.Props;
 import akka.testkit.TestActorRef;
 import com.typesafe.config.ConfigFactory;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -36,6 +40,35 @@ public class BucketStoreTest {
         }
     }
 
+    /**
+     * Bucket data with deltas.
+     */
+    private static class Names implements Copier<Names> {
+        final Set<String> names = new HashSet<>();
+
+        @Override
+        public Names copy() {
+            Names copy = new Names();
+            copy.names.addAll(names);
+            return copy;
+        }
+    }
+
+    private static class AddName implements Delta<Names> {
+        private static final long serialVersionUID = 1L;
+
+        final String name;
+
+        AddName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void applyTo(Names data) {
+            data.names.add(name);
+        }
+    }
+
     private static ActorSystem system;
 
     @BeforeClass
@@ -57,7 +90,7 @@ public class BucketStoreTest {
     @Test
     public void testReceiveUpdateRemoteBuckets(){
 
-        BucketStore<T> store = createStore();
+        BucketStore<T> store = createStore("testStore");
 
         Address localAddress = system.provider().getDefaultAddress();
         Bucket<T> localBucket = new BucketImpl<>();
@@ -139,14 +172,133 @@ public class BucketStoreTest {
 
     }
 
+    /**
+     * Given local changes made with deltas
+     * Should send deltas to members with a version in the history and full buckets to others
+     */
+    @Test
+    public void testGetBucketsByMembersWithDeltas(){
+
+        BucketStore<Names> store = createStore("testDeltaStore");
+        Address localAddress = system.provider().getDefaultAddress();
+        Set<Address> members = ImmutableSet.of(localAddress);
+
+        store.updateLocalBucket(new Names());
+        Long initialVersion = store.getLocalBucket().getVersion();
+
+        Names data = store.getLocalDataForUpdate();
+        data.names.add("one");
+        store.updateLocalBucket(data, new AddName("one"));
+        Long version1 = store.getLocalBucket().getVersion();
+
+        data = store.getLocalDataForUpdate();
+        data.names.add("two");
+        store.updateLocalBucket(data, new AddName("two"));
+        Long version2 = store.getLocalBucket().getVersion();
+        Assert.assertTrue("version did not advance", version2 > version1 && version1 > initialVersion);
+
+        //Member with the initial version gets both deltas
+        Bucket<Names> bucket = store.getBucketsByMembers(members,
+                Collections.singletonMap(localAddress, initialVersion)).get(localAddress);
+        Assert.assertTrue("Expected DeltaBucket", bucket instanceof DeltaBucket);
+        DeltaBucket<Names> delta = (DeltaBucket<Names>) bucket;
+        Assert.assertEquals(initialVersion.longValue(), delta.getBaseVersion());
+        Assert.assertEquals(version2, delta.getVersion());
+        Assert.assertEquals(2, delta.getDeltas().size());
+        Names applied = new Names();
+        delta.applyTo(applied);
+        Assert.assertEquals(ImmutableSet.of("one", "two"), applied.names);
+
+        //Member with the previous version gets only the last delta
+        delta = (DeltaBucket<Names>) store.getBucketsByMembers(members,
+                Collections.singletonMap(localAddress, version1)).get(localAddress);
+        Assert.assertEquals(1, delta.getDeltas().size());
+
+        //Member with an unknown version gets the full bucket
+        bucket = store.getBucketsByMembers(members, Collections.singletonMap(localAddress, 1L)).get(localAddress);
+        Assert.assertFalse("Unexpected DeltaBucket", bucket instanceof DeltaBucket);
+        Assert.assertEquals(ImmutableSet.of("one", "two"), bucket.getData().names);
+
+        //Data handed out in a full bucket is copied before it is modified
+        Assert.assertNotSame(bucket.getData(), store.getLocalDataForUpdate());
+
+        //A change without a delta resets the history
+        store.updateLocalBucket(store.getLocalDataForUpdate());
+        bucket = store.getBucketsByMembers(members, Collections.singletonMap(localAddress, version2)).get(localAddress);
+        Assert.assertFalse("Unexpected DeltaBucket", bucket instanceof DeltaBucket);
+    }
+
+    /**
+     * Given remote delta buckets
+     * Should apply only those whose base version matches the local copy and relay them to other members
+     */
+    @Test
+    public void testReceiveUpdateRemoteDeltaBuckets(){
+
+        BucketStore<Names> store = createStore("testRemoteDeltaStore");
+        Address a1 = new Address("tcp", "system1");
+
+        Names names = new Names();
+        names.names.add("one");
+        Map<Address, Bucket<Names>> received = new HashMap<>();
+        received.put(a1, new BucketImpl<>(10L, names));
+        store.receiveUpdateRemoteBuckets(received);
+
+        //Delta against a version we do not have is ignored
+        received.clear();
+        received.put(a1, new DeltaBucket<>(11L, 12L, Collections.<Delta<Names>>singletonList(new AddName("x"))));
+        store.receiveUpdateRemoteBuckets(received);
+        Assert.assertEquals(Long.valueOf(10L), store.getVersions().get(a1));
+
+        //Delta against our version is applied without modifying the previous data
+        received.clear();
+        received.put(a1, new DeltaBucket<>(10L, 11L, Collections.<Delta<Names>>singletonList(new AddName("two"))));
+        store.receiveUpdateRemoteBuckets(received);
+        Bucket<Names> inStore = store.getRemoteBuckets().get(a1);
+        Assert.assertEquals(Long.valueOf(11L), inStore.getVersion());
+        Assert.assertEquals(Long.valueOf(11L), store.getVersions().get(a1));
+        Assert.assertEquals(ImmutableSet.of("one", "two"), inStore.getData().names);
+        Assert.assertEquals(ImmutableSet.of("one"), names.names);
+
+        //Unless the data has been handed out since, further deltas are applied in place
+        received.clear();
+        received.put(a1, new DeltaBucket<>(11L, 12L, Collections.<Delta<Names>>singletonList(new AddName("three"))));
+        store.receiveUpdateRemoteBuckets(received);
+        Assert.assertSame(inStore.getData(), store.getRemoteBuckets().get(a1).getData());
+        Assert.assertEquals(ImmutableSet.of("one", "two", "three"), inStore.getData().names);
+
+        //The deltas are relayed to members with the base version
+        Bucket<Names> relayed = store.getBucketsByMembers(ImmutableSet.of(a1),
+                Collections.singletonMap(a1, 10L)).get(a1);
+        Assert.assertTrue("Expected DeltaBucket", relayed instanceof DeltaBucket);
+        Assert.assertEquals(Long.valueOf(12L), relayed.getVersion());
+
+        //Data handed out in a full bucket is copied before a delta is applied
+        Bucket<Names> full = store.getBucketsByMembers(ImmutableSet.of(a1),
+                Collections.<Address, Long>emptyMap()).get(a1);
+        received.clear();
+        received.put(a1, new DeltaBucket<>(12L, 13L, Collections.<Delta<Names>>singletonList(new AddName("four"))));
+        store.receiveUpdateRemoteBuckets(received);
+        Assert.assertNotSame(full.getData(), store.getRemoteBuckets().get(a1).getData());
+        Assert.assertEquals(ImmutableSet.of("one", "two", "three"), full.getData().names);
+
+        //A full bucket resets the history
+        received.clear();
+        received.put(a1, new BucketImpl<>(20L, new Names()));
+        store.receiveUpdateRemoteBuckets(received);
+        relayed = store.getBucketsByMembers(ImmutableSet.of(a1), Collections.singletonMap(a1, 13L)).get(a1);
+        Assert.assertFalse("Unexpected DeltaBucket", relayed instanceof DeltaBucket);
+        Assert.assertEquals(Long.valueOf(20L), relayed.getVersion());
+    }
+
     /**
      * Create BucketStore actor and returns the underlying instance of BucketStore class.
      *
      * @return instance of BucketStore class
      */
-    private static BucketStore<T> createStore(){
+    private static <D extends Copier<D>> BucketStore<D> createStore(String name){
         final Props props = Props.create(BucketStore.class, new RemoteRpcProviderConfig(system.settings().config()));
-        final TestActorRef<BucketStore<T>> testRef = TestActorRef.create(system, props, "testStore");
+        final TestActorRef<BucketStore<D>> testRef = TestActorRef.create(system, props, name);
         return testRef.underlyingActor();
     }
 